@@ -0,0 +1,96 @@
+package com.example.backend.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.data.domain.Limit;
+
+import com.example.backend.dao.ProductChangeRepository;
+import com.example.backend.dao.ProductRepository;
+import com.example.backend.entity.Product;
+
+/**
+ * Map-backed stand-ins for the Spring Data repositories, so the controller and service can be
+ * benchmarked without a database or an application context. Only the methods ProductService calls
+ * are implemented; anything else throws.
+ */
+final class InMemoryProductRepository {
+
+    private final ConcurrentSkipListMap<Long, Product> products = new ConcurrentSkipListMap<>();
+
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    private final AtomicLong changes = new AtomicLong();
+
+    InMemoryProductRepository(int size) {
+        for (int i = 0; i < size; i++) {
+            long id = nextId.getAndIncrement();
+            products.put(id, ProductFixtures.product(id));
+        }
+    }
+
+    ProductRepository productRepository() {
+        return (ProductRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {ProductRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "findById" -> Optional.ofNullable(products.get((Long) args[0]));
+                    case "existsById" -> products.containsKey((Long) args[0]);
+                    case "findAll" -> new ArrayList<>(products.values());
+                    case "findByIdGreaterThanOrderByIdAsc" -> products.tailMap((Long) args[0], false).values().stream()
+                            .limit(((Limit) args[1]).max())
+                            .toList();
+                    case "save" -> save((Product) args[0]);
+                    case "updateIfVersion" -> update((Long) args[0], (String) args[1], (BigDecimal) args[2], (Long) args[3]);
+                    case "deleteIfVersion" -> delete((Long) args[0], (Long) args[1]);
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "InMemoryProductRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    ProductChangeRepository productChangeRepository() {
+        return (ProductChangeRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {ProductChangeRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "findWatermark" -> products.size() + "-" + changes.get();
+                    case "findMaxId" -> changes.get();
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "InMemoryProductChangeRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private Product save(Product product) {
+        long id = nextId.getAndIncrement();
+        Product saved = new Product(id, product.getName(), product.getPrice(), 0L);
+        products.put(id, saved);
+        changes.incrementAndGet();
+        return saved;
+    }
+
+    private int update(Long id, String name, BigDecimal price, Long version) {
+        Product current = products.get(id);
+        if (current == null || (version != null && !version.equals(current.getVersion()))) {
+            return 0;
+        }
+        products.put(id, new Product(id, name != null ? name : current.getName(), price != null ? price : current.getPrice(),
+                current.getVersion() + 1));
+        changes.incrementAndGet();
+        return 1;
+    }
+
+    private int delete(Long id, Long version) {
+        Product current = products.get(id);
+        if (current == null || (version != null && !version.equals(current.getVersion()))) {
+            return 0;
+        }
+        products.remove(id);
+        changes.incrementAndGet();
+        return 1;
+    }
+}
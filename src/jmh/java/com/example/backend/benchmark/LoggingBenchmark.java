@@ -0,0 +1,95 @@
+package com.example.backend.benchmark;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * What one request-path log line costs the request thread with the synchronous (log4j2.xml) and the
+ * asynchronous (log4j2-async.xml) configuration. Console output goes to target/jmh-logging.out, so it
+ * is real I/O without flooding the benchmark output.
+ *
+ * With the async configuration a full ring buffer drops INFO events rather than blocking, so its
+ * numbers show what a request pays, not how many lines reached the file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggingBenchmark {
+
+    @Param({"log4j2.xml", "log4j2-async.xml"})
+    private String configuration;
+
+    private PrintStream originalOut;
+
+    private PrintStream console;
+
+    private LoggerContext context;
+
+    private Logger logger;
+
+    // Boxed once, so the benchmarks measure logging rather than Long.valueOf
+    private final Long[] ids = new Long[1024];
+
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = 1_000_000L + i;
+        }
+        Files.createDirectories(Path.of("target/logs"));
+        System.setProperty("app.log.dir", "target/logs");
+        originalOut = System.out;
+        console = new PrintStream(new FileOutputStream("target/jmh-logging.out"), false);
+        System.setOut(console);
+
+        context = new LoggerContext("benchmark", null, URI.create(getClass().getResource("/" + configuration).toString()));
+        context.start();
+        logger = context.getLogger("com.example.backend.rest.ProductController");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.stop();
+        System.setOut(originalOut);
+        console.close();
+    }
+
+    private Long nextId() {
+        next = (next + 1) & (ids.length - 1);
+        return ids[next];
+    }
+
+    @Benchmark
+    public void parameterized() {
+        logger.info("Calling endpoint to get product by ID: {}", nextId());
+    }
+
+    @Benchmark
+    public void concatenated() {
+        logger.info("Calling endpoint to get product by ID: " + nextId());
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.backend.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.example.backend.cache.ProductCache;
+import com.example.backend.dto.ProductRequestDTO;
+import com.example.backend.dto.ProductResponseDTO;
+import com.example.backend.entity.Product;
+import com.example.backend.mapper.ProductMapper;
+import com.example.backend.rest.ProductController;
+import com.example.backend.service.ProductService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * The ProductController -> ProductService path without Spring MVC, transactions or a database: the
+ * repositories are in-memory maps, so what is left is our own code (metrics, ETags, mapping, cache,
+ * response encoding). encodeAllProducts is the per-request encoding work the list no longer does.
+ * Events are dropped, which leaves cache eviction out of the write benchmarks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductControllerBenchmark {
+
+    private static final int PRODUCTS = 1000;
+
+    // Writes run in a transaction template; there is nothing for it to begin or commit here
+    private static final PlatformTransactionManager NO_TRANSACTIONS = new PlatformTransactionManager() {
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    };
+
+    @Param({"true", "false"})
+    private boolean cacheEnabled;
+
+    private ProductService productService;
+
+    private ObjectMapper objectMapper;
+
+    private ProductController controller;
+
+    private final ProductRequestDTO createRequest = ProductFixtures.request("New product", new BigDecimal("19.99"));
+
+    private final Product update = new Product("Renamed", new BigDecimal("29.99"));
+
+    @Setup
+    public void setUp() {
+        // Console output would dominate the request path; logging is not what is measured here
+        Configurator.setLevel("com.example.backend", Level.WARN);
+
+        InMemoryProductRepository repository = new InMemoryProductRepository(PRODUCTS);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ProductCache productCache = new ProductCache(cacheEnabled, 10_000, Duration.ofMinutes(10), Duration.ZERO, meterRegistry);
+        productService = new ProductService(repository.productRepository(), null, event -> { },
+                productCache, repository.productChangeRepository(), null, NO_TRANSACTIONS, null, null, null);
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        controller = new ProductController(productService, meterRegistry, objectMapper);
+    }
+
+    private static long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, PRODUCTS + 1);
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> getAllProducts() {
+        return controller.getAllProducts(null, null, "gzip");
+    }
+
+    // What every list request used to cost before bodies were kept encoded: mapping, serialization, gzip
+    @Benchmark
+    public byte[] encodeAllProducts() throws IOException {
+        List<ProductResponseDTO> dtos = productService.getAllProducts().stream().map(ProductMapper::toDTO).toList();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            objectMapper.writeValue(gzip, dtos);
+        }
+        return buffer.toByteArray();
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> getProductById() {
+        return controller.getProductById(randomId(), null, null, "gzip");
+    }
+
+    @Benchmark
+    public ResponseEntity<ProductResponseDTO> createProduct() {
+        return controller.createProduct(createRequest);
+    }
+
+    @Benchmark
+    public ResponseEntity<Product> updateProduct() {
+        return controller.updateProduct((int) randomId(), null, update);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.backend.benchmark;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.example.backend.dto.ProductRequestDTO;
+import com.example.backend.dto.ProductResponseDTO;
+import com.example.backend.entity.Product;
+import com.example.backend.mapper.ProductMapper;
+
+/**
+ * Deterministic test data shared by the benchmarks.
+ */
+final class ProductFixtures {
+
+    private ProductFixtures() {
+    }
+
+    static Product product(long id) {
+        return new Product(id, "Product " + id, BigDecimal.valueOf(id % 10_000, 2), 0L);
+    }
+
+    static ProductRequestDTO request(String name, BigDecimal price) {
+        ProductRequestDTO dto = new ProductRequestDTO();
+        dto.setName(name);
+        dto.setPrice(price);
+        return dto;
+    }
+
+    static List<ProductResponseDTO> responses(int size) {
+        List<ProductResponseDTO> dtos = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            dtos.add(ProductMapper.toDTO(product(id)));
+        }
+        return dtos;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.backend.benchmark;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.backend.dto.ProductRequestDTO;
+import com.example.backend.dto.ProductResponseDTO;
+import com.example.backend.entity.Product;
+import com.example.backend.mapper.ProductMapper;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductMapperBenchmark {
+
+    private final ProductRequestDTO request = ProductFixtures.request("Product 1", new BigDecimal("19.99"));
+
+    private final Product product = ProductFixtures.product(1);
+
+    @Benchmark
+    public Product toEntity() {
+        return ProductMapper.toEntity(request);
+    }
+
+    @Benchmark
+    public ProductResponseDTO toDTO() {
+        return ProductMapper.toDTO(product);
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.backend.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.backend.entity.Product;
+import com.example.backend.store.ColumnarProductStore;
+import com.example.backend.store.ObjectProductStore;
+import com.example.backend.store.ProductReadStore;
+
+/**
+ * Footprint and scan speed of the two read stores. The heap retained by the store is measured after a
+ * full GC at setup and printed per product. Products are loaded the way the snapshot loads them: each one
+ * a separate entity as read from the database, which the columnar store then drops.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class ProductReadStoreBenchmark {
+
+    private static final int PAGE = 100;
+
+    @Param({"objects", "columnar"})
+    public String storage;
+
+    @Param({"1000000"})
+    public int products;
+
+    private ProductReadStore store;
+
+    private long cheapLimit;
+
+    @Setup
+    public void setUp() {
+        long before = usedHeapAfterGc();
+        store = build();
+        long retained = usedHeapAfterGc() - before;
+        System.out.printf("%n%s store: %d bytes per product%n", storage, retained / products);
+        cheapLimit = ProductReadStore.unscaledPrice(new BigDecimal("100.00"));
+    }
+
+    private ProductReadStore build() {
+        List<Product> loaded = new ArrayList<>(products);
+        for (long id = 1; id <= products; id++) {
+            // new BigDecimal(String) like the JDBC driver, so prices are not shared cached instances
+            loaded.add(new Product(id, ProductSearchBenchmark.name(id), new BigDecimal(price(id)), id % 5));
+        }
+        return storage.equals("columnar") ? ColumnarProductStore.of(loaded) : ObjectProductStore.of(loaded);
+    }
+
+    private static String price(long id) {
+        long cents = id * 7919 % 100_000;
+        return cents / 100 + "." + String.format("%02d", cents % 100);
+    }
+
+    private static long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    // An aggregation: average price of the products under 100.00, over the whole catalog
+    @Benchmark
+    public long averageCheapPrice() {
+        long[] sumAndCount = new long[2];
+        store.scanPrices((id, price) -> {
+            if (price < cheapLimit) {
+                sumAndCount[0] += price;
+                sumAndCount[1]++;
+            }
+        });
+        return sumAndCount[0] / Math.max(1, sumAndCount[1]);
+    }
+
+    @Benchmark
+    public Optional<Product> findById() {
+        return store.findById(ThreadLocalRandom.current().nextLong(1, products + 1));
+    }
+
+    @Benchmark
+    public List<Product> page() {
+        return store.findAfter(ThreadLocalRandom.current().nextLong(0, products - PAGE), PAGE);
+    }
+}
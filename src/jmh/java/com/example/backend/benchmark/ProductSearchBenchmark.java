@@ -0,0 +1,107 @@
+package com.example.backend.benchmark;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.backend.entity.Product;
+import com.example.backend.search.ProductNameIndex;
+import com.example.backend.search.ProductPriceIndex;
+
+/**
+ * Name search against the in-memory index, one benchmark per match kind, and price queries against the
+ * price index. Names are built from small word lists plus the ID, so every word and most trigrams are
+ * shared by a large part of the catalog.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class ProductSearchBenchmark {
+
+    private static final String[] COLOURS = {"Red", "Blue", "Green", "Black", "White", "Silver", "Yellow", "Orange"};
+
+    private static final String[] MATERIALS = {"Steel", "Wooden", "Paper", "Leather", "Glass", "Plastic", "Cotton"};
+
+    private static final String[] ITEMS = {"Notebook", "Pencil", "Stand", "Lamp", "Chair", "Bottle", "Backpack",
+            "Keyboard", "Mug", "Folder", "Stapler", "Cable"};
+
+    private static final int LIMIT = 20;
+
+    @Param({"1000000"})
+    public int products;
+
+    private ProductNameIndex index;
+
+    private ProductPriceIndex priceIndex;
+
+    @Setup
+    public void setUp() {
+        index = new ProductNameIndex();
+        priceIndex = new ProductPriceIndex();
+        for (long id = 1; id <= products; id++) {
+            Product product = new Product(id, name(id), BigDecimal.valueOf(id * 7919 % 100_000, 2), 0L);
+            index.put(product);
+            priceIndex.put(product);
+        }
+    }
+
+    static String name(long id) {
+        return COLOURS[(int) (id % COLOURS.length)] + " " + MATERIALS[(int) (id / 7 % MATERIALS.length)] + " "
+                + ITEMS[(int) (id / 49 % ITEMS.length)] + " " + id;
+    }
+
+    @Benchmark
+    public List<Product> exact() {
+        return index.search(name(products / 2), LIMIT);
+    }
+
+    @Benchmark
+    public List<Product> prefix() {
+        return index.search("blue steel", LIMIT);
+    }
+
+    @Benchmark
+    public List<Product> wordPrefix() {
+        return index.search("lamp 42", LIMIT);
+    }
+
+    @Benchmark
+    public List<Product> substring() {
+        return index.search("ather backp", LIMIT);
+    }
+
+    @Benchmark
+    public List<Product> rareSubstring() {
+        return index.search("99999", LIMIT);
+    }
+
+    @Benchmark
+    public List<Product> noMatch() {
+        return index.search("titanium", LIMIT);
+    }
+
+    @Benchmark
+    public List<Product> mostExpensive() {
+        return priceIndex.range(null, null, true).limit(LIMIT).toList();
+    }
+
+    @Benchmark
+    public List<Product> priceRange() {
+        return priceIndex.range(new BigDecimal("250.00"), new BigDecimal("260.00"), false).limit(LIMIT).toList();
+    }
+}
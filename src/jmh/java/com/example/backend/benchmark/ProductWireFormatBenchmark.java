@@ -0,0 +1,89 @@
+package com.example.backend.benchmark;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.example.backend.dto.ProductResponseDTO;
+import com.example.backend.entity.Product;
+import com.example.backend.mapper.ProductMapper;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Encoding and decoding a product list in each wire format of GET /api/products, with the mapper set
+ * up the way ProductResponseCache does it. The payload size of each format is printed at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductWireFormatBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"10000"})
+    public int products;
+
+    private List<ProductResponseDTO> dtos;
+
+    private ObjectWriter writer;
+
+    private ObjectReader reader;
+
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+        ObjectMapper mapper = switch (format) {
+            case "json" -> json;
+            case "cbor" -> json.copyWith(new CBORFactory());
+            case "smile" -> json.copyWith(new SmileFactory());
+            default -> throw new IllegalArgumentException("Unknown format " + format);
+        };
+        TypeReference<List<ProductResponseDTO>> listType = new TypeReference<>() { };
+        writer = mapper.writerFor(listType);
+        reader = mapper.readerFor(listType);
+
+        dtos = new ArrayList<>(products);
+        for (long id = 1; id <= products; id++) {
+            dtos.add(ProductMapper.toDTO(new Product(id, ProductSearchBenchmark.name(id),
+                    BigDecimal.valueOf(id * 7919 % 100_000, 2), id % 5)));
+        }
+        payload = writer.writeValueAsBytes(dtos);
+        System.out.printf("%n%s payload for %d products: %d bytes%n", format, products, payload.length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return writer.writeValueAsBytes(dtos);
+    }
+
+    @Benchmark
+    public List<ProductResponseDTO> decode() throws IOException {
+        return reader.readValue(payload);
+    }
+}
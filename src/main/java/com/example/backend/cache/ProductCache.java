@@ -0,0 +1,143 @@
+package com.example.backend.cache;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.backend.entity.Product;
+import com.example.backend.event.ProductChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Bounded read-through cache of products by ID (Caffeine, W-TinyLFU eviction with a TTL).
+ *
+ * Only reads populate the cache, and writes evict after their transaction commits, so a rolled-back
+ * write never becomes visible. A read racing a write cannot re-insert the old row either: a loaded row
+ * is only cached if no eviction happened while it was being read.
+ *
+ * With read replicas, a read that starts after the eviction can still get the old row from a replica
+ * that has not caught up. Such rows are not cached either: a product changed within the stale-read
+ * window is served as loaded but not kept until the window has passed.
+ *
+ * Loads run outside any cache lock. Evictions run after commit but before the writer's connection is
+ * returned to the pool, so an eviction that waited for a load (which itself waits for a connection)
+ * could exhaust the pool under load.
+ *
+ * Cached products are shared between requests and must be treated as read-only.
+ */
+@Component
+public class ProductCache {
+
+    private static final Logger logger = LogManager.getLogger(ProductCache.class);
+
+    public static final String CACHE_NAME = "products";
+
+    private final Cache<Long, Product> cache;
+
+    // Bumped before every eviction; a load that saw a different value may have read an outdated row
+    private final AtomicLong evictions = new AtomicLong();
+
+    // Products evicted within the stale-read window; null when the window is zero
+    private final Cache<Long, Boolean> recentlyChanged;
+
+    private final long staleReadWindowNanos;
+
+    // When everything was last evicted, in System.nanoTime()
+    private volatile long allChangedAt;
+
+    public ProductCache(
+            @Value("${app.products.cache.enabled:true}") boolean enabled,
+            @Value("${app.products.cache.maximum-size:10000}") long maximumSize,
+            @Value("${app.products.cache.ttl:10m}") Duration ttl,
+            @Value("${app.products.cache.stale-read-window:0s}") Duration staleReadWindow,
+            MeterRegistry meterRegistry) {
+        this.staleReadWindowNanos = staleReadWindow.toNanos();
+        this.allChangedAt = System.nanoTime() - staleReadWindowNanos;
+        this.recentlyChanged = !enabled || staleReadWindow.isZero() ? null : Caffeine.newBuilder()
+                .expireAfterWrite(staleReadWindow)
+                .build();
+        if (!enabled) {
+            logger.info("Product cache is disabled");
+            this.cache = null;
+            return;
+        }
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        // cache.gets{result=hit|miss}, cache.evictions, cache.size, ... tagged cache=products
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    /**
+     * Returns the cached product, loading it with the given function on a miss. Missing products are
+     * not cached, so a product created later is found on the next lookup.
+     *
+     * @param id The ID of the product
+     * @param loader Loads the product from the database on a miss
+     * @return The product, or empty if the loader did not find it
+     */
+    public Optional<Product> get(Long id, Function<Long, Optional<Product>> loader) {
+        if (cache == null) {
+            return loader.apply(id);
+        }
+        Product cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long evictionsBeforeLoad = evictions.get();
+        Optional<Product> loaded = loader.apply(id);
+        loaded.ifPresent(product -> cache.asMap().compute(id, (key, current) ->
+                current != null ? current : evictions.get() == evictionsBeforeLoad && !changedRecently(key) ? product : null));
+        return loaded;
+    }
+
+    private boolean changedRecently(Long id) {
+        return recentlyChanged != null
+                && (recentlyChanged.getIfPresent(id) != null || System.nanoTime() - allChangedAt < staleReadWindowNanos);
+    }
+
+    public void evict(Long id) {
+        if (cache != null) {
+            if (recentlyChanged != null) {
+                recentlyChanged.put(id, Boolean.TRUE);
+            }
+            evictions.incrementAndGet();
+            cache.invalidate(id);
+        }
+    }
+
+    public void evictAll() {
+        if (cache != null) {
+            allChangedAt = System.nanoTime();
+            evictions.incrementAndGet();
+            cache.invalidateAll();
+        }
+    }
+
+    /**
+     * Evicts the changed product once the writing transaction has committed. Nothing happens on
+     * rollback, because the cache never saw the uncommitted value.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        evict(event.productId());
+    }
+}
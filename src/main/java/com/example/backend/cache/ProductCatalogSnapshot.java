@@ -0,0 +1,303 @@
+package com.example.backend.cache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.backend.dao.ProductChangeRepository;
+import com.example.backend.dao.ProductRepository;
+import com.example.backend.entity.Product;
+import com.example.backend.event.ProductChangedEvent;
+import com.example.backend.store.ColumnarProductStore;
+import com.example.backend.store.ObjectProductStore;
+import com.example.backend.store.ProductReadStore;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Optional read model of the whole catalog: an immutable snapshot of all products, replaced as a whole
+ * (copy-on-write) whenever a write commits. Readers take the current snapshot from a volatile field, so
+ * they need no lock and no database access.
+ *
+ * Changes of one transaction are collected and applied in a single copy after it commits, so a bulk
+ * create costs one copy, not one per product. Partial updates do not carry the product, so it is
+ * reloaded by ID.
+ *
+ * A scheduled refresh reconciles the snapshot with the database: it rebuilds the snapshot when the
+ * change log watermark has moved (this also picks up writes made on other nodes) and otherwise only
+ * marks it as verified. If the database cannot be reached, the current snapshot keeps being served
+ * (stale-while-revalidate) and the refresh is retried on the next run; products.snapshot.age shows how
+ * long ago it was last verified.
+ *
+ * The products are kept in a {@link ProductReadStore}: as Product objects (app.products.snapshot.storage
+ * =objects, the default) or in primitive columns (columnar), which take a fraction of the heap but create
+ * Products on every read.
+ */
+@Component
+public class ProductCatalogSnapshot {
+
+    private static final Logger logger = LogManager.getLogger(ProductCatalogSnapshot.class);
+
+    /**
+     * One immutable version of the catalog.
+     *
+     * @param version Changes whenever the contents change; the change log watermark of the last rebuild
+     *                plus the number of local commits applied since
+     * @param store All products
+     */
+    public record Snapshot(String version, ProductReadStore store) {
+    }
+
+    private record DatabaseRead(String watermark, List<Product> products) {
+    }
+
+    private final ProductRepository productRepository;
+
+    private final ProductChangeRepository productChangeRepository;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final boolean enabled;
+
+    private final boolean columnar;
+
+    private final Timer rebuildTimer;
+
+    private final Counter refreshFailures;
+
+    // Serializes refreshes; held while the database is read, so commits must not wait on it
+    private final Object refreshLock = new Object();
+
+    private volatile Snapshot current;
+
+    private volatile long verifiedAtMillis;
+
+    // Guarded by this
+    private String watermark;
+
+    private long generation;
+
+    // Changes committed while a rebuild is reading the database; replayed on top of its result
+    private List<List<ProductChangedEvent>> committedDuringRebuild;
+
+    public ProductCatalogSnapshot(ProductRepository productRepository, ProductChangeRepository productChangeRepository,
+            EntityManager entityManager, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+            @Value("${app.products.snapshot.enabled:false}") boolean enabled,
+            @Value("${app.products.snapshot.storage:objects}") String storage) {
+        this.productRepository = productRepository;
+        this.productChangeRepository = productChangeRepository;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        this.columnar = switch (storage) {
+            case "objects" -> false;
+            case "columnar" -> true;
+            default -> throw new IllegalArgumentException("app.products.snapshot.storage must be objects or columnar, not " + storage);
+        };
+        this.rebuildTimer = Timer.builder("products.snapshot.rebuild")
+                .description("Time to rebuild the catalog snapshot from the database")
+                .register(meterRegistry);
+        this.refreshFailures = Counter.builder("products.snapshot.refresh.failures")
+                .description("Snapshot refreshes that could not reach the database; the old snapshot stayed in use")
+                .register(meterRegistry);
+        Gauge.builder("products.snapshot.size", this, snapshot -> snapshot.current == null ? 0 : snapshot.current.store().size())
+                .description("Products in the catalog snapshot")
+                .register(meterRegistry);
+        Gauge.builder("products.snapshot.age", this, ProductCatalogSnapshot::ageSeconds)
+                .description("Seconds since the catalog snapshot was last verified against the database")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the current snapshot, or null while it is disabled or has not been built yet, in which
+     * case callers read from the database.
+     */
+    public Snapshot current() {
+        return current;
+    }
+
+    private double ageSeconds() {
+        return current == null ? 0 : (System.currentTimeMillis() - verifiedAtMillis) / 1000.0;
+    }
+
+    /**
+     * Builds the snapshot on the first run, then rebuilds it whenever the change log watermark has moved.
+     * Failures leave the current snapshot in place.
+     */
+    @Scheduled(fixedDelayString = "${app.products.snapshot.refresh-interval-ms:30000}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (refreshLock) {
+            try {
+                String latest = productChangeRepository.findWatermark();
+                synchronized (this) {
+                    if (current != null && latest.equals(watermark)) {
+                        verifiedAtMillis = System.currentTimeMillis();
+                        return;
+                    }
+                }
+                rebuild();
+            } catch (RuntimeException e) {
+                refreshFailures.increment();
+                logger.warn("Refreshing the catalog snapshot failed, serving the one from {} s ago: {}",
+                        (long) ageSeconds(), e.getMessage());
+            }
+        }
+    }
+
+    private void rebuild() {
+        long start = System.nanoTime();
+        synchronized (this) {
+            committedDuringRebuild = new ArrayList<>();
+        }
+        try {
+            DatabaseRead read = readOnlyTransaction.execute(status -> {
+                // Read before the products, so the version can only look older than the data, never newer
+                String readWatermark = productChangeRepository.findWatermark();
+                List<Product> products = new ArrayList<>();
+                try (Stream<Product> rows = productRepository.streamAllOrderedById()) {
+                    rows.forEach(product -> {
+                        products.add(product);
+                        entityManager.detach(product);
+                    });
+                }
+                return new DatabaseRead(readWatermark, products);
+            });
+            ProductReadStore store = columnar ? ColumnarProductStore.of(read.products()) : ObjectProductStore.of(read.products());
+            synchronized (this) {
+                for (List<ProductChangedEvent> changes : committedDuringRebuild) {
+                    store = applyTo(store, changes);
+                }
+                watermark = read.watermark();
+                generation = 0;
+                current = new Snapshot(watermark + "." + generation, store);
+                verifiedAtMillis = System.currentTimeMillis();
+            }
+        } finally {
+            synchronized (this) {
+                committedDuringRebuild = null;
+            }
+        }
+        rebuildTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        logger.info("Catalog snapshot rebuilt with {} products", current.store().size());
+    }
+
+    /**
+     * Collects the change in the writing transaction and applies all of its changes after commit.
+     * Nothing happens on rollback. Without a transaction the change is applied straight away.
+     */
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            committed(List.of(event));
+            return;
+        }
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.changes.add(event);
+    }
+
+    private void committed(List<ProductChangedEvent> changes) {
+        List<ProductChangedEvent> resolved = resolve(changes);
+        synchronized (this) {
+            if (committedDuringRebuild != null) {
+                committedDuringRebuild.add(resolved);
+            }
+            if (current == null) {
+                return;
+            }
+            generation++;
+            current = new Snapshot(watermark + "." + generation, applyTo(current.store(), resolved));
+        }
+    }
+
+    // Partial updates only carry the ID, and unconditional writes a product without its new version, which
+    // GET /{id} needs for its ETag; load those products (outside the lock)
+    private List<ProductChangedEvent> resolve(List<ProductChangedEvent> changes) {
+        List<Long> toLoad = changes.stream()
+                .filter(ProductCatalogSnapshot::needsLoading)
+                .map(ProductChangedEvent::productId)
+                .toList();
+        if (toLoad.isEmpty()) {
+            return changes;
+        }
+        Map<Long, Product> loaded = new HashMap<>();
+        productRepository.findAllById(toLoad).forEach(product -> loaded.put(product.getId(), product));
+        return changes.stream()
+                .map(change -> !needsLoading(change) ? change
+                        : loaded.containsKey(change.productId()) ? ProductChangedEvent.updated(loaded.get(change.productId()))
+                        : ProductChangedEvent.deleted(change.productId()))
+                .toList();
+    }
+
+    private static boolean needsLoading(ProductChangedEvent change) {
+        return change.type() != ProductChangedEvent.Type.DELETED
+                && (change.product() == null || change.product().getVersion() == null);
+    }
+
+    // Later changes of the same product win, so the upserts and deletes passed on never overlap
+    private static ProductReadStore applyTo(ProductReadStore store, List<ProductChangedEvent> changes) {
+        Map<Long, Product> upserts = new LinkedHashMap<>();
+        Set<Long> deletes = new LinkedHashSet<>();
+        for (ProductChangedEvent change : changes) {
+            if (change.type() == ProductChangedEvent.Type.DELETED) {
+                upserts.remove(change.productId());
+                deletes.add(change.productId());
+            } else {
+                deletes.remove(change.productId());
+                upserts.put(change.productId(), change.product());
+            }
+        }
+        return store.withChanges(upserts.values(), deletes);
+    }
+
+    private class PendingChanges implements TransactionSynchronization {
+
+        private final List<ProductChangedEvent> changes = new ArrayList<>();
+
+        @Override
+        public void afterCommit() {
+            committed(changes);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ProductCatalogSnapshot.this);
+        }
+    }
+}
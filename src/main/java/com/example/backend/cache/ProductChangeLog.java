@@ -0,0 +1,113 @@
+package com.example.backend.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.backend.dao.ProductChangeRepository;
+import com.example.backend.entity.ProductChange;
+import com.example.backend.event.ProductChangedEvent;
+
+/**
+ * Records every product change in the product_change table inside the transaction that made it, so
+ * the log commits or rolls back together with the product row. Changes of one transaction are
+ * buffered and written as a single JDBC batch just before commit, which keeps bulk creates batched.
+ */
+@Component
+public class ProductChangeLog {
+
+    private static final Logger logger = LogManager.getLogger(ProductChangeLog.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO product_change (product_id, change_type, origin, changed_at) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ProductChangeRepository productChangeRepository;
+
+    private final String nodeId;
+
+    private final Duration retention;
+
+    public ProductChangeLog(JdbcTemplate jdbcTemplate, ProductChangeRepository productChangeRepository,
+            @Value("${app.cluster.node-id:}") String nodeId,
+            @Value("${app.products.change-log.retention:1h}") Duration retention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.productChangeRepository = productChangeRepository;
+        this.nodeId = nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+        this.retention = retention;
+        logger.info("Product change log node ID: {}", this.nodeId);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Runs synchronously inside the publishing transaction. Without a transaction the change is
+     * written straight away.
+     */
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        ProductChange change = new ProductChange(event.productId(), event.type(), nodeId, System.currentTimeMillis());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            insert(List.of(change));
+            return;
+        }
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.changes.add(change);
+    }
+
+    /**
+     * Deletes log rows older than the retention period. Every node runs this; the delete is idempotent.
+     * Retention only needs to cover the longest time a node may fall behind on polling.
+     */
+    @Scheduled(fixedDelayString = "${app.products.change-log.purge-interval-ms:60000}")
+    public void purge() {
+        int deleted = productChangeRepository.deleteOlderThan(System.currentTimeMillis() - retention.toMillis(),
+                productChangeRepository.findMaxId());
+        if (deleted > 0) {
+            logger.debug("Purged {} product change log rows", deleted);
+        }
+    }
+
+    private void insert(List<ProductChange> changes) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, changes, changes.size(), (ps, change) -> {
+            ps.setLong(1, change.getProductId());
+            ps.setString(2, change.getChangeType().name());
+            ps.setString(3, change.getOrigin());
+            ps.setLong(4, change.getChangedAt());
+        });
+    }
+
+    private class PendingChanges implements TransactionSynchronization {
+
+        private final List<ProductChange> changes = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            insert(changes);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ProductChangeLog.this);
+        }
+    }
+}
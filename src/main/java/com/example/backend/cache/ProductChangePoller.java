@@ -0,0 +1,165 @@
+package com.example.backend.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.backend.dao.ProductChangeRepository;
+import com.example.backend.entity.ProductChange;
+import com.example.backend.search.ProductSearchIndex;
+import com.example.backend.stats.ProductCatalogStats;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Tails the product_change table and evicts products changed by other nodes from the local cache, and
+ * refreshes them in the local search index and catalog statistics.
+ *
+ * Each poll is an index range scan past a high-water mark. AUTO_INCREMENT IDs are handed out at insert
+ * time but become visible at commit, so a slow transaction can commit an ID below the mark. Skipped
+ * IDs are therefore remembered as gaps and re-checked on later polls until they show up or the gap
+ * timeout passes (a rolled-back insert never shows up).
+ *
+ * The staleness window is the poll interval plus commit lag; the measured end-to-end lag is exported
+ * as the products.change.propagation timer.
+ */
+@Component
+@ConditionalOnProperty(name = "app.products.change-poll.enabled", havingValue = "true", matchIfMissing = true)
+public class ProductChangePoller {
+
+    private static final Logger logger = LogManager.getLogger(ProductChangePoller.class);
+
+    // Larger jumps are not tracked ID by ID (e.g. after an auto_increment_increment change)
+    private static final int MAX_TRACKED_GAP = 1000;
+
+    private final ProductChangeRepository productChangeRepository;
+
+    private final ProductCache productCache;
+
+    private final ProductSearchIndex productSearchIndex;
+
+    private final ProductCatalogStats productCatalogStats;
+
+    private final String nodeId;
+
+    private final int batchSize;
+
+    private final long gapTimeoutMillis;
+
+    private final Timer propagationTimer;
+
+    private final Counter remoteChanges;
+
+    // Only touched by the scheduler thread
+    private long highWaterMark = -1;
+
+    private final Map<Long, Long> gaps = new HashMap<>();
+
+    public ProductChangePoller(ProductChangeRepository productChangeRepository, ProductCache productCache,
+            ProductSearchIndex productSearchIndex, ProductCatalogStats productCatalogStats,
+            ProductChangeLog productChangeLog, MeterRegistry meterRegistry,
+            @Value("${app.products.change-poll.batch-size:500}") int batchSize,
+            @Value("${app.products.change-poll.gap-timeout:10s}") Duration gapTimeout) {
+        this.productChangeRepository = productChangeRepository;
+        this.productCache = productCache;
+        this.productSearchIndex = productSearchIndex;
+        this.productCatalogStats = productCatalogStats;
+        this.nodeId = productChangeLog.getNodeId();
+        this.batchSize = batchSize;
+        this.gapTimeoutMillis = gapTimeout.toMillis();
+        this.propagationTimer = Timer.builder("products.change.propagation")
+                .description("Time from a product change on another node until it is evicted here")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.remoteChanges = Counter.builder("products.change.remote")
+                .description("Product changes from other nodes applied to the local cache")
+                .register(meterRegistry);
+        Gauge.builder("products.change.poll.gaps", this, poller -> poller.gaps.size())
+                .description("Change log IDs skipped by the poller and still awaited")
+                .register(meterRegistry);
+        Gauge.builder("products.change.poll.high.water.mark", this, poller -> poller.highWaterMark)
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.products.change-poll.interval-ms:1000}")
+    public void poll() {
+        try {
+            if (highWaterMark < 0) {
+                // Changes from before this node started cannot be in its cache
+                highWaterMark = productChangeRepository.findMaxId();
+                return;
+            }
+            List<ProductChange> batch;
+            do {
+                batch = productChangeRepository.findByIdGreaterThanOrderByIdAsc(highWaterMark, Limit.of(batchSize));
+                advance(batch);
+            } while (batch.size() == batchSize);
+            recheckGaps();
+        } catch (RuntimeException e) {
+            // Keep polling; the cache TTL bounds staleness while the database is unreachable
+            logger.warn("Polling the product change log failed: {}", e.getMessage());
+        }
+    }
+
+    private void advance(List<ProductChange> batch) {
+        long now = System.currentTimeMillis();
+        for (ProductChange change : batch) {
+            long missing = change.getId() - highWaterMark - 1;
+            if (missing > 0 && missing <= MAX_TRACKED_GAP) {
+                for (long id = highWaterMark + 1; id < change.getId(); id++) {
+                    gaps.put(id, now);
+                }
+            }
+            apply(change, now);
+            highWaterMark = change.getId();
+        }
+    }
+
+    private void recheckGaps() {
+        if (gaps.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        List<ProductChange> late = new ArrayList<>(productChangeRepository.findByIdIn(gaps.keySet()));
+        late.sort(Comparator.comparing(ProductChange::getId));
+        for (ProductChange change : late) {
+            gaps.remove(change.getId());
+            apply(change, now);
+        }
+        gaps.values().removeIf(firstSeen -> now - firstSeen >= gapTimeoutMillis);
+    }
+
+    private void apply(ProductChange change, long now) {
+        if (nodeId.equals(change.getOrigin())) {
+            return; // already evicted after the local commit
+        }
+        productCache.evict(change.getProductId());
+        productSearchIndex.refresh(change.getProductId());
+        productCatalogStats.refresh(change.getProductId());
+        remoteChanges.increment();
+        propagationTimer.record(Math.max(0, now - change.getChangedAt()), TimeUnit.MILLISECONDS);
+    }
+
+    long getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    int getGapCount() {
+        return gaps.size();
+    }
+}
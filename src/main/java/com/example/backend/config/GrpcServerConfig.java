@@ -0,0 +1,56 @@
+package com.example.backend.config;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+
+import com.example.backend.grpc.BasicAuthServerInterceptor;
+import com.example.backend.grpc.GrpcServerLifecycle;
+import com.example.backend.grpc.ProductGrpcService;
+import com.example.backend.service.ProductService;
+
+import io.grpc.ServerInterceptors;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+
+/**
+ * gRPC endpoint for backend callers on its own port (app.grpc.port), next to the REST API. Every client
+ * connection is one HTTP/2 connection carrying many concurrent calls, so callers keep a channel open
+ * instead of paying a request per product. Switched on with app.grpc.enabled=true.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "app.grpc.enabled", havingValue = "true")
+public class GrpcServerConfig {
+
+    @Bean
+    ProductGrpcService productGrpcService(ProductService productService,
+            @Qualifier("applicationTaskExecutor") Executor streamingExecutor,
+            @Value("${app.grpc.upsert-batch-size:500}") int upsertBatchSize) {
+        return new ProductGrpcService(productService, streamingExecutor, upsertBatchSize);
+    }
+
+    // The authentication manager HTTP Basic uses, so gRPC callers are checked against the same users
+    @Bean
+    BasicAuthServerInterceptor grpcAuthInterceptor(AuthenticationConfiguration authenticationConfiguration) throws Exception {
+        return new BasicAuthServerInterceptor(authenticationConfiguration.getAuthenticationManager());
+    }
+
+    @Bean
+    GrpcServerLifecycle grpcServer(ProductGrpcService productGrpcService, BasicAuthServerInterceptor authInterceptor,
+            @Value("${app.grpc.port:9090}") int port,
+            @Value("${app.grpc.max-concurrent-calls-per-connection:100}") int maxConcurrentCallsPerConnection,
+            @Value("${app.grpc.shutdown-grace-period:30s}") Duration shutdownGracePeriod) {
+        return new GrpcServerLifecycle(NettyServerBuilder.forPort(port)
+                .addService(ServerInterceptors.intercept(productGrpcService, authInterceptor))
+                .maxConcurrentCallsPerConnection(maxConcurrentCallsPerConnection)
+                // Long-lived channels ping to stay open; the default minimum of 5 minutes would make the server close them
+                .permitKeepAliveTime(20, TimeUnit.SECONDS)
+                .build(), shutdownGracePeriod);
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.backend.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.backend.event.ProductChangedEvent;
+import com.example.backend.jdbc.ConnectionLimitingDataSource;
+import com.example.backend.jdbc.ReadYourWrites;
+import com.example.backend.jdbc.ReplicaRoutingDataSource;
+import com.example.backend.security.ClientAuthenticationDetails;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Read replicas, switched on with app.datasource.replica.enabled=true. Read-only transactions of a user
+ * take their connection from a replica, everything else from the primary (spring.datasource.*).
+ *
+ * The connection is only picked when a transaction runs its first statement, by which time Spring has
+ * marked it read-only or not (LazyConnectionDataSourceProxy). With open-in-view, the connection is then
+ * kept for the rest of the request, so one request reads from one replica and a request that writes first
+ * reads its own writes. A user who wrote keeps reading from the primary until the replicas must have
+ * caught up (max lag plus one health check interval). Sessions are per client, not per user: every client
+ * signs in as the same configured user, and one write would otherwise send everybody's reads to the
+ * primary.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    private static final Logger logger = LogManager.getLogger(ReadReplicaConfig.class);
+
+    private final ReadYourWrites readYourWrites;
+
+    public ReadReplicaConfig(@Value("${app.datasource.replica.max-lag:5s}") Duration maxLag,
+            @Value("${app.datasource.replica.health-check-interval:5s}") Duration checkInterval) {
+        this.readYourWrites = new ReadYourWrites(ReadReplicaConfig::currentSession, maxLag.plus(checkInterval));
+    }
+
+    // Every request authenticates, so the user and the client it named (or its address) stand in for the
+    // session. Both travel with the security context, which a group commit publishes its changes under
+    private static String currentSession() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        if (authentication.getDetails() instanceof ClientAuthenticationDetails details) {
+            return authentication.getName() + "|" + details.getClient();
+        }
+        return authentication.getName();
+    }
+
+    // Same as the pool Spring Boot would build, so spring.datasource.hikari.* still applies
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    ReplicaRoutingDataSource replicaDataSource(@Qualifier("primaryDataSource") DataSource primary,
+            DataSourceProperties primaryProperties, MeterRegistry meterRegistry,
+            @Value("${app.datasource.replica.urls}") List<String> urls,
+            @Value("${app.datasource.replica.username:}") String username,
+            @Value("${app.datasource.replica.password:}") String password,
+            @Value("${app.datasource.replica.maximum-pool-size:10}") int maximumPoolSize,
+            @Value("${app.datasource.replica.connection-timeout:2s}") Duration connectionTimeout,
+            @Value("${app.datasource.replica.lag-query:}") String lagQuery,
+            @Value("${app.datasource.replica.max-lag:5s}") Duration maxLag,
+            @Value("${app.datasource.replica.health-check-interval:5s}") Duration checkInterval,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${app.datasource.limiter.acquire-timeout:5s}") Duration acquireTimeout,
+            @Value("${app.products.cache.enabled:true}") boolean productCacheEnabled,
+            @Value("${app.products.cache.stale-read-window:0s}") Duration productCacheStaleReadWindow) {
+        Duration stalenessBound = maxLag.plus(checkInterval);
+        if (productCacheEnabled && productCacheStaleReadWindow.compareTo(stalenessBound) < 0) {
+            throw new IllegalStateException("app.products.cache.stale-read-window must be at least " + stalenessBound
+                    + " (max lag plus health check interval) with read replicas, so the product cache does not keep"
+                    + " rows read from a replica that has not caught up");
+        }
+        List<ReplicaRoutingDataSource.Replica> replicas = new ArrayList<>();
+        for (String url : urls) {
+            String name = "replica-" + (replicas.size() + 1);
+            HikariDataSource pool = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(url.strip())
+                    .username(username.isEmpty() ? primaryProperties.determineUsername() : username)
+                    .password(password.isEmpty() ? primaryProperties.determinePassword() : password)
+                    .build();
+            pool.setPoolName(name);
+            pool.setMaximumPoolSize(maximumPoolSize);
+            pool.setConnectionTimeout(connectionTimeout.toMillis());
+            // A write that reaches a replica by mistake fails instead of diverging from the primary
+            pool.setReadOnly(true);
+            // hikaricp.connections.* tagged pool=replica-N, like the primary's pool=primary
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            // Replica pools are not beans, so the virtual-thread connection limiter is applied here
+            replicas.add(new ReplicaRoutingDataSource.Replica(name, virtualThreads
+                    ? new ConnectionLimitingDataSource(pool, name, maximumPoolSize, acquireTimeout, meterRegistry)
+                    : pool));
+        }
+        ReplicaRoutingDataSource router = new ReplicaRoutingDataSource(primary, replicas, readYourWrites, lagQuery,
+                maxLag, checkInterval, meterRegistry);
+        logger.info("Routing read-only transactions to {} replica(s), at most {} behind", replicas.size(),
+                router.getStalenessBound());
+        return router;
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary, ReplicaRoutingDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        return dataSource;
+    }
+
+    // The session is taken when the change is published, as a group commit publishes under each writer's
+    // context but commits later. Recorded before other after-commit listeners, so their reads already go
+    // to the primary.
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        String session = readYourWrites.currentSession();
+        if (session == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            readYourWrites.recordWrite(session);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public int getOrder() {
+                return Ordered.HIGHEST_PRECEDENCE;
+            }
+
+            @Override
+            public void afterCommit() {
+                readYourWrites.recordWrite(session);
+            }
+        });
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.backend.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import com.example.backend.jdbc.DeadlineAwareDataSource;
+import com.example.backend.limit.RequestDeadline;
+import com.example.backend.limit.RequestDeadlineFilter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Request deadlines: a client may send {@value RequestDeadline#HEADER} (milliseconds), and the JDBC
+ * statements its request runs then time out when it would have given up. On by default; without the
+ * header nothing changes. Switch off with app.requests.deadline.enabled=false.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "app.requests.deadline.enabled", havingValue = "true", matchIfMissing = true)
+public class RequestDeadlineConfig {
+
+    // Before the concurrency limiter, so a request that has already expired does not take a slot
+    @Bean
+    FilterRegistrationBean<RequestDeadlineFilter> requestDeadlineFilter(
+            @Value("${app.requests.deadline.max-timeout:60s}") Duration maxTimeout) {
+        FilterRegistrationBean<RequestDeadlineFilter> registration =
+                new FilterRegistrationBean<>(new RequestDeadlineFilter(maxTimeout));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+
+    // Wraps the DataSource that JPA and JdbcTemplate use: the pool itself, or the replica-routing proxy
+    @Bean
+    static BeanPostProcessor deadlineAwareDataSourcePostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && beanName.equals("dataSource")) {
+                    return new DeadlineAwareDataSource(dataSource, meterRegistry.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -4,7 +4,6 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
-import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -12,6 +11,13 @@ import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import com.example.backend.security.CachingPasswordEncoder;
+import com.example.backend.security.ClientAuthenticationDetails;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+
 @Configuration
 public class SecurityConfig {
 
@@ -31,7 +37,8 @@ public class SecurityConfig {
                 .requestMatchers("/swagger-ui.html", "/swagger-ui/**", "/v3/api-docs/**").permitAll()
                 .anyRequest().permitAll()
             )
-            .httpBasic(Customizer.withDefaults());
+            // Per-client details, as every client signs in as the same user
+            .httpBasic(basic -> basic.authenticationDetailsSource(ClientAuthenticationDetails::new));
         return http.build();
     }
 
@@ -41,7 +48,7 @@ public class SecurityConfig {
         System.out.println("Loaded DEV user: devuser");
         return new InMemoryUserDetailsManager(
             User.withUsername("devuser")
-                .password(passwordEndcoder().encode(devPassword))
+                .password(passwordEncoder.encode(devPassword))
                 .roles("USER")
                 .build()
         );
@@ -53,14 +60,20 @@ public class SecurityConfig {
         System.out.println("Loaded TEST user: testuser");
         return new InMemoryUserDetailsManager(
             User.withUsername("testuser")
-                .password(passwordEndcoder().encode(testPassword))
+                .password(passwordEncoder.encode(testPassword))
                 .roles("USER")
                 .build()
         );
     }
 
+    // HTTP Basic sends the password with every request; BCrypt runs once per credential and TTL
     @Bean
-    public PasswordEncoder passwordEndcoder() {
-        return new org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder();
+    public PasswordEncoder passwordEndcoder(
+            @Value("${app.security.credential-cache.enabled:true}") boolean cacheEnabled,
+            @Value("${app.security.credential-cache.ttl:5m}") Duration ttl,
+            @Value("${app.security.credential-cache.maximum-size:10000}") long maximumSize,
+            MeterRegistry meterRegistry) {
+        PasswordEncoder bcrypt = new org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder();
+        return cacheEnabled ? new CachingPasswordEncoder(bcrypt, ttl, maximumSize, meterRegistry) : bcrypt;
     }
 }
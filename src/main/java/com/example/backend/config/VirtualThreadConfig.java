@@ -0,0 +1,78 @@
+package com.example.backend.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import com.example.backend.jdbc.ConnectionLimitingDataSource;
+import com.example.backend.jdbc.VirtualThreadPinningMonitor;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Virtual-thread execution mode, switched on with spring.threads.virtual.enabled=true. Spring Boot then
+ * runs Tomcat requests, @Async and scheduled work on virtual threads; this configuration adds the
+ * guard rails: a connection limiter sized to the Hikari pool and pinning diagnostics.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    private static final Logger logger = LogManager.getLogger(VirtualThreadConfig.class);
+
+    @Bean
+    static ConnectionLimitingPostProcessor connectionLimitingPostProcessor(ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${app.datasource.limiter.acquire-timeout:5s}") Duration acquireTimeout) {
+        return new ConnectionLimitingPostProcessor(meterRegistry, acquireTimeout);
+    }
+
+    // Ordered (and declared as such, which is all Spring checks), so it sees the pool before wrappers that
+    // hide its type, such as the request deadline one, are applied
+    static class ConnectionLimitingPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final ObjectProvider<MeterRegistry> meterRegistry;
+
+        private final Duration acquireTimeout;
+
+        ConnectionLimitingPostProcessor(ObjectProvider<MeterRegistry> meterRegistry, Duration acquireTimeout) {
+            this.meterRegistry = meterRegistry;
+            this.acquireTimeout = acquireTimeout;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof HikariDataSource hikari) {
+                int maxConnections = hikari.getMaximumPoolSize();
+                // Hikari only names an unnamed pool when it starts
+                String pool = hikari.getPoolName() != null ? hikari.getPoolName() : beanName;
+                logger.info("Limiting '{}' to {} concurrent connections", beanName, maxConnections);
+                return new ConnectionLimitingDataSource(hikari, pool, maxConnections, acquireTimeout,
+                        meterRegistry.getObject());
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.threads.virtual.pinning-monitor.enabled", havingValue = "true", matchIfMissing = true)
+    VirtualThreadPinningMonitor virtualThreadPinningMonitor(MeterRegistry meterRegistry,
+            @Value("${app.threads.virtual.pinning-monitor.threshold:20ms}") Duration threshold) {
+        return new VirtualThreadPinningMonitor(meterRegistry, threshold);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.backend.dao;
+
+import com.example.backend.entity.ProductChange;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface ProductChangeRepository extends JpaRepository<ProductChange, Long> {
+
+    List<ProductChange> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    List<ProductChange> findByIdIn(Collection<Long> ids);
+
+    @Query("SELECT COALESCE(MAX(c.id), 0) FROM ProductChange c")
+    long findMaxId();
+
+    // Both values only move when a change commits, so together they identify the catalog state
+    // without reading any product rows. Read-only, so with read replicas it takes the replica connection
+    // that the products listed under it are then read from
+    @Transactional(readOnly = true)
+    @Query("SELECT CONCAT(CAST(COUNT(c) AS String), '-', CAST(COALESCE(MAX(c.id), 0) AS String)) FROM ProductChange c")
+    String findWatermark();
+
+    // Rows from keepFromId on survive even when old, so MAX(id), and with it the watermark, never goes back
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ProductChange c WHERE c.changedAt < :cutoff AND c.id < :keepFromId")
+    int deleteOlderThan(@Param("cutoff") long cutoff, @Param("keepFromId") long keepFromId);
+}
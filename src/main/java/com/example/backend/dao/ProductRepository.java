@@ -1,9 +1,108 @@
 package com.example.backend.dao;
 
 import com.example.backend.entity.Product;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import jakarta.persistence.QueryHint;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
     // Custom query methods can be defined here if needed
-    // For example, findByName(String name) or findByCategory(String category)
+    // For example, findByCategory(String category)
+
+    /**
+     * Name prefix search, {@code WHERE name LIKE 'prefix%' ORDER BY name, id}, with LIKE wildcards in the
+     * prefix escaped. A range scan on idx_product_name; shorter names sort first, so an exact match leads.
+     * Case-insensitive under MySQL's default collation.
+     */
+    List<Product> findByNameStartingWithOrderByNameAscIdAsc(String prefix, Limit limit);
+
+    /**
+     * Name substring search, {@code WHERE name LIKE '%text%' ORDER BY id}. No index can serve it, so it
+     * scans the table; only used while the in-memory search index is unavailable.
+     */
+    List<Product> findByNameContainingOrderByIdAsc(String text, Limit limit);
+
+    /**
+     * Keyset page: {@code WHERE id > ? ORDER BY id LIMIT ?}. Walks the primary key index, so the cost
+     * of a page does not depend on how deep into the catalog it is.
+     */
+    List<Product> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    /**
+     * Streams the whole catalog in ID order. Must be consumed inside a transaction and closed afterwards.
+     * The fetch size keeps the driver from buffering the full result set (MySQL also needs
+     * {@code useCursorFetch=true} on the JDBC URL to honour it).
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT p FROM Product p ORDER BY p.id")
+    Stream<Product> streamAllOrderedById();
+
+    /**
+     * Count and price aggregates of the whole catalog in one query, for when the in-memory statistics
+     * are unavailable. Scans every row.
+     */
+    @Query("SELECT COUNT(p) AS productCount, SUM(p.price) AS priceSum, MIN(p.price) AS minPrice, MAX(p.price) AS maxPrice FROM Product p")
+    PriceSummary summarizePrices();
+
+    interface PriceSummary {
+
+        long getProductCount();
+
+        BigDecimal getPriceSum();
+
+        BigDecimal getMinPrice();
+
+        BigDecimal getMaxPrice();
+    }
+
+    /**
+     * Streams the products within a price range (either bound may be null) in the given order, which
+     * should be price then ID. Served by idx_product_price; only used while the in-memory price index is
+     * unavailable. Must be consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT p FROM Product p WHERE (:minPrice IS NULL OR p.price >= :minPrice) AND (:maxPrice IS NULL OR p.price <= :maxPrice)")
+    Stream<Product> streamByPriceRange(@Param("minPrice") BigDecimal minPrice, @Param("maxPrice") BigDecimal maxPrice,
+            Sort sort, Limit limit);
+
+    /**
+     * The current version of a product, without loading it.
+     */
+    @Query("SELECT p.version FROM Product p WHERE p.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Updates a product in one statement, without loading it, and bumps its version. A null name or
+     * price keeps the current value; a null version skips the optimistic-concurrency check.
+     *
+     * @return 1 if the product was updated, 0 if it does not exist or no longer has the given version
+     */
+    @Modifying
+    @Query("UPDATE Product p SET p.name = COALESCE(:name, p.name), p.price = COALESCE(:price, p.price), p.version = p.version + 1 "
+            + "WHERE p.id = :id AND (:version IS NULL OR p.version = :version)")
+    int updateIfVersion(@Param("id") Long id, @Param("name") String name, @Param("price") BigDecimal price,
+            @Param("version") Long version);
+
+    /**
+     * Deletes a product in one statement, without loading it. A null version skips the
+     * optimistic-concurrency check.
+     *
+     * @return 1 if the product was deleted, 0 if it does not exist or no longer has the given version
+     */
+    @Modifying
+    @Query("DELETE FROM Product p WHERE p.id = :id AND (:version IS NULL OR p.version = :version)")
+    int deleteIfVersion(@Param("id") Long id, @Param("version") Long version);
 }
@@ -0,0 +1,22 @@
+package com.example.backend.dto;
+
+import java.util.List;
+
+public class ProductPageResponseDTO {
+    private List<ProductResponseDTO> items;
+    private String nextCursor;
+
+    // Getters and Setters
+    public List<ProductResponseDTO> getItems() {
+        return items;
+    }
+    public void setItems(List<ProductResponseDTO> items) {
+        this.items = items;
+    }
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.backend.dto;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+public class ProductStatsResponseDTO {
+    private long count;
+    private BigDecimal sum;
+    private BigDecimal min;
+    private BigDecimal max;
+    private BigDecimal average;
+    // Estimated prices by percentile name (p50, p90, p95, p99); empty while the statistics are loading
+    private Map<String, BigDecimal> percentiles;
+
+    // Getters and Setters
+    public long getCount() {
+        return count;
+    }
+    public void setCount(long count) {
+        this.count = count;
+    }
+    public BigDecimal getSum() {
+        return sum;
+    }
+    public void setSum(BigDecimal sum) {
+        this.sum = sum;
+    }
+    public BigDecimal getMin() {
+        return min;
+    }
+    public void setMin(BigDecimal min) {
+        this.min = min;
+    }
+    public BigDecimal getMax() {
+        return max;
+    }
+    public void setMax(BigDecimal max) {
+        this.max = max;
+    }
+    public BigDecimal getAverage() {
+        return average;
+    }
+    public void setAverage(BigDecimal average) {
+        this.average = average;
+    }
+    public Map<String, BigDecimal> getPercentiles() {
+        return percentiles;
+    }
+    public void setPercentiles(Map<String, BigDecimal> percentiles) {
+        this.percentiles = percentiles;
+    }
+}
@@ -5,7 +5,12 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import java.util.Objects;
 
@@ -16,11 +21,17 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 
 @Entity
-@Table(name = "product")
+// idx_product_name and idx_product_price serve name and price queries while the in-memory indexes are loading
+@Table(name = "product", indexes = {
+        @Index(name = "idx_product_name", columnList = "name"),
+        @Index(name = "idx_product_price", columnList = "price, id") })
 public class Product {
 
+    // Pooled sequence (a product_seq table on MySQL) so IDs are handed out in blocks and
+    // inserts can be JDBC-batched; IDENTITY forces Hibernate to insert one row at a time.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "product_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Product name cannot be empty")
@@ -31,6 +42,11 @@ public class Product {
     @DecimalMin(value = "0.0", inclusive = true, message = "Price must be non-negative")
     private java.math.BigDecimal price;
 
+    // Bumped on every update; exposed to clients as the product's ETag rather than in the body
+    @Version
+    @JsonIgnore
+    private Long version;
+
     // Constructors, getters, and setters
     public Product() {
     }
@@ -39,11 +55,28 @@ public class Product {
         this.name = name;
         this.price = price;
     }
+
+    // For rows read without JPA, e.g. by the reactive read API
+    public Product(Long id, String name, java.math.BigDecimal price) {
+        this(id, name, price, null);
+    }
+
+    // For products written with a single UPDATE statement instead of through the persistence context
+    public Product(Long id, String name, java.math.BigDecimal price, Long version) {
+        this.id = id;
+        this.name = name;
+        this.price = price;
+        this.version = version;
+    }
     
     public Long getId() {
         return id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public String getName() {
         return name;
     }
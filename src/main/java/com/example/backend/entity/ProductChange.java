@@ -0,0 +1,73 @@
+package com.example.backend.entity;
+
+import com.example.backend.event.ProductChangedEvent;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * One row per committed product change, written in the same transaction as the change itself.
+ * Every node tails this table to invalidate its local caches. Rows are inserted with plain JDBC
+ * batches (see ProductChangeLog); the mapping is used for reads and schema generation.
+ */
+@Entity
+@Table(name = "product_change", indexes = @Index(name = "idx_product_change_changed_at", columnList = "changed_at"))
+public class ProductChange {
+
+    // AUTO_INCREMENT keeps IDs roughly in commit order across nodes, which the pollers rely on
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false, length = 16)
+    private ProductChangedEvent.Type changeType;
+
+    // Node ID of the writer, so a node can skip changes it already applied locally
+    @Column(name = "origin", nullable = false, length = 64)
+    private String origin;
+
+    // Epoch milliseconds; avoids time zone conversions between JDBC writes and JPA reads
+    @Column(name = "changed_at", nullable = false)
+    private long changedAt;
+
+    public ProductChange() {
+    }
+
+    public ProductChange(Long productId, ProductChangedEvent.Type changeType, String origin, long changedAt) {
+        this.productId = productId;
+        this.changeType = changeType;
+        this.origin = origin;
+        this.changedAt = changedAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public ProductChangedEvent.Type getChangeType() {
+        return changeType;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public long getChangedAt() {
+        return changedAt;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.backend.event;
+
+import com.example.backend.entity.Product;
+
+/**
+ * Published by ProductService whenever a product is created, updated or deleted. Listeners that keep
+ * derived state (caches, indexes) should use {@code @TransactionalEventListener} so they only react
+ * once the change has committed.
+ *
+ * @param type The kind of change
+ * @param productId The ID of the changed product
+ * @param product The product as written, or null when it is not known in full (deletes and partial
+ *                updates). Shared with other listeners: read only.
+ */
+public record ProductChangedEvent(Type type, Long productId, Product product) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public static ProductChangedEvent created(Product product) {
+        return new ProductChangedEvent(Type.CREATED, product.getId(), product);
+    }
+
+    public static ProductChangedEvent updated(Product product) {
+        return new ProductChangedEvent(Type.UPDATED, product.getId(), product);
+    }
+
+    // A partial update (PATCH) only knows the fields it changed; listeners needing the rest must reload it
+    public static ProductChangedEvent updatedPartially(Long productId) {
+        return new ProductChangedEvent(Type.UPDATED, productId, null);
+    }
+
+    public static ProductChangedEvent deleted(Long productId) {
+        return new ProductChangedEvent(Type.DELETED, productId, null);
+    }
+}
@@ -1,9 +1,15 @@
 package com.example.backend.exception;
 
+import java.util.concurrent.RejectedExecutionException;
+
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
@@ -31,6 +37,26 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(errorMsg);
     }
 
+/**
+ * This Java function handles validation failures that Spring reports through method validation,
+ * such as an invalid element inside a `List<@Valid ...>` request body, and returns a bad request
+ * response with the first error message.
+ * 
+ * @param ex The `ex` parameter is the `HandlerMethodValidationException` raised when a constraint on a
+ * controller method parameter, or on one of its elements, is violated.
+ * @return The method is returning a `ResponseEntity` with a bad request status and the first validation
+ * error message, or "Invalid request" if there is none.
+ */
+    @ExceptionHandler(HandlerMethodValidationException.class)
+    public ResponseEntity<String> handleMethodValidationExceptions(HandlerMethodValidationException ex) {
+        String errorMsg = ex.getAllErrors().stream()
+                .map(error -> error.getDefaultMessage())
+                .findFirst()
+                .orElse("Invalid request");
+
+        return ResponseEntity.badRequest().body(errorMsg);
+    }
+
 /**
  * This Java function handles IllegalArgumentException by returning a bad request response with the
  * exception message.
@@ -46,4 +72,50 @@ public class GlobalExceptionHandler {
     public ResponseEntity<String> handleNotFound(IllegalArgumentException e) {
         return ResponseEntity.badRequest().body(e.getMessage());
     }
+
+/**
+ * This Java function handles VersionConflictException by returning a precondition failed response
+ * with the exception message.
+ * 
+ * @param e The parameter `e` is the `VersionConflictException` thrown when an If-Match request finds
+ * the product at a different version than the one the client sent.
+ * @return The method is returning a ResponseEntity with a 412 Precondition Failed status and the
+ * message from the exception, so the client knows to fetch the product again before retrying.
+ */
+    @ExceptionHandler(VersionConflictException.class)
+    public ResponseEntity<String> handleVersionConflict(VersionConflictException e) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(e.getMessage());
+    }
+
+/**
+ * This Java function handles RejectedExecutionException by returning a service unavailable response
+ * with the exception message.
+ * 
+ * @param e The parameter `e` is the `RejectedExecutionException` thrown when the server has no room
+ * left for the request, such as a full write-behind queue.
+ * @return The method is returning a ResponseEntity with a 503 Service Unavailable status, a
+ * `Retry-After` header asking the client to retry after one second, and the message from the
+ * exception.
+ */
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<String> handleRejected(RejectedExecutionException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(e.getMessage());
+    }
+
+/**
+ * This Java function handles query timeouts by returning a gateway timeout response with a short
+ * message.
+ * 
+ * @param e The parameter `e` is the `QueryTimeoutException` that Spring, or JPA for queries that do not
+ * go through a repository, reports a JDBC query timeout as. This typically means the request deadline
+ * the client sent in `X-Request-Timeout` ran out while a query was running.
+ * @return The method is returning a ResponseEntity with a 504 Gateway Timeout status, since the client
+ * has stopped waiting for the result.
+ */
+    @ExceptionHandler({QueryTimeoutException.class, jakarta.persistence.QueryTimeoutException.class})
+    public ResponseEntity<String> handleQueryTimeout(RuntimeException e) {
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body("Request deadline exceeded");
+    }
 }
@@ -0,0 +1,20 @@
+package com.example.backend.exception;
+
+import java.util.List;
+
+/**
+ * Thrown when a conditional write (If-Match) finds the product at a different version than the
+ * client last saw, i.e. someone else changed it in between.
+ */
+public class VersionConflictException extends RuntimeException {
+
+    public VersionConflictException(Long productId, Long expectedVersion) {
+        super("Product " + productId + " is no longer at version " + expectedVersion);
+    }
+
+    public VersionConflictException(Long productId, List<Long> expectedVersions) {
+        super(expectedVersions.isEmpty()
+                ? "If-Match names no version of product " + productId
+                : "Product " + productId + " is at none of the versions " + expectedVersions);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.backend.grpc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.AuthenticationException;
+
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+
+/**
+ * Requires the HTTP Basic credentials of the REST API in the "authorization" metadata of every call. They
+ * are checked by the same users and password encoder, so the credential cache applies here too.
+ */
+public class BasicAuthServerInterceptor implements ServerInterceptor {
+
+    static final Metadata.Key<String> AUTHORIZATION = Metadata.Key.of("authorization", Metadata.ASCII_STRING_MARSHALLER);
+
+    private static final String BASIC = "Basic ";
+
+    private final AuthenticationManager authenticationManager;
+
+    public BasicAuthServerInterceptor(AuthenticationManager authenticationManager) {
+        this.authenticationManager = authenticationManager;
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+            ServerCallHandler<ReqT, RespT> next) {
+        String authorization = headers.get(AUTHORIZATION);
+        if (authorization == null || !authorization.regionMatches(true, 0, BASIC, 0, BASIC.length())) {
+            return reject(call, "HTTP Basic credentials required");
+        }
+        try {
+            String credentials = new String(Base64.getDecoder().decode(authorization.substring(BASIC.length()).strip()),
+                    StandardCharsets.UTF_8);
+            int colon = credentials.indexOf(':');
+            if (colon < 0) {
+                return reject(call, "Malformed credentials");
+            }
+            authenticationManager.authenticate(UsernamePasswordAuthenticationToken.unauthenticated(
+                    credentials.substring(0, colon), credentials.substring(colon + 1)));
+        } catch (IllegalArgumentException e) {
+            return reject(call, "Malformed credentials");
+        } catch (AuthenticationException e) {
+            return reject(call, "Bad credentials");
+        }
+        return next.startCall(call, headers);
+    }
+
+    private static <ReqT, RespT> ServerCall.Listener<ReqT> reject(ServerCall<ReqT, RespT> call, String reason) {
+        call.close(Status.UNAUTHENTICATED.withDescription(reason), new Metadata());
+        return new ServerCall.Listener<>() {
+        };
+    }
+
+    /**
+     * @return The value of the "authorization" metadata for the given credentials
+     */
+    public static String basic(String username, String password) {
+        return BASIC + Base64.getEncoder().encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.backend.grpc;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.context.SmartLifecycle;
+
+import io.grpc.Server;
+
+/**
+ * Starts the gRPC server with the application context and stops it gracefully: in-flight calls get the
+ * grace period to finish before the remaining ones are cancelled.
+ */
+public class GrpcServerLifecycle implements SmartLifecycle {
+
+    private static final Logger logger = LogManager.getLogger(GrpcServerLifecycle.class);
+
+    private final Server server;
+
+    private final Duration shutdownGracePeriod;
+
+    private volatile boolean running;
+
+    public GrpcServerLifecycle(Server server, Duration shutdownGracePeriod) {
+        this.server = server;
+        this.shutdownGracePeriod = shutdownGracePeriod;
+    }
+
+    @Override
+    public void start() {
+        try {
+            server.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start the gRPC server", e);
+        }
+        running = true;
+        logger.info("gRPC server listening on port {}", server.getPort());
+    }
+
+    @Override
+    public void stop() {
+        server.shutdown();
+        try {
+            if (!server.awaitTermination(shutdownGracePeriod.toMillis(), TimeUnit.MILLISECONDS)) {
+                server.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            server.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * @return The port the server is bound to, useful when it was configured as 0
+     */
+    public int getPort() {
+        return server.getPort();
+    }
+}
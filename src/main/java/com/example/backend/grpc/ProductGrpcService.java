@@ -0,0 +1,234 @@
+package com.example.backend.grpc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.example.backend.entity.Product;
+import com.example.backend.exception.VersionConflictException;
+import com.example.backend.grpc.proto.GetProductRequest;
+import com.example.backend.grpc.proto.ListProductsRequest;
+import com.example.backend.grpc.proto.ProductsGrpc;
+import com.example.backend.grpc.proto.UpsertProductRequest;
+import com.example.backend.grpc.proto.UpsertProductsResponse;
+import com.example.backend.service.ProductService;
+
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+
+/**
+ * The Products gRPC service (src/main/proto/products.proto) on top of ProductService, for backend callers
+ * that would otherwise pay an HTTP/1.1 request per product. Errors map like the REST API: invalid input
+ * is INVALID_ARGUMENT, a missing product NOT_FOUND, anything else INTERNAL.
+ */
+public class ProductGrpcService extends ProductsGrpc.ProductsImplBase {
+
+    private static final Logger logger = LogManager.getLogger(ProductGrpcService.class);
+
+    private final ProductService productService;
+
+    // Runs ListProducts, which holds a database cursor, off the gRPC call thread; see listProducts
+    private final Executor streamingExecutor;
+
+    private final int upsertBatchSize;
+
+    /**
+     * @param streamingExecutor Executor for ListProducts exports, each of which holds a connection until done
+     * @param upsertBatchSize   UpsertProducts requests written per transaction, at most ProductService.MAX_BULK_SIZE
+     */
+    public ProductGrpcService(ProductService productService, Executor streamingExecutor, int upsertBatchSize) {
+        if (upsertBatchSize < 1 || upsertBatchSize > ProductService.MAX_BULK_SIZE) {
+            throw new IllegalArgumentException("Upsert batch size must be between 1 and " + ProductService.MAX_BULK_SIZE);
+        }
+        this.productService = productService;
+        this.streamingExecutor = streamingExecutor;
+        this.upsertBatchSize = upsertBatchSize;
+    }
+
+    @Override
+    public void getProduct(GetProductRequest request, StreamObserver<com.example.backend.grpc.proto.Product> responseObserver) {
+        try {
+            Product product = productService.getProductById(request.getId())
+                    .orElseThrow(() -> Status.NOT_FOUND.withDescription("Product not found").asRuntimeException());
+            responseObserver.onNext(toMessage(product));
+            responseObserver.onCompleted();
+        } catch (RuntimeException e) {
+            responseObserver.onError(toStatus(e));
+        }
+    }
+
+    /**
+     * Streams the catalog from a database cursor, sending each product only when the client can take it.
+     * Readiness changes are delivered on the call's own serialized executor, which would be blocked if the
+     * export ran there, so the export runs on the streaming executor and waits on {@link ReadySignal}.
+     */
+    @Override
+    public void listProducts(ListProductsRequest request, StreamObserver<com.example.backend.grpc.proto.Product> responseObserver) {
+        ServerCallStreamObserver<com.example.backend.grpc.proto.Product> call =
+                (ServerCallStreamObserver<com.example.backend.grpc.proto.Product>) responseObserver;
+        ReadySignal ready = new ReadySignal();
+        call.setOnReadyHandler(ready::signal);
+        call.setOnCancelHandler(ready::signal);
+        streamingExecutor.execute(() -> {
+            long[] sent = {0};
+            try {
+                productService.exportProducts(product -> {
+                    ready.await(call);
+                    call.onNext(toMessage(product));
+                    sent[0]++;
+                });
+                call.onCompleted();
+            } catch (CancellationException e) {
+                // The transaction and cursor are already closed
+                logger.warn("ListProducts cancelled by the client after {} products", sent[0]);
+            } catch (RuntimeException e) {
+                call.onError(toStatus(e));
+            }
+        });
+    }
+
+    /**
+     * Collects requests into batches of upsertBatchSize and writes each batch in one transaction, answering
+     * with the written products. Requests are processed one at a time on the call's executor, so a client
+     * sending faster than batches commit is held back by HTTP/2 flow control rather than buffered here.
+     */
+    @Override
+    public StreamObserver<UpsertProductRequest> upsertProducts(StreamObserver<UpsertProductsResponse> responseObserver) {
+        return new StreamObserver<>() {
+
+            private List<Product> batch = new ArrayList<>(upsertBatchSize);
+
+            private boolean failed;
+
+            @Override
+            public void onNext(UpsertProductRequest request) {
+                if (failed) {
+                    return;
+                }
+                try {
+                    batch.add(toEntity(request));
+                } catch (RuntimeException e) {
+                    fail(e);
+                    return;
+                }
+                if (batch.size() == upsertBatchSize) {
+                    write();
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                // Batches already answered stay written
+                logger.warn("UpsertProducts aborted by the client with {} unwritten products: {}", batch.size(), t.getMessage());
+                batch = List.of();
+            }
+
+            @Override
+            public void onCompleted() {
+                if (!failed) {
+                    write();
+                }
+                if (!failed) {
+                    responseObserver.onCompleted();
+                }
+            }
+
+            private void write() {
+                if (batch.isEmpty()) {
+                    return;
+                }
+                List<Product> products = batch;
+                batch = new ArrayList<>(upsertBatchSize);
+                try {
+                    UpsertProductsResponse.Builder response = UpsertProductsResponse.newBuilder();
+                    productService.upsertProducts(products).forEach(product -> response.addProducts(toMessage(product)));
+                    responseObserver.onNext(response.build());
+                } catch (RuntimeException e) {
+                    fail(e);
+                }
+            }
+
+            private void fail(RuntimeException e) {
+                failed = true;
+                batch = List.of();
+                responseObserver.onError(toStatus(e));
+            }
+        };
+    }
+
+    static com.example.backend.grpc.proto.Product toMessage(Product product) {
+        com.example.backend.grpc.proto.Product.Builder message = com.example.backend.grpc.proto.Product.newBuilder()
+                .setId(product.getId())
+                .setName(product.getName())
+                .setPrice(product.getPrice().toPlainString());
+        if (product.getVersion() != null) {
+            message.setVersion(product.getVersion());
+        }
+        return message.build();
+    }
+
+    // A malformed price is a NumberFormatException, which maps to INVALID_ARGUMENT like other bad input
+    static Product toEntity(UpsertProductRequest request) {
+        BigDecimal price = new BigDecimal(request.getPrice());
+        return request.hasId() ? new Product(request.getId(), request.getName(), price, null)
+                : new Product(request.getName(), price);
+    }
+
+    private static StatusRuntimeException toStatus(RuntimeException e) {
+        if (e instanceof StatusRuntimeException status) {
+            return status;
+        }
+        if (e instanceof IllegalArgumentException) {
+            return Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException();
+        }
+        if (e instanceof VersionConflictException) {
+            return Status.ABORTED.withDescription(e.getMessage()).asRuntimeException();
+        }
+        logger.error("gRPC product call failed", e);
+        return Status.INTERNAL.withDescription("Internal error").asRuntimeException();
+    }
+
+    // Wakes the exporting thread when the call becomes ready or is cancelled; a Lock so virtual threads do not pin
+    private static final class ReadySignal {
+
+        private final Lock lock = new ReentrantLock();
+
+        private final Condition changed = lock.newCondition();
+
+        void signal() {
+            lock.lock();
+            try {
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void await(ServerCallStreamObserver<?> call) {
+            lock.lock();
+            try {
+                while (!call.isReady() || call.isCancelled()) {
+                    if (call.isCancelled()) {
+                        throw new CancellationException("Call cancelled");
+                    }
+                    changed.await();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Interrupted while waiting for the client");
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
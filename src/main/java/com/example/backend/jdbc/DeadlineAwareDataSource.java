@@ -0,0 +1,80 @@
+package com.example.backend.jdbc;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import com.example.backend.limit.RequestDeadline;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Gives every statement created while the current thread has a request deadline a query timeout of the
+ * time left, so MySQL cancels queries whose client has already given up. JDBC timeouts are whole
+ * seconds, so the time left is rounded up; a statement created after the deadline fails at once.
+ *
+ * Connections may be held across a request (open-in-view), so the deadline is read per statement, not
+ * per connection.
+ */
+public class DeadlineAwareDataSource extends DelegatingDataSource {
+
+    private final Counter exceeded;
+
+    public DeadlineAwareDataSource(DataSource target, MeterRegistry meterRegistry) {
+        super(target);
+        this.exceeded = Counter.builder("jdbc.deadline.exceeded")
+                .description("Statements refused because the request deadline had passed")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return withDeadlines(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return withDeadlines(super.getConnection(username, password));
+    }
+
+    private Connection withDeadlines(Connection connection) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            boolean createsStatement = createsStatement(method);
+            long remaining = createsStatement ? RequestDeadline.remainingNanos() : Long.MAX_VALUE;
+            if (remaining <= 0) {
+                exceeded.increment();
+                throw new SQLTimeoutException("Request deadline exceeded");
+            }
+            Object result;
+            try {
+                result = method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (createsStatement && remaining != Long.MAX_VALUE) {
+                ((Statement) result).setQueryTimeout((int) Math.min(Integer.MAX_VALUE,
+                        Math.ceilDiv(remaining, TimeUnit.SECONDS.toNanos(1))));
+            }
+            return result;
+        };
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class}, handler);
+    }
+
+    private static boolean createsStatement(Method method) {
+        return switch (method.getName()) {
+            case "createStatement", "prepareStatement", "prepareCall" -> true;
+            default -> false;
+        };
+    }
+}
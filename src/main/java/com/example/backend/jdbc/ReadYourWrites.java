@@ -0,0 +1,65 @@
+package com.example.backend.jdbc;
+
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Decides which reads have to go to the primary: those without a session, e.g. startup loads and
+ * scheduled jobs that rebuild state from the primary's change log, and those of a session that
+ * committed a write within the window, so it sees its own writes before the replicas do.
+ *
+ * The window has to cover how far a replica in use can be behind the primary.
+ */
+public class ReadYourWrites implements BooleanSupplier {
+
+    private final Supplier<String> currentSession;
+
+    // Sessions that wrote within the window
+    private final Cache<String, Boolean> recentWriters;
+
+    /**
+     * @param currentSession Returns a key for the session of the current thread, or null outside a session
+     */
+    public ReadYourWrites(Supplier<String> currentSession, Duration window) {
+        this.currentSession = currentSession;
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    /**
+     * @return The session of the current thread, or null outside a session
+     */
+    public String currentSession() {
+        return currentSession.get();
+    }
+
+    /**
+     * Keeps the reads of the current session on the primary for the window; call after a write commits.
+     */
+    public void recordWrite() {
+        recordWrite(currentSession.get());
+    }
+
+    /**
+     * Same for a session captured earlier, e.g. when the write commits on another thread.
+     */
+    public void recordWrite(String session) {
+        if (session != null) {
+            recentWriters.put(session, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * @return True if the current thread has to read from the primary
+     */
+    @Override
+    public boolean getAsBoolean() {
+        String session = currentSession.get();
+        return session == null || recentWriters.getIfPresent(session) != null;
+    }
+}
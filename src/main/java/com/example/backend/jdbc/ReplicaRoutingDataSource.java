@@ -0,0 +1,256 @@
+package com.example.backend.jdbc;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import javax.sql.DataSource;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.util.StringUtils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Hands out connections for read-only work: from the read replicas in turn, or from the primary when
+ * the caller has to see its own writes or no replica is usable.
+ *
+ * A background check validates every replica at a fixed interval and, given a lag query, ejects the ones
+ * further behind the primary than the allowed lag; a replica that fails to hand out a connection is
+ * ejected at once. Ejected replicas are checked again on the next round and readmitted when they pass.
+ * As long as the check runs, a replica in use is at most max lag plus one interval behind.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements InitializingBean, DisposableBean {
+
+    private static final Logger logger = LogManager.getLogger(ReplicaRoutingDataSource.class);
+
+    // Columns of MySQL's SHOW REPLICA STATUS (8.0.22+) and SHOW SLAVE STATUS holding the lag in seconds
+    private static final List<String> LAG_COLUMNS = List.of("Seconds_Behind_Source", "Seconds_Behind_Master");
+
+    /**
+     * A replica and the name its pool and metrics go by.
+     */
+    public record Replica(String name, DataSource dataSource) {
+    }
+
+    private final DataSource primary;
+
+    private final List<ReplicaState> replicas = new ArrayList<>();
+
+    private final BooleanSupplier readFromPrimary;
+
+    private final String lagQuery;
+
+    private final Duration maxLag;
+
+    private final Duration checkInterval;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final Counter primaryReads;
+
+    private final Counter fallbacks;
+
+    private ScheduledExecutorService checker;
+
+    /**
+     * @param readFromPrimary True when the current caller must read from the primary, e.g. right after it wrote
+     * @param lagQuery Query returning the lag of a replica in seconds, in a Seconds_Behind_Source column or
+     *                 the first one, or blank to only check that replicas are reachable
+     */
+    public ReplicaRoutingDataSource(DataSource primary, List<Replica> replicas, BooleanSupplier readFromPrimary,
+            String lagQuery, Duration maxLag, Duration checkInterval, MeterRegistry meterRegistry) {
+        if (replicas.isEmpty()) {
+            throw new IllegalArgumentException("At least one replica is required");
+        }
+        this.primary = primary;
+        this.readFromPrimary = readFromPrimary;
+        this.lagQuery = StringUtils.hasText(lagQuery) ? lagQuery : null;
+        this.maxLag = maxLag;
+        this.checkInterval = checkInterval;
+        this.primaryReads = reads(meterRegistry, "primary");
+        this.fallbacks = Counter.builder("jdbc.routing.fallbacks")
+                .description("Read-only connections taken from the primary because no replica was usable")
+                .register(meterRegistry);
+        for (Replica replica : replicas) {
+            ReplicaState state = new ReplicaState(replica, reads(meterRegistry, replica.name()));
+            Gauge.builder("jdbc.replica.healthy", state, s -> s.healthy ? 1 : 0)
+                    .tag("datasource", replica.name())
+                    .register(meterRegistry);
+            Gauge.builder("jdbc.replica.lag", state, s -> s.lagSeconds)
+                    .tag("datasource", replica.name())
+                    .description("Seconds the replica was behind the primary at the last check; NaN when unknown")
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+            this.replicas.add(state);
+        }
+    }
+
+    private static Counter reads(MeterRegistry meterRegistry, String dataSource) {
+        return Counter.builder("jdbc.routing.reads")
+                .description("Read-only connections handed out, by the data source they came from")
+                .tag("datasource", dataSource)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return How far behind the primary a read routed here can be, assuming the health check keeps running
+     */
+    public Duration getStalenessBound() {
+        return maxLag.plus(checkInterval);
+    }
+
+    public List<String> getHealthyReplicas() {
+        return replicas.stream().filter(state -> state.healthy).map(state -> state.replica.name()).toList();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (readFromPrimary.getAsBoolean()) {
+            primaryReads.increment();
+            return primary.getConnection();
+        }
+        int first = next.getAndIncrement();
+        for (int i = 0; i < replicas.size(); i++) {
+            ReplicaState state = replicas.get(Math.floorMod(first + i, replicas.size()));
+            if (!state.healthy) {
+                continue;
+            }
+            try {
+                Connection connection = state.replica.dataSource().getConnection();
+                state.reads.increment();
+                return connection;
+            } catch (SQLException e) {
+                eject(state, "no connection: " + e.getMessage());
+            }
+        }
+        fallbacks.increment();
+        primaryReads.increment();
+        return primary.getConnection();
+    }
+
+    // Replica pools hold the credentials they were built with, so a caller with credentials of its own is
+    // served by the primary, as LazyConnectionDataSourceProxy does with its target
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        primaryReads.increment();
+        return primary.getConnection(username, password);
+    }
+
+    /**
+     * Checks every replica once, ejecting or readmitting it.
+     */
+    public void checkReplicas() {
+        for (ReplicaState state : replicas) {
+            try (Connection connection = state.replica.dataSource().getConnection()) {
+                if (!connection.isValid((int) Math.max(1, checkInterval.toSeconds()))) {
+                    eject(state, "connection is not valid");
+                    continue;
+                }
+                if (lagQuery == null) {
+                    admit(state);
+                    continue;
+                }
+                Long lag = queryLag(connection);
+                state.lagSeconds = lag == null ? Double.NaN : lag;
+                if (lag == null) {
+                    eject(state, "replication is not running");
+                } else if (lag > maxLag.toSeconds()) {
+                    eject(state, lag + "s behind the primary");
+                } else {
+                    admit(state);
+                }
+            } catch (SQLException | RuntimeException e) {
+                eject(state, e.getMessage());
+            }
+        }
+    }
+
+    private Long queryLag(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet result = statement.executeQuery(lagQuery)) {
+            if (!result.next()) {
+                return null;
+            }
+            long lag = result.getLong(lagColumn(result.getMetaData()));
+            return result.wasNull() ? null : lag;
+        }
+    }
+
+    private static int lagColumn(ResultSetMetaData metaData) throws SQLException {
+        for (int column = 1; column <= metaData.getColumnCount(); column++) {
+            String label = metaData.getColumnLabel(column);
+            if (LAG_COLUMNS.stream().anyMatch(label::equalsIgnoreCase)) {
+                return column;
+            }
+        }
+        return 1;
+    }
+
+    private void eject(ReplicaState state, String reason) {
+        if (state.healthy) {
+            logger.warn("Ejecting read replica '{}': {}", state.replica.name(), reason);
+        }
+        state.healthy = false;
+    }
+
+    private void admit(ReplicaState state) {
+        if (!state.healthy) {
+            logger.info("Read replica '{}' is back in rotation", state.replica.name());
+        }
+        state.healthy = true;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        checkReplicas();
+        checker = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("replica-health-check").daemon().factory());
+        checker.scheduleWithFixedDelay(this::checkReplicas, checkInterval.toMillis(), checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (checker != null) {
+            checker.shutdownNow();
+        }
+        for (ReplicaState state : replicas) {
+            // The pool may be wrapped, e.g. by a ConnectionLimitingDataSource
+            DataSource dataSource = state.replica.dataSource();
+            if (dataSource.isWrapperFor(AutoCloseable.class)) {
+                dataSource.unwrap(AutoCloseable.class).close();
+            }
+        }
+    }
+
+    private static final class ReplicaState {
+
+        private final Replica replica;
+
+        private final Counter reads;
+
+        // Written by the health check and by callers that fail to connect
+        private volatile boolean healthy = true;
+
+        private volatile double lagSeconds = Double.NaN;
+
+        private ReplicaState(Replica replica, Counter reads) {
+            this.replica = replica;
+            this.reads = reads;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.backend.jdbc;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Counts jdk.VirtualThreadPinned JFR events, i.e. virtual threads that blocked while pinned to their
+ * carrier, typically inside a synchronized block. Events whose stack passes through JDBC code (the
+ * driver or the pool) are tagged jdbc=true, since that is where pinning hurts throughput the most.
+ */
+public class VirtualThreadPinningMonitor implements InitializingBean, DisposableBean {
+
+    private static final Logger logger = LogManager.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private static final List<String> JDBC_PACKAGES = List.of(
+            "java.sql.", "com.mysql.", "com.zaxxer.hikari.", "org.h2.", "org.hibernate.engine.jdbc.");
+
+    private final Duration threshold;
+
+    private final Counter jdbcPinned;
+
+    private final Counter otherPinned;
+
+    private final Timer pinnedDuration;
+
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry, Duration threshold) {
+        this.threshold = threshold;
+        this.jdbcPinned = Counter.builder("jvm.threads.virtual.pinned")
+                .description("Virtual threads that blocked while pinned to their carrier thread")
+                .tag("jdbc", "true")
+                .register(meterRegistry);
+        this.otherPinned = Counter.builder("jvm.threads.virtual.pinned")
+                .description("Virtual threads that blocked while pinned to their carrier thread")
+                .tag("jdbc", "false")
+                .register(meterRegistry);
+        this.pinnedDuration = Timer.builder("jvm.threads.virtual.pinned.duration")
+                .description("How long pinned virtual threads stayed blocked")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::record);
+        stream.startAsync();
+        logger.info("Monitoring virtual thread pinning longer than {}", threshold);
+    }
+
+    void record(RecordedEvent event) {
+        pinnedDuration.record(event.getDuration());
+        if (isInJdbcPath(event.getStackTrace())) {
+            jdbcPinned.increment();
+        } else {
+            otherPinned.increment();
+        }
+    }
+
+    static boolean isInJdbcPath(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return false;
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            for (String prefix : JDBC_PACKAGES) {
+                if (type.startsWith(prefix)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void destroy() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+}
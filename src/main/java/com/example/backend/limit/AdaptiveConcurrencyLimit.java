@@ -0,0 +1,137 @@
+package com.example.backend.limit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * A concurrency limit that follows the latency the requests it admits actually see, after the gradient
+ * algorithm of Netflix's concurrency-limits. A long-term average of the latency stands for what an idle
+ * backend takes; while the short-term average stays within the tolerance of it the limit keeps growing,
+ * and when requests start to queue (in Tomcat, in the connection
+ * pool or in MySQL) the short-term average rises and the limit shrinks in proportion. A request that
+ * failed because the backend was overloaded cuts the limit by a tenth at once.
+ *
+ * Requests over the limit are not queued: the caller is told to shed them.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    // Samples the averages stretch over
+    private static final int SHORT_WINDOW = 10;
+    private static final int LONG_WINDOW = 600;
+
+    // How far a new estimate moves the limit
+    private static final double SMOOTHING = 0.2;
+
+    private static final double DROP_BACKOFF = 0.9;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final double tolerance;
+
+    private final AtomicInteger inflight = new AtomicInteger();
+
+    private final Counter rejected;
+
+    private volatile double limit;
+
+    // Guarded by this, in nanoseconds
+    private double shortRtt;
+    private double longRtt;
+
+    /**
+     * @param name Tags the metrics (the priority class)
+     * @param tolerance How many times the long-term latency the short-term one may reach before the limit
+     *                  shrinks, e.g. 2.0
+     */
+    public AdaptiveConcurrencyLimit(String name, int initialLimit, int minLimit, int maxLimit, double tolerance,
+            MeterRegistry meterRegistry) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= min <= max");
+        }
+        if (tolerance < 1) {
+            throw new IllegalArgumentException("Latency tolerance must be at least 1");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.limit = Math.clamp(initialLimit, minLimit, maxLimit);
+        Gauge.builder("products.limiter.limit", this, AdaptiveConcurrencyLimit::getLimit)
+                .description("Requests allowed in flight")
+                .tag("priority", name)
+                .register(meterRegistry);
+        Gauge.builder("products.limiter.inflight", inflight, AtomicInteger::get)
+                .description("Requests in flight")
+                .tag("priority", name)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("products.limiter.rejected")
+                .description("Requests shed because the limit was reached")
+                .tag("priority", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Admits a request if fewer than the limit are in flight. An admitted request must be released.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inflight.get();
+            if (current >= getLimit()) {
+                rejected.increment();
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Ends an admitted request and adjusts the limit with its latency.
+     *
+     * @param dropped True if the request failed because the backend is overloaded or timed out
+     */
+    public void release(long latency, TimeUnit unit, boolean dropped) {
+        int inflightBefore = inflight.getAndDecrement();
+        update(unit.toNanos(latency), inflightBefore, dropped);
+    }
+
+    private synchronized void update(long rtt, int inflightBefore, boolean dropped) {
+        double current = limit;
+        if (dropped) {
+            limit = Math.max(minLimit, current * DROP_BACKOFF);
+            return;
+        }
+        if (longRtt == 0) {
+            shortRtt = rtt;
+            longRtt = rtt;
+            return;
+        }
+        shortRtt += (rtt - shortRtt) * 2 / (SHORT_WINDOW + 1);
+        longRtt += (rtt - longRtt) * 2 / (LONG_WINDOW + 1);
+        // Once latency is back down, so is the baseline, and the next slowdown is measured against it
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+        // Latency says nothing about a limit the load does not reach
+        if (inflightBefore < current / 2) {
+            return;
+        }
+        double gradient = Math.clamp(tolerance * longRtt / shortRtt, 0.5, 1.0);
+        double estimate = current * gradient + Math.sqrt(current);
+        limit = Math.clamp(current * (1 - SMOOTHING) + estimate * SMOOTHING, minLimit, maxLimit);
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+}
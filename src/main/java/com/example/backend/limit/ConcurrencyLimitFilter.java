@@ -0,0 +1,133 @@
+package com.example.backend.limit;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Sheds product requests above an adaptive concurrency limit per priority class, switched on with
+ * app.limiter.enabled=true. A request over the limit of its class gets 503 with Retry-After straight
+ * away, before authentication, instead of waiting on a Tomcat thread for a database that is already
+ * falling behind. Streaming responses hold their slot until the stream ends.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+@ConditionalOnProperty(name = "app.limiter.enabled", havingValue = "true")
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final Map<RequestPriority, AdaptiveConcurrencyLimit> limits = new EnumMap<>(RequestPriority.class);
+
+    private final String retryAfter;
+
+    public ConcurrencyLimitFilter(MeterRegistry meterRegistry,
+            @Value("${app.limiter.critical.max-limit:200}") int criticalMaxLimit,
+            @Value("${app.limiter.standard.max-limit:100}") int standardMaxLimit,
+            @Value("${app.limiter.bulk.max-limit:10}") int bulkMaxLimit,
+            @Value("${app.limiter.initial-limit:20}") int initialLimit,
+            @Value("${app.limiter.min-limit:2}") int minLimit,
+            @Value("${app.limiter.latency-tolerance:2.0}") double latencyTolerance,
+            @Value("${app.limiter.retry-after:1s}") Duration retryAfter) {
+        limits.put(RequestPriority.CRITICAL, limit(RequestPriority.CRITICAL, initialLimit, minLimit, criticalMaxLimit,
+                latencyTolerance, meterRegistry));
+        limits.put(RequestPriority.STANDARD, limit(RequestPriority.STANDARD, initialLimit, minLimit, standardMaxLimit,
+                latencyTolerance, meterRegistry));
+        limits.put(RequestPriority.BULK, limit(RequestPriority.BULK, initialLimit, minLimit, bulkMaxLimit,
+                latencyTolerance, meterRegistry));
+        this.retryAfter = Long.toString(Math.max(1, retryAfter.toSeconds()));
+    }
+
+    private static AdaptiveConcurrencyLimit limit(RequestPriority priority, int initialLimit, int minLimit, int maxLimit,
+            double latencyTolerance, MeterRegistry meterRegistry) {
+        return new AdaptiveConcurrencyLimit(priority.name().toLowerCase(), Math.min(initialLimit, maxLimit),
+                Math.min(minLimit, maxLimit), maxLimit, latencyTolerance, meterRegistry);
+    }
+
+    public AdaptiveConcurrencyLimit getLimit(RequestPriority priority) {
+        return limits.get(priority);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestPriority priority = RequestPriority.of(request);
+        if (priority == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        AdaptiveConcurrencyLimit limit = limits.get(priority);
+        if (!limit.tryAcquire()) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.getWriter().write("Too many concurrent requests, retry later");
+            return;
+        }
+        long start = System.nanoTime();
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                limit.release(System.nanoTime() - start, TimeUnit.NANOSECONDS, overloaded(request, response.getStatus()));
+            }
+        };
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new AsyncListener() {
+
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        release.run();
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                        release.run();
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                        release.run();
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                release.run();
+            }
+        }
+    }
+
+    // Shed further down (write queue full) or timed out: the backend is past its capacity. Not when the
+    // timeout was the client's own short deadline, or any client could throttle everyone else by sending one
+    private static boolean overloaded(HttpServletRequest request, int status) {
+        if (status == HttpStatus.GATEWAY_TIMEOUT.value()) {
+            return !RequestDeadlineFilter.clientDeadlinePassed(request);
+        }
+        return status == HttpStatus.SERVICE_UNAVAILABLE.value();
+    }
+}
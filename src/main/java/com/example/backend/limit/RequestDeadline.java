@@ -0,0 +1,43 @@
+package com.example.backend.limit;
+
+/**
+ * The deadline of the request the current thread is serving, if its client sent one. Work that can be
+ * bounded, such as JDBC statements, should not outlive it: past the deadline the client has given up
+ * and the result would be thrown away.
+ */
+public final class RequestDeadline {
+
+    /** Milliseconds the client is prepared to wait for the response, counted from when it arrives */
+    public static final String HEADER = "X-Request-Timeout";
+
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+    private RequestDeadline() {
+    }
+
+    /**
+     * Sets the deadline of the current thread until {@link #clear()}.
+     *
+     * @param deadline In {@link System#nanoTime()} terms
+     */
+    public static void set(long deadline) {
+        DEADLINE.set(deadline);
+    }
+
+    public static void clear() {
+        DEADLINE.remove();
+    }
+
+    public static boolean isSet() {
+        return DEADLINE.get() != null;
+    }
+
+    /**
+     * @return Nanoseconds left until the deadline, zero or less once it has passed, or Long.MAX_VALUE
+     *         without one
+     */
+    public static long remainingNanos() {
+        Long deadline = DEADLINE.get();
+        return deadline == null ? Long.MAX_VALUE : deadline - System.nanoTime();
+    }
+}
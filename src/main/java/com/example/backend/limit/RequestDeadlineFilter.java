@@ -0,0 +1,82 @@
+package com.example.backend.limit;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Reads the {@value RequestDeadline#HEADER} header and makes it the deadline of the request thread for
+ * as long as the request runs there. A request that arrives with no time left is answered with 504 at
+ * once. Timeouts longer than the maximum are cut to it.
+ *
+ * A deadline the client chose itself is also kept as a request attribute, so a 504 it ends in can be told
+ * apart from one the server caused: see {@link #clientDeadlinePassed(HttpServletRequest)}.
+ */
+public class RequestDeadlineFilter extends OncePerRequestFilter {
+
+    /** The deadline the client asked for, in {@link System#nanoTime()} terms, unless it was cut to the maximum */
+    public static final String CLIENT_DEADLINE_ATTRIBUTE = RequestDeadlineFilter.class.getName() + ".CLIENT_DEADLINE";
+
+    private final long maxTimeoutNanos;
+
+    public RequestDeadlineFilter(Duration maxTimeout) {
+        this.maxTimeoutNanos = maxTimeout.toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String header = request.getHeader(RequestDeadline.HEADER);
+        if (header == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        long timeoutMillis;
+        try {
+            timeoutMillis = Long.parseLong(header.strip());
+        } catch (NumberFormatException e) {
+            reply(response, HttpStatus.BAD_REQUEST, RequestDeadline.HEADER + " must be a number of milliseconds");
+            return;
+        }
+        if (timeoutMillis <= 0) {
+            request.setAttribute(CLIENT_DEADLINE_ATTRIBUTE, System.nanoTime());
+            reply(response, HttpStatus.GATEWAY_TIMEOUT, "Request deadline exceeded");
+            return;
+        }
+        long requestedNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        long deadline = System.nanoTime() + Math.min(requestedNanos, maxTimeoutNanos);
+        if (requestedNanos <= maxTimeoutNanos) {
+            request.setAttribute(CLIENT_DEADLINE_ATTRIBUTE, deadline);
+        }
+        RequestDeadline.set(deadline);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestDeadline.clear();
+        }
+    }
+
+    /**
+     * @return True if the client of the request sent a deadline of its own and it has passed, in which case
+     *         a timeout says how long the client was prepared to wait rather than how loaded the server is
+     */
+    public static boolean clientDeadlinePassed(HttpServletRequest request) {
+        return request.getAttribute(CLIENT_DEADLINE_ATTRIBUTE) instanceof Long deadline
+                && System.nanoTime() - deadline >= 0;
+    }
+
+    private static void reply(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.getWriter().write(message);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.backend.limit;
+
+import org.springframework.http.HttpMethod;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Priority classes of the product endpoints. Each class has its own concurrency limit, so expensive
+ * requests that slow down cannot use up the capacity of the cheap ones.
+ */
+public enum RequestPriority {
+
+    /** Single-product reads, served from memory or one primary-key lookup */
+    CRITICAL,
+
+    /** Single writes and the bounded reads: keyset pages, search, statistics */
+    STANDARD,
+
+    /** Whole-catalog reads, price-range streams, exports and bulk writes */
+    BULK;
+
+    private static final String BASE_PATH = "/api/products";
+
+    /**
+     * @return The class of a request to the product endpoints, or null for any other path
+     */
+    public static RequestPriority of(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!path.startsWith(BASE_PATH)) {
+            return null;
+        }
+        String rest = path.substring(BASE_PATH.length());
+        boolean read = HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+        if (rest.isEmpty() || rest.equals("/")) {
+            if (!read) {
+                return STANDARD;
+            }
+            // Without a limit, GET /api/products returns the whole catalog
+            return request.getParameter("limit") != null && request.getParameter("sort") == null ? STANDARD : BULK;
+        }
+        if (!rest.startsWith("/")) {
+            return null;
+        }
+        return switch (rest) {
+            case "/export", "/bulk" -> BULK;
+            case "/search", "/stats" -> STANDARD;
+            default -> read ? CRITICAL : STANDARD;
+        };
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.backend.logging;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.logging.log4j.ThreadContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Decides once per request whether its INFO and DEBUG logs are written, so a sampled request is logged
+ * completely and the others not at all. The decision is put into the Log4j thread context under
+ * {@value #CONTEXT_KEY}, where the DynamicThresholdFilter in the Log4j configuration reads it before any
+ * message is formatted. WARN and above are always written.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestLogSamplingFilter extends OncePerRequestFilter {
+
+    public static final String CONTEXT_KEY = "requestLog";
+
+    public static final String SKIP = "skip";
+
+    private final double sampleRate;
+
+    public RequestLogSamplingFilter(@Value("${app.logging.request-sample-rate:1.0}") double sampleRate) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("app.logging.request-sample-rate must be between 0 and 1");
+        }
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        ThreadContext.put(CONTEXT_KEY, SKIP);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ThreadContext.remove(CONTEXT_KEY);
+        }
+    }
+}
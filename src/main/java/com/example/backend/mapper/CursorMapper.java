@@ -0,0 +1,48 @@
+package com.example.backend.mapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public class CursorMapper {
+
+    private static final String PREFIX = "id:";
+
+    /**
+     * Encodes the last product ID of a page into an opaque cursor. Clients must pass it back
+     * unchanged, which leaves us free to change the keyset later without breaking them.
+     *
+     * @param id The ID of the last product on the current page
+     * @return The opaque cursor, or null if the ID is null
+     */
+    public static String toCursor(Long id) {
+        if (id == null) {
+            return null;
+        }
+        byte[] raw = (PREFIX + id).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    /**
+     * Decodes a cursor produced by {@link #toCursor(Long)} back to the product ID it points after.
+     * A null or blank cursor means "start from the beginning".
+     *
+     * @param cursor The opaque cursor received from the client
+     * @return The product ID to continue after
+     * @throws IllegalArgumentException if the cursor was not produced by this API
+     */
+    public static long fromCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith(PREFIX)) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return Long.parseLong(raw.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException and Base64 decoding errors are both IllegalArgumentExceptions
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.backend.mapper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ETagMapper {
+
+    /**
+     * Builds a strong entity tag from a version token, e.g. a product's version number or the
+     * catalog watermark.
+     *
+     * @param version The version token; must not contain double quotes
+     * @return The quoted ETag, or null if the version is null
+     */
+    public static String toETag(Object version) {
+        if (version == null) {
+            return null;
+        }
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Evaluates an If-None-Match header against the current ETag. As RFC 9110 requires for
+     * If-None-Match, the comparison is weak: {@code W/"3"} matches {@code "3"}.
+     *
+     * @param ifNoneMatch The If-None-Match header value, a comma-separated list of ETags or "*"
+     * @param etag The current ETag of the resource
+     * @return true if the client's copy is current and a 304 can be sent
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Maps an If-Match header to the product versions a conditional write accepts. If-Match uses the
+     * strong comparison of RFC 9110: a weak ETag never matches, and neither does a strong one this API
+     * did not produce. Such tags are left out rather than rejected, so the write fails with 412 unless
+     * another tag in the list matches.
+     *
+     * @param ifMatch The If-Match header value, a comma-separated list of ETags or "*"
+     * @return The accepted versions, possibly none, or null if there is no header or it is "*" (any
+     *         version)
+     * @throws IllegalArgumentException if the header is not "*" or a list of ETags
+     */
+    public static List<Long> toVersions(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        List<Long> versions = new ArrayList<>();
+        for (String candidate : ifMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.isEmpty()) {
+                continue;
+            }
+            boolean weak = tag.startsWith("W/");
+            if (weak) {
+                tag = tag.substring(2);
+            }
+            if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+                throw new IllegalArgumentException("If-Match must be \"*\" or a list of ETags");
+            }
+            if (weak) {
+                continue;
+            }
+            try {
+                versions.add(Long.parseLong(tag.substring(1, tag.length() - 1)));
+            } catch (NumberFormatException e) {
+                // Not an ETag of a product version, so it cannot match one
+            }
+        }
+        return versions;
+    }
+}
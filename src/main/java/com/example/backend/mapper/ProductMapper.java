@@ -1,8 +1,14 @@
 package com.example.backend.mapper;
 
+import java.math.BigDecimal;
+import java.util.Iterator;
+
 import com.example.backend.dto.ProductRequestDTO;
 import com.example.backend.dto.ProductResponseDTO;
+import com.example.backend.dto.ProductStatsResponseDTO;
 import com.example.backend.entity.Product;
+import com.example.backend.stats.CatalogStats;
+import com.fasterxml.jackson.databind.JsonNode;
 
 public class ProductMapper {
 
@@ -40,4 +46,69 @@ public class ProductMapper {
         dto.setPrice(product.getPrice());
         return dto;
     }
+
+
+    /**
+     * Maps catalog statistics to a ProductStatsResponseDTO.
+     * 
+     * @param stats The statistics to be mapped
+     * @return The mapped ProductStatsResponseDTO
+     */
+    public static ProductStatsResponseDTO toDTO(CatalogStats stats) {
+        ProductStatsResponseDTO dto = new ProductStatsResponseDTO();
+        dto.setCount(stats.count());
+        dto.setSum(stats.sum());
+        dto.setMin(stats.min());
+        dto.setMax(stats.max());
+        dto.setAverage(stats.average());
+        dto.setPercentiles(stats.percentiles());
+        return dto;
+    }
+
+
+    /**
+     * Maps a JSON Merge Patch (RFC 7396) document to a Product holding only the fields it changes;
+     * the others are null. Name and price are required, so they can be replaced but not removed.
+     * 
+     * @param patch The merge patch document, e.g. {"price": 9.99}
+     * @return A Product with the changed fields set and no ID
+     * @throws IllegalArgumentException if the patch is not an object, removes a field, has a value of
+     * the wrong type, or names a field products do not have
+     */
+    public static Product fromMergePatch(JsonNode patch) {
+        if (patch == null || !patch.isObject()) {
+            throw new IllegalArgumentException("Patch must be a JSON object");
+        }
+        Product product = new Product();
+        Iterator<String> fields = patch.fieldNames();
+        while (fields.hasNext()) {
+            String field = fields.next();
+            JsonNode value = patch.get(field);
+            switch (field) {
+                case "name" -> {
+                    if (value.isNull()) {
+                        throw new IllegalArgumentException("Product name cannot be removed");
+                    }
+                    if (!value.isTextual()) {
+                        throw new IllegalArgumentException("Product name must be a string");
+                    }
+                    if (value.textValue().length() > 255) {
+                        throw new IllegalArgumentException("Product name cannot exceed 255 characters");
+                    }
+                    product.setName(value.textValue());
+                }
+                case "price" -> {
+                    if (value.isNull()) {
+                        throw new IllegalArgumentException("Price is required");
+                    }
+                    if (!value.isNumber()) {
+                        throw new IllegalArgumentException("Price must be a number");
+                    }
+                    product.setPrice(value.decimalValue());
+                }
+                default -> throw new IllegalArgumentException("Unknown product field: " + field);
+            }
+        }
+        return product;
+    }
 }
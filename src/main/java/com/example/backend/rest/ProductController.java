@@ -1,24 +1,45 @@
 package com.example.backend.rest;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.apache.catalina.connector.Response;
 import org.springframework.beans.factory.annotation.Autowired;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 import com.example.backend.service.ProductService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 
-import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
 
+import com.example.backend.dto.ProductPageResponseDTO;
 import com.example.backend.dto.ProductRequestDTO;
 import com.example.backend.dto.ProductResponseDTO;
+import com.example.backend.dto.ProductStatsResponseDTO;
+import com.example.backend.mapper.CursorMapper;
+import com.example.backend.mapper.ETagMapper;
 import com.example.backend.mapper.ProductMapper;
 import com.example.backend.entity.Product;
 
@@ -32,40 +53,302 @@ import org.apache.logging.log4j.LogManager;
 public class ProductController {
 
     private static final Logger logger = LogManager.getLogger(ProductController.class);
+
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    public static final String APPLICATION_MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+
+    // Rows are flushed to the client in groups so the first byte leaves right away without a flush per row
+    private static final int EXPORT_FLUSH_INTERVAL = 256;
+
+    // Single products whose encoded bodies are kept
+    private static final int ENCODED_PRODUCT_BODIES = 10_000;
     
 
     private final ProductService productService;
 
-    private final MeterRegistry meterRegistry;
+    // Request counts per operation, registered once; latency is in http.server.requests
+    private final Counter getAllCounter;
+
+    private final Counter getPageCounter;
+
+    private final Counter exportCounter;
+
+    private final Counter searchCounter;
+
+    private final Counter statsCounter;
+
+    private final Counter getByPriceCounter;
+
+    private final Counter createCounter;
+
+    private final Counter createBulkCounter;
+
+    private final Counter getByIdCounter;
+
+    private final Counter updateCounter;
+
+    private final Counter patchCounter;
+
+    private final Counter deleteCounter;
+
+    private final ObjectWriter ndjsonWriter;
+
+    private final ObjectWriter jsonArrayWriter;
+
+    private final ProductResponseCache responseCache;
     
 
-    public ProductController(ProductService productService, MeterRegistry meterRegistry) {
+    public ProductController(ProductService productService, MeterRegistry meterRegistry, ObjectMapper objectMapper) {
         this.productService = productService;
-        this.meterRegistry = meterRegistry;
+        this.getAllCounter = meterRegistry.counter("products.getAll");
+        this.getPageCounter = meterRegistry.counter("products.getPage");
+        this.exportCounter = meterRegistry.counter("products.export");
+        this.searchCounter = meterRegistry.counter("products.search");
+        this.statsCounter = meterRegistry.counter("products.getStats");
+        this.getByPriceCounter = meterRegistry.counter("products.getByPrice");
+        this.createCounter = meterRegistry.counter("products.create");
+        this.createBulkCounter = meterRegistry.counter("products.createBulk");
+        this.getByIdCounter = meterRegistry.counter("products.getById");
+        this.updateCounter = meterRegistry.counter("products.update");
+        this.patchCounter = meterRegistry.counter("products.patch");
+        this.deleteCounter = meterRegistry.counter("products.delete");
+        this.ndjsonWriter = objectMapper.writerFor(ProductResponseDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n");
+        this.jsonArrayWriter = objectMapper.writerFor(ProductResponseDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.responseCache = new ProductResponseCache(objectMapper, meterRegistry, ENCODED_PRODUCT_BODIES);
     }
 
 
 /**
- * This Java function retrieves all products from a service, maps them to DTOs, and returns them as a
- * JSON response.
+ * This Java function retrieves all products from a service and returns them as a JSON response, or as
+ * CBOR or Smile if the client asks for one of those. The response carries the catalog version as its
+ * ETag; if the client already has that version, 304 Not Modified is returned without loading or
+ * serializing any product. The body is serialized and compressed once per catalog version and format
+ * and then served as stored bytes, in the coding the client accepts.
  * 
- * @return A ResponseEntity containing a list of ProductResponseDTO objects is being returned.
+ * @param ifNoneMatch The `ifNoneMatch` parameter is the optional If-None-Match header with the ETag of
+ * the listing the client already has.
+ * @param accept The `accept` parameter is the optional Accept header that selects JSON (the default),
+ * CBOR or Smile.
+ * @param acceptEncoding The `acceptEncoding` parameter is the optional Accept-Encoding header; gzip and
+ * deflate are served pre-compressed.
+ * @return A ResponseEntity containing the array of products in the negotiated format and coding, or
+ * an empty 304 response if the client's copy is current.
  */
-    @GetMapping
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, ProductResponseCache.APPLICATION_SMILE_VALUE})
     @Operation(summary = "Get all products")
-    public ResponseEntity<List<ProductResponseDTO>> getAllProducts() {
-        meterRegistry.counter("products.getAll").increment();
+    @ApiResponse(responseCode = "200", content = {
+            @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, array = @ArraySchema(schema = @Schema(implementation = ProductResponseDTO.class))),
+            @Content(mediaType = MediaType.APPLICATION_CBOR_VALUE, array = @ArraySchema(schema = @Schema(implementation = ProductResponseDTO.class))),
+            @Content(mediaType = ProductResponseCache.APPLICATION_SMILE_VALUE, array = @ArraySchema(schema = @Schema(implementation = ProductResponseDTO.class)))})
+    public ResponseEntity<byte[]> getAllProducts(
+        @Parameter(description = "ETag of the listing the client already has") @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+        @Parameter(description = "Wire format: JSON (default), CBOR or Smile") @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+        @Parameter(description = "Content codings the client accepts") @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        getAllCounter.increment();
         logger.info("Calling endpoint to get all products");
-        List<Product> products = productService.getAllProducts();
-        List<ProductResponseDTO> productDTOs = products.stream()
+        String version = productService.getCatalogVersion();
+        String etag = ETagMapper.toETag(version);
+        if (ETagMapper.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING).build();
+        }
+        ProductResponseCache.Format format = ProductResponseCache.negotiateFormat(accept);
+        return encoded(etag, format, responseCache.list(format, version, productService::getAllProducts), acceptEncoding);
+    }
+
+    // The ETag is the same for every format and coding, so If-Match keeps working with whichever the client received
+    private static ResponseEntity<byte[]> encoded(String etag, ProductResponseCache.Format format,
+            ProductResponseCache.EncodedBody body, String acceptEncoding) {
+        ProductResponseCache.Coding coding = body.servedAs(ProductResponseCache.negotiate(acceptEncoding));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                .contentType(format.mediaType());
+        if (coding.headerValue() != null) {
+            response.header(HttpHeaders.CONTENT_ENCODING, coding.headerValue());
+        }
+        return response.body(body.bytes(coding));
+    }
+
+
+/**
+ * This function returns one keyset page of products. It is selected instead of the full listing
+ * whenever the `limit` query parameter is present.
+ * 
+ * @param after The `after` parameter is the opaque cursor returned as `nextCursor` by the previous
+ * page. It is omitted for the first page.
+ * @param limit The `limit` parameter is the maximum number of products on the page.
+ * @return A ResponseEntity containing the products of the page and, if the page is full, the cursor
+ * of the next page.
+ */
+    @GetMapping(params = {"limit", "!sort"})
+    @Operation(summary = "Get a page of products using a cursor")
+    public ResponseEntity<ProductPageResponseDTO> getProductsPage(
+        @Parameter(description = "Cursor returned as nextCursor by the previous page") @RequestParam(required = false) String after,
+        @Parameter(description = "Maximum number of products to return") @RequestParam int limit
+    ) {
+        getPageCounter.increment();
+        logger.info("Calling endpoint to get a page of products");
+        List<Product> products = productService.getProductsAfter(CursorMapper.fromCursor(after), limit);
+
+        ProductPageResponseDTO page = new ProductPageResponseDTO();
+        page.setItems(products.stream()
                 .map(ProductMapper::toDTO)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
+        // A full page may have more rows behind it; a short page is always the last one
+        if (products.size() == limit) {
+            page.setNextCursor(CursorMapper.toCursor(products.get(products.size() - 1).getId()));
+        }
+        return ResponseEntity.ok(page);
+    }
+
+
+/**
+ * This function returns the products within a price range ordered by price, for storefront filtering
+ * and "cheapest / most expensive N" lists. It is selected instead of the full listing whenever the
+ * `sort` query parameter is present. Products are read from an in-memory price index and written to
+ * the response one by one as a JSON array, so the range is never materialised in memory.
+ * 
+ * @param sort The `sort` parameter is `price` (or `price,asc`) for cheapest first, or `price,desc` for
+ * most expensive first.
+ * @param minPrice The `minPrice` parameter is the lowest price to include; omitted for no lower bound.
+ * @param maxPrice The `maxPrice` parameter is the highest price to include; omitted for no upper bound.
+ * @param limit The `limit` parameter is the maximum number of products; omitted for the whole range.
+ * @return A ResponseEntity whose body streams the matching products as a JSON array. Invalid
+ * parameters are rejected with 400 Bad Request before anything is written.
+ */
+    @GetMapping(params = "sort")
+    @Operation(summary = "Get products in a price range, ordered by price")
+    public ResponseEntity<StreamingResponseBody> getProductsByPrice(
+        @Parameter(description = "price or price,asc for cheapest first; price,desc for most expensive first") @RequestParam String sort,
+        @Parameter(description = "Lowest price to include") @RequestParam(required = false) BigDecimal minPrice,
+        @Parameter(description = "Highest price to include") @RequestParam(required = false) BigDecimal maxPrice,
+        @Parameter(description = "Maximum number of products to return") @RequestParam(required = false) Integer limit
+    ) {
+        getByPriceCounter.increment();
+        logger.info("Calling endpoint to get products by price");
+        boolean descending = isDescendingPriceSort(sort);
+        productService.checkPriceQuery(minPrice, maxPrice, limit);
+        StreamingResponseBody body = out -> {
+            try (SequenceWriter items = jsonArrayWriter.writeValuesAsArray(out)) {
+                productService.streamProductsByPrice(minPrice, maxPrice, descending, limit, product -> {
+                    try {
+                        items.write(ProductMapper.toDTO(product));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                logger.warn("Products by price aborted: {}", e.getCause().getMessage());
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
 
-        // Return the list of products as a JSON response
+    private static boolean isDescendingPriceSort(String sort) {
+        switch (sort.strip().toLowerCase()) {
+            case "price", "price,asc":
+                return false;
+            case "price,desc":
+                return true;
+            default:
+                throw new IllegalArgumentException("Unsupported sort: " + sort + " (use price, price,asc or price,desc)");
+        }
+    }
+
+
+/**
+ * This function streams the full catalog as newline-delimited JSON, one product per line, in ID order.
+ * Rows are read through a database cursor and written as they arrive, so neither the entities nor
+ * the DTOs of the whole catalog are ever held in memory at once.
+ * 
+ * @return A ResponseEntity whose body writes the products to the response on an async thread. If the
+ * client disconnects, the export stops and the database cursor is released.
+ */
+    @GetMapping(value = "/export", produces = APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export all products as newline-delimited JSON")
+    public ResponseEntity<StreamingResponseBody> exportProducts() {
+        exportCounter.increment();
+        logger.info("Calling endpoint to export all products");
+        StreamingResponseBody body = out -> {
+            long[] written = {0};
+            try (SequenceWriter lines = ndjsonWriter.writeValues(out)) {
+                productService.exportProducts(product -> {
+                    try {
+                        lines.write(ProductMapper.toDTO(product));
+                        if (++written[0] % EXPORT_FLUSH_INTERVAL == 1) {
+                            lines.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                // Almost always the client going away; the transaction and cursor are already closed
+                logger.warn("Product export aborted after {} rows: {}", written[0], e.getCause().getMessage());
+                return;
+            }
+            if (written[0] > 0) {
+                out.write('\n');
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+                .body(body);
+    }
+
+
+/**
+ * This function searches products by name for autocomplete and lookups. Exact name matches come first,
+ * then names starting with the query, names with a word starting with it, and names containing it.
+ * Results come from an in-memory index, so the whole catalog never has to be downloaded and filtered by
+ * the client.
+ * 
+ * @param q The `q` parameter is the text to look for; case and repeated spaces are ignored.
+ * @param limit The `limit` parameter is the maximum number of products to return, 20 by default.
+ * @return A ResponseEntity containing at most `limit` matching products, best match first.
+ */
+    @GetMapping("/search")
+    @Operation(summary = "Search products by name (exact, prefix, word prefix or substring)")
+    public ResponseEntity<List<ProductResponseDTO>> searchProducts(
+        @Parameter(description = "Text to look for in product names") @RequestParam String q,
+        @Parameter(description = "Maximum number of products to return") @RequestParam(defaultValue = "20") int limit
+    ) {
+        searchCounter.increment();
+        logger.info("Calling endpoint to search products");
+        List<ProductResponseDTO> productDTOs = productService.searchProducts(q, limit).stream()
+                .map(ProductMapper::toDTO)
+                .collect(Collectors.toList());
         return ResponseEntity.ok(productDTOs);
     }
 
 
+/**
+ * This function returns price statistics across the whole catalog: the number of products, the sum,
+ * minimum, maximum and average price, and the 50th, 90th, 95th and 99th price percentiles. They are kept
+ * up to date in memory as products change, so dashboards no longer need to download the catalog, and a
+ * request costs the same however many products there are.
+ * 
+ * @return A ResponseEntity containing the statistics. Percentiles are estimates within 1% (the
+ * configured relative accuracy) and are empty while the statistics are still loading.
+ */
+    @GetMapping("/stats")
+    @Operation(summary = "Get price statistics of the whole catalog")
+    public ResponseEntity<ProductStatsResponseDTO> getProductStats() {
+        statsCounter.increment();
+        logger.info("Calling endpoint to get catalog statistics");
+        return ResponseEntity.ok(ProductMapper.toDTO(productService.getCatalogStats()));
+    }
+
+
 /**
  * This function creates a new product based on the provided request data and returns a response with
  * the created product details.
@@ -80,77 +363,170 @@ public class ProductController {
     @PostMapping
     @Operation(summary = "Create a new product")
     public ResponseEntity<ProductResponseDTO> createProduct(@Valid @RequestBody ProductRequestDTO dto) {
-        meterRegistry.counter("products.create").increment();
+        createCounter.increment();
         logger.info("Calling endpoint to create a new product");
         Product created = productService.createProduct(ProductMapper.toEntity(dto).getName(), ProductMapper.toEntity(dto).getPrice());
         return new ResponseEntity<>(ProductMapper.toDTO(created), HttpStatus.CREATED);
     }
 
 
+/**
+ * This function creates many products in one request. Every item is validated before anything is
+ * written, and all items are inserted in a single transaction using JDBC batches.
+ * 
+ * @param dtos The `dtos` parameter is the JSON array of products to create. Each element is validated
+ * like the body of a single create request.
+ * @return The method returns a `ResponseEntity` with the created products, in request order, and an
+ * HTTP status code of 201 (HttpStatus.CREATED).
+ */
+    @PostMapping("/bulk")
+    @Operation(summary = "Create many products in one request")
+    public ResponseEntity<List<ProductResponseDTO>> createProducts(@RequestBody @NotEmpty(message = "At least one product is required") List<@Valid ProductRequestDTO> dtos) {
+        createBulkCounter.increment();
+        logger.info("Calling endpoint to create {} products", dtos.size());
+        List<Product> created = productService.createProducts(dtos.stream()
+                .map(ProductMapper::toEntity)
+                .collect(Collectors.toList()));
+        List<ProductResponseDTO> productDTOs = created.stream()
+                .map(ProductMapper::toDTO)
+                .collect(Collectors.toList());
+        return new ResponseEntity<>(productDTOs, HttpStatus.CREATED);
+    }
+
+
 /**
  * This function retrieves a product by its ID and returns a ResponseEntity containing the product
- * information in a DTO format.
+ * information in a DTO format. The product's version is sent as a strong ETag; if it matches the
+ * If-None-Match header, 304 Not Modified is returned before the product is mapped or serialized. The
+ * encoded bodies of frequently read products are kept per version, so unchanged products are not
+ * serialized or compressed again. CBOR and Smile are served instead of JSON when the client asks for them.
  * 
  * @param id The `id` parameter in the `getProductById` method is a path variable representing the ID
  * of the product to retrieve. It is annotated with `@PathVariable` to indicate that the value for this
  * parameter will be extracted from the URI path of the request URL.
- * @return The method is returning a `ResponseEntity` containing a `ProductResponseDTO` object.
+ * @param ifNoneMatch The `ifNoneMatch` parameter is the optional If-None-Match header with the ETag of
+ * the version the client already has.
+ * @param accept The `accept` parameter is the optional Accept header that selects JSON (the default),
+ * CBOR or Smile.
+ * @param acceptEncoding The `acceptEncoding` parameter is the optional Accept-Encoding header; gzip and
+ * deflate are served pre-compressed.
+ * @return The method is returning a `ResponseEntity` containing the product in the negotiated format
+ * and coding, or an empty 304 response if the client's copy is current.
  */
-    @GetMapping("/{id}")
+    @GetMapping(value = "/{id}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, ProductResponseCache.APPLICATION_SMILE_VALUE})
     @Operation(summary = "Get a product by ID")
-    public ResponseEntity<ProductResponseDTO> getProductById(@Parameter(description = "The ID of the product to retrieve") @PathVariable Long id) {
-        meterRegistry.counter("products.getById").increment();
-        logger.info("Calling endpoint to get product by ID: " + id);
+    @ApiResponse(responseCode = "200", content = {
+            @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ProductResponseDTO.class)),
+            @Content(mediaType = MediaType.APPLICATION_CBOR_VALUE, schema = @Schema(implementation = ProductResponseDTO.class)),
+            @Content(mediaType = ProductResponseCache.APPLICATION_SMILE_VALUE, schema = @Schema(implementation = ProductResponseDTO.class))})
+    public ResponseEntity<byte[]> getProductById(
+        @Parameter(description = "The ID of the product to retrieve") @PathVariable Long id,
+        @Parameter(description = "ETag of the version the client already has") @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+        @Parameter(description = "Wire format: JSON (default), CBOR or Smile") @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+        @Parameter(description = "Content codings the client accepts") @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        getByIdCounter.increment();
+        logger.info("Calling endpoint to get product by ID: {}", id);
         Optional<Product> product = productService.getProductById(id);
         if (product.isEmpty()) {
-            logger.error("Error found in getProductById with ID: " + id + " - Product not found");
+            logger.error("Error found in getProductById with ID: {} - Product not found", id);
             return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok(ProductMapper.toDTO(product.get()));
+        String etag = ETagMapper.toETag(product.get().getVersion());
+        if (ETagMapper.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING).build();
+        }
+        ProductResponseCache.Format format = ProductResponseCache.negotiateFormat(accept);
+        return encoded(etag, format, responseCache.product(format, product.get()), acceptEncoding);
     }
 
 /**
- * This Java function updates a product by ID and returns the updated product.
+ * This Java function updates a product by ID and returns the updated product. The update is a single
+ * UPDATE statement; with an If-Match header it only applies if the product is still at that version.
  * 
  * @param id The `id` parameter in the `updateProduct` method is used to specify the ID of the product
  * that needs to be updated. This ID is extracted from the path variable in the URL mapping
  * `@PutMapping("/{id}")`.
+ * @param ifMatch The `ifMatch` parameter is the optional If-Match header with the ETag of the version
+ * the client last saw. If the product has changed since, 412 Precondition Failed is returned.
  * @param updatedProduct The `updatedProduct` parameter in the `updateProduct` method is of type
  * `Product` and represents the product object with updated information that will be used to update the
  * existing product in the system. This parameter is annotated with `@RequestBody` and `@Valid`,
  * indicating that the data for the
  * @return The `updateProduct` method is returning a `ResponseEntity` object with the updated `Product`
- * entity inside it.
+ * entity inside it, and the new ETag when the update was conditional.
  */
     @PutMapping("/{id}")
     @Operation(summary = "Update a product by ID")
     public ResponseEntity<Product> updateProduct(
         @Parameter(description = "The ID of the product to update") @PathVariable Integer id,
+        @Parameter(description = "ETag of the version the client last saw") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @Valid @RequestBody Product updatedProduct
     ) {
-        meterRegistry.counter("products.update").increment();
-        logger.info("Calling endpoint to update product by ID: " + id);
-        Product product = productService.updateProduct(id, updatedProduct);
-        return ResponseEntity.ok(product);
+        updateCounter.increment();
+        logger.info("Calling endpoint to update product by ID: {}", id);
+        Product product = productService.updateProduct(id, updatedProduct, expectedVersion(id, ifMatch));
+        return ResponseEntity.ok().eTag(ETagMapper.toETag(product.getVersion())).body(product);
     }
 
 /**
- * This Java function deletes a product by its ID and returns a response entity with no content.
+ * This function applies a JSON Merge Patch to a product: only the fields present in the body are
+ * changed. Like PUT, it is a single UPDATE statement and honours If-Match.
+ * 
+ * @param id The `id` parameter is the ID of the product to patch.
+ * @param ifMatch The `ifMatch` parameter is the optional If-Match header with the ETag of the version
+ * the client last saw. If the product has changed since, 412 Precondition Failed is returned.
+ * @param patch The `patch` parameter is the merge patch document, e.g. `{"price": 9.99}`.
+ * @return The method is returning a `ResponseEntity` with a status of `204 No Content`, and the new ETag
+ * when the patch was conditional.
+ */
+    @PatchMapping(value = "/{id}", consumes = APPLICATION_MERGE_PATCH_JSON_VALUE)
+    @Operation(summary = "Partially update a product by ID (JSON Merge Patch)")
+    public ResponseEntity<Void> patchProduct(
+        @Parameter(description = "The ID of the product to patch") @PathVariable Long id,
+        @Parameter(description = "ETag of the version the client last saw") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+        @RequestBody JsonNode patch
+    ) {
+        patchCounter.increment();
+        logger.info("Calling endpoint to patch product by ID: {}", id);
+        Product changes = ProductMapper.fromMergePatch(patch);
+        Long version = productService.patchProduct(id, changes.getName(), changes.getPrice(), expectedVersion(id, ifMatch));
+        return ResponseEntity.noContent().eTag(ETagMapper.toETag(version)).build();
+    }
+
+/**
+ * This Java function deletes a product by its ID and returns a response entity with no content. The
+ * delete is a single DELETE statement; with an If-Match header it only applies if the product is still
+ * at that version.
  * 
  * @param id The `id` parameter in the `deleteProduct` method is used to specify the identifier of the
  * product that needs to be deleted. It is extracted from the path variable in the URL when a DELETE
  * request is made to the endpoint mapped to this method.
+ * @param ifMatch The `ifMatch` parameter is the optional If-Match header with the ETag of the version
+ * the client last saw. If the product has changed since, 412 Precondition Failed is returned.
  * @return The method is returning a `ResponseEntity` with a status of `204 No Content`.
  */
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete a product by ID")
-    public ResponseEntity<Void> deleteProduct(@Parameter(description = "The ID of the product to delete") @PathVariable Integer id) {
-        meterRegistry.counter("products.delete").increment();
-        logger.info("Calling endpoint to delete product by ID: " + id);
-        productService.deleteProduct((long) id);
+    public ResponseEntity<Void> deleteProduct(
+        @Parameter(description = "The ID of the product to delete") @PathVariable Integer id,
+        @Parameter(description = "ETag of the version the client last saw") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        deleteCounter.increment();
+        logger.info("Calling endpoint to delete product by ID: {}", id);
+        productService.deleteProduct((long) id, expectedVersion(id, ifMatch));
         return ResponseEntity.noContent().build();
     }
 
+    // A single version goes straight into the conditional statement; a list is narrowed to the current one
+    private Long expectedVersion(long id, String ifMatch) {
+        List<Long> versions = ETagMapper.toVersions(ifMatch);
+        if (versions == null) {
+            return null;
+        }
+        return versions.size() == 1 ? versions.getFirst() : productService.currentVersionAmong(id, versions);
+    }
+
     
 
 }
@@ -0,0 +1,387 @@
+package com.example.backend.rest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import com.example.backend.dto.ProductResponseDTO;
+import com.example.backend.entity.Product;
+import com.example.backend.mapper.ProductMapper;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Keeps response bodies serialized and compressed, so unchanged data is neither mapped, serialized nor
+ * compressed again. Each body is stored in one wire format (JSON, CBOR or Smile) plus gzip and deflate
+ * encoded variants.
+ *
+ * The product list is keyed by format and catalog version, the most requested single products by ID,
+ * format and version (bounded, admission and eviction by Caffeine). A body built for an older version is
+ * simply replaced. Bodies are shared between requests and must not be modified.
+ */
+public class ProductResponseCache {
+
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    public static final MediaType APPLICATION_SMILE = MediaType.valueOf(APPLICATION_SMILE_VALUE);
+
+    /**
+     * Wire formats a body can be serialized in, in order of preference when the client accepts several
+     * equally. The binary formats are for internal callers; JSON stays the default.
+     */
+    public enum Format {
+        JSON(MediaType.APPLICATION_JSON), CBOR(MediaType.APPLICATION_CBOR), SMILE(APPLICATION_SMILE);
+
+        private final MediaType mediaType;
+
+        Format(MediaType mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        public MediaType mediaType() {
+            return mediaType;
+        }
+
+        private JsonFactory factory() {
+            return switch (this) {
+                case JSON -> new JsonFactory();
+                case CBOR -> new CBORFactory();
+                case SMILE -> new SmileFactory();
+            };
+        }
+    }
+
+    /**
+     * Content codings a body is stored in.
+     */
+    public enum Coding {
+        IDENTITY(null), GZIP("gzip"), DEFLATE("deflate");
+
+        private final String headerValue;
+
+        Coding(String headerValue) {
+            this.headerValue = headerValue;
+        }
+
+        /**
+         * Returns the Content-Encoding header value, or null for identity.
+         */
+        public String headerValue() {
+            return headerValue;
+        }
+    }
+
+    /**
+     * One response body in every coding.
+     *
+     * @param version The catalog or product version the body was built from
+     * @param identity The serialized bytes
+     * @param gzip The gzip encoded bytes, or null when compression would not make it smaller
+     * @param deflate The deflate (zlib) encoded bytes, or null when compression would not make it smaller
+     */
+    public record EncodedBody(Object version, byte[] identity, byte[] gzip, byte[] deflate) {
+
+        /**
+         * Returns the coding actually served for the preferred one: identity when that variant was not
+         * worth storing.
+         */
+        public Coding servedAs(Coding preferred) {
+            return switch (preferred) {
+                case GZIP -> gzip != null ? Coding.GZIP : Coding.IDENTITY;
+                case DEFLATE -> deflate != null ? Coding.DEFLATE : Coding.IDENTITY;
+                case IDENTITY -> Coding.IDENTITY;
+            };
+        }
+
+        public byte[] bytes(Coding coding) {
+            return switch (coding) {
+                case GZIP -> gzip;
+                case DEFLATE -> deflate;
+                case IDENTITY -> identity;
+            };
+        }
+    }
+
+    private record ProductKey(long id, Format format) {
+    }
+
+    private record ListKey(Format format, String catalogVersion) {
+    }
+
+    private final Map<Format, ObjectWriter> listWriters = new EnumMap<>(Format.class);
+
+    private final Map<Format, ObjectWriter> productWriters = new EnumMap<>(Format.class);
+
+    private final Cache<ProductKey, EncodedBody> products;
+
+    private final Counter listHits;
+
+    private final Counter listMisses;
+
+    private final Counter productHits;
+
+    private final Counter productMisses;
+
+    private final Map<Format, EncodedBody> lists = new ConcurrentHashMap<>();
+
+    private final Map<ListKey, CompletableFuture<EncodedBody>> listsInFlight = new ConcurrentHashMap<>();
+
+    /**
+     * @param objectMapper The application's mapper; the binary formats use copies of it, so they
+     *                     serialize with the same modules and settings
+     */
+    public ProductResponseCache(ObjectMapper objectMapper, MeterRegistry meterRegistry, int maximumProducts) {
+        for (Format format : Format.values()) {
+            ObjectMapper mapper = format == Format.JSON ? objectMapper : objectMapper.copyWith(format.factory());
+            listWriters.put(format, mapper.writerFor(new TypeReference<List<ProductResponseDTO>>() { }));
+            productWriters.put(format, mapper.writerFor(ProductResponseDTO.class));
+        }
+        this.products = Caffeine.newBuilder().maximumSize(maximumProducts).build();
+        this.listHits = counter(meterRegistry, "list", "hit");
+        this.listMisses = counter(meterRegistry, "list", "miss");
+        this.productHits = counter(meterRegistry, "product", "hit");
+        this.productMisses = counter(meterRegistry, "product", "miss");
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String resource, String result) {
+        return Counter.builder("products.response.cache")
+                .description("Responses served from pre-encoded bodies (hit) or encoded for the request (miss)")
+                .tag("resource", resource)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the encoded product list for the catalog version, building it once per version and format.
+     *
+     * @param format The wire format
+     * @param catalogVersion The current catalog version, or null if unknown (the body is then not kept)
+     * @param products Supplies the products; only called when the body has to be built
+     */
+    public EncodedBody list(Format format, String catalogVersion, Supplier<List<Product>> products) {
+        EncodedBody cached = cachedList(format, catalogVersion);
+        if (cached != null) {
+            listHits.increment();
+            return cached;
+        }
+        if (catalogVersion == null) {
+            listMisses.increment();
+            return buildList(format, null, products);
+        }
+        // One request builds the body of a new version, the others missing the same format and version wait
+        // for it instead of repeating the work. Other formats and versions are not held up, and waiting on a
+        // future rather than a monitor does not pin the carrier of a virtual thread
+        ListKey key = new ListKey(format, catalogVersion);
+        CompletableFuture<EncodedBody> building = new CompletableFuture<>();
+        CompletableFuture<EncodedBody> running = listsInFlight.putIfAbsent(key, building);
+        if (running != null) {
+            listHits.increment();
+            return join(running);
+        }
+        try {
+            // Built by a request that finished between the check above and putIfAbsent
+            EncodedBody built = cachedList(format, catalogVersion);
+            if (built != null) {
+                listHits.increment();
+            } else {
+                listMisses.increment();
+                built = buildList(format, catalogVersion, products);
+                lists.put(format, built);
+            }
+            building.complete(built);
+            return built;
+        } catch (RuntimeException e) {
+            building.completeExceptionally(e);
+            throw e;
+        } finally {
+            listsInFlight.remove(key);
+        }
+    }
+
+    private EncodedBody cachedList(Format format, String catalogVersion) {
+        EncodedBody cached = lists.get(format);
+        return cached != null && catalogVersion != null && catalogVersion.equals(cached.version()) ? cached : null;
+    }
+
+    private EncodedBody buildList(Format format, String catalogVersion, Supplier<List<Product>> products) {
+        List<ProductResponseDTO> dtos = products.get().stream().map(ProductMapper::toDTO).toList();
+        return encode(catalogVersion, write(listWriters.get(format), dtos));
+    }
+
+    private static EncodedBody join(CompletableFuture<EncodedBody> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the encoded product, reusing the body of the same product version and format.
+     */
+    public EncodedBody product(Format format, Product product) {
+        ProductKey key = product.getId() == null ? null : new ProductKey(product.getId(), format);
+        Long version = product.getVersion();
+        EncodedBody cached = key == null ? null : products.getIfPresent(key);
+        if (cached != null && version != null && Objects.equals(version, cached.version())) {
+            productHits.increment();
+            return cached;
+        }
+        productMisses.increment();
+        EncodedBody built = encode(version, write(productWriters.get(format), ProductMapper.toDTO(product)));
+        if (key != null && version != null) {
+            products.put(key, built);
+        }
+        return built;
+    }
+
+    /**
+     * Picks the wire format from an Accept header: the acceptable format with the highest quality,
+     * ties going to the order of {@link Format}. JSON when there is no header or nothing matches, in
+     * which case the handler mapping has already rejected the request with 406 if it listed formats.
+     *
+     * @param accept The Accept header value, or null
+     */
+    public static Format negotiateFormat(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return Format.JSON;
+        }
+        List<MediaType> acceptable;
+        try {
+            acceptable = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return Format.JSON;
+        }
+        Format best = Format.JSON;
+        double bestQuality = -1;
+        for (Format format : Format.values()) {
+            double quality = acceptable.stream()
+                    .filter(type -> type.includes(format.mediaType()))
+                    // The most specific range decides, e.g. "application/cbor;q=0" beats "*/*"
+                    .max(Comparator.comparingInt(ProductResponseCache::specificity))
+                    .map(MediaType::getQualityValue)
+                    .orElse(0.0);
+            if (quality > bestQuality && quality > 0) {
+                best = format;
+                bestQuality = quality;
+            }
+        }
+        return best;
+    }
+
+    private static int specificity(MediaType type) {
+        return type.isWildcardType() ? 0 : type.isWildcardSubtype() ? 1 : 2;
+    }
+
+    /**
+     * Picks the coding to serve from an Accept-Encoding header: gzip, then deflate, then identity.
+     * Codings with q=0 are excluded and "*" stands for every coding not listed.
+     *
+     * @param acceptEncoding The Accept-Encoding header value, or null
+     */
+    public static Coding negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return Coding.IDENTITY;
+        }
+        double gzip = -1;
+        double deflate = -1;
+        double any = -1;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2));
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            switch (parts[0].trim().toLowerCase(Locale.ROOT)) {
+                case "gzip", "x-gzip" -> gzip = quality;
+                case "deflate" -> deflate = quality;
+                case "*" -> any = quality;
+                default -> { }
+            }
+        }
+        gzip = gzip < 0 ? any : gzip;
+        deflate = deflate < 0 ? any : deflate;
+        if (gzip > 0 && gzip >= deflate) {
+            return Coding.GZIP;
+        }
+        return deflate > 0 ? Coding.DEFLATE : Coding.IDENTITY;
+    }
+
+    private static byte[] write(ObjectWriter writer, Object value) {
+        try {
+            return writer.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Compressed once per version, so the best compression is worth its extra CPU
+    private static EncodedBody encode(Object version, byte[] json) {
+        byte[] gzip = compress(json, out -> new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        });
+        // A deflater passed in is not released by the stream
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        byte[] deflate;
+        try {
+            deflate = compress(json, out -> new DeflaterOutputStream(out, deflater));
+        } finally {
+            deflater.end();
+        }
+        return new EncodedBody(version, json,
+                gzip.length < json.length ? gzip : null,
+                deflate.length < json.length ? deflate : null);
+    }
+
+    private interface Encoder {
+        OutputStream wrap(OutputStream out) throws IOException;
+    }
+
+    private static byte[] compress(byte[] bytes, Encoder encoder) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (OutputStream out = encoder.wrap(buffer)) {
+            out.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+}
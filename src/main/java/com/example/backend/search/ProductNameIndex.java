@@ -0,0 +1,312 @@
+package com.example.backend.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.example.backend.entity.Product;
+
+/**
+ * In-memory index of product names for exact, prefix, word-prefix and substring lookups.
+ *
+ * Names are normalized (lower case, single spaces) and kept in a sorted map, so exact and prefix
+ * matches are a range scan. Everything else goes through a trigram inverted index: the posting lists
+ * of the trigrams in the query's words are intersected, walking the shortest one, and each candidate
+ * is checked against the name. Query words shorter than three characters fall back to a sorted map of
+ * name words.
+ *
+ * Results are ranked by match kind (exact, prefix, word prefix, substring), then by name within exact
+ * and prefix matches and by ID otherwise. Lookups stop as soon as they have enough results, so word
+ * prefix and substring matches are only ranked against each other among the lowest matching IDs. A
+ * query whose rarest trigram is still very common, and which matches few names, walks a long posting
+ * list.
+ *
+ * Thread safe: lookups share a read lock, changes take the write lock. Indexed products are shared
+ * with callers and must be treated as read-only.
+ */
+public class ProductNameIndex {
+
+    private static final char SEPARATOR = '\u0000';
+
+    private static final int GRAM = 3;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Product> products = new HashMap<>();
+
+    private final Map<Long, String> normalizedNames = new HashMap<>();
+
+    // "name\0id" and "word\0id" -> id; the suffix keeps equal names apart
+    private final NavigableMap<String, Long> byName = new TreeMap<>();
+
+    private final NavigableMap<String, Long> byWord = new TreeMap<>();
+
+    private final Map<String, Postings> byTrigram = new HashMap<>();
+
+    /**
+     * Adds a product or replaces the indexed version of it.
+     */
+    public void put(Product product) {
+        String normalized = normalize(product.getName());
+        lock.writeLock().lock();
+        try {
+            removeLocked(product.getId());
+            products.put(product.getId(), product);
+            normalizedNames.put(product.getId(), normalized);
+            byName.put(key(normalized, product.getId()), product.getId());
+            for (String word : words(normalized)) {
+                byWord.put(key(word, product.getId()), product.getId());
+            }
+            for (String trigram : trigrams(normalized)) {
+                byTrigram.computeIfAbsent(trigram, t -> new Postings()).add(product.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            products.clear();
+            normalizedNames.clear();
+            byName.clear();
+            byWord.clear();
+            byTrigram.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Product get(Long id) {
+        lock.readLock().lock();
+        try {
+            return products.get(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return products.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the best matches for the query, best first.
+     *
+     * @param query Text to look for; case and repeated whitespace are ignored
+     * @param limit Maximum number of products to return
+     * @return At most {@code limit} products, exact name matches first, then names starting with the
+     *         query, names with a word starting with the query, and names containing it
+     */
+    public List<Product> search(String query, int limit) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty() || limit < 1) {
+            return List.of();
+        }
+        Map<Long, Product> results = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            collect(byName.subMap(normalized + SEPARATOR, true, normalized + (char) (SEPARATOR + 1), false), results, limit);
+            collect(byName.subMap(normalized, true, normalized + Character.MAX_VALUE, false), results, limit);
+            collectWordPrefixesAndSubstrings(normalized, results, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new ArrayList<>(results.values());
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : text.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private void removeLocked(Long id) {
+        Product removed = products.remove(id);
+        String normalized = normalizedNames.remove(id);
+        if (removed == null) {
+            return;
+        }
+        byName.remove(key(normalized, id));
+        for (String word : words(normalized)) {
+            byWord.remove(key(word, id));
+        }
+        for (String trigram : trigrams(normalized)) {
+            Postings postings = byTrigram.get(trigram);
+            if (postings != null && postings.remove(id) && postings.size == 0) {
+                byTrigram.remove(trigram);
+            }
+        }
+    }
+
+    private void collect(Map<String, Long> range, Map<Long, Product> results, int limit) {
+        for (Long id : range.values()) {
+            if (results.size() >= limit) {
+                return;
+            }
+            results.putIfAbsent(id, products.get(id));
+        }
+    }
+
+    /*
+     * Word-prefix and substring matches both contain every trigram of every query word, so candidates for
+     * both come from one walk over the shortest of those posting lists, which stops once both kinds
+     * together fill the limit. Word-prefix matches found by then are listed first.
+     */
+    private void collectWordPrefixesAndSubstrings(String normalized, Map<Long, Product> results, int limit) {
+        String[] queryWords = words(normalized);
+        List<Postings> lists = new ArrayList<>();
+        for (String word : queryWords) {
+            for (String trigram : trigrams(word)) {
+                Postings postings = byTrigram.get(trigram);
+                if (postings == null) {
+                    return;
+                }
+                lists.add(postings);
+            }
+        }
+        if (lists.isEmpty()) {
+            collectShortWordPrefixes(queryWords, results, limit);
+            return;
+        }
+        lists.sort((a, b) -> Integer.compare(a.size, b.size));
+        List<Long> substrings = new ArrayList<>();
+        Postings shortest = lists.get(0);
+        for (int i = 0; i < shortest.size && results.size() + substrings.size() < limit; i++) {
+            long id = shortest.ids[i];
+            if (results.containsKey(id) || !inAll(lists, id)) {
+                continue;
+            }
+            String name = normalizedNames.get(id);
+            if (startsEveryWord(name, queryWords)) {
+                results.put(id, products.get(id));
+            } else if (name.contains(normalized)) {
+                substrings.add(id);
+            }
+        }
+        for (int i = 0; i < substrings.size() && results.size() < limit; i++) {
+            results.put(substrings.get(i), products.get(substrings.get(i)));
+        }
+    }
+
+    // Query words of one or two characters have no trigrams; scan the names with a word starting with the longest
+    private void collectShortWordPrefixes(String[] queryWords, Map<Long, Product> results, int limit) {
+        String longest = queryWords[0];
+        for (String word : queryWords) {
+            if (word.length() > longest.length()) {
+                longest = word;
+            }
+        }
+        for (Long id : byWord.subMap(longest, true, longest + Character.MAX_VALUE, false).values()) {
+            if (results.size() >= limit) {
+                return;
+            }
+            if (!results.containsKey(id) && startsEveryWord(normalizedNames.get(id), queryWords)) {
+                results.put(id, products.get(id));
+            }
+        }
+    }
+
+    private static boolean inAll(List<Postings> lists, long id) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean startsEveryWord(String name, String[] queryWords) {
+        for (String queryWord : queryWords) {
+            if (!startsWord(name, queryWord)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean startsWord(String name, String prefix) {
+        for (int at = name.indexOf(prefix); at >= 0; at = name.indexOf(prefix, at + 1)) {
+            if (at == 0 || name.charAt(at - 1) == ' ') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String key(String text, long id) {
+        return text + SEPARATOR + id;
+    }
+
+    private static String[] words(String normalized) {
+        return normalized.split(" ");
+    }
+
+    private static List<String> trigrams(String normalized) {
+        List<String> trigrams = new ArrayList<>();
+        for (int i = 0; i + GRAM <= normalized.length(); i++) {
+            String trigram = normalized.substring(i, i + GRAM);
+            if (!trigrams.contains(trigram)) {
+                trigrams.add(trigram);
+            }
+        }
+        return trigrams;
+    }
+
+    /** Sorted array of product IDs. IDs mostly arrive in increasing order, so adds are usually appends. */
+    private static final class Postings {
+
+        private long[] ids = new long[4];
+
+        private int size;
+
+        void add(long id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at >= 0) {
+                return;
+            }
+            at = -at - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            ids[at] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at < 0) {
+                return false;
+            }
+            System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+            size--;
+            return true;
+        }
+
+        boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.backend.search;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+import com.example.backend.entity.Product;
+
+/**
+ * In-memory index of products ordered by price, then ID, for price-range and cheapest / most
+ * expensive queries.
+ *
+ * Backed by a concurrent skip list, so lookups take no lock and walk the range lazily: a range is
+ * never copied, and reading the first N products costs O(log n + N). Changes must not run
+ * concurrently with each other (the owner serializes them). While a product is being changed, a
+ * concurrent reader may briefly miss it, but never sees it twice.
+ *
+ * Indexed products are shared with callers and must be treated as read-only.
+ */
+public class ProductPriceIndex {
+
+    record Key(BigDecimal price, long id) implements Comparable<Key> {
+
+        @Override
+        public int compareTo(Key other) {
+            int byPrice = price.compareTo(other.price);
+            return byPrice != 0 ? byPrice : Long.compare(id, other.id);
+        }
+    }
+
+    private final ConcurrentSkipListMap<Key, Product> byPrice = new ConcurrentSkipListMap<>();
+
+    private final Map<Long, Key> keys = new ConcurrentHashMap<>();
+
+    /**
+     * Adds a product or moves it to its new price.
+     */
+    public void put(Product product) {
+        remove(product.getId());
+        Key key = new Key(product.getPrice(), product.getId());
+        byPrice.put(key, product);
+        keys.put(product.getId(), key);
+    }
+
+    public void remove(Long id) {
+        Key key = keys.remove(id);
+        if (key != null) {
+            byPrice.remove(key);
+        }
+    }
+
+    public void clear() {
+        keys.clear();
+        byPrice.clear();
+    }
+
+    public int size() {
+        return keys.size();
+    }
+
+    /**
+     * Returns the products within the price range, in price order, lazily.
+     *
+     * @param minPrice Lowest price to include, or null for no lower bound
+     * @param maxPrice Highest price to include, or null for no upper bound
+     * @param descending Whether the most expensive products come first
+     * @return The products, ordered by price and then ID (both reversed when descending)
+     */
+    public Stream<Product> range(BigDecimal minPrice, BigDecimal maxPrice, boolean descending) {
+        NavigableMap<Key, Product> range = byPrice;
+        if (minPrice != null) {
+            range = range.tailMap(new Key(minPrice, Long.MIN_VALUE), true);
+        }
+        if (maxPrice != null) {
+            range = range.headMap(new Key(maxPrice, Long.MAX_VALUE), true);
+        }
+        return (descending ? range.descendingMap() : range).values().stream();
+    }
+}
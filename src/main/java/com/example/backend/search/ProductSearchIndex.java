@@ -0,0 +1,200 @@
+package com.example.backend.search;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.backend.dao.ProductRepository;
+import com.example.backend.entity.Product;
+import com.example.backend.event.ProductChangedEvent;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Keeps in-memory indexes of the whole catalog, by name ({@link ProductNameIndex}) and by price
+ * ({@link ProductPriceIndex}), in sync with the database.
+ *
+ * The index is loaded on a background thread once the application is ready; until it is, and when it
+ * is disabled, {@link #isReady()} is false and callers fall back to the database. Local writes are
+ * applied after their transaction commits, and changes made on other nodes are applied by the
+ * {@link com.example.backend.cache.ProductChangePoller}. Partial updates and remote changes do not
+ * carry the product, so it is reloaded by ID.
+ *
+ * A change applied while the index is loading wins over the row the load reads for the same product,
+ * because that row may have been read before the change committed.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final Logger logger = LogManager.getLogger(ProductSearchIndex.class);
+
+    private final ProductNameIndex index = new ProductNameIndex();
+
+    private final ProductPriceIndex priceIndex = new ProductPriceIndex();
+
+    private final ProductRepository productRepository;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final boolean enabled;
+
+    private volatile boolean ready;
+
+    // Serializes loads; changes only need the monitor of this
+    private final Object loadLock = new Object();
+
+    // IDs changed while a load is running; guarded by this, null when no load is running
+    private Set<Long> changedDuringLoad;
+
+    public ProductSearchIndex(ProductRepository productRepository, EntityManager entityManager,
+            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+            @Value("${app.products.search.index.enabled:true}") boolean enabled) {
+        this.productRepository = productRepository;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        Gauge.builder("products.search.index.size", index, ProductNameIndex::size)
+                .description("Products in the in-memory name index")
+                .register(meterRegistry);
+        Gauge.builder("products.search.index.ready", this, searchIndex -> searchIndex.ready ? 1 : 0)
+                .register(meterRegistry);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns the best matches for the query from the index. Only valid once {@link #isReady()}.
+     */
+    public List<Product> search(String query, int limit) {
+        return index.search(query, limit);
+    }
+
+    /**
+     * Returns the products within the price range, in price order, lazily. Only valid once
+     * {@link #isReady()}.
+     */
+    public Stream<Product> byPrice(BigDecimal minPrice, BigDecimal maxPrice, boolean descending) {
+        return priceIndex.range(minPrice, maxPrice, descending);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadInBackground() {
+        if (!enabled) {
+            logger.info("Product search index is disabled; searches go to the database");
+            return;
+        }
+        Thread.ofPlatform().name("product-search-index").daemon().start(this::load);
+    }
+
+    /**
+     * Rebuilds the index from the database. Searches use the database until it is done.
+     */
+    public void load() {
+        synchronized (loadLock) {
+            loadOnce();
+        }
+    }
+
+    private void loadOnce() {
+        long start = System.nanoTime();
+        synchronized (this) {
+            ready = false;
+            index.clear();
+            priceIndex.clear();
+            changedDuringLoad = new HashSet<>();
+        }
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<Product> products = productRepository.streamAllOrderedById()) {
+                    products.forEach(product -> {
+                        loaded(product);
+                        entityManager.detach(product);
+                    });
+                }
+            });
+            synchronized (this) {
+                changedDuringLoad = null;
+                ready = true;
+            }
+            logger.info("Product search index loaded {} products in {} ms", index.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                changedDuringLoad = null;
+            }
+            logger.warn("Loading the product search index failed, searches stay on the database: {}", e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (event.type() == ProductChangedEvent.Type.DELETED) {
+            apply(event.productId(), null);
+        } else if (event.product() != null) {
+            apply(event.productId(), event.product());
+        } else {
+            refresh(event.productId());
+        }
+    }
+
+    /**
+     * Re-reads one product from the database, e.g. after another node changed it.
+     */
+    public void refresh(Long id) {
+        if (!enabled) {
+            return;
+        }
+        Optional<Product> product = productRepository.findById(id);
+        apply(id, product.orElse(null));
+    }
+
+    private synchronized void loaded(Product product) {
+        if (changedDuringLoad != null && !changedDuringLoad.contains(product.getId())) {
+            index.put(product);
+            priceIndex.put(product);
+        }
+    }
+
+    private synchronized void apply(Long id, Product product) {
+        if (changedDuringLoad != null) {
+            changedDuringLoad.add(id);
+        }
+        if (product == null) {
+            index.remove(id);
+            priceIndex.remove(id);
+            return;
+        }
+        // Two reloads of the same product may finish out of order; keep the newer row
+        Product indexed = index.get(id);
+        if (indexed != null && indexed.getVersion() != null && product.getVersion() != null
+                && product.getVersion() < indexed.getVersion()) {
+            return;
+        }
+        index.put(product);
+        priceIndex.put(product);
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.backend.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Remembers recently verified passwords so that HTTP Basic, which sends the credentials with every
+ * request, pays for BCrypt once per credential and TTL instead of on every call.
+ *
+ * The cache key is an HMAC of the raw password and the stored hash under a random per-process key, so
+ * the cache never holds a password, and a changed password (a new stored hash) is never matched by an
+ * old entry. Only successful matches are cached; wrong passwords always go through the delegate.
+ */
+public class CachingPasswordEncoder implements PasswordEncoder {
+
+    public static final String METRIC_NAME = "security.password.verify";
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final PasswordEncoder delegate;
+
+    private final Mac prototype;
+
+    private final Cache<String, Boolean> verified;
+
+    private final Map<String, CompletableFuture<Boolean>> inFlight = new ConcurrentHashMap<>();
+
+    private final Timer cachedTimer;
+
+    private final Timer matchedTimer;
+
+    private final Timer rejectedTimer;
+
+    public CachingPasswordEncoder(PasswordEncoder delegate, Duration ttl, long maximumSize, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        try {
+            this.prototype = Mac.getInstance(HMAC_ALGORITHM);
+            this.prototype.init(new SecretKeySpec(secret, HMAC_ALGORITHM));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(HMAC_ALGORITHM + " is not available", e);
+        }
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.cachedTimer = timer(meterRegistry, "hit", "match");
+        this.matchedTimer = timer(meterRegistry, "miss", "match");
+        this.rejectedTimer = timer(meterRegistry, "miss", "mismatch");
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String cache, String result) {
+        return Timer.builder(METRIC_NAME)
+                .description("Time spent checking a password")
+                .tag("cache", cache)
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        if (rawPassword == null || encodedPassword == null) {
+            return delegate.matches(rawPassword, encodedPassword);
+        }
+        long start = System.nanoTime();
+        String key = key(rawPassword, encodedPassword);
+        if (verified.getIfPresent(key) != null) {
+            cachedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return true;
+        }
+        boolean matches = verify(key, rawPassword, encodedPassword);
+        (matches ? matchedTimer : rejectedTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return matches;
+    }
+
+    // The same key means the same password and hash, so concurrent callers can share one BCrypt run.
+    // Without this, a burst of requests arriving before the first check finishes would all run BCrypt.
+    private boolean verify(String key, CharSequence rawPassword, String encodedPassword) {
+        CompletableFuture<Boolean> verification = new CompletableFuture<>();
+        CompletableFuture<Boolean> running = inFlight.putIfAbsent(key, verification);
+        if (running != null) {
+            return running.join();
+        }
+        try {
+            boolean matches = delegate.matches(rawPassword, encodedPassword);
+            if (matches) {
+                verified.put(key, Boolean.TRUE);
+            }
+            verification.complete(matches);
+            return matches;
+        } catch (RuntimeException e) {
+            verification.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key);
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private String key(CharSequence rawPassword, String encodedPassword) {
+        Mac mac;
+        try {
+            mac = (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+        mac.update(rawPassword.toString().getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);
+        return Base64.getEncoder().encodeToString(mac.doFinal(encodedPassword.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.backend.security;
+
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Authentication details that tell apart the clients of one user. Every client of this API authenticates
+ * as the same configured user, so per-client state such as read-your-writes cannot be keyed on the user
+ * alone. A client names itself with the {@value #HEADER} header; one that does not is told apart by its
+ * address.
+ */
+public class ClientAuthenticationDetails extends WebAuthenticationDetails {
+
+    public static final String HEADER = "X-Client-Id";
+
+    // Client IDs are keys of in-memory state, so an oversized one is cut rather than kept whole
+    private static final int MAX_CLIENT_LENGTH = 128;
+
+    private final String client;
+
+    public ClientAuthenticationDetails(HttpServletRequest request) {
+        super(request);
+        String header = request.getHeader(HEADER);
+        if (header == null || header.isBlank()) {
+            this.client = getRemoteAddress();
+        } else {
+            String id = header.strip();
+            this.client = id.length() > MAX_CLIENT_LENGTH ? id.substring(0, MAX_CLIENT_LENGTH) : id;
+        }
+    }
+
+    /**
+     * @return The ID the client sent, or its address
+     */
+    public String getClient() {
+        return client;
+    }
+}
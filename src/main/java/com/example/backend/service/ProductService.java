@@ -1,25 +1,96 @@
 package com.example.backend.service;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.example.backend.cache.ProductCache;
+import com.example.backend.cache.ProductCatalogSnapshot;
+import com.example.backend.dao.ProductChangeRepository;
 import com.example.backend.dao.ProductRepository;
 import com.example.backend.entity.Product;
+import com.example.backend.event.ProductChangedEvent;
+import com.example.backend.exception.VersionConflictException;
+import com.example.backend.search.ProductSearchIndex;
+import com.example.backend.stats.CatalogStats;
+import com.example.backend.stats.ProductCatalogStats;
+import com.example.backend.write.ProductWriteBehind;
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+
+import jakarta.persistence.EntityManager;
 
 @Service
 public class ProductService {
 
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    public static final int MAX_BULK_SIZE = 10000;
+
+    public static final int MAX_SEARCH_LIMIT = 100;
+
+    // Matches spring.jpa.properties.hibernate.jdbc.batch_size
+    public static final int BULK_BATCH_SIZE = 50;
+
     private final ProductRepository productRepository;
 
-    public ProductService(ProductRepository productRepository) {
+    private final EntityManager entityManager;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final ProductCache productCache;
+
+    private final ProductChangeRepository productChangeRepository;
+
+    private final ProductSearchIndex productSearchIndex;
+
+    // Only the database fallback of price queries needs a transaction; the index path must not hold a connection
+    private final TransactionTemplate readOnlyTransaction;
+
+    // Single creates and updates may wait for a group commit, which they must not do holding a connection
+    private final TransactionTemplate writeTransaction;
+
+    private final ProductCatalogSnapshot catalogSnapshot;
+
+    private final ProductCatalogStats catalogStats;
+
+    private final ProductWriteBehind writeBehind;
+
+    public ProductService(ProductRepository productRepository, EntityManager entityManager,
+            ApplicationEventPublisher eventPublisher, ProductCache productCache,
+            ProductChangeRepository productChangeRepository, ProductSearchIndex productSearchIndex,
+            PlatformTransactionManager transactionManager, ProductCatalogSnapshot catalogSnapshot,
+            ProductCatalogStats catalogStats, ProductWriteBehind writeBehind) {
         this.productRepository = productRepository;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+        this.productCache = productCache;
+        this.productChangeRepository = productChangeRepository;
+        this.productSearchIndex = productSearchIndex;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.catalogSnapshot = catalogSnapshot;
+        this.catalogStats = catalogStats;
+        this.writeBehind = writeBehind;
     }
 
 /**
  * The `createProduct` function creates a new product with a given name and price, performing
- * validation checks before saving it to the repository.
+ * validation checks before saving it to the repository. With write-behind enabled, the product is
+ * inserted by the next group commit and the call returns once that has committed.
  * 
  * @param name The `name` parameter is a `String` representing the name of the product being created.
  * @param price The `price` parameter in the `createProduct` method is of type `BigDecimal`. It is used
@@ -34,31 +105,323 @@ public class ProductService {
         if (price.compareTo(BigDecimal.ZERO) < 0) {
             throw new IllegalArgumentException("Product price cannot be negative");
         }
-        Product product = new Product(name, price);
-        return productRepository.save(product);
+        if (writesBehind()) {
+            return writeBehind.create(name, price);
+        }
+        return writeTransaction.execute(status -> {
+            Product product = productRepository.save(new Product(name, price));
+            eventPublisher.publishEvent(ProductChangedEvent.created(product));
+            return product;
+        });
     }
 
+/**
+ * The `createProducts` function validates every product first and then inserts all of them in one
+ * transaction. Inserts are flushed in chunks of `BULK_BATCH_SIZE`, so Hibernate sends them as JDBC
+ * batches, and the persistence context is cleared after each chunk to keep memory flat.
+ * 
+ * @param products The `products` parameter is the list of new products to insert. Either all of them
+ * are created or, if any of them is invalid, none are.
+ * @return The `createProducts` method returns the created products, with their generated IDs, in the
+ * order they were given.
+ */
+    @Transactional
+    public List<Product> createProducts(List<Product> products) {
+        checkBulk(products, "created");
+        insertInBatches(products);
+        products.forEach(product -> eventPublisher.publishEvent(ProductChangedEvent.created(product)));
+        return products;
+    }
+
+/**
+ * The `upsertProducts` function writes a batch of products in one transaction. Products without an ID
+ * are inserted in JDBC batches like `createProducts`; products with an ID have their name and price
+ * replaced with one conditional UPDATE each, whatever their current version. The inserts are sent
+ * first, so the updates cannot force a flush in the middle of an insert batch.
+ * 
+ * @param products The `products` parameter is the batch to write. Either all of them are written or,
+ * if any of them is invalid or refers to a missing product, none are.
+ * @return The `upsertProducts` method returns the written products in the order they were given:
+ * created ones with their generated IDs, updated ones without a version, as with `updateProduct`.
+ */
+    @Transactional
+    public List<Product> upsertProducts(List<Product> products) {
+        checkBulk(products, "written");
+        // Decided before inserting, which assigns the IDs
+        boolean[] created = new boolean[products.size()];
+        List<Product> inserts = new ArrayList<>();
+        for (int i = 0; i < products.size(); i++) {
+            if (products.get(i).getId() == null) {
+                created[i] = true;
+                inserts.add(products.get(i));
+            }
+        }
+        insertInBatches(inserts);
+
+        List<Product> written = new ArrayList<>(products.size());
+        for (int i = 0; i < products.size(); i++) {
+            Product product = products.get(i);
+            if (!created[i]) {
+                if (productRepository.updateIfVersion(product.getId(), product.getName(), product.getPrice(), null) == 0) {
+                    throw new IllegalArgumentException("Product not found (item " + i + ")");
+                }
+                product = new Product(product.getId(), product.getName(), product.getPrice(), null);
+            }
+            written.add(product);
+        }
+        for (int i = 0; i < written.size(); i++) {
+            eventPublisher.publishEvent(created[i] ? ProductChangedEvent.created(written.get(i))
+                    : ProductChangedEvent.updated(written.get(i)));
+        }
+        return written;
+    }
+
+/**
+ * The `getAllProducts` function returns every product. When the catalog snapshot is enabled and built,
+ * the list comes from it without touching the database.
+ * 
+ * @return The `getAllProducts` method returns all products. A list from the snapshot is unmodifiable,
+ * and its products may be shared.
+ */
+    @Transactional(readOnly = true)
     public List<Product> getAllProducts() {
+        ProductCatalogSnapshot.Snapshot snapshot = currentSnapshot();
+        if (snapshot != null) {
+            return snapshot.store().findAll();
+        }
         return productRepository.findAll();
     }
 
+/**
+ * The `getCatalogVersion` function returns a token that changes whenever any product is created,
+ * updated or deleted, on this or any other instance. It is read from the product change log with a
+ * single aggregate query, without loading any products.
+ * 
+ * @return The `getCatalogVersion` method returns the current catalog version token. Read it before
+ * the products it describes: a change committed in between then only makes the token look older
+ * than the data, never newer.
+ */
+    public String getCatalogVersion() {
+        ProductCatalogSnapshot.Snapshot snapshot = currentSnapshot();
+        if (snapshot != null) {
+            return snapshot.version();
+        }
+        return productChangeRepository.findWatermark();
+    }
+
+/**
+ * The `getCatalogStats` function returns the count, sum, minimum, maximum, average and percentiles of
+ * product prices across the whole catalog. They are maintained in memory as products change, so a read
+ * costs the same however large the catalog is. While they are loading, or when they are disabled, the
+ * count, sum, minimum and maximum are computed by one aggregate query instead, without percentiles.
+ * 
+ * @return The `getCatalogStats` method returns the current catalog statistics. Percentiles are
+ * estimates within the configured relative accuracy; the other values are exact.
+ */
+    public CatalogStats getCatalogStats() {
+        CatalogStats stats = catalogStats == null ? null : catalogStats.current();
+        if (stats != null) {
+            return stats;
+        }
+        ProductRepository.PriceSummary summary = productRepository.summarizePrices();
+        return CatalogStats.of(summary.getProductCount(), summary.getPriceSum(), summary.getMinPrice(),
+                summary.getMaxPrice(), Map.of());
+    }
+
+/**
+ * The `getProductsAfter` function returns the next keyset page of products, ordered by ID, starting
+ * strictly after the given ID.
+ * 
+ * @param afterId The `afterId` parameter is the ID of the last product the caller has already seen.
+ * Use 0 to start from the beginning of the catalog.
+ * @param limit The `limit` parameter is the maximum number of products to return. It must be between
+ * 1 and `MAX_PAGE_SIZE`.
+ * @return The `getProductsAfter` method returns at most `limit` products with an ID greater than
+ * `afterId`, in ascending ID order.
+ */
+    @Transactional(readOnly = true)
+    public List<Product> getProductsAfter(long afterId, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        ProductCatalogSnapshot.Snapshot snapshot = currentSnapshot();
+        if (snapshot != null) {
+            return snapshot.store().findAfter(afterId, limit);
+        }
+        return productRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit));
+    }
+
+/**
+ * The `exportProducts` function streams every product, in ID order, to the given consumer inside a
+ * single read-only transaction. Each product is detached from the persistence context once the
+ * consumer returns, so memory use stays constant however large the catalog is.
+ * 
+ * @param sink The `sink` parameter receives the products one at a time. Any exception it throws stops
+ * the export and closes the underlying database cursor.
+ * @return The `exportProducts` method returns the number of products handed to the consumer.
+ */
+    @Transactional(readOnly = true)
+    public long exportProducts(Consumer<Product> sink) {
+        long count = 0;
+        try (Stream<Product> products = productRepository.streamAllOrderedById()) {
+            for (Product product : (Iterable<Product>) products::iterator) {
+                sink.accept(product);
+                entityManager.detach(product);
+                count++;
+            }
+        }
+        return count;
+    }
+
+/**
+ * The `searchProducts` function finds products by name: exact matches first, then names starting with
+ * the query, then names with a word starting with it, then names containing it. It is answered from the
+ * in-memory search index; while the index is loading or disabled, it falls back to a prefix query on
+ * the name index followed, if that is not enough, by a substring scan of the table.
+ * 
+ * @param query The `query` parameter is the text to look for in product names. It must not be blank.
+ * @param limit The `limit` parameter is the maximum number of products to return. It must be between
+ * 1 and `MAX_SEARCH_LIMIT`.
+ * @return The `searchProducts` method returns at most `limit` matching products, best match first.
+ * Products returned from the index may be shared with other callers and must not be modified.
+ */
+    public List<Product> searchProducts(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query cannot be empty");
+        }
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new IllegalArgumentException("Search limit must be between 1 and " + MAX_SEARCH_LIMIT);
+        }
+        if (productSearchIndex != null && productSearchIndex.isReady()) {
+            return productSearchIndex.search(query, limit);
+        }
+
+        String text = query.strip();
+        Map<Long, Product> results = new LinkedHashMap<>();
+        productRepository.findByNameStartingWithOrderByNameAscIdAsc(text, Limit.of(limit))
+                .forEach(product -> results.put(product.getId(), product));
+        if (results.size() < limit) {
+            // Prefix matches are among these too, so ask for enough rows to still fill the page
+            productRepository.findByNameContainingOrderByIdAsc(text, Limit.of(limit + results.size())).stream()
+                    .filter(product -> results.size() < limit)
+                    .forEach(product -> results.putIfAbsent(product.getId(), product));
+        }
+        return new ArrayList<>(results.values());
+    }
+
+/**
+ * The `checkPriceQuery` function validates the arguments of a price query, so callers that stream the
+ * results can reject a bad request before the response has started.
+ * 
+ * @param minPrice The `minPrice` parameter is the lowest price to include, or null for no lower bound.
+ * @param maxPrice The `maxPrice` parameter is the highest price to include, or null for no upper bound.
+ * @param limit The `limit` parameter is the maximum number of products, or null for the whole range.
+ */
+    public void checkPriceQuery(BigDecimal minPrice, BigDecimal maxPrice, Integer limit) {
+        if ((minPrice != null && minPrice.signum() < 0) || (maxPrice != null && maxPrice.signum() < 0)) {
+            throw new IllegalArgumentException("Price bounds cannot be negative");
+        }
+        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+            throw new IllegalArgumentException("minPrice cannot be greater than maxPrice");
+        }
+        if (limit != null && limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+    }
+
+/**
+ * The `streamProductsByPrice` function hands the products within a price range to the given consumer
+ * in price order (ties broken by ID), e.g. the N cheapest or most expensive. It walks the in-memory
+ * price index without copying the range; while the index is loading or disabled, it streams the rows
+ * from `idx_product_price` inside a read-only transaction instead.
+ * 
+ * @param minPrice The `minPrice` parameter is the lowest price to include, or null for no lower bound.
+ * @param maxPrice The `maxPrice` parameter is the highest price to include, or null for no upper bound.
+ * @param descending The `descending` parameter puts the most expensive products first.
+ * @param limit The `limit` parameter is the maximum number of products, or null for the whole range.
+ * @param sink The `sink` parameter receives the products one at a time. Products from the index may
+ * be shared with other callers and must not be modified.
+ * @return The `streamProductsByPrice` method returns the number of products handed to the consumer.
+ */
+    public long streamProductsByPrice(BigDecimal minPrice, BigDecimal maxPrice, boolean descending, Integer limit,
+            Consumer<Product> sink) {
+        checkPriceQuery(minPrice, maxPrice, limit);
+        if (productSearchIndex != null && productSearchIndex.isReady()) {
+            Stream<Product> products = productSearchIndex.byPrice(minPrice, maxPrice, descending);
+            long count = 0;
+            for (Product product : (Iterable<Product>) (limit == null ? products : products.limit(limit))::iterator) {
+                sink.accept(product);
+                count++;
+            }
+            return count;
+        }
+
+        Sort.Direction direction = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return readOnlyTransaction.execute(status -> {
+            long count = 0;
+            try (Stream<Product> products = productRepository.streamByPriceRange(minPrice, maxPrice,
+                    Sort.by(direction, "price", "id"), limit == null ? Limit.unlimited() : Limit.of(limit))) {
+                for (Product product : (Iterable<Product>) products::iterator) {
+                    sink.accept(product);
+                    entityManager.detach(product);
+                    count++;
+                }
+            }
+            return count;
+        });
+    }
+
+/**
+ * The `getProductById` function looks a product up by its ID, going through the product cache so
+ * repeated reads of the same product do not reach the database.
+ * 
+ * @param id The `id` parameter is the unique identifier of the product to retrieve.
+ * @return The `getProductById` method returns the product, or an empty Optional if it does not exist.
+ * The returned product may be shared with other callers and must not be modified.
+ */
+    @Transactional(readOnly = true)
     public Optional<Product> getProductById(Long id) {
-        return productRepository.findById(id);
+        ProductCatalogSnapshot.Snapshot snapshot = currentSnapshot();
+        Optional<Product> fromSnapshot = snapshot == null ? Optional.empty() : snapshot.store().findById(id);
+        if (fromSnapshot.isPresent()) {
+            return fromSnapshot;
+        }
+        // Not in the snapshot: it may have been created on another node since the last refresh
+        return productCache.get(id, productRepository::findById);
     }
 
 /**
  * The `updateProduct` function updates an existing product with the provided ID using the
- * information from the updated product object after validating the name and price.
+ * information from the updated product object after validating the name and price, whatever its
+ * current version.
  * 
- * @param id The `id` parameter is the unique identifier of the product that needs to be updated. It is
- * used to retrieve the existing product from the repository based on this identifier.
+ * @param id The `id` parameter is the unique identifier of the product that needs to be updated.
  * @param product The `product` parameter is an instance of the `Product` class that contains the
  * updated information for a product. It typically includes the new name and price for the product that
  * needs to be updated in the system.
- * @return The `updateProduct` method returns the updated `Product` object after updating its name and
- * price in the database.
+ * @return The `updateProduct` method returns the updated `Product` object.
  */
     public Product updateProduct(Integer id, Product product) {
+        return updateProduct(id, product, null);
+    }
+
+/**
+ * The `updateProduct` function replaces the name and price of an existing product with a single
+ * conditional UPDATE statement, without loading the product first. Whether the product was missing or
+ * changed concurrently is decided from the affected-row count. With write-behind enabled, updates
+ * without an expected version are applied by the next group commit and the call returns once that has
+ * committed.
+ * 
+ * @param id The `id` parameter is the unique identifier of the product that needs to be updated.
+ * @param product The `product` parameter is an instance of the `Product` class that contains the new
+ * name and price for the product.
+ * @param expectedVersion The `expectedVersion` parameter is the version the caller last saw (from
+ * If-Match), or null to overwrite whatever version is current.
+ * @return The `updateProduct` method returns the product as written. Its version is only known, and
+ * only set, when an expected version was given.
+ * @throws VersionConflictException if the product exists but is no longer at `expectedVersion`
+ */
+    public Product updateProduct(Integer id, Product product, Long expectedVersion) {
         if (product.getName() == null || product.getName().isEmpty()) {
             throw new IllegalArgumentException("Product name cannot be empty");
         }
@@ -67,26 +430,153 @@ public class ProductService {
             throw new IllegalArgumentException("Product price cannot be negative");
         }
 
-        Product existingProduct = productRepository.findById((long) id)
+        long productId = id;
+        // Coalescing would hide conflicts between conditional updates, so those keep their own transaction
+        if (expectedVersion == null && writesBehind()) {
+            return writeBehind.update(productId, product.getName(), product.getPrice());
+        }
+        return writeTransaction.execute(status -> {
+            if (productRepository.updateIfVersion(productId, product.getName(), product.getPrice(), expectedVersion) == 0) {
+                throw notWritten(productId, expectedVersion);
+            }
+
+            Product saved = new Product(productId, product.getName(), product.getPrice(), nextVersion(expectedVersion));
+            eventPublisher.publishEvent(ProductChangedEvent.updated(saved));
+            return saved;
+        });
+    }
+
+/**
+ * The `currentVersionAmong` function narrows the versions of an If-Match list down to the one a
+ * conditional write can check in its single statement: the product's current version, if listed. It is
+ * read from the primary, like the write that follows; if the product changes in between, that write
+ * still fails with a conflict.
+ * 
+ * @param id The `id` parameter is the unique identifier of the product about to be written.
+ * @param versions The `versions` parameter holds the versions from the If-Match list, possibly none.
+ * @return The `currentVersionAmong` method returns the current version of the product.
+ * @throws VersionConflictException if the product is at none of the listed versions
+ */
+    @Transactional
+    public Long currentVersionAmong(Long id, List<Long> versions) {
+        Long current = productRepository.findVersionById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Product not found"));
+        if (!versions.contains(current)) {
+            throw new VersionConflictException(id, versions);
+        }
+        return current;
+    }
 
-        existingProduct.setName(product.getName());
-        existingProduct.setPrice(product.getPrice());
+/**
+ * The `patchProduct` function applies a partial update (JSON Merge Patch) to a product with a single
+ * conditional UPDATE statement. Fields that are null are left unchanged.
+ * 
+ * @param id The `id` parameter is the unique identifier of the product to patch.
+ * @param name The `name` parameter is the new name, or null to keep the current one.
+ * @param price The `price` parameter is the new price, or null to keep the current one.
+ * @param expectedVersion The `expectedVersion` parameter is the version the caller last saw (from
+ * If-Match), or null to patch whatever version is current.
+ * @return The `patchProduct` method returns the new version of the product, or null if it is not known
+ * because no expected version was given.
+ * @throws VersionConflictException if the product exists but is no longer at `expectedVersion`
+ */
+    @Transactional
+    public Long patchProduct(Long id, String name, BigDecimal price, Long expectedVersion) {
+        if (name == null && price == null) {
+            throw new IllegalArgumentException("Patch must change the name or the price");
+        }
+        if (name != null && name.isEmpty()) {
+            throw new IllegalArgumentException("Product name cannot be empty");
+        }
+        if (price != null && price.compareTo(BigDecimal.ZERO) < 0) {
+            throw new IllegalArgumentException("Product price cannot be negative");
+        }
 
-        return productRepository.save(existingProduct);
+        if (productRepository.updateIfVersion(id, name, price, expectedVersion) == 0) {
+            throw notWritten(id, expectedVersion);
+        }
+        eventPublisher.publishEvent(ProductChangedEvent.updatedPartially(id));
+        return nextVersion(expectedVersion);
     }
 
 /**
- * The `deleteProduct` function deletes a product by its ID after checking if it exists in the
- * repository.
+ * The `deleteProduct` function deletes a product by its ID, whatever its current version.
  * 
  * @param id The `id` parameter in the `deleteProduct` method is of type `Long` and represents the
  * unique identifier of the product that needs to be deleted from the repository.
  */
+    @Transactional
     public void deleteProduct(Long id) {
-        if (!productRepository.existsById(id)) {
-            throw new IllegalArgumentException("Product not found");
+        deleteProduct(id, null);
+    }
+
+/**
+ * The `deleteProduct` function deletes a product with a single conditional DELETE statement, without
+ * loading it first. Whether the product was missing or changed concurrently is decided from the
+ * affected-row count.
+ * 
+ * @param id The `id` parameter is the unique identifier of the product to delete.
+ * @param expectedVersion The `expectedVersion` parameter is the version the caller last saw (from
+ * If-Match), or null to delete whatever version is current.
+ * @throws VersionConflictException if the product exists but is no longer at `expectedVersion`
+ */
+    @Transactional
+    public void deleteProduct(Long id, Long expectedVersion) {
+        if (productRepository.deleteIfVersion(id, expectedVersion) == 0) {
+            throw notWritten(id, expectedVersion);
         }
-        productRepository.deleteById(id);
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
+    }
+
+    private static void checkBulk(List<Product> products, String action) {
+        if (products == null || products.isEmpty()) {
+            throw new IllegalArgumentException("At least one product is required");
+        }
+        if (products.size() > MAX_BULK_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_SIZE + " products can be " + action + " at once");
+        }
+        for (int i = 0; i < products.size(); i++) {
+            Product product = products.get(i);
+            if (product.getName() == null || product.getName().isEmpty()) {
+                throw new IllegalArgumentException("Product name cannot be empty (item " + i + ")");
+            }
+            if (product.getPrice() == null || product.getPrice().compareTo(BigDecimal.ZERO) < 0) {
+                throw new IllegalArgumentException("Product price cannot be negative (item " + i + ")");
+            }
+        }
+    }
+
+    // Flushing every BULK_BATCH_SIZE persists lets Hibernate send full JDBC batches and keeps the context small
+    private void insertInBatches(List<Product> products) {
+        for (int i = 0; i < products.size(); i++) {
+            entityManager.persist(products.get(i));
+            if ((i + 1) % BULK_BATCH_SIZE == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    // A caller with its own transaction expects the write to be part of it
+    private boolean writesBehind() {
+        return writeBehind != null && writeBehind.isEnabled() && !TransactionSynchronizationManager.isActualTransactionActive();
+    }
+
+    private ProductCatalogSnapshot.Snapshot currentSnapshot() {
+        return catalogSnapshot == null ? null : catalogSnapshot.current();
+    }
+
+    // Only runs when nothing was written, so the extra lookup stays off the successful path
+    private RuntimeException notWritten(Long id, Long expectedVersion) {
+        if (expectedVersion != null && productRepository.existsById(id)) {
+            return new VersionConflictException(id, expectedVersion);
+        }
+        return new IllegalArgumentException("Product not found");
+    }
+
+    private static Long nextVersion(Long expectedVersion) {
+        return expectedVersion == null ? null : expectedVersion + 1;
     }
 }
@@ -0,0 +1,33 @@
+package com.example.backend.stats;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.example.backend.store.ProductReadStore;
+
+/**
+ * Price statistics of the whole catalog at one point in time.
+ *
+ * @param count Number of products
+ * @param sum Sum of all prices
+ * @param min Lowest price, or null for an empty catalog
+ * @param max Highest price, or null for an empty catalog
+ * @param average Mean price rounded to cents, or null for an empty catalog
+ * @param percentiles Estimated prices by name ("p50", "p90", ...), in increasing order; empty when they
+ *                    are not known, as when the statistics come straight from the database
+ */
+public record CatalogStats(long count, BigDecimal sum, BigDecimal min, BigDecimal max, BigDecimal average,
+        Map<String, BigDecimal> percentiles) {
+
+    public static CatalogStats of(long count, BigDecimal sum, BigDecimal min, BigDecimal max,
+            Map<String, BigDecimal> percentiles) {
+        BigDecimal total = sum == null ? BigDecimal.ZERO.setScale(ProductReadStore.PRICE_SCALE) : sum;
+        BigDecimal average = count == 0 ? null
+                : total.divide(BigDecimal.valueOf(count), ProductReadStore.PRICE_SCALE, RoundingMode.HALF_UP);
+        return new CatalogStats(count, total, min, max, average,
+                Collections.unmodifiableMap(new LinkedHashMap<>(percentiles)));
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.backend.stats;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.example.backend.store.ProductReadStore;
+
+/**
+ * Running price aggregates of a set of products, each change applied in O(log n): the sum, a sketch for
+ * percentiles, and a count of products per distinct price, so the minimum and maximum stay exact when
+ * the cheapest or most expensive product goes away. Prices are kept in minor units.
+ *
+ * The current price of every product is remembered, so an update or delete can take the old one out.
+ * Not thread-safe; the owner serializes access.
+ */
+final class PriceAggregates {
+
+    // Product ID to price in minor units
+    private final Map<Long, Long> prices = new HashMap<>();
+
+    // Price in minor units to the number of products at that price
+    private final TreeMap<Long, Integer> distinctPrices = new TreeMap<>();
+
+    private final PriceSketch sketch;
+
+    private long sum;
+
+    PriceAggregates(double relativeAccuracy) {
+        this.sketch = new PriceSketch(relativeAccuracy);
+    }
+
+    /**
+     * Adds a product, or moves it to its new price.
+     */
+    void put(long id, BigDecimal price) {
+        long unscaled = ProductReadStore.unscaledPrice(price);
+        Long old = prices.put(id, unscaled);
+        if (old != null) {
+            if (old == unscaled) {
+                return;
+            }
+            unrecord(old);
+        }
+        record(unscaled);
+    }
+
+    void remove(long id) {
+        Long old = prices.remove(id);
+        if (old != null) {
+            unrecord(old);
+        }
+    }
+
+    long count() {
+        return prices.size();
+    }
+
+    long sum() {
+        return sum;
+    }
+
+    private void record(long price) {
+        sum += price;
+        sketch.add(price);
+        distinctPrices.merge(price, 1, Integer::sum);
+    }
+
+    private void unrecord(long price) {
+        sum -= price;
+        sketch.remove(price);
+        distinctPrices.computeIfPresent(price, (p, products) -> products == 1 ? null : products - 1);
+    }
+
+    /**
+     * Computes the statistics; the cost depends on the number of sketch buckets, not of products.
+     *
+     * @param percentiles Names and quantiles to estimate, e.g. "p95" and 0.95, in increasing order
+     */
+    CatalogStats stats(Map<String, Double> percentiles) {
+        if (prices.isEmpty()) {
+            return CatalogStats.of(0, null, null, null, Map.of());
+        }
+        long min = distinctPrices.firstKey();
+        long max = distinctPrices.lastKey();
+        Map<String, BigDecimal> estimates = new LinkedHashMap<>();
+        percentiles.forEach((name, quantile) -> {
+            // The sketch may overshoot by its relative accuracy; the exact bounds are known
+            long estimate = Math.clamp(Math.round(sketch.quantile(quantile)), min, max);
+            estimates.put(name, price(estimate));
+        });
+        return CatalogStats.of(prices.size(), price(sum), price(min), price(max), estimates);
+    }
+
+    private static BigDecimal price(long unscaled) {
+        return BigDecimal.valueOf(unscaled, ProductReadStore.PRICE_SCALE);
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.backend.stats;
+
+/**
+ * Quantile sketch over non-negative values with a relative-error guarantee, in the manner of DDSketch.
+ * Values are counted in logarithmic buckets, bucket i holding (gamma^(i-1), gamma^i], and a quantile is
+ * answered with the middle of its bucket, which is within the relative accuracy of the true value.
+ *
+ * Bucket counts are exact, so values can be removed as well as added, and sketches with the same
+ * accuracy merge by adding their counts. The number of buckets depends on how widely the values are
+ * spread, not on how many there are: prices from 0.01 to 10,000,000.00 take about 1,000 buckets at 1%.
+ * Not thread-safe.
+ */
+public class PriceSketch {
+
+    private final double relativeAccuracy;
+
+    private final double gamma;
+
+    private final double logGamma;
+
+    // Zero has no logarithm, so it gets a bucket of its own
+    private long zeroCount;
+
+    // counts[i] is the count of bucket offset + i
+    private long[] counts = new long[0];
+
+    private int offset;
+
+    private long count;
+
+    /**
+     * @param relativeAccuracy Largest relative error of a quantile, between 0 and 1 exclusive, e.g. 0.01
+     */
+    public PriceSketch(double relativeAccuracy) {
+        if (!(relativeAccuracy > 0 && relativeAccuracy < 1)) {
+            throw new IllegalArgumentException("Relative accuracy must be between 0 and 1");
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+    }
+
+    public double getRelativeAccuracy() {
+        return relativeAccuracy;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public void add(long value) {
+        update(value, 1);
+    }
+
+    /**
+     * Removes one occurrence of a value that was added before.
+     */
+    public void remove(long value) {
+        update(value, -1);
+    }
+
+    private void update(long value, long delta) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Value cannot be negative: " + value);
+        }
+        if (value == 0) {
+            zeroCount += delta;
+        } else {
+            int index = index(value);
+            grow(index);
+            counts[index - offset] += delta;
+        }
+        count += delta;
+    }
+
+    /**
+     * Adds the counts of another sketch with the same relative accuracy to this one.
+     */
+    public void merge(PriceSketch other) {
+        if (other.relativeAccuracy != relativeAccuracy) {
+            throw new IllegalArgumentException("Sketches with different accuracies cannot be merged");
+        }
+        for (int i = 0; i < other.counts.length; i++) {
+            if (other.counts[i] != 0) {
+                grow(other.offset + i);
+                counts[other.offset + i - offset] += other.counts[i];
+            }
+        }
+        zeroCount += other.zeroCount;
+        count += other.count;
+    }
+
+    /**
+     * @param quantile Between 0 and 1, e.g. 0.95
+     * @return An estimate of the nearest-rank value at that quantile, the smallest value at least that
+     *         fraction of the values are less than or equal to, within the relative accuracy; NaN when empty
+     */
+    public double quantile(double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1");
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long rank = Math.max((long) Math.ceil(quantile * count) - 1, 0);
+        long seen = zeroCount;
+        if (rank < seen) {
+            return 0;
+        }
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (rank < seen) {
+                return 2 * Math.pow(gamma, offset + i) / (gamma + 1);
+            }
+        }
+        throw new IllegalStateException("Bucket counts do not add up to " + count);
+    }
+
+    private int index(long value) {
+        return (int) Math.ceil(Math.log(value) / logGamma);
+    }
+
+    // Makes counts cover the bucket, with room on both sides for neighbouring buckets
+    private void grow(int index) {
+        if (counts.length == 0) {
+            counts = new long[32];
+            offset = index - 16;
+            return;
+        }
+        int from = Math.min(offset, index);
+        int to = Math.max(offset + counts.length, index + 1);
+        if (from == offset && to == offset + counts.length) {
+            return;
+        }
+        int slack = counts.length / 2;
+        from = from < offset ? from - slack : offset;
+        to = to > offset + counts.length ? to + slack : offset + counts.length;
+        long[] grown = new long[to - from];
+        System.arraycopy(counts, 0, grown, offset - from, counts.length);
+        counts = grown;
+        offset = from;
+    }
+}
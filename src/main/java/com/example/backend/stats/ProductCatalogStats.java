@@ -0,0 +1,250 @@
+package com.example.backend.stats;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.backend.dao.ProductRepository;
+import com.example.backend.entity.Product;
+import com.example.backend.event.ProductChangedEvent;
+import com.example.backend.store.ProductReadStore;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Price statistics of the whole catalog, kept up to date change by change so reading them never scans
+ * the products.
+ *
+ * Loaded on a background thread once the application is ready; until then {@link #current()} returns
+ * null and callers fall back to the database. Local writes are applied after their transaction commits,
+ * and changes made on other nodes by the {@link com.example.backend.cache.ProductChangePoller}; partial
+ * updates and remote changes do not carry the price, so the product is reloaded by ID.
+ *
+ * Every reconcile interval the aggregates are rebuilt from the database and swapped in, which repairs any
+ * drift, e.g. from two reloads of one product finishing out of order; a rebuild that disagrees with the
+ * running aggregates counts as products.stats.drift. Changes applied during a rebuild win over the rows
+ * it reads, like in {@link com.example.backend.search.ProductSearchIndex}.
+ */
+@Component
+public class ProductCatalogStats {
+
+    private static final Logger logger = LogManager.getLogger(ProductCatalogStats.class);
+
+    static final Map<String, Double> PERCENTILES = percentiles();
+
+    private static Map<String, Double> percentiles() {
+        Map<String, Double> percentiles = new LinkedHashMap<>();
+        percentiles.put("p50", 0.50);
+        percentiles.put("p90", 0.90);
+        percentiles.put("p95", 0.95);
+        percentiles.put("p99", 0.99);
+        return percentiles;
+    }
+
+    private final ProductRepository productRepository;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final boolean enabled;
+
+    private final double relativeAccuracy;
+
+    private final Timer rebuildTimer;
+
+    private final Counter driftCounter;
+
+    // Serializes rebuilds; changes only need the monitor of this
+    private final Object rebuildLock = new Object();
+
+    // Guarded by this; null until the first rebuild completes
+    private PriceAggregates aggregates;
+
+    // Guarded by this; non-null while a rebuild runs
+    private PriceAggregates rebuilding;
+
+    private Set<Long> changedDuringRebuild;
+
+    // Computed on the first read after a change; null when stale or not loaded
+    private volatile CatalogStats published;
+
+    public ProductCatalogStats(ProductRepository productRepository, EntityManager entityManager,
+            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+            @Value("${app.products.stats.enabled:true}") boolean enabled,
+            @Value("${app.products.stats.relative-accuracy:0.01}") double relativeAccuracy) {
+        this.productRepository = productRepository;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        // Validated by the sketch, so an invalid setting fails at startup
+        this.relativeAccuracy = new PriceSketch(relativeAccuracy).getRelativeAccuracy();
+        this.rebuildTimer = Timer.builder("products.stats.rebuild")
+                .description("Time to rebuild the catalog statistics from the database")
+                .register(meterRegistry);
+        this.driftCounter = Counter.builder("products.stats.drift")
+                .description("Rebuilds whose count or sum differed from the incrementally maintained statistics")
+                .register(meterRegistry);
+        Gauge.builder("products.stats.ready", this, stats -> stats.isReady() ? 1 : 0)
+                .register(meterRegistry);
+    }
+
+    public synchronized boolean isReady() {
+        return aggregates != null;
+    }
+
+    /**
+     * @return The current statistics, or null while they are loading or when disabled
+     */
+    public CatalogStats current() {
+        CatalogStats stats = published;
+        if (stats != null) {
+            return stats;
+        }
+        synchronized (this) {
+            if (aggregates == null) {
+                return null;
+            }
+            if (published == null) {
+                published = aggregates.stats(PERCENTILES);
+            }
+            return published;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadInBackground() {
+        if (!enabled) {
+            logger.info("Catalog statistics are disabled; they are computed by the database");
+            return;
+        }
+        Thread.ofPlatform().name("product-catalog-stats").daemon().start(this::rebuild);
+    }
+
+    @Scheduled(fixedDelayString = "${app.products.stats.reconcile-interval-ms:300000}",
+            initialDelayString = "${app.products.stats.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Rebuilds the statistics from the database and replaces the running ones. The running ones keep
+     * being served meanwhile.
+     */
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            rebuildOnce();
+        }
+    }
+
+    private void rebuildOnce() {
+        long start = System.nanoTime();
+        synchronized (this) {
+            rebuilding = new PriceAggregates(relativeAccuracy);
+            changedDuringRebuild = new HashSet<>();
+        }
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<Product> products = productRepository.streamAllOrderedById()) {
+                    products.forEach(product -> {
+                        loaded(product);
+                        entityManager.detach(product);
+                    });
+                }
+            });
+            synchronized (this) {
+                if (aggregates != null && (aggregates.count() != rebuilding.count() || aggregates.sum() != rebuilding.sum())) {
+                    driftCounter.increment();
+                    logger.warn("Catalog statistics drifted: {} products summing to {} kept, {} summing to {} in the database",
+                            aggregates.count(), BigDecimal.valueOf(aggregates.sum(), ProductReadStore.PRICE_SCALE),
+                            rebuilding.count(), BigDecimal.valueOf(rebuilding.sum(), ProductReadStore.PRICE_SCALE));
+                }
+                aggregates = rebuilding;
+                published = null;
+            }
+            rebuildTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        } catch (RuntimeException e) {
+            logger.warn("Rebuilding the catalog statistics failed, keeping the current ones: {}", e.getMessage());
+        } finally {
+            synchronized (this) {
+                rebuilding = null;
+                changedDuringRebuild = null;
+            }
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (event.type() == ProductChangedEvent.Type.DELETED) {
+            apply(event.productId(), null);
+        } else if (event.product() != null) {
+            apply(event.productId(), event.product().getPrice());
+        } else {
+            refresh(event.productId());
+        }
+    }
+
+    /**
+     * Re-reads the price of one product from the database, e.g. after another node changed it.
+     */
+    public void refresh(Long id) {
+        if (!enabled) {
+            return;
+        }
+        Optional<Product> product = productRepository.findById(id);
+        apply(id, product.map(Product::getPrice).orElse(null));
+    }
+
+    private synchronized void loaded(Product product) {
+        if (!changedDuringRebuild.contains(product.getId())) {
+            rebuilding.put(product.getId(), product.getPrice());
+        }
+    }
+
+    private synchronized void apply(Long id, BigDecimal price) {
+        if (rebuilding != null) {
+            changedDuringRebuild.add(id);
+            apply(rebuilding, id, price);
+        }
+        if (aggregates != null) {
+            apply(aggregates, id, price);
+            published = null;
+        }
+    }
+
+    private static void apply(PriceAggregates target, long id, BigDecimal price) {
+        if (price == null) {
+            target.remove(id);
+        } else {
+            target.put(id, price);
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.example.backend.store;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.RandomAccess;
+
+import com.example.backend.entity.Product;
+
+/**
+ * Read store that keeps the catalog in columns of primitives instead of Product objects: IDs, prices in
+ * minor units and versions in long arrays, and names as UTF-8 in one byte array, each distinct name
+ * stored once. A product costs about 28 bytes plus its name, against a couple of hundred as an entity,
+ * and price scans run over a contiguous array.
+ *
+ * Products are created when they are read, so every read allocates; a caller that serves the same data
+ * repeatedly should keep what it built. {@link #withChanges} appends new names to a copy of the name
+ * bytes and leaves the old ones in place, so names of replaced products are only reclaimed when the
+ * store is rebuilt with {@link #of}.
+ */
+public final class ColumnarProductStore implements ProductReadStore {
+
+    // Stored for products without a version
+    private static final long NO_VERSION = Long.MIN_VALUE;
+
+    private final int size;
+
+    private final long[] ids;
+
+    private final long[] prices;
+
+    private final long[] versions;
+
+    // Index of each product's name in the name pool
+    private final int[] names;
+
+    // Pooled name i is nameBytes[nameOffsets[i]] up to nameBytes[nameOffsets[i + 1]]
+    private final byte[] nameBytes;
+
+    private final int[] nameOffsets;
+
+    private ColumnarProductStore(Builder builder) {
+        this.size = builder.size;
+        this.ids = trim(builder.ids, size);
+        this.prices = trim(builder.prices, size);
+        this.versions = trim(builder.versions, size);
+        this.names = trim(builder.names, size);
+        this.nameBytes = builder.nameBytes.length == builder.nameBytesLength ? builder.nameBytes
+                : Arrays.copyOf(builder.nameBytes, builder.nameBytesLength);
+        this.nameOffsets = trim(builder.nameOffsets, builder.poolSize + 1);
+    }
+
+    private static long[] trim(long[] column, int length) {
+        return column.length == length ? column : Arrays.copyOf(column, length);
+    }
+
+    private static int[] trim(int[] column, int length) {
+        return column.length == length ? column : Arrays.copyOf(column, length);
+    }
+
+    /**
+     * @param products Products with distinct IDs, in any order
+     * @throws IllegalArgumentException if a price does not fit a long in minor units
+     */
+    public static ColumnarProductStore of(Collection<Product> products) {
+        Product[] sorted = products.toArray(Product[]::new);
+        Arrays.sort(sorted, Comparator.comparingLong(Product::getId));
+        Builder builder = new Builder(sorted.length, null);
+        for (Product product : sorted) {
+            builder.add(product);
+        }
+        return new ColumnarProductStore(builder);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private Product product(int row) {
+        int name = names[row];
+        return new Product(ids[row],
+                new String(nameBytes, nameOffsets[name], nameOffsets[name + 1] - nameOffsets[name], StandardCharsets.UTF_8),
+                BigDecimal.valueOf(prices[row], PRICE_SCALE),
+                versions[row] == NO_VERSION ? null : versions[row]);
+    }
+
+    // Index of the first row with an ID greater than afterId
+    private int firstAfter(long afterId) {
+        int index = Arrays.binarySearch(ids, 0, size, afterId);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    @Override
+    public Optional<Product> findById(long id) {
+        int row = Arrays.binarySearch(ids, 0, size, id);
+        return row >= 0 ? Optional.of(product(row)) : Optional.empty();
+    }
+
+    @Override
+    public List<Product> findAfter(long afterId, int limit) {
+        int from = firstAfter(afterId);
+        return rows(from, Math.min(size, from + limit));
+    }
+
+    @Override
+    public List<Product> findAll() {
+        return rows(0, size);
+    }
+
+    private List<Product> rows(int from, int to) {
+        Product[] products = new Product[to - from];
+        for (int row = from; row < to; row++) {
+            products[row - from] = product(row);
+        }
+        return new ProductList(products);
+    }
+
+    // Unmodifiable without the extra wrapper of Collections.unmodifiableList
+    private static final class ProductList extends AbstractList<Product> implements RandomAccess {
+
+        private final Product[] products;
+
+        ProductList(Product[] products) {
+            this.products = products;
+        }
+
+        @Override
+        public Product get(int index) {
+            return products[index];
+        }
+
+        @Override
+        public int size() {
+            return products.length;
+        }
+    }
+
+    @Override
+    public void scanPrices(PriceVisitor visitor) {
+        for (int row = 0; row < size; row++) {
+            visitor.visit(ids[row], prices[row]);
+        }
+    }
+
+    @Override
+    public ColumnarProductStore withChanges(Collection<Product> upserts, Collection<Long> deletes) {
+        SortedChanges changes = new SortedChanges(upserts, deletes);
+        Builder builder = new Builder(size + changes.upserts.length, this);
+        changes.merge(row -> ids[row], size, builder::keep, builder::add);
+        return new ColumnarProductStore(builder);
+    }
+
+    private static final class Builder {
+
+        private final ColumnarProductStore base;
+
+        private final long[] ids;
+
+        private final long[] prices;
+
+        private final long[] versions;
+
+        private final int[] names;
+
+        private int size;
+
+        private byte[] nameBytes;
+
+        private int nameBytesLength;
+
+        private int[] nameOffsets;
+
+        private int poolSize;
+
+        // Names added by this builder; names of the base are not looked up, see withChanges
+        private final Map<String, Integer> pooled = new HashMap<>();
+
+        Builder(int capacity, ColumnarProductStore base) {
+            this.base = base;
+            this.ids = new long[capacity];
+            this.prices = new long[capacity];
+            this.versions = new long[capacity];
+            this.names = new int[capacity];
+            if (base == null) {
+                this.nameBytes = new byte[Math.max(16, capacity * 16)];
+                this.nameOffsets = new int[capacity + 1];
+            } else {
+                this.poolSize = base.nameOffsets.length - 1;
+                this.nameBytesLength = base.nameBytes.length;
+                this.nameBytes = Arrays.copyOf(base.nameBytes, nameBytesLength + 16 * (capacity - base.size) + 16);
+                this.nameOffsets = Arrays.copyOf(base.nameOffsets, poolSize + 1 + capacity - base.size + 1);
+            }
+        }
+
+        void keep(int row) {
+            ids[size] = base.ids[row];
+            prices[size] = base.prices[row];
+            versions[size] = base.versions[row];
+            names[size] = base.names[row];
+            size++;
+        }
+
+        void add(Product product) {
+            ids[size] = product.getId();
+            prices[size] = ProductReadStore.unscaledPrice(product.getPrice());
+            versions[size] = product.getVersion() == null ? NO_VERSION : product.getVersion();
+            names[size] = pool(product.getName());
+            size++;
+        }
+
+        private int pool(String name) {
+            Integer existing = pooled.get(name);
+            if (existing != null) {
+                return existing;
+            }
+            byte[] utf8 = name.getBytes(StandardCharsets.UTF_8);
+            if (nameBytesLength + utf8.length > nameBytes.length) {
+                nameBytes = Arrays.copyOf(nameBytes, Math.max(nameBytes.length * 2, nameBytesLength + utf8.length));
+            }
+            System.arraycopy(utf8, 0, nameBytes, nameBytesLength, utf8.length);
+            nameBytesLength += utf8.length;
+            if (poolSize + 2 > nameOffsets.length) {
+                nameOffsets = Arrays.copyOf(nameOffsets, nameOffsets.length * 2);
+            }
+            nameOffsets[poolSize + 1] = nameBytesLength;
+            pooled.put(name, poolSize);
+            return poolSize++;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.backend.store;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+import com.example.backend.entity.Product;
+
+/**
+ * Read store that keeps the Product objects themselves in an array ordered by ID. Lookups are binary
+ * searches, and the full listing is a view of the array, so reads allocate nothing per product.
+ */
+public final class ObjectProductStore implements ProductReadStore {
+
+    private final Product[] products;
+
+    private ObjectProductStore(Product[] products) {
+        this.products = products;
+    }
+
+    /**
+     * @param products Products with distinct IDs, in any order
+     */
+    public static ObjectProductStore of(Collection<Product> products) {
+        Product[] sorted = products.toArray(Product[]::new);
+        Arrays.sort(sorted, Comparator.comparingLong(Product::getId));
+        return new ObjectProductStore(sorted);
+    }
+
+    @Override
+    public int size() {
+        return products.length;
+    }
+
+    // Index of the first product with an ID greater than afterId
+    private int firstAfter(long afterId) {
+        int low = 0;
+        int high = products.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (products[mid].getId() <= afterId) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    @Override
+    public Optional<Product> findById(long id) {
+        int index = firstAfter(id - 1);
+        return index < products.length && products[index].getId() == id ? Optional.of(products[index]) : Optional.empty();
+    }
+
+    @Override
+    public List<Product> findAfter(long afterId, int limit) {
+        int from = firstAfter(afterId);
+        return findAll().subList(from, Math.min(products.length, from + limit));
+    }
+
+    @Override
+    public List<Product> findAll() {
+        return Collections.unmodifiableList(Arrays.asList(products));
+    }
+
+    @Override
+    public void scanPrices(PriceVisitor visitor) {
+        for (Product product : products) {
+            visitor.visit(product.getId(), ProductReadStore.unscaledPrice(product.getPrice()));
+        }
+    }
+
+    @Override
+    public ObjectProductStore withChanges(Collection<Product> upserts, Collection<Long> deletes) {
+        SortedChanges changes = new SortedChanges(upserts, deletes);
+        List<Product> merged = new ArrayList<>(products.length + changes.upserts.length);
+        changes.merge(row -> products[row].getId(), products.length, row -> merged.add(products[row]), merged::add);
+        return new ObjectProductStore(merged.toArray(Product[]::new));
+    }
+}
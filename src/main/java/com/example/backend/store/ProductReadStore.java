@@ -0,0 +1,76 @@
+package com.example.backend.store;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import com.example.backend.entity.Product;
+
+/**
+ * Immutable, in-memory copy of the whole catalog for the read path, ordered by ID. Changes never modify
+ * a store; {@link #withChanges} returns a new one, so a store can be read from any thread without locks.
+ *
+ * Products returned by a store may be shared with other callers and must be treated as read-only.
+ */
+public interface ProductReadStore {
+
+    /**
+     * Number of decimal places prices are kept with, the scale of the price column.
+     */
+    int PRICE_SCALE = 2;
+
+    /**
+     * Receives one product per call during a scan, without a Product being created for it.
+     */
+    @FunctionalInterface
+    interface PriceVisitor {
+
+        /**
+         * @param id The product ID
+         * @param unscaledPrice The price in minor units, i.e. multiplied by 10^{@link #PRICE_SCALE}
+         */
+        void visit(long id, long unscaledPrice);
+    }
+
+    /**
+     * Converts a price to minor units, rounding half up as the price column does on insert.
+     *
+     * @throws IllegalArgumentException if the price does not fit a long in minor units
+     */
+    static long unscaledPrice(BigDecimal price) {
+        try {
+            return price.setScale(PRICE_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Price " + price + " is out of range for the read store");
+        }
+    }
+
+    int size();
+
+    Optional<Product> findById(long id);
+
+    /**
+     * Returns up to {@code limit} products with an ID greater than {@code afterId}, in ID order.
+     */
+    List<Product> findAfter(long afterId, int limit);
+
+    /**
+     * Returns all products in ID order, as an unmodifiable list.
+     */
+    List<Product> findAll();
+
+    /**
+     * Visits the price of every product in ID order.
+     */
+    void scanPrices(PriceVisitor visitor);
+
+    /**
+     * Returns a new store with the products added or replaced and the IDs removed.
+     *
+     * @param upserts Products to add or replace, by ID
+     * @param deletes IDs to remove; an ID in both collections is removed
+     */
+    ProductReadStore withChanges(Collection<Product> upserts, Collection<Long> deletes);
+}
@@ -0,0 +1,69 @@
+package com.example.backend.store;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.IntToLongFunction;
+
+import com.example.backend.entity.Product;
+
+/**
+ * Changes to a store sorted by ID, so they can be merged into the store's ID-ordered rows in one pass.
+ */
+final class SortedChanges {
+
+    // Sorted by ID, unique, none of them deleted
+    final Product[] upserts;
+
+    private final long[] deletes;
+
+    SortedChanges(Collection<Product> upserts, Collection<Long> deletes) {
+        this.deletes = deletes.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+        Map<Long, Product> byId = new HashMap<>();
+        for (Product product : upserts) {
+            byId.put(product.getId(), product);
+        }
+        this.upserts = byId.values().stream()
+                .filter(product -> !isDeleted(product.getId()))
+                .sorted(Comparator.comparingLong(Product::getId))
+                .toArray(Product[]::new);
+    }
+
+    private boolean isDeleted(long id) {
+        return Arrays.binarySearch(deletes, id) >= 0;
+    }
+
+    /**
+     * Walks the old rows and the upserts in ID order. Rows that are replaced or deleted are skipped.
+     *
+     * @param oldIds ID of each old row, ascending
+     * @param oldSize Number of old rows
+     * @param keep Called with the index of each old row that stays
+     * @param put Called with each upserted product, where it belongs in ID order
+     */
+    void merge(IntToLongFunction oldIds, int oldSize, IntConsumer keep, Consumer<Product> put) {
+        int upsert = 0;
+        int delete = 0;
+        for (int row = 0; row < oldSize; row++) {
+            long id = oldIds.applyAsLong(row);
+            while (upsert < upserts.length && upserts[upsert].getId() < id) {
+                put.accept(upserts[upsert++]);
+            }
+            while (delete < deletes.length && deletes[delete] < id) {
+                delete++;
+            }
+            if (upsert < upserts.length && upserts[upsert].getId() == id) {
+                put.accept(upserts[upsert++]);
+            } else if (delete >= deletes.length || deletes[delete] != id) {
+                keep.accept(row);
+            }
+        }
+        while (upsert < upserts.length) {
+            put.accept(upserts[upsert++]);
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.example.backend.write;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Bounded queue of writes drained by a single writer thread in groups, each group committed in one
+ * transaction by the given committer. A group is closed when it reaches the maximum size or when the
+ * window since its first write has passed, so under load many writes share one commit (and one fsync),
+ * and a lone write waits at most the window.
+ *
+ * Every write gets a future that completes once its group has committed, or fails with the exception
+ * the committer marked it with. If the committer throws, the group has rolled back and its writes are
+ * retried one transaction each, so one bad write cannot fail the others. An Error fails the whole group
+ * without a retry; the writer carries on with the writes behind it either way.
+ *
+ * @param <T> What is written
+ * @param <R> What the caller gets back once it is committed
+ */
+public class GroupCommitQueue<T, R> implements AutoCloseable {
+
+    private static final Logger logger = LogManager.getLogger(GroupCommitQueue.class);
+
+    /**
+     * A queued write. The committer marks each one as succeeded or failed; the future completes after
+     * the commit.
+     */
+    public static final class Write<T, R> {
+
+        private final T item;
+
+        private final CompletableFuture<R> future = new CompletableFuture<>();
+
+        private final long enqueuedAt = System.nanoTime();
+
+        private R result;
+
+        private RuntimeException failure;
+
+        private Write(T item) {
+            this.item = item;
+        }
+
+        public T item() {
+            return item;
+        }
+
+        public void succeeded(R result) {
+            this.result = result;
+            this.failure = null;
+        }
+
+        public void failed(RuntimeException failure) {
+            this.result = null;
+            this.failure = failure;
+        }
+    }
+
+    private final BlockingQueue<Write<T, R>> queue;
+
+    private final int maxGroupSize;
+
+    private final long windowNanos;
+
+    private final long enqueueTimeoutNanos;
+
+    private final Consumer<List<Write<T, R>>> committer;
+
+    private final Thread writer;
+
+    private final DistributionSummary groupSize;
+
+    private final Timer commitTimer;
+
+    private final Timer latencyTimer;
+
+    private final Counter rejected;
+
+    private volatile boolean closed;
+
+    /**
+     * @param name Tags the metrics and names the writer thread
+     * @param enqueueTimeout How long a caller waits for room in a full queue before the write is rejected
+     * @param committer Writes a group in one transaction, marking every write as succeeded or failed
+     */
+    public GroupCommitQueue(String name, int capacity, int maxGroupSize, Duration window, Duration enqueueTimeout,
+            Consumer<List<Write<T, R>>> committer, MeterRegistry meterRegistry) {
+        if (maxGroupSize < 1 || capacity < maxGroupSize) {
+            throw new IllegalArgumentException("Group size must be between 1 and the queue capacity");
+        }
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxGroupSize = maxGroupSize;
+        this.windowNanos = window.toNanos();
+        this.enqueueTimeoutNanos = enqueueTimeout.toNanos();
+        this.committer = committer;
+        Gauge.builder("groupcommit.queue.depth", queue, BlockingQueue::size)
+                .description("Writes waiting for a group")
+                .tag("queue", name)
+                .register(meterRegistry);
+        this.groupSize = DistributionSummary.builder("groupcommit.group.size")
+                .description("Writes committed together in one transaction")
+                .tag("queue", name)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.commitTimer = Timer.builder("groupcommit.commit")
+                .description("Time to write and commit one group")
+                .tag("queue", name)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.latencyTimer = Timer.builder("groupcommit.latency")
+                .description("Time from queueing a write until its group committed")
+                .tag("queue", name)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejected = Counter.builder("groupcommit.rejected")
+                .description("Writes rejected because the queue stayed full")
+                .tag("queue", name)
+                .register(meterRegistry);
+        this.writer = Thread.ofPlatform().name(name + "-group-commit").daemon().start(this::drain);
+    }
+
+    /**
+     * Queues a write, waiting up to the enqueue timeout while the queue is full.
+     *
+     * @return Completes when the write has committed
+     * @throws RejectedExecutionException if the queue stayed full or is closed
+     */
+    public CompletableFuture<R> submit(T item) {
+        if (closed) {
+            throw new RejectedExecutionException("Write queue is closed");
+        }
+        Write<T, R> write = new Write<>(item);
+        try {
+            if (!queue.offer(write, enqueueTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                rejected.increment();
+                throw new RejectedExecutionException("Write queue is full");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for room in the write queue", e);
+        }
+        // Closed while the write was being queued: close() may already have emptied the queue for the last time.
+        // Whoever takes the write out of the queue completes it, so only take it back if it is still there
+        if (closed && queue.remove(write)) {
+            throw new RejectedExecutionException("Write queue is closed");
+        }
+        return write.future;
+    }
+
+    private void drain() {
+        List<Write<T, R>> group = new ArrayList<>(maxGroupSize);
+        while (!closed || !queue.isEmpty()) {
+            try {
+                Write<T, R> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                long deadline = System.nanoTime() + windowNanos;
+                while (group.size() < maxGroupSize) {
+                    queue.drainTo(group, maxGroupSize - group.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (group.size() >= maxGroupSize || remaining <= 0) {
+                        break;
+                    }
+                    Write<T, R> next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    group.add(next);
+                }
+                commit(group);
+            } catch (InterruptedException e) {
+                // Nothing is meant to interrupt the writer: it stops once close() has set closed and the queue is
+                // empty. Stopping here would strand every write queued after this one, so commit and carry on
+                logger.warn("Group commit writer interrupted, ignoring");
+                commit(group);
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    private void commit(List<Write<T, R>> group) {
+        if (group.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            committer.accept(group);
+        } catch (RuntimeException e) {
+            if (group.size() == 1) {
+                group.getFirst().failed(e);
+            } else {
+                logger.warn("Group of {} writes failed, retrying them one by one: {}", group.size(), e.getMessage());
+                for (Write<T, R> write : group) {
+                    commit(List.of(write));
+                }
+                return;
+            }
+        } catch (Throwable e) {
+            // Nothing worth retrying, but the writes waiting on this group and behind it must not hang
+            logger.error("Group of {} writes failed", group.size(), e);
+            group.forEach(write -> write.future.completeExceptionally(e));
+            return;
+        }
+        commitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        groupSize.record(group.size());
+        long now = System.nanoTime();
+        for (Write<T, R> write : group) {
+            latencyTimer.record(now - write.enqueuedAt, TimeUnit.NANOSECONDS);
+            if (write.failure != null) {
+                write.future.completeExceptionally(write.failure);
+            } else {
+                write.future.complete(write.result);
+            }
+        }
+    }
+
+    /**
+     * Stops taking writes and waits for the queued ones to commit.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        closed = true;
+        writer.join();
+        // Writes that slipped in while the writer was stopping
+        Write<T, R> write;
+        while ((write = queue.poll()) != null) {
+            write.future.completeExceptionally(new RejectedExecutionException("Write queue is closed"));
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.backend.write;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.backend.dao.ProductRepository;
+import com.example.backend.entity.Product;
+import com.example.backend.event.ProductChangedEvent;
+import com.example.backend.service.ProductService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Write-behind for single product creates and updates, switched on with
+ * app.products.write-behind.enabled=true. Callers queue their write and block until the group it joined
+ * has committed, so a successful return still means the write is durable; what changes is that
+ * concurrent writes share one transaction instead of paying for a commit each.
+ *
+ * Within a group, creates are inserted in JDBC batches and updates of the same product are coalesced
+ * into one UPDATE with the values of the last of them, as if they had been applied in queue order.
+ * Change events are published inside the group's transaction with the security context of the caller
+ * that made the change, so listeners see the same thing as for a direct write.
+ */
+@Component
+public class ProductWriteBehind implements DisposableBean {
+
+    private static final Logger logger = LogManager.getLogger(ProductWriteBehind.class);
+
+    // A create when id is null
+    private record Request(Long id, String name, BigDecimal price, SecurityContext securityContext) {
+    }
+
+    private final EntityManager entityManager;
+
+    private final ProductRepository productRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final TransactionTemplate transaction;
+
+    private final GroupCommitQueue<Request, Product> queue;
+
+    private final Duration commitTimeout;
+
+    public ProductWriteBehind(EntityManager entityManager, ProductRepository productRepository,
+            ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.products.write-behind.enabled:false}") boolean enabled,
+            @Value("${app.products.write-behind.queue-capacity:10000}") int queueCapacity,
+            @Value("${app.products.write-behind.max-group-size:500}") int maxGroupSize,
+            @Value("${app.products.write-behind.max-wait:5ms}") Duration maxWait,
+            @Value("${app.products.write-behind.enqueue-timeout:1s}") Duration enqueueTimeout,
+            @Value("${app.products.write-behind.commit-timeout:10s}") Duration commitTimeout) {
+        this.entityManager = entityManager;
+        this.productRepository = productRepository;
+        this.eventPublisher = eventPublisher;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.commitTimeout = commitTimeout;
+        this.queue = enabled
+                ? new GroupCommitQueue<>("products", queueCapacity, maxGroupSize, maxWait, enqueueTimeout,
+                        this::commit, meterRegistry)
+                : null;
+        if (enabled) {
+            logger.info("Product write-behind enabled: groups of up to {} writes, waiting at most {}", maxGroupSize,
+                    maxWait);
+        }
+    }
+
+    public boolean isEnabled() {
+        return queue != null;
+    }
+
+    /**
+     * Creates a product in the next group commit. The name and price must already be valid.
+     *
+     * @return The created product, once committed
+     * @throws RejectedExecutionException if the queue stayed full, or the group did not commit within the
+     *         commit timeout
+     */
+    public Product create(String name, BigDecimal price) {
+        return await(queue.submit(new Request(null, name, price, SecurityContextHolder.getContext())));
+    }
+
+    /**
+     * Replaces the name and price of a product, whatever its version, in the next group commit.
+     *
+     * @return The product as written, without a version
+     * @throws IllegalArgumentException if the product does not exist
+     * @throws RejectedExecutionException if the queue stayed full, or the group did not commit within the
+     *         commit timeout
+     */
+    public Product update(Long id, String name, BigDecimal price) {
+        return await(queue.submit(new Request(id, name, price, SecurityContextHolder.getContext())));
+    }
+
+    // Bounded, so a stuck writer costs callers a 503 rather than their request thread. The write may still
+    // commit after the caller gave up on it
+    private Product await(CompletableFuture<Product> result) {
+        try {
+            return result.get(commitTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Group commit failed", e.getCause());
+        } catch (TimeoutException e) {
+            throw new RejectedExecutionException("Write did not commit within " + commitTimeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for the write to commit", e);
+        }
+    }
+
+    private void commit(List<GroupCommitQueue.Write<Request, Product>> group) {
+        transaction.executeWithoutResult(status -> {
+            Map<Long, List<GroupCommitQueue.Write<Request, Product>>> updates = new LinkedHashMap<>();
+            int inserted = 0;
+            for (GroupCommitQueue.Write<Request, Product> write : group) {
+                Request request = write.item();
+                if (request.id() != null) {
+                    updates.computeIfAbsent(request.id(), id -> new ArrayList<>()).add(write);
+                    continue;
+                }
+                // The sequence assigns the ID on persist; the INSERT waits for the next flush
+                Product product = new Product(request.name(), request.price());
+                entityManager.persist(product);
+                publish(request, ProductChangedEvent.created(product));
+                write.succeeded(product);
+                if (++inserted % ProductService.BULK_BATCH_SIZE == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            entityManager.flush();
+            entityManager.clear();
+
+            for (Map.Entry<Long, List<GroupCommitQueue.Write<Request, Product>>> entry : updates.entrySet()) {
+                List<GroupCommitQueue.Write<Request, Product>> writes = entry.getValue();
+                Request last = writes.getLast().item();
+                if (productRepository.updateIfVersion(entry.getKey(), last.name(), last.price(), null) == 0) {
+                    writes.forEach(write -> write.failed(new IllegalArgumentException("Product not found")));
+                    continue;
+                }
+                // Earlier updates in the group were overwritten before anyone could see them
+                publish(last, ProductChangedEvent.updated(new Product(entry.getKey(), last.name(), last.price())));
+                for (GroupCommitQueue.Write<Request, Product> write : writes) {
+                    write.succeeded(new Product(entry.getKey(), write.item().name(), write.item().price()));
+                }
+            }
+        });
+    }
+
+    private void publish(Request request, ProductChangedEvent event) {
+        SecurityContext writerContext = SecurityContextHolder.getContext();
+        SecurityContextHolder.setContext(request.securityContext());
+        try {
+            eventPublisher.publishEvent(event);
+        } finally {
+            SecurityContextHolder.setContext(writerContext);
+        }
+    }
+
+    /**
+     * Commits what is still queued before the connection pool goes away.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        if (queue != null) {
+            queue.close();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.backend.reactive;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.example.backend.dto.ProductPageResponseDTO;
+import com.example.backend.dto.ProductResponseDTO;
+import com.example.backend.mapper.CursorMapper;
+
+import reactor.core.publisher.Flux;
+
+@SpringBootTest(properties = {
+        "spring.cloud.vault.enabled=false",
+        "spring.config.on-not-found=ignore",
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactive-${random.uuid}?options=DB_CLOSE_DELAY=-1;MODE=MySQL",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password=",
+        "test.security.user.password=reactive"
+})
+@ActiveProfiles({"test", ReactiveBackendApplication.PROFILE})
+@AutoConfigureWebTestClient
+class ReactiveProductControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @BeforeEach
+    void setUp() {
+        // Same table the servlet application's schema defines
+        databaseClient.sql("CREATE TABLE IF NOT EXISTS product (id BIGINT PRIMARY KEY, name VARCHAR(255), price DECIMAL(38,2))")
+                .then()
+                .then(databaseClient.sql("DELETE FROM product").then())
+                .thenMany(Flux.range(1, 5).concatMap(i -> databaseClient
+                        .sql("INSERT INTO product (id, name, price) VALUES (:id, :name, :price)")
+                        .bind("id", (long) i)
+                        .bind("name", "Product " + i)
+                        .bind("price", new BigDecimal(i + ".50"))
+                        .then()))
+                .blockLast();
+    }
+
+    private WebTestClient authenticated() {
+        return webTestClient.mutate()
+                .defaultHeaders(headers -> headers.setBasicAuth("testuser", "reactive"))
+                .build();
+    }
+
+    @Test
+    void getAllProducts_shouldStreamAllProductsInIdOrder() {
+        List<ProductResponseDTO> products = authenticated().get().uri("/api/products")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ProductResponseDTO.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertEquals(5, products.size());
+        assertEquals(1L, products.get(0).getId());
+        assertEquals("Product 5", products.get(4).getName());
+    }
+
+    @Test
+    void getProductsPage_shouldReturnCursorForFullPage() {
+        ProductPageResponseDTO first = authenticated().get().uri("/api/products?limit=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ProductPageResponseDTO.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertEquals(2, first.getItems().size());
+        assertEquals(CursorMapper.toCursor(2L), first.getNextCursor());
+
+        ProductPageResponseDTO last = authenticated().get().uri("/api/products?limit=4&after=" + first.getNextCursor())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ProductPageResponseDTO.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertEquals(3, last.getItems().size());
+        assertEquals(3L, last.getItems().get(0).getId());
+        assertNull(last.getNextCursor());
+    }
+
+    @Test
+    void getProductsPage_shouldRejectBadLimitAndCursor() {
+        authenticated().get().uri("/api/products?limit=0")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        authenticated().get().uri("/api/products?limit=2&after=not-a-cursor")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(String.class).isEqualTo("Invalid cursor");
+    }
+
+    @Test
+    void exportProducts_shouldWriteOneProductPerLine() {
+        String body = authenticated().get().uri("/api/products/export")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertNotNull(body);
+        String[] lines = body.strip().split("\n");
+        assertEquals(5, lines.length);
+        assertEquals("{\"id\":1,\"name\":\"Product 1\",\"price\":1.50}", lines[0]);
+    }
+
+    @Test
+    void getProductById_shouldReturnProductOrNotFound() {
+        authenticated().get().uri("/api/products/3")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("Product 3");
+
+        authenticated().get().uri("/api/products/99")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void getAllProducts_shouldRequireAuthentication() {
+        webTestClient.get().uri("/api/products")
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.backend.reactive;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.backend.BackendApplication;
+import com.example.backend.entity.Product;
+import com.example.backend.service.ProductService;
+
+/**
+ * Latency and allocation of the servlet (MVC + JPA) and reactive (WebFlux + R2DBC) read paths over the
+ * same embedded database. Runs only with -Preactive,load-tests. Allocation is JVM-wide bytes allocated
+ * per request, client included; both paths share the client, so the difference is the server's.
+ */
+@Tag("load")
+class ReactiveVsServletBenchmarkTest {
+
+    private static final int PRODUCTS = 20_000;
+    private static final int WARM_UP_REQUESTS = 10;
+    private static final int REQUESTS = 50;
+    private static final int CONCURRENCY = 8;
+    private static final String AUTHORIZATION = "Basic " + Base64.getEncoder()
+            .encodeToString("testuser:embedded".getBytes(StandardCharsets.UTF_8));
+
+    private static ConfigurableApplicationContext servlet;
+    private static ConfigurableApplicationContext reactive;
+
+    record Result(String name, double p50Ms, double p99Ms, double maxMs, long bytesPerRequest) {
+
+        @Override
+        public String toString() {
+            return String.format("%-18s p50=%.1fms p99=%.1fms max=%.1fms allocated=%dKiB/request",
+                    name, p50Ms, p99Ms, maxMs, bytesPerRequest / 1024);
+        }
+    }
+
+    @BeforeAll
+    static void startApplications() {
+        String database = "bench-" + UUID.randomUUID();
+        servlet = new SpringApplicationBuilder(BackendApplication.class)
+                .run(
+                        "--spring.profiles.active=test,embedded",
+                        "--spring.cloud.vault.enabled=false",
+                        "--spring.config.on-not-found=ignore",
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1;MODE=MySQL",
+                        // Measure the database path, not the servlet application's cache
+                        "--app.products.cache.enabled=false",
+                        "--app.products.change-poll.enabled=false");
+        ProductService productService = servlet.getBean(ProductService.class);
+        for (int created = 0; created < PRODUCTS; created += ProductService.MAX_BULK_SIZE) {
+            List<Product> batch = new ArrayList<>();
+            for (int i = created; i < Math.min(PRODUCTS, created + ProductService.MAX_BULK_SIZE); i++) {
+                batch.add(new Product("Product " + i, new BigDecimal("9.99")));
+            }
+            productService.createProducts(batch);
+        }
+
+        reactive = new SpringApplicationBuilder(ReactiveBackendApplication.class)
+                .run(
+                        "--spring.profiles.active=test," + ReactiveBackendApplication.PROFILE,
+                        "--spring.cloud.vault.enabled=false",
+                        "--spring.config.on-not-found=ignore",
+                        "--server.port=0",
+                        "--spring.r2dbc.url=r2dbc:h2:mem:///" + database + "?options=DB_CLOSE_DELAY=-1;MODE=MySQL",
+                        "--spring.r2dbc.username=sa",
+                        "--spring.r2dbc.password=",
+                        "--test.security.user.password=embedded");
+    }
+
+    @AfterAll
+    static void stopApplications() {
+        reactive.close();
+        servlet.close();
+    }
+
+    @Test
+    void compareFullListAndExport() throws Exception {
+        List<Result> results = List.of(
+                measure("servlet list", servlet, "/api/products", false),
+                measure("reactive list", reactive, "/api/products", false),
+                measure("servlet export", servlet, "/api/products/export", true),
+                measure("reactive export", reactive, "/api/products/export", true));
+
+        results.forEach(System.out::println);
+    }
+
+    private Result measure(String name, ConfigurableApplicationContext context, String path, boolean ndjson) throws Exception {
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Authorization", AUTHORIZATION)
+                .build();
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Histogram histogram = new Histogram(3);
+
+        try (HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+                ExecutorService clients = Executors.newFixedThreadPool(CONCURRENCY)) {
+            for (int i = 0; i < WARM_UP_REQUESTS; i++) {
+                fetch(client, request, ndjson);
+            }
+            long allocatedBefore = threads.getTotalThreadAllocatedBytes();
+            List<Future<Long>> timings = new ArrayList<>();
+            for (int i = 0; i < REQUESTS; i++) {
+                timings.add(clients.submit(() -> {
+                    long start = System.nanoTime();
+                    fetch(client, request, ndjson);
+                    return System.nanoTime() - start;
+                }));
+            }
+            for (Future<Long> timing : timings) {
+                histogram.recordValue(timing.get() / 1000);
+            }
+            long allocated = threads.getTotalThreadAllocatedBytes() - allocatedBefore;
+            return new Result(name, histogram.getValueAtPercentile(50) / 1000.0, histogram.getValueAtPercentile(99) / 1000.0,
+                    histogram.getMaxValue() / 1000.0, allocated / REQUESTS);
+        }
+    }
+
+    private static void fetch(HttpClient client, HttpRequest request, boolean ndjson) throws Exception {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode());
+        // Every product arrives: one per line, or one object per product in the JSON array
+        String body = response.body();
+        long products = ndjson ? body.strip().lines().count() : body.chars().filter(c -> c == '}').count();
+        assertEquals(PRODUCTS, products);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.backend.reactive;
+
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+/**
+ * Reactive (WebFlux + R2DBC) variant of the product read API, for high fan-in read traffic. It serves
+ * the read side of the /api/products contract against the same database as BackendApplication; writes
+ * stay on the servlet application, which owns caching and the change log.
+ */
+@SpringBootApplication
+public class ReactiveBackendApplication {
+
+	public static final String PROFILE = "reactive";
+
+	public static void main(String[] args) {
+		new SpringApplicationBuilder(ReactiveBackendApplication.class)
+				.profiles(PROFILE)
+				.run(args);
+	}
+
+}
@@ -0,0 +1,125 @@
+package com.example.backend.reactive;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.backend.dto.ProductPageResponseDTO;
+import com.example.backend.dto.ProductResponseDTO;
+import com.example.backend.mapper.CursorMapper;
+import com.example.backend.mapper.ProductMapper;
+import com.example.backend.service.ProductService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+
+@RestController
+@RequestMapping("/api/products")
+@CrossOrigin(origins = "http://localhost:3000") // Adjust the origin as needed
+public class ReactiveProductController {
+
+    private static final Logger logger = LogManager.getLogger(ReactiveProductController.class);
+
+    private final ReactiveProductRepository productRepository;
+
+    private final MeterRegistry meterRegistry;
+
+
+    public ReactiveProductController(ReactiveProductRepository productRepository, MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.meterRegistry = meterRegistry;
+    }
+
+
+/**
+ * This function streams all products, in ID order, as a JSON array. Each product is encoded as soon
+ * as its row arrives, and rows are only requested from the database as fast as the client reads.
+ * 
+ * @return A Flux of ProductResponseDTO objects, encoded as one JSON array.
+ */
+    @GetMapping
+    @Operation(summary = "Get all products")
+    public Flux<ProductResponseDTO> getAllProducts() {
+        meterRegistry.counter("products.getAll").increment();
+        logger.info("Calling endpoint to get all products");
+        return productRepository.findAll().map(ProductMapper::toDTO);
+    }
+
+
+/**
+ * This function returns one keyset page of products, with the same cursor format as the servlet API.
+ * 
+ * @param after The `after` parameter is the opaque cursor returned as `nextCursor` by the previous
+ * page. It is omitted for the first page.
+ * @param limit The `limit` parameter is the maximum number of products on the page.
+ * @return A Mono of the page with its products and, if the page is full, the cursor of the next page.
+ */
+    @GetMapping(params = "limit")
+    @Operation(summary = "Get a page of products using a cursor")
+    public Mono<ProductPageResponseDTO> getProductsPage(
+        @Parameter(description = "Cursor returned as nextCursor by the previous page") @RequestParam(required = false) String after,
+        @Parameter(description = "Maximum number of products to return") @RequestParam int limit
+    ) {
+        meterRegistry.counter("products.getPage").increment();
+        logger.info("Calling endpoint to get a page of products");
+        if (limit < 1 || limit > ProductService.MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page limit must be between 1 and " + ProductService.MAX_PAGE_SIZE);
+        }
+        return productRepository.findAfter(CursorMapper.fromCursor(after), limit)
+                .map(ProductMapper::toDTO)
+                .collectList()
+                .map(items -> {
+                    ProductPageResponseDTO page = new ProductPageResponseDTO();
+                    page.setItems(items);
+                    // A full page may have more rows behind it; a short page is always the last one
+                    if (items.size() == limit) {
+                        page.setNextCursor(CursorMapper.toCursor(items.get(items.size() - 1).getId()));
+                    }
+                    return page;
+                });
+    }
+
+
+/**
+ * This function streams the full catalog as newline-delimited JSON, one product per line, in ID order.
+ * 
+ * @return A Flux of ProductResponseDTO objects, written one per line. If the client disconnects, the
+ * subscription is cancelled and the database cursor is released.
+ */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export all products as newline-delimited JSON")
+    public Flux<ProductResponseDTO> exportProducts() {
+        meterRegistry.counter("products.export").increment();
+        logger.info("Calling endpoint to export all products");
+        return productRepository.findAll().map(ProductMapper::toDTO);
+    }
+
+
+/**
+ * This function retrieves a product by its ID.
+ * 
+ * @param id The `id` parameter is the path variable with the ID of the product to retrieve.
+ * @return A Mono of a ResponseEntity containing the ProductResponseDTO, or 404 if there is no such
+ * product.
+ */
+    @GetMapping("/{id}")
+    @Operation(summary = "Get a product by ID")
+    public Mono<ResponseEntity<ProductResponseDTO>> getProductById(@Parameter(description = "The ID of the product to retrieve") @PathVariable Long id) {
+        meterRegistry.counter("products.getById").increment();
+        logger.info("Calling endpoint to get product by ID: {}", id);
+        return productRepository.findById(id)
+                .map(product -> ResponseEntity.ok(ProductMapper.toDTO(product)))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.backend.reactive;
+
+import java.math.BigDecimal;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import com.example.backend.entity.Product;
+
+import io.r2dbc.spi.Readable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Read-only R2DBC access to the product table. Rows are mapped to the same Product class the servlet
+ * application uses, so ProductMapper applies unchanged.
+ */
+@Repository
+public class ReactiveProductRepository {
+
+    private final DatabaseClient databaseClient;
+
+    private final int fetchSize;
+
+    public ReactiveProductRepository(DatabaseClient databaseClient,
+            @Value("${app.reactive.fetch-size:500}") int fetchSize) {
+        this.databaseClient = databaseClient;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Streams every product in ID order. The fetch size makes the driver read the result set through
+     * a server-side cursor, a batch at a time, as downstream demand arrives.
+     */
+    public Flux<Product> findAll() {
+        return databaseClient.sql("SELECT id, name, price FROM product ORDER BY id")
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .map(ReactiveProductRepository::toProduct)
+                .all();
+    }
+
+    /**
+     * Returns up to {@code limit} products with an ID greater than {@code afterId}, in ID order.
+     */
+    public Flux<Product> findAfter(long afterId, int limit) {
+        return databaseClient.sql("SELECT id, name, price FROM product WHERE id > :afterId ORDER BY id LIMIT :limit")
+                .bind("afterId", afterId)
+                .bind("limit", limit)
+                .map(ReactiveProductRepository::toProduct)
+                .all();
+    }
+
+    public Mono<Product> findById(Long id) {
+        return databaseClient.sql("SELECT id, name, price FROM product WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveProductRepository::toProduct)
+                .one();
+    }
+
+    private static Product toProduct(Readable row) {
+        return new Product(row.get("id", Long.class), row.get("name", String.class), row.get("price", BigDecimal.class));
+    }
+}
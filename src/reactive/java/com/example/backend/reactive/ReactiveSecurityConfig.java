@@ -0,0 +1,75 @@
+package com.example.backend.reactive;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.userdetails.MapReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+
+import com.example.backend.security.CachingPasswordEncoder;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Same rules and users as SecurityConfig, for WebFlux.
+ */
+@Configuration
+@EnableWebFluxSecurity
+public class ReactiveSecurityConfig {
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+        return http
+            .csrf(csrf -> csrf.disable())
+            .authorizeExchange(exchange -> exchange
+                .pathMatchers("/actuator/prometheus").permitAll()
+                .pathMatchers("/api/products/**").authenticated()
+                .pathMatchers("/swagger-ui.html", "/swagger-ui/**", "/v3/api-docs/**").permitAll()
+                .anyExchange().permitAll()
+            )
+            .httpBasic(httpBasic -> { })
+            .build();
+    }
+
+    @Bean
+    @Profile("dev")
+    public MapReactiveUserDetailsService devUsers(PasswordEncoder passwordEncoder,
+            @Value("${dev.security.user.password}") String devPassword) {
+        return new MapReactiveUserDetailsService(
+            User.withUsername("devuser")
+                .password(passwordEncoder.encode(devPassword))
+                .roles("USER")
+                .build()
+        );
+    }
+
+    @Bean
+    @Profile("test")
+    public MapReactiveUserDetailsService testUsers(PasswordEncoder passwordEncoder,
+            @Value("${test.security.user.password}") String testPassword) {
+        return new MapReactiveUserDetailsService(
+            User.withUsername("testuser")
+                .password(passwordEncoder.encode(testPassword))
+                .roles("USER")
+                .build()
+        );
+    }
+
+    @Bean
+    public PasswordEncoder passwordEncoder(
+            @Value("${app.security.credential-cache.enabled:true}") boolean cacheEnabled,
+            @Value("${app.security.credential-cache.ttl:5m}") Duration ttl,
+            @Value("${app.security.credential-cache.maximum-size:10000}") long maximumSize,
+            MeterRegistry meterRegistry) {
+        PasswordEncoder bcrypt = new BCryptPasswordEncoder();
+        return cacheEnabled ? new CachingPasswordEncoder(bcrypt, ttl, maximumSize, meterRegistry) : bcrypt;
+    }
+}
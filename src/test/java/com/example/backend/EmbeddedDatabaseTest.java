@@ -0,0 +1,26 @@
+package com.example.backend;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Boots the full application against an in-memory H2 database (see application-embedded.properties)
+ * instead of Vault + MySQL, so JPA-level tests run without Docker.
+ * Vault has to be switched off inline: the vault:// import is resolved before profile files load.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@SpringBootTest(properties = {
+        "spring.cloud.vault.enabled=false",
+        "spring.config.on-not-found=ignore"
+})
+@ActiveProfiles({"test", "embedded"})
+public @interface EmbeddedDatabaseTest {
+}
@@ -0,0 +1,101 @@
+package com.example.backend.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.backend.BackendApplication;
+import com.example.backend.entity.Product;
+import com.example.backend.service.ProductService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Two application contexts ("nodes") sharing one embedded database: a write on one node must evict
+ * the stale cache entry on the other through the product_change log.
+ */
+class ProductCacheClusterTest {
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void startNodes() {
+        String url = "jdbc:h2:mem:cluster-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;MODE=MySQL";
+        nodeA = startNode("node-a", url);
+        nodeB = startNode("node-b", url);
+    }
+
+    private static ConfigurableApplicationContext startNode(String nodeId, String url) {
+        // Command-line arguments, so they win over application-embedded.properties
+        return new SpringApplicationBuilder(BackendApplication.class)
+                .profiles("test", "embedded")
+                .run(
+                        "--spring.cloud.vault.enabled=false",
+                        "--spring.config.on-not-found=ignore",
+                        "--server.port=0",
+                        "--spring.datasource.url=" + url,
+                        // Both nodes share the schema; the first one creates it
+                        "--spring.jpa.hibernate.ddl-auto=update",
+                        "--app.cluster.node-id=" + nodeId,
+                        "--app.products.change-poll.interval-ms=50");
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        nodeB.close();
+        nodeA.close();
+    }
+
+    @Test
+    void updateOnOneNode_shouldEvictStaleEntryOnTheOther() throws InterruptedException {
+        ProductService serviceA = nodeA.getBean(ProductService.class);
+        ProductService serviceB = nodeB.getBean(ProductService.class);
+
+        Product product = serviceA.createProduct("Old", new BigDecimal("1.00"));
+        // Node B caches the product
+        assertEquals("Old", serviceB.getProductById(product.getId()).orElseThrow().getName());
+
+        serviceA.updateProduct(product.getId().intValue(), new Product("New", new BigDecimal("2.00")));
+
+        String seenByB = awaitName(serviceB, product.getId(), "New");
+        assertEquals("New", seenByB);
+        MeterRegistry registryB = nodeB.getBean(MeterRegistry.class);
+        assertTrue(registryB.get("products.change.propagation").timer().count() >= 1);
+    }
+
+    @Test
+    void deleteOnOneNode_shouldEvictOnTheOther() throws InterruptedException {
+        ProductService serviceA = nodeA.getBean(ProductService.class);
+        ProductService serviceB = nodeB.getBean(ProductService.class);
+
+        Product product = serviceA.createProduct("Doomed", new BigDecimal("1.00"));
+        assertTrue(serviceB.getProductById(product.getId()).isPresent());
+
+        serviceA.deleteProduct(product.getId());
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (serviceB.getProductById(product.getId()).isPresent() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(serviceB.getProductById(product.getId()).isEmpty());
+    }
+
+    private static String awaitName(ProductService service, Long id, String expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        String name = service.getProductById(id).orElseThrow().getName();
+        while (!expected.equals(name) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            name = service.getProductById(id).orElseThrow().getName();
+        }
+        return name;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.backend.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.backend.EmbeddedDatabaseTest;
+import com.example.backend.dao.ProductRepository;
+import com.example.backend.entity.Product;
+import com.example.backend.service.ProductService;
+
+@EmbeddedDatabaseTest
+class ProductCacheIntegrationTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAllInBatch();
+        productCache.evictAll();
+    }
+
+    @Test
+    void update_shouldBeVisibleAfterCommit() {
+        Product product = productService.createProduct("Old", new BigDecimal("1.00"));
+        assertEquals("Old", productService.getProductById(product.getId()).orElseThrow().getName());
+
+        productService.updateProduct(product.getId().intValue(), new Product("New", new BigDecimal("2.00")));
+
+        assertEquals("New", productService.getProductById(product.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void rolledBackUpdate_shouldNeverReachReaders() {
+        Product product = productService.createProduct("Old", new BigDecimal("1.00"));
+        productService.getProductById(product.getId());
+
+        assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            productService.updateProduct(product.getId().intValue(), new Product("Uncommitted", new BigDecimal("2.00")));
+            throw new IllegalStateException("rollback");
+        }));
+
+        assertEquals("Old", productService.getProductById(product.getId()).orElseThrow().getName());
+        productCache.evictAll();
+        assertEquals("Old", productService.getProductById(product.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void delete_shouldEvictAfterCommit() {
+        Product product = productService.createProduct("Doomed", new BigDecimal("1.00"));
+        productService.getProductById(product.getId());
+
+        productService.deleteProduct(product.getId());
+
+        assertTrue(productService.getProductById(product.getId()).isEmpty());
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.backend.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.backend.entity.Product;
+import com.example.backend.event.ProductChangedEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ProductCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ProductCache productCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        productCache = new ProductCache(true, 100, Duration.ofMinutes(1), Duration.ZERO, meterRegistry);
+        loads = new AtomicInteger();
+    }
+
+    private Optional<Product> load(Long id) {
+        loads.incrementAndGet();
+        return id == 404L ? Optional.empty() : Optional.of(new Product("Product" + id, BigDecimal.TEN));
+    }
+
+    @Test
+    void get_shouldLoadOnceAndThenHit() {
+        productCache.get(1L, this::load);
+        Optional<Product> product = productCache.get(1L, this::load);
+
+        assertEquals("Product1", product.orElseThrow().getName());
+        assertEquals(1, loads.get());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", ProductCache.CACHE_NAME).tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", ProductCache.CACHE_NAME).tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void get_shouldNotCacheMissingProducts() {
+        assertFalse(productCache.get(404L, this::load).isPresent());
+        assertFalse(productCache.get(404L, this::load).isPresent());
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void onProductChanged_shouldEvictTheProduct() {
+        productCache.get(1L, this::load);
+
+        productCache.onProductChanged(ProductChangedEvent.deleted(1L));
+        productCache.get(1L, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void evict_shouldNotWaitForAnInFlightLoadAndKeepItsResultOutOfTheCache() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread reader = Thread.ofVirtual().start(() -> productCache.get(1L, id -> {
+            loading.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Optional.of(new Product("Before the write", BigDecimal.ONE));
+        }));
+        loading.await();
+
+        // Would deadlock if the eviction waited for the load while the load waited for a connection
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> productCache.evict(1L));
+        release.countDown();
+        reader.join();
+
+        assertEquals("Product1", productCache.get(1L, this::load).orElseThrow().getName());
+    }
+
+    @Test
+    void staleReadWindow_shouldNotCacheRowsOfRecentlyChangedProducts() {
+        ProductCache replicated = new ProductCache(true, 100, Duration.ofMinutes(1), Duration.ofMinutes(1), meterRegistry);
+        replicated.get(2L, this::load);
+        replicated.onProductChanged(ProductChangedEvent.deleted(1L));
+
+        // Possibly read from a replica that has not seen the change yet
+        replicated.get(1L, this::load);
+        replicated.get(1L, this::load);
+        // Unchanged products are still cached
+        replicated.get(2L, this::load);
+
+        assertEquals(3, loads.get());
+
+        replicated.evictAll();
+        replicated.get(2L, this::load);
+        replicated.get(2L, this::load);
+
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    void disabledCache_shouldAlwaysLoadAndRegisterNoMeters() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ProductCache disabled = new ProductCache(false, 100, Duration.ofMinutes(1), Duration.ZERO, registry);
+
+        disabled.get(1L, this::load);
+        disabled.get(1L, this::load);
+
+        assertEquals(2, loads.get());
+        assertFalse(disabled.isEnabled());
+        assertNull(registry.find("cache.gets").meter());
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.backend.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.example.backend.EmbeddedDatabaseTest;
+import com.example.backend.dao.ProductRepository;
+import com.example.backend.entity.Product;
+import com.example.backend.service.ProductService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@EmbeddedDatabaseTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "app.products.snapshot.enabled=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        // The poller's query would otherwise land in the statement count
+        "app.products.change-poll.enabled=false" })
+class ProductCatalogSnapshotIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductCatalogSnapshot catalogSnapshot;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        // deleteAllInBatch bypasses the change log; the create below moves the watermark, so refresh rebuilds
+        productRepository.deleteAllInBatch();
+        productService.createProduct("Notebook", new BigDecimal("2.00"));
+        catalogSnapshot.refresh();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private ResultActions getAll() throws Exception {
+        return mockMvc.perform(get("/api/products").with(httpBasic("testuser", "embedded")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void reads_shouldBeServedWithoutQueryingTheDatabase() throws Exception {
+        Product pencil = productService.createProduct("Pencil", new BigDecimal("1.00"));
+        statistics.clear();
+
+        getAll().andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].name").value("Pencil"));
+        mockMvc.perform(get("/api/products/" + pencil.getId()).with(httpBasic("testuser", "embedded")))
+                .andExpect(jsonPath("$.name").value("Pencil"));
+        mockMvc.perform(get("/api/products").param("limit", "1").with(httpBasic("testuser", "embedded")))
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].name").value("Notebook"));
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void writes_shouldChangeTheCatalogVersion() throws Exception {
+        String etag = getAll().andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        Product pencil = productService.createProduct("Pencil", new BigDecimal("1.00"));
+        String afterCreate = getAll().andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, afterCreate);
+
+        productService.patchProduct(pencil.getId(), "Blue Pencil", null, null);
+        getAll().andExpect(jsonPath("$[1].name").value("Blue Pencil"));
+
+        productService.deleteProduct(pencil.getId());
+        getAll().andExpect(jsonPath("$.length()").value(1));
+        assertNotEquals(afterCreate, getAll().andReturn().getResponse().getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void unconditionalUpdates_shouldKeepTheProductsETag() throws Exception {
+        Product pencil = productService.createProduct("Pencil", new BigDecimal("1.00"));
+
+        // Without If-Match the service does not know the version it wrote
+        productService.updateProduct(pencil.getId().intValue(), new Product("Red Pencil", new BigDecimal("1.20")));
+
+        mockMvc.perform(get("/api/products/" + pencil.getId()).with(httpBasic("testuser", "embedded")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Red Pencil"))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+    }
+}
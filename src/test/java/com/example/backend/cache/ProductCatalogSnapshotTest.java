@@ -0,0 +1,142 @@
+package com.example.backend.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.backend.dao.ProductChangeRepository;
+import com.example.backend.dao.ProductRepository;
+import com.example.backend.entity.Product;
+import com.example.backend.event.ProductChangedEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+
+class ProductCatalogSnapshotTest {
+
+    private ProductRepository productRepository;
+    private ProductChangeRepository productChangeRepository;
+    private SimpleMeterRegistry meterRegistry;
+
+    private final Product product1 = new Product(1L, "Product1", new BigDecimal("1.00"), 0L);
+    private final Product product2 = new Product(2L, "Product2", new BigDecimal("2.00"), 0L);
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        productChangeRepository = mock(ProductChangeRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        when(productChangeRepository.findWatermark()).thenReturn("2-2");
+        when(productRepository.streamAllOrderedById()).thenAnswer(invocation -> Stream.of(product1, product2));
+    }
+
+    private ProductCatalogSnapshot snapshot(boolean enabled, String storage) {
+        return new ProductCatalogSnapshot(productRepository, productChangeRepository, mock(EntityManager.class),
+                mock(PlatformTransactionManager.class), meterRegistry, enabled, storage);
+    }
+
+    private static List<String> names(ProductCatalogSnapshot.Snapshot snapshot) {
+        return snapshot.store().findAll().stream().map(Product::getName).toList();
+    }
+
+    @Test
+    void refresh_shouldBuildTheSnapshotAndOnlyRebuildWhenTheWatermarkMoves() {
+        ProductCatalogSnapshot catalogSnapshot = snapshot(true, "objects");
+        assertNull(catalogSnapshot.current());
+
+        catalogSnapshot.refresh();
+        ProductCatalogSnapshot.Snapshot built = catalogSnapshot.current();
+        assertEquals(List.of(product1, product2), built.store().findAll());
+        assertEquals("2-2.0", built.version());
+
+        catalogSnapshot.refresh();
+        assertSame(built, catalogSnapshot.current());
+
+        when(productChangeRepository.findWatermark()).thenReturn("3-3");
+        catalogSnapshot.refresh();
+        assertEquals("3-3.0", catalogSnapshot.current().version());
+        verify(productRepository, times(2)).streamAllOrderedById();
+        assertEquals(2.0, meterRegistry.get("products.snapshot.rebuild").timer().count());
+        assertEquals(2.0, meterRegistry.get("products.snapshot.size").gauge().value());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"objects", "columnar"})
+    void onProductChanged_shouldReplaceTheSnapshotWithoutTouchingTheOldOne(String storage) {
+        ProductCatalogSnapshot catalogSnapshot = snapshot(true, storage);
+        catalogSnapshot.refresh();
+        ProductCatalogSnapshot.Snapshot before = catalogSnapshot.current();
+        Product product3 = new Product(3L, "Product3", new BigDecimal("3.00"), 0L);
+        Product renamed = new Product(1L, "Renamed", new BigDecimal("1.50"), 1L);
+
+        catalogSnapshot.onProductChanged(ProductChangedEvent.created(product3));
+        catalogSnapshot.onProductChanged(ProductChangedEvent.updated(renamed));
+        catalogSnapshot.onProductChanged(ProductChangedEvent.deleted(2L));
+
+        ProductCatalogSnapshot.Snapshot after = catalogSnapshot.current();
+        assertNotSame(before, after);
+        assertEquals(List.of("Product1", "Product2"), names(before));
+        assertEquals(List.of("Renamed", "Product3"), names(after));
+        Product stored = after.store().findById(1L).orElseThrow();
+        assertEquals(new BigDecimal("1.50"), stored.getPrice());
+        assertEquals(1L, stored.getVersion());
+        assertEquals("2-2.3", after.version());
+    }
+
+    @Test
+    void onProductChanged_shouldReloadPartiallyUpdatedProducts() {
+        ProductCatalogSnapshot catalogSnapshot = snapshot(true, "objects");
+        catalogSnapshot.refresh();
+        Product patched = new Product(2L, "Patched", new BigDecimal("2.00"));
+        when(productRepository.findAllById(List.of(2L))).thenReturn(List.of(patched));
+
+        catalogSnapshot.onProductChanged(ProductChangedEvent.updatedPartially(2L));
+
+        assertSame(patched, catalogSnapshot.current().store().findById(2L).orElseThrow());
+    }
+
+    @Test
+    void refresh_whenTheDatabaseIsDown_shouldKeepServingTheLastSnapshot() {
+        ProductCatalogSnapshot catalogSnapshot = snapshot(true, "columnar");
+        catalogSnapshot.refresh();
+        ProductCatalogSnapshot.Snapshot built = catalogSnapshot.current();
+        when(productChangeRepository.findWatermark()).thenThrow(new DataAccessResourceFailureException("down"));
+
+        catalogSnapshot.refresh();
+
+        assertSame(built, catalogSnapshot.current());
+        assertEquals(1.0, meterRegistry.get("products.snapshot.refresh.failures").counter().count());
+    }
+
+    @Test
+    void disabled_shouldNeverBuild() {
+        ProductCatalogSnapshot disabled = snapshot(false, "objects");
+
+        disabled.refresh();
+        disabled.onProductChanged(ProductChangedEvent.deleted(1L));
+
+        assertNull(disabled.current());
+    }
+
+    @Test
+    void unknownStorage_shouldBeRejected() {
+        assertThrows(IllegalArgumentException.class, () -> snapshot(true, "rows"));
+    }
+}
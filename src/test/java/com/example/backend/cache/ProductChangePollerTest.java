@@ -0,0 +1,124 @@
+package com.example.backend.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.backend.dao.ProductChangeRepository;
+import com.example.backend.entity.ProductChange;
+import com.example.backend.event.ProductChangedEvent;
+import com.example.backend.search.ProductSearchIndex;
+import com.example.backend.stats.ProductCatalogStats;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ProductChangePollerTest {
+
+    private ProductChangeRepository productChangeRepository;
+    private ProductCache productCache;
+    private ProductSearchIndex productSearchIndex;
+    private ProductCatalogStats productCatalogStats;
+    private SimpleMeterRegistry meterRegistry;
+    private ProductChangePoller poller;
+
+    @BeforeEach
+    void setUp() {
+        productChangeRepository = mock(ProductChangeRepository.class);
+        productCache = mock(ProductCache.class);
+        productSearchIndex = mock(ProductSearchIndex.class);
+        productCatalogStats = mock(ProductCatalogStats.class);
+        ProductChangeLog productChangeLog = mock(ProductChangeLog.class);
+        when(productChangeLog.getNodeId()).thenReturn("self");
+        meterRegistry = new SimpleMeterRegistry();
+        poller = new ProductChangePoller(productChangeRepository, productCache, productSearchIndex, productCatalogStats, productChangeLog, meterRegistry, 100, Duration.ofSeconds(10));
+
+        // First poll only establishes the high-water mark
+        when(productChangeRepository.findMaxId()).thenReturn(10L);
+        poller.poll();
+    }
+
+    private static ProductChange change(long id, long productId, String origin) {
+        ProductChange change = new ProductChange(productId, ProductChangedEvent.Type.UPDATED, origin, System.currentTimeMillis());
+        ReflectionTestUtils.setField(change, "id", id);
+        return change;
+    }
+
+    @Test
+    void poll_shouldEvictRemoteChangesAndAdvance() {
+        when(productChangeRepository.findByIdGreaterThanOrderByIdAsc(10L, Limit.of(100)))
+                .thenReturn(List.of(change(11, 1, "other"), change(12, 2, "other")));
+
+        poller.poll();
+
+        verify(productCache).evict(1L);
+        verify(productCache).evict(2L);
+        verify(productSearchIndex).refresh(1L);
+        verify(productSearchIndex).refresh(2L);
+        verify(productCatalogStats).refresh(1L);
+        verify(productCatalogStats).refresh(2L);
+        assertEquals(12L, poller.getHighWaterMark());
+        assertEquals(2.0, meterRegistry.get("products.change.remote").counter().count());
+        assertEquals(2, meterRegistry.get("products.change.propagation").timer().count());
+    }
+
+    @Test
+    void poll_shouldSkipOwnChanges() {
+        when(productChangeRepository.findByIdGreaterThanOrderByIdAsc(10L, Limit.of(100)))
+                .thenReturn(List.of(change(11, 1, "self")));
+
+        poller.poll();
+
+        verify(productCache, never()).evict(any());
+        assertEquals(11L, poller.getHighWaterMark());
+    }
+
+    @Test
+    void poll_shouldPickUpChangesThatCommitBelowTheHighWaterMark() {
+        // ID 12 was allocated by a transaction that had not committed yet
+        when(productChangeRepository.findByIdGreaterThanOrderByIdAsc(10L, Limit.of(100)))
+                .thenReturn(List.of(change(11, 1, "other"), change(13, 3, "other")));
+        when(productChangeRepository.findByIdIn(Set.of(12L))).thenReturn(List.of());
+
+        poller.poll();
+
+        assertEquals(13L, poller.getHighWaterMark());
+        assertEquals(1, poller.getGapCount());
+        verify(productCache, never()).evict(2L);
+
+        // It commits before the next poll
+        when(productChangeRepository.findByIdGreaterThanOrderByIdAsc(13L, Limit.of(100))).thenReturn(List.of());
+        when(productChangeRepository.findByIdIn(Set.of(12L))).thenReturn(List.of(change(12, 2, "other")));
+
+        poller.poll();
+
+        verify(productCache).evict(2L);
+        assertEquals(0, poller.getGapCount());
+    }
+
+    @Test
+    void poll_shouldForgetGapsAfterTimeout() {
+        ProductChangeLog productChangeLog = mock(ProductChangeLog.class);
+        when(productChangeLog.getNodeId()).thenReturn("self");
+        poller = new ProductChangePoller(productChangeRepository, productCache, productSearchIndex, productCatalogStats, productChangeLog, meterRegistry, 100, Duration.ZERO);
+        poller.poll();
+        when(productChangeRepository.findByIdGreaterThanOrderByIdAsc(10L, Limit.of(100)))
+                .thenReturn(List.of(change(12, 2, "other")));
+
+        poller.poll();
+
+        // The rolled-back ID 11 is dropped once the (zero) timeout has passed
+        assertEquals(0, poller.getGapCount());
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.backend.grpc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import com.example.backend.EmbeddedDatabaseTest;
+import com.example.backend.dao.ProductRepository;
+import com.example.backend.entity.Product;
+import com.example.backend.grpc.proto.GetProductRequest;
+import com.example.backend.grpc.proto.ListProductsRequest;
+import com.example.backend.grpc.proto.ProductsGrpc;
+import com.example.backend.grpc.proto.UpsertProductRequest;
+import com.example.backend.grpc.proto.UpsertProductsResponse;
+import com.example.backend.service.ProductService;
+
+import io.grpc.ClientInterceptor;
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.netty.shaded.io.grpc.netty.NettyChannelBuilder;
+import io.grpc.stub.MetadataUtils;
+import io.grpc.stub.StreamObserver;
+
+@EmbeddedDatabaseTest
+@TestPropertySource(properties = "app.grpc.enabled=true")
+class ProductGrpcIntegrationTest {
+
+    @Autowired
+    private ProductGrpcService productGrpcService;
+
+    @Autowired
+    private BasicAuthServerInterceptor authInterceptor;
+
+    @Autowired
+    private GrpcServerLifecycle grpcServer;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private Server inProcessServer;
+    private ManagedChannel inProcessChannel;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        productRepository.deleteAllInBatch();
+        String name = InProcessServerBuilder.generateName();
+        inProcessServer = InProcessServerBuilder.forName(name)
+                .addService(ServerInterceptors.intercept(productGrpcService, authInterceptor))
+                .build()
+                .start();
+        inProcessChannel = InProcessChannelBuilder.forName(name).build();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        inProcessChannel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        inProcessServer.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private static ClientInterceptor credentials() {
+        Metadata metadata = new Metadata();
+        metadata.put(BasicAuthServerInterceptor.AUTHORIZATION, BasicAuthServerInterceptor.basic("testuser", "embedded"));
+        return MetadataUtils.newAttachHeadersInterceptor(metadata);
+    }
+
+    @Test
+    void upsertThenList_shouldWriteEveryProductAndStreamThemBackInIdOrder() throws Exception {
+        Product existing = productService.createProduct("Old name", new BigDecimal("1.00"));
+        List<UpsertProductsResponse> responses = new ArrayList<>();
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        StreamObserver<UpsertProductRequest> requests = ProductsGrpc.newStub(inProcessChannel)
+                .withInterceptors(credentials())
+                .upsertProducts(new StreamObserver<>() {
+                    @Override
+                    public void onNext(UpsertProductsResponse response) {
+                        responses.add(response);
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        done.completeExceptionally(t);
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        done.complete(null);
+                    }
+                });
+        requests.onNext(UpsertProductRequest.newBuilder().setId(existing.getId()).setName("New name").setPrice("1.50").build());
+        for (int i = 0; i < 1200; i++) {
+            requests.onNext(UpsertProductRequest.newBuilder().setName("Streamed " + i).setPrice("2.00").build());
+        }
+        requests.onCompleted();
+        done.get(30, TimeUnit.SECONDS);
+
+        // 1201 requests in batches of app.grpc.upsert-batch-size=500
+        assertEquals(List.of(500, 500, 201), responses.stream().map(UpsertProductsResponse::getProductsCount).toList());
+        assertEquals("New name", productRepository.findById(existing.getId()).orElseThrow().getName());
+        List<Long> listed = new ArrayList<>();
+        ProductsGrpc.newBlockingStub(inProcessChannel).withInterceptors(credentials())
+                .listProducts(ListProductsRequest.getDefaultInstance())
+                .forEachRemaining(product -> listed.add(product.getId()));
+        assertEquals(1201, listed.size());
+        assertEquals(listed.stream().sorted().toList(), listed);
+    }
+
+    @Test
+    void nettyServer_shouldServeCallsOverHttp2() throws InterruptedException {
+        Product product = productService.createProduct("Over the wire", new BigDecimal("3.25"));
+        assertTrue(grpcServer.getPort() > 0);
+        ManagedChannel channel = NettyChannelBuilder.forAddress("localhost", grpcServer.getPort()).usePlaintext().build();
+        try {
+            com.example.backend.grpc.proto.Product received = ProductsGrpc.newBlockingStub(channel)
+                    .withInterceptors(credentials())
+                    .getProduct(GetProductRequest.newBuilder().setId(product.getId()).build());
+
+            assertEquals("Over the wire", received.getName());
+            assertEquals("3.25", received.getPrice());
+        } finally {
+            channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+}
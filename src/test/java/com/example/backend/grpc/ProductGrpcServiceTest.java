@@ -0,0 +1,211 @@
+package com.example.backend.grpc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.Authentication;
+
+import com.example.backend.entity.Product;
+import com.example.backend.grpc.proto.GetProductRequest;
+import com.example.backend.grpc.proto.ListProductsRequest;
+import com.example.backend.grpc.proto.ProductsGrpc;
+import com.example.backend.grpc.proto.UpsertProductRequest;
+import com.example.backend.grpc.proto.UpsertProductsResponse;
+import com.example.backend.service.ProductService;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.MetadataUtils;
+import io.grpc.stub.StreamObserver;
+
+class ProductGrpcServiceTest {
+
+    private static final int BATCH_SIZE = 2;
+
+    private ProductService productService;
+    private AuthenticationManager authenticationManager;
+    private ExecutorService streamingExecutor;
+    private Server server;
+    private ManagedChannel channel;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        productService = mock(ProductService.class);
+        authenticationManager = mock(AuthenticationManager.class);
+        when(authenticationManager.authenticate(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        streamingExecutor = Executors.newCachedThreadPool();
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name)
+                .addService(ServerInterceptors.intercept(new ProductGrpcService(productService, streamingExecutor, BATCH_SIZE),
+                        new BasicAuthServerInterceptor(authenticationManager)))
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(name).build();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        streamingExecutor.shutdownNow();
+    }
+
+    private static Metadata credentials() {
+        Metadata metadata = new Metadata();
+        metadata.put(BasicAuthServerInterceptor.AUTHORIZATION, BasicAuthServerInterceptor.basic("testuser", "secret"));
+        return metadata;
+    }
+
+    private ProductsGrpc.ProductsBlockingStub blockingStub() {
+        return ProductsGrpc.newBlockingStub(channel).withInterceptors(MetadataUtils.newAttachHeadersInterceptor(credentials()));
+    }
+
+    private ProductsGrpc.ProductsStub asyncStub() {
+        return ProductsGrpc.newStub(channel).withInterceptors(MetadataUtils.newAttachHeadersInterceptor(credentials()));
+    }
+
+    private static UpsertProductRequest create(String name, String price) {
+        return UpsertProductRequest.newBuilder().setName(name).setPrice(price).build();
+    }
+
+    @Test
+    void getProduct_shouldReturnTheProductOrNotFound() {
+        when(productService.getProductById(1L)).thenReturn(Optional.of(new Product(1L, "Lamp", new BigDecimal("12.50"), 3L)));
+        when(productService.getProductById(2L)).thenReturn(Optional.empty());
+
+        com.example.backend.grpc.proto.Product lamp = blockingStub().getProduct(GetProductRequest.newBuilder().setId(1L).build());
+
+        assertEquals("Lamp", lamp.getName());
+        assertEquals("12.50", lamp.getPrice());
+        assertEquals(3L, lamp.getVersion());
+        StatusRuntimeException missing = assertThrows(StatusRuntimeException.class,
+                () -> blockingStub().getProduct(GetProductRequest.newBuilder().setId(2L).build()));
+        assertEquals(Status.Code.NOT_FOUND, missing.getStatus().getCode());
+    }
+
+    @Test
+    void listProducts_shouldStreamEveryExportedProductInOrder() {
+        when(productService.exportProducts(any())).thenAnswer(invocation -> {
+            Consumer<Product> sink = invocation.getArgument(0);
+            for (long id = 1; id <= 1000; id++) {
+                sink.accept(new Product(id, "Product" + id, BigDecimal.ONE, null));
+            }
+            return 1000L;
+        });
+
+        List<Long> ids = new ArrayList<>();
+        Iterator<com.example.backend.grpc.proto.Product> products = blockingStub().listProducts(ListProductsRequest.getDefaultInstance());
+        products.forEachRemaining(product -> {
+            ids.add(product.getId());
+            assertFalse(product.hasVersion());
+        });
+
+        assertEquals(1000, ids.size());
+        assertEquals(1L, ids.get(0));
+        assertEquals(1000L, ids.get(999));
+    }
+
+    @Test
+    void upsertProducts_shouldWriteOneBatchPerBatchSizeAndTheRestOnCompletion() throws Exception {
+        List<List<Product>> batches = new ArrayList<>();
+        when(productService.upsertProducts(anyList())).thenAnswer(invocation -> {
+            List<Product> batch = invocation.getArgument(0);
+            batches.add(batch);
+            return batch.stream().map(product -> new Product(product.getId() == null ? 100L + batches.size() : product.getId(),
+                    product.getName(), product.getPrice(), null)).toList();
+        });
+
+        Responses responses = new Responses();
+        StreamObserver<UpsertProductRequest> requests = asyncStub().upsertProducts(responses);
+        requests.onNext(create("A", "1.00"));
+        requests.onNext(UpsertProductRequest.newBuilder().setId(7L).setName("B").setPrice("2.00").build());
+        requests.onNext(create("C", "3.00"));
+        requests.onNext(create("D", "4.00"));
+        requests.onNext(create("E", "5.00"));
+        requests.onCompleted();
+
+        List<UpsertProductsResponse> received = responses.done.get(5, TimeUnit.SECONDS);
+        assertEquals(List.of(2, 2, 1), batches.stream().map(List::size).toList());
+        assertEquals(3, received.size());
+        assertEquals(7L, received.get(0).getProducts(1).getId());
+        assertEquals("E", received.get(2).getProducts(0).getName());
+    }
+
+    @Test
+    void upsertProducts_withABadPrice_shouldFailWithInvalidArgumentAndWriteNothingMore() {
+        Responses responses = new Responses();
+        StreamObserver<UpsertProductRequest> requests = asyncStub().upsertProducts(responses);
+        requests.onNext(create("A", "not a price"));
+        requests.onNext(create("B", "1.00"));
+        requests.onCompleted();
+
+        Throwable error = assertThrows(Exception.class, () -> responses.done.get(5, TimeUnit.SECONDS)).getCause();
+        assertEquals(Status.Code.INVALID_ARGUMENT, Status.fromThrowable(error).getCode());
+        verify(productService, never()).upsertProducts(anyList());
+    }
+
+    @Test
+    void calls_withoutValidCredentials_shouldBeUnauthenticated() {
+        GetProductRequest request = GetProductRequest.newBuilder().setId(1L).build();
+        StatusRuntimeException anonymous = assertThrows(StatusRuntimeException.class,
+                () -> ProductsGrpc.newBlockingStub(channel).getProduct(request));
+        when(authenticationManager.authenticate(any(Authentication.class))).thenThrow(new BadCredentialsException("bad"));
+        StatusRuntimeException wrongPassword = assertThrows(StatusRuntimeException.class, () -> blockingStub().getProduct(request));
+
+        assertEquals(Status.Code.UNAUTHENTICATED, anonymous.getStatus().getCode());
+        assertEquals(Status.Code.UNAUTHENTICATED, wrongPassword.getStatus().getCode());
+        verify(productService, never()).getProductById(any());
+    }
+
+    private static final class Responses implements StreamObserver<UpsertProductsResponse> {
+
+        private final List<UpsertProductsResponse> received = new ArrayList<>();
+
+        private final CompletableFuture<List<UpsertProductsResponse>> done = new CompletableFuture<>();
+
+        @Override
+        public void onNext(UpsertProductsResponse response) {
+            received.add(response);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            done.completeExceptionally(t);
+        }
+
+        @Override
+        public void onCompleted() {
+            assertTrue(done.complete(received));
+        }
+    }
+}
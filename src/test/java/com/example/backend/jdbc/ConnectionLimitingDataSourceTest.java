@@ -0,0 +1,94 @@
+package com.example.backend.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ConnectionLimitingDataSourceTest {
+
+    private DataSource target;
+    private Connection rawConnection;
+    private SimpleMeterRegistry meterRegistry;
+    private ConnectionLimitingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        target = mock(DataSource.class);
+        rawConnection = mock(Connection.class);
+        when(target.getConnection()).thenReturn(rawConnection);
+        meterRegistry = new SimpleMeterRegistry();
+        dataSource = new ConnectionLimitingDataSource(target, "test", 2, Duration.ofMillis(50), meterRegistry);
+    }
+
+    private double available() {
+        return meterRegistry.get("jdbc.connections.limiter.available").tag("pool", "test").gauge().value();
+    }
+
+    @Test
+    void getConnection_shouldTimeOutWhenAllPermitsAreTaken() throws SQLException {
+        dataSource.getConnection();
+        dataSource.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+        assertEquals(0.0, available());
+    }
+
+    @Test
+    void close_shouldReleaseThePermitExactlyOnce() throws SQLException {
+        Connection first = dataSource.getConnection();
+        dataSource.getConnection();
+
+        first.close();
+        first.close();
+
+        assertEquals(1.0, available());
+        assertNotNull(dataSource.getConnection());
+        verify(rawConnection, times(2)).close();
+    }
+
+    @Test
+    void getConnection_shouldReleasePermitWhenTheTargetFails() throws SQLException {
+        when(target.getConnection()).thenThrow(new SQLException("database down"));
+
+        assertThrows(SQLException.class, () -> dataSource.getConnection());
+        assertEquals(2.0, available());
+    }
+
+    @Test
+    void metrics_shouldBeReportedForEveryPool() throws SQLException {
+        ConnectionLimitingDataSource replica =
+                new ConnectionLimitingDataSource(target, "replica-1", 5, Duration.ofMillis(50), meterRegistry);
+
+        replica.getConnection();
+
+        assertEquals(2.0, available());
+        assertEquals(4.0,
+                meterRegistry.get("jdbc.connections.limiter.available").tag("pool", "replica-1").gauge().value());
+    }
+
+    @Test
+    void connection_shouldDelegateOtherCalls() throws SQLException {
+        when(rawConnection.getAutoCommit()).thenReturn(true);
+
+        Connection connection = dataSource.getConnection();
+
+        assertEquals(true, connection.getAutoCommit());
+        assertEquals(1.0, available());
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.backend.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.backend.limit.RequestDeadline;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class DeadlineAwareDataSourceTest {
+
+    private Connection rawConnection;
+    private PreparedStatement statement;
+    private SimpleMeterRegistry meterRegistry;
+    private DeadlineAwareDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        DataSource target = mock(DataSource.class);
+        rawConnection = mock(Connection.class);
+        statement = mock(PreparedStatement.class);
+        when(target.getConnection()).thenReturn(rawConnection);
+        when(rawConnection.prepareStatement(anyString())).thenReturn(statement);
+        meterRegistry = new SimpleMeterRegistry();
+        dataSource = new DeadlineAwareDataSource(target, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestDeadline.clear();
+    }
+
+    @Test
+    void statements_shouldTimeOutWhenTheRequestDeadlinePasses() throws SQLException {
+        Connection connection = dataSource.getConnection();
+        RequestDeadline.set(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(1500));
+
+        assertSame(statement, connection.prepareStatement("SELECT 1"));
+        // Whole seconds, rounded up
+        verify(statement).setQueryTimeout(2);
+    }
+
+    @Test
+    void statements_shouldBeRefusedOnceTheDeadlineHasPassed() throws SQLException {
+        Connection connection = dataSource.getConnection();
+        RequestDeadline.set(System.nanoTime() - 1);
+
+        assertThrows(SQLTimeoutException.class, () -> connection.prepareStatement("SELECT 1"));
+        verify(rawConnection, never()).prepareStatement(anyString());
+        assertEquals(1.0, meterRegistry.get("jdbc.deadline.exceeded").counter().count());
+    }
+
+    @Test
+    void statements_shouldKeepTheirTimeoutWithoutADeadline() throws SQLException {
+        dataSource.getConnection().prepareStatement("SELECT 1");
+
+        verify(statement, never()).setQueryTimeout(anyInt());
+    }
+
+    @Test
+    void otherCalls_shouldReachTheConnectionWhateverTheDeadline() throws SQLException {
+        Connection connection = dataSource.getConnection();
+        RequestDeadline.set(System.nanoTime() - 1);
+
+        connection.commit();
+        connection.close();
+
+        verify(rawConnection).commit();
+        verify(rawConnection).close();
+    }
+}
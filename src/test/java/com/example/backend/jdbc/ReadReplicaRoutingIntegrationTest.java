@@ -0,0 +1,146 @@
+package com.example.backend.jdbc;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.backend.EmbeddedDatabaseTest;
+import com.example.backend.entity.Product;
+import com.example.backend.security.ClientAuthenticationDetails;
+import com.example.backend.service.ProductService;
+import com.jayway.jsonpath.JsonPath;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Two in-memory databases stand in for the primary and its replica. Nothing replicates between them, so
+ * every row tells which one a read went to.
+ */
+@EmbeddedDatabaseTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "app.datasource.replica.enabled=true",
+        "app.datasource.replica.urls=" + ReadReplicaRoutingIntegrationTest.REPLICA_URL,
+        "app.datasource.replica.username=sa",
+        "app.datasource.replica.lag-query=",
+        "app.products.cache.stale-read-window=10s"
+})
+class ReadReplicaRoutingIntegrationTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:products-replica;DB_CLOSE_DELAY=-1;MODE=MySQL;"
+            + "INIT=RUNSCRIPT FROM 'classpath:replica-schema.sql'";
+
+    private final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        replica.update("DELETE FROM product");
+        replica.update("INSERT INTO product (id, name, price, version) VALUES (1000, 'Only on the replica', 9.99, 0)");
+        replica.update("INSERT INTO product (id, name, price, version) VALUES (1001, 'Also only on the replica', 1.50, 0)");
+    }
+
+    private static <T> T as(String user, Supplier<T> action) {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(user, null, "ROLE_USER"));
+        try {
+            return action.get();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Test
+    void userReads_shouldGoToTheReplica() throws Exception {
+        mockMvc.perform(get("/api/products/1000").with(httpBasic("testuser", "embedded")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Only on the replica"));
+
+        assertTrue(meterRegistry.get("jdbc.routing.reads").tag("datasource", "replica-1").counter().count() > 0);
+        assertNotNull(meterRegistry.find("hikaricp.connections").tag("pool", "replica-1").gauge());
+        assertNotNull(meterRegistry.find("hikaricp.connections").tag("pool", "primary").gauge());
+    }
+
+    @Test
+    void userListing_shouldReadTheVersionAndTheProductsFromTheReplica() throws Exception {
+        // A change only the replica has, so its version is not one the primary could have cached a list for
+        replica.update("INSERT INTO product_change (id, product_id, change_type, origin, changed_at)"
+                + " VALUES (1000000, 1000, 'CREATED', 'replica', 0)");
+        try {
+            mockMvc.perform(get("/api/products").with(httpBasic("testuser", "embedded"))
+                    .header(ClientAuthenticationDetails.HEADER, "lister"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"1-1000000\""))
+                    .andExpect(jsonPath("$[*].name", hasItem("Only on the replica")));
+        } finally {
+            replica.update("DELETE FROM product_change");
+        }
+    }
+
+    @Test
+    void clientsOfOneUser_shouldOnlyReadTheirOwnWritesFromThePrimary() throws Exception {
+        String body = mockMvc.perform(post("/api/products").with(httpBasic("testuser", "embedded"))
+                .header(ClientAuthenticationDetails.HEADER, "writer")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Fresh\",\"price\":3.00}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long id = JsonPath.parse(body).read("$.id", Long.class);
+
+        // Same user, other client: the replica has not seen the write
+        mockMvc.perform(get("/api/products/" + id).with(httpBasic("testuser", "embedded"))
+                .header(ClientAuthenticationDetails.HEADER, "reader"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/products/" + id).with(httpBasic("testuser", "embedded"))
+                .header(ClientAuthenticationDetails.HEADER, "writer"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Fresh"));
+    }
+
+    @Test
+    void readsOutsideASession_shouldStayOnThePrimary() {
+        // Startup loads and scheduled jobs rebuild state from the primary
+        assertFalse(productService.getProductById(1001L).isPresent());
+    }
+
+    @Test
+    void writer_shouldReadItsOwnWritesWhileOthersReadTheReplica() {
+        Product created = as("writer", () -> productService.createProduct("Fresh", new BigDecimal("3.00")));
+
+        assertEquals("Fresh", as("writer", () -> productService.getProductById(created.getId())).orElseThrow().getName());
+        // The replica has not seen the write
+        assertFalse(as("reader", () -> productService.getProductById(created.getId())).isPresent());
+        assertEquals("Also only on the replica", as("reader", () -> productService.getProductById(1001L)).orElseThrow().getName());
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.backend.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ReplicaRoutingDataSourceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private DataSource primary;
+    private DataSource replica1;
+    private DataSource replica2;
+    private Connection primaryConnection;
+    private Connection replica1Connection;
+    private Connection replica2Connection;
+    private AtomicBoolean readFromPrimary;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        meterRegistry = new SimpleMeterRegistry();
+        primary = mock(DataSource.class);
+        replica1 = mock(DataSource.class);
+        replica2 = mock(DataSource.class);
+        primaryConnection = mock(Connection.class);
+        replica1Connection = mock(Connection.class);
+        replica2Connection = mock(Connection.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica1.getConnection()).thenReturn(replica1Connection);
+        when(replica2.getConnection()).thenReturn(replica2Connection);
+        readFromPrimary = new AtomicBoolean();
+    }
+
+    private ReplicaRoutingDataSource router(String lagQuery, DataSource... replicas) {
+        List<ReplicaRoutingDataSource.Replica> named = new ArrayList<>();
+        for (DataSource replica : replicas) {
+            named.add(new ReplicaRoutingDataSource.Replica("replica-" + (named.size() + 1), replica));
+        }
+        return new ReplicaRoutingDataSource(primary, named, readFromPrimary::get, lagQuery, Duration.ofSeconds(5),
+                Duration.ofSeconds(1), meterRegistry);
+    }
+
+    private double reads(String dataSource) {
+        return meterRegistry.get("jdbc.routing.reads").tag("datasource", dataSource).counter().count();
+    }
+
+    @Test
+    void getConnection_shouldTakeTurnsBetweenReplicas() throws SQLException {
+        ReplicaRoutingDataSource router = router(null, replica1, replica2);
+
+        assertSame(replica1Connection, router.getConnection());
+        assertSame(replica2Connection, router.getConnection());
+        assertSame(replica1Connection, router.getConnection());
+
+        assertEquals(2.0, reads("replica-1"));
+        assertEquals(1.0, reads("replica-2"));
+        assertEquals(0.0, reads("primary"));
+    }
+
+    @Test
+    void getConnection_shouldUseThePrimaryWhenTheCallerMustReadItsWrites() throws SQLException {
+        ReplicaRoutingDataSource router = router(null, replica1, replica2);
+        readFromPrimary.set(true);
+
+        assertSame(primaryConnection, router.getConnection());
+        assertEquals(1.0, reads("primary"));
+        assertEquals(0.0, meterRegistry.get("jdbc.routing.fallbacks").counter().count());
+    }
+
+    @Test
+    void getConnectionWithCredentials_shouldBeServedByThePrimary() throws SQLException {
+        ReplicaRoutingDataSource router = router(null, replica1, replica2);
+        when(primary.getConnection("reporting", "secret")).thenReturn(primaryConnection);
+
+        assertSame(primaryConnection, router.getConnection("reporting", "secret"));
+        assertEquals(1.0, reads("primary"));
+        assertEquals(0.0, reads("replica-1"));
+    }
+
+    @Test
+    void getConnection_shouldEjectAFailingReplicaAndFallBackToThePrimary() throws SQLException {
+        ReplicaRoutingDataSource router = router(null, replica1, replica2);
+        when(replica1.getConnection()).thenThrow(new SQLTransientConnectionException("Connection refused"));
+
+        assertSame(replica2Connection, router.getConnection());
+        assertSame(replica2Connection, router.getConnection());
+        verify(replica1, times(1)).getConnection();
+        assertEquals(List.of("replica-2"), router.getHealthyReplicas());
+
+        when(replica2.getConnection()).thenThrow(new SQLTransientConnectionException("Connection refused"));
+        assertSame(primaryConnection, router.getConnection());
+        assertEquals(1.0, meterRegistry.get("jdbc.routing.fallbacks").counter().count());
+        assertEquals(0.0, meterRegistry.get("jdbc.replica.healthy").tag("datasource", "replica-2").gauge().value());
+    }
+
+    @Test
+    void checkReplicas_shouldReadmitAReplicaThatRecovered() throws SQLException {
+        ReplicaRoutingDataSource router = router(null, replica1);
+        when(replica1.getConnection()).thenThrow(new SQLTransientConnectionException("Connection refused"))
+                .thenReturn(replica1Connection);
+        when(replica1Connection.isValid(1)).thenReturn(true);
+
+        assertSame(primaryConnection, router.getConnection());
+        router.checkReplicas();
+
+        assertEquals(List.of("replica-1"), router.getHealthyReplicas());
+        assertSame(replica1Connection, router.getConnection());
+    }
+
+    @Test
+    void checkReplicas_shouldEjectReplicasBehindTheMaximumLag() {
+        JdbcDataSource replica = new JdbcDataSource();
+        replica.setURL("jdbc:h2:mem:" + getClass().getSimpleName() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(replica);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS replica_status (io_state VARCHAR(32), behind BIGINT)");
+        jdbc.update("DELETE FROM replica_status");
+        jdbc.update("INSERT INTO replica_status VALUES ('Waiting for source', 2)");
+        // Picks the lag by its MySQL column name, wherever it is
+        ReplicaRoutingDataSource router = router(
+                "SELECT io_state AS Replica_IO_State, behind AS Seconds_Behind_Source FROM replica_status", replica);
+
+        router.checkReplicas();
+        assertEquals(List.of("replica-1"), router.getHealthyReplicas());
+        assertEquals(2.0, meterRegistry.get("jdbc.replica.lag").gauge().value());
+
+        jdbc.update("UPDATE replica_status SET behind = 30");
+        router.checkReplicas();
+        assertEquals(List.of(), router.getHealthyReplicas());
+
+        // Replication stopped
+        jdbc.update("UPDATE replica_status SET behind = NULL");
+        router.checkReplicas();
+        assertEquals(List.of(), router.getHealthyReplicas());
+        assertEquals(Double.NaN, meterRegistry.get("jdbc.replica.lag").gauge().value());
+
+        jdbc.update("UPDATE replica_status SET behind = 0");
+        router.checkReplicas();
+        assertEquals(List.of("replica-1"), router.getHealthyReplicas());
+    }
+}
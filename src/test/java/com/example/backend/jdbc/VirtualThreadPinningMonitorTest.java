@@ -0,0 +1,56 @@
+package com.example.backend.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class VirtualThreadPinningMonitorTest {
+
+    private final Object lock = new Object();
+    private SimpleMeterRegistry meterRegistry;
+    private VirtualThreadPinningMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        monitor = new VirtualThreadPinningMonitor(meterRegistry, Duration.ofMillis(5));
+        monitor.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        monitor.destroy();
+    }
+
+    private double pinned(String jdbc) {
+        return meterRegistry.get("jvm.threads.virtual.pinned").tag("jdbc", jdbc).counter().count();
+    }
+
+    @Test
+    void blockingInsideSynchronized_shouldBeCountedAsPinned() throws InterruptedException {
+        Thread thread = Thread.ofVirtual().start(() -> {
+            synchronized (lock) {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        thread.join();
+
+        // JFR streams events with a delay of about a second
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (pinned("false") == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        assertTrue(pinned("false") >= 1, "The pinned event should be counted");
+        assertTrue(pinned("true") == 0, "No JDBC code was on the stack");
+    }
+}
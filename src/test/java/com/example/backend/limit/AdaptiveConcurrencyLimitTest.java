@@ -0,0 +1,109 @@
+package com.example.backend.limit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private AdaptiveConcurrencyLimit limit(int initialLimit) {
+        return new AdaptiveConcurrencyLimit("test", initialLimit, 2, 100, 2.0, meterRegistry);
+    }
+
+    // Fills the limit and releases every request with the same latency, as a saturated backend would
+    private static void saturate(AdaptiveConcurrencyLimit limit, int rounds, long latencyMillis) {
+        for (int round = 0; round < rounds; round++) {
+            int admitted = 0;
+            while (limit.tryAcquire()) {
+                admitted++;
+            }
+            for (int i = 0; i < admitted; i++) {
+                limit.release(latencyMillis, TimeUnit.MILLISECONDS, false);
+            }
+        }
+    }
+
+    @Test
+    void tryAcquire_shouldShedRequestsOverTheLimit() {
+        AdaptiveConcurrencyLimit limit = limit(2);
+
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        assertFalse(limit.tryAcquire());
+
+        assertEquals(1.0, meterRegistry.get("products.limiter.rejected").tag("priority", "test").counter().count());
+        assertEquals(2.0, meterRegistry.get("products.limiter.inflight").tag("priority", "test").gauge().value());
+        limit.release(1, TimeUnit.MILLISECONDS, false);
+        assertTrue(limit.tryAcquire());
+    }
+
+    @Test
+    void release_shouldRaiseTheLimitWhileLatencyHolds() {
+        AdaptiveConcurrencyLimit limit = limit(4);
+
+        saturate(limit, 50, 10);
+
+        assertTrue(limit.getLimit() > 4, "Limit stayed at " + limit.getLimit());
+    }
+
+    @Test
+    void release_shouldLowerTheLimitWhenLatencyRises() {
+        AdaptiveConcurrencyLimit limit = limit(20);
+        saturate(limit, 20, 10);
+        int before = limit.getLimit();
+
+        // Requests queue somewhere: every one of them now takes ten times as long
+        saturate(limit, 3, 100);
+
+        assertTrue(limit.getLimit() < before, "Limit went from " + before + " to " + limit.getLimit());
+        assertTrue(limit.getLimit() >= 2);
+    }
+
+    @Test
+    void release_shouldNotRaiseTheLimitTheLoadDoesNotReach() {
+        AdaptiveConcurrencyLimit limit = limit(20);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limit.tryAcquire());
+            limit.release(10, TimeUnit.MILLISECONDS, false);
+        }
+
+        assertEquals(20, limit.getLimit());
+    }
+
+    @Test
+    void release_shouldCutTheLimitWhenARequestWasDropped() {
+        AdaptiveConcurrencyLimit limit = limit(20);
+
+        assertTrue(limit.tryAcquire());
+        limit.release(10, TimeUnit.MILLISECONDS, true);
+
+        assertEquals(18, limit.getLimit());
+        assertEquals(18.0, meterRegistry.get("products.limiter.limit").tag("priority", "test").gauge().value());
+    }
+
+    @Test
+    void constructor_shouldRejectInconsistentLimits() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new AdaptiveConcurrencyLimit("test", 10, 0, 100, 2.0, meterRegistry));
+        assertThrows(IllegalArgumentException.class,
+                () -> new AdaptiveConcurrencyLimit("test", 10, 20, 10, 2.0, meterRegistry));
+        assertThrows(IllegalArgumentException.class,
+                () -> new AdaptiveConcurrencyLimit("test", 10, 2, 100, 0.5, meterRegistry));
+    }
+}
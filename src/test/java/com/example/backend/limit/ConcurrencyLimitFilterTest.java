@@ -0,0 +1,118 @@
+package com.example.backend.limit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+class ConcurrencyLimitFilterTest {
+
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        // One bulk request at a time
+        filter = new ConcurrencyLimitFilter(new SimpleMeterRegistry(), 200, 100, 1, 20, 1, 2.0, Duration.ofSeconds(2));
+    }
+
+    private static MockHttpServletRequest request(String method, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setRequestURI(path);
+        return request;
+    }
+
+    @Test
+    void requestsOverTheLimitOfTheirClass_shouldGetA503WithRetryAfter() throws Exception {
+        AtomicReference<MockHttpServletResponse> nested = new AtomicReference<>();
+
+        // A second full listing arrives while the first is still running
+        filter.doFilter(request("GET", "/api/products"), new MockHttpServletResponse(), (request, response) -> {
+            MockHttpServletResponse second = new MockHttpServletResponse();
+            filter.doFilter(request("GET", "/api/products"), second, (r, s) -> { });
+            nested.set(second);
+        });
+
+        assertEquals(503, nested.get().getStatus());
+        assertEquals("2", nested.get().getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(0, filter.getLimit(RequestPriority.BULK).getInflight());
+    }
+
+    @Test
+    void cheapReads_shouldStillBeAdmittedWhileBulkRequestsAreShed() throws Exception {
+        AtomicReference<MockHttpServletResponse> nested = new AtomicReference<>();
+
+        filter.doFilter(request("GET", "/api/products/export"), new MockHttpServletResponse(), (request, response) -> {
+            MockHttpServletResponse byId = new MockHttpServletResponse();
+            filter.doFilter(request("GET", "/api/products/42"), byId, (r, s) -> { });
+            nested.set(byId);
+        });
+
+        assertEquals(200, nested.get().getStatus());
+    }
+
+    @Test
+    void timeoutsOfAShortClientDeadline_shouldLeaveTheLimitAlone() throws Exception {
+        RequestDeadlineFilter deadlineFilter = new RequestDeadlineFilter(Duration.ofSeconds(10));
+        MockHttpServletRequest request = request("GET", "/api/products/42");
+        request.addHeader(RequestDeadline.HEADER, "1");
+        int before = filter.getLimit(RequestPriority.CRITICAL).getLimit();
+
+        // The query outlives the millisecond the client allowed and times out
+        deadlineFilter.doFilter(request, new MockHttpServletResponse(), (outer, outerResponse) ->
+                filter.doFilter(outer, outerResponse, (r, s) -> {
+                    waitPast((HttpServletRequest) r);
+                    ((MockHttpServletResponse) s).setStatus(504);
+                }));
+
+        assertEquals(before, filter.getLimit(RequestPriority.CRITICAL).getLimit());
+    }
+
+    @Test
+    void timeoutsTheServerCaused_shouldCutTheLimit() throws Exception {
+        int before = filter.getLimit(RequestPriority.CRITICAL).getLimit();
+
+        filter.doFilter(request("GET", "/api/products/42"), new MockHttpServletResponse(),
+                (r, s) -> ((MockHttpServletResponse) s).setStatus(504));
+
+        assertTrue(filter.getLimit(RequestPriority.CRITICAL).getLimit() < before);
+    }
+
+    @Test
+    void of_shouldClassifyTheProductEndpoints() {
+        assertEquals(RequestPriority.CRITICAL, RequestPriority.of(request("GET", "/api/products/42")));
+        assertEquals(RequestPriority.STANDARD, RequestPriority.of(request("PUT", "/api/products/42")));
+        assertEquals(RequestPriority.STANDARD, RequestPriority.of(request("POST", "/api/products")));
+        assertEquals(RequestPriority.STANDARD, RequestPriority.of(request("GET", "/api/products/search")));
+        assertEquals(RequestPriority.STANDARD, RequestPriority.of(request("GET", "/api/products/stats")));
+        assertEquals(RequestPriority.BULK, RequestPriority.of(request("GET", "/api/products")));
+        assertEquals(RequestPriority.BULK, RequestPriority.of(request("GET", "/api/products/export")));
+        assertEquals(RequestPriority.BULK, RequestPriority.of(request("POST", "/api/products/bulk")));
+
+        MockHttpServletRequest page = request("GET", "/api/products");
+        page.setParameter("limit", "50");
+        assertEquals(RequestPriority.STANDARD, RequestPriority.of(page));
+        page.setParameter("sort", "price");
+        assertEquals(RequestPriority.BULK, RequestPriority.of(page));
+
+        assertNull(RequestPriority.of(request("GET", "/actuator/prometheus")));
+        assertNull(RequestPriority.of(request("GET", "/api/productsfoo")));
+    }
+
+    private static void waitPast(HttpServletRequest request) {
+        while (!RequestDeadlineFilter.clientDeadlinePassed(request)) {
+            Thread.onSpinWait();
+        }
+    }
+}
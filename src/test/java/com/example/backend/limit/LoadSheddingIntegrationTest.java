@@ -0,0 +1,73 @@
+package com.example.backend.limit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.backend.EmbeddedDatabaseTest;
+import com.example.backend.dao.ProductRepository;
+import com.example.backend.entity.Product;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@EmbeddedDatabaseTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = "app.limiter.enabled=true")
+class LoadSheddingIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void tearDown() {
+        RequestDeadline.clear();
+    }
+
+    @Test
+    void requestsWithTimeLeft_shouldBeServedAndCounted() throws Exception {
+        Product product = productRepository.save(new Product("Limited", new BigDecimal("1.00")));
+
+        mockMvc.perform(get("/api/products/" + product.getId()).with(httpBasic("testuser", "embedded"))
+                .header(RequestDeadline.HEADER, "5000"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/products").with(httpBasic("testuser", "embedded")))
+                .andExpect(status().isOk());
+
+        assertEquals(0.0, meterRegistry.get("products.limiter.inflight").tag("priority", "critical").gauge().value());
+        assertTrue(meterRegistry.get("products.limiter.limit").tag("priority", "bulk").gauge().value() >= 1);
+    }
+
+    @Test
+    void requestsWithoutTimeLeft_shouldGetA504() throws Exception {
+        mockMvc.perform(get("/api/products/1").with(httpBasic("testuser", "embedded"))
+                .header(RequestDeadline.HEADER, "0"))
+                .andExpect(status().isGatewayTimeout());
+    }
+
+    @Test
+    void queriesPastTheDeadline_shouldFailAsQueryTimeouts() {
+        RequestDeadline.set(System.nanoTime() - 1);
+
+        assertThrows(QueryTimeoutException.class, () -> productRepository.count());
+        assertTrue(meterRegistry.get("jdbc.deadline.exceeded").counter().count() > 0);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.backend.limit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+class RequestDeadlineFilterTest {
+
+    private final RequestDeadlineFilter filter = new RequestDeadlineFilter(Duration.ofSeconds(10));
+
+    private static MockHttpServletRequest request(String timeout) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products/1");
+        if (timeout != null) {
+            request.addHeader(RequestDeadline.HEADER, timeout);
+        }
+        return request;
+    }
+
+    private long remainingDuringRequest(String timeout) throws Exception {
+        AtomicLong remaining = new AtomicLong();
+        filter.doFilter(request(timeout), new MockHttpServletResponse(),
+                (request, response) -> remaining.set(RequestDeadline.remainingNanos()));
+        return remaining.get();
+    }
+
+    @Test
+    void header_shouldSetTheDeadlineForTheDurationOfTheRequestOnly() throws Exception {
+        long remaining = remainingDuringRequest("1500");
+
+        assertTrue(remaining > 0 && remaining <= TimeUnit.MILLISECONDS.toNanos(1500));
+        assertFalse(RequestDeadline.isSet());
+    }
+
+    @Test
+    void withoutTheHeader_shouldLeaveTheRequestUnbounded() throws Exception {
+        assertEquals(Long.MAX_VALUE, remainingDuringRequest(null));
+    }
+
+    @Test
+    void header_shouldBeCappedAtTheMaximum() throws Exception {
+        assertTrue(remainingDuringRequest("3600000") <= TimeUnit.SECONDS.toNanos(10));
+    }
+
+    @Test
+    void requestsWithoutTimeLeft_shouldGetA504WithoutBeingServed() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request("0"), response, (r, s) -> {
+            throw new AssertionError("Expired request was served");
+        });
+
+        assertEquals(504, response.getStatus());
+    }
+
+    @Test
+    void header_shouldMarkTheRequestWithTheClientsDeadlineUnlessItWasCut() throws Exception {
+        MockHttpServletRequest shortDeadline = request("1");
+        MockHttpServletRequest cutDeadline = request("3600000");
+
+        filter.doFilter(shortDeadline, new MockHttpServletResponse(), (r, s) -> waitPast(shortDeadline));
+        filter.doFilter(cutDeadline, new MockHttpServletResponse(), (r, s) -> { });
+
+        assertTrue(RequestDeadlineFilter.clientDeadlinePassed(shortDeadline));
+        assertFalse(RequestDeadlineFilter.clientDeadlinePassed(cutDeadline));
+        assertFalse(RequestDeadlineFilter.clientDeadlinePassed(request(null)));
+    }
+
+    @Test
+    void malformedHeader_shouldGetA400() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request("soon"), response, (r, s) -> { });
+
+        assertEquals(400, response.getStatus());
+    }
+
+    private static void waitPast(HttpServletRequest request) {
+        while (!RequestDeadlineFilter.clientDeadlinePassed(request)) {
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.backend.load;
+
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * The product API calls a load run can mix, with the statuses that count as success. Reads and writes
+ * of a product a concurrent delete just removed are expected: 404 for a read, 400 for a write.
+ */
+public enum LoadOperation {
+    GET_ALL("getAll", Set.of(200)),
+    GET_BY_ID("getById", Set.of(200, 404)),
+    CREATE("create", Set.of(201)),
+    UPDATE("update", Set.of(200, 400)),
+    DELETE("delete", Set.of(204, 400));
+
+    private final String name;
+
+    private final Set<Integer> expectedStatuses;
+
+    LoadOperation(String name, Set<Integer> expectedStatuses) {
+        this.name = name;
+        this.expectedStatuses = expectedStatuses;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isSuccess(int status) {
+        return expectedStatuses.contains(status);
+    }
+
+    public static LoadOperation fromName(String name) {
+        return Arrays.stream(values())
+                .filter(operation -> operation.name.equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown operation '" + name + "'"));
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.backend.load;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * What a load run sends and what it must achieve. Every value can be overridden with a system property,
+ * e.g. {@code mvn test -Pload-tests -Dload.rate=500 -Dload.mix=getById:90,update:10 -Dload.slo.p99-ms=50}.
+ *
+ * @param rate Requests started per second, whatever the latency (open model)
+ * @param warmUp Time the load runs before recording starts
+ * @param duration Time the load is recorded for
+ * @param mix Relative weight of each operation
+ * @param p99Budget Highest acceptable p99 latency over all operations
+ * @param minThroughput Lowest acceptable rate of successful requests per second
+ * @param maxInFlight Requests still outstanding beyond this count are dropped and counted as errors
+ */
+public record LoadProfile(int rate, Duration warmUp, Duration duration, Map<LoadOperation, Integer> mix,
+        Duration p99Budget, double minThroughput, int maxInFlight) {
+
+    public static final String DEFAULT_MIX = "getAll:5,getById:70,create:10,update:10,delete:5";
+
+    public LoadProfile {
+        if (rate <= 0) {
+            throw new IllegalArgumentException("Rate must be positive");
+        }
+        if (mix.isEmpty() || mix.values().stream().anyMatch(weight -> weight < 0)
+                || mix.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("Mix needs at least one operation with a positive weight");
+        }
+        mix = Collections.unmodifiableMap(new EnumMap<>(mix));
+    }
+
+    public static LoadProfile fromSystemProperties() {
+        int rate = Integer.getInteger("load.rate", 30);
+        return new LoadProfile(
+                rate,
+                Duration.ofSeconds(Long.getLong("load.warm-up-seconds", 5)),
+                Duration.ofSeconds(Long.getLong("load.duration-seconds", 20)),
+                parseMix(System.getProperty("load.mix", DEFAULT_MIX)),
+                Duration.ofMillis(Long.getLong("load.slo.p99-ms", 250)),
+                Double.parseDouble(System.getProperty("load.slo.min-throughput", String.valueOf(rate * 0.95))),
+                Integer.getInteger("load.max-in-flight", 1000));
+    }
+
+    /**
+     * Parses {@code name:weight} pairs, e.g. {@code getById:80,create:20}. Operations that are not
+     * listed are not sent.
+     */
+    static Map<LoadOperation, Integer> parseMix(String mix) {
+        Map<LoadOperation, Integer> weights = new EnumMap<>(LoadOperation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry '" + entry + "', expected name:weight");
+            }
+            weights.put(LoadOperation.fromName(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+
+    /**
+     * Maps a uniform random number in [0, 1) to an operation with probability proportional to its weight.
+     */
+    LoadOperation pick(double random) {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        double point = random * total;
+        int cumulative = 0;
+        LoadOperation last = null;
+        for (LoadOperation operation : LoadOperation.values()) {
+            int weight = mix.getOrDefault(operation, 0);
+            if (weight == 0) {
+                continue;
+            }
+            cumulative += weight;
+            last = operation;
+            if (point < cumulative) {
+                return operation;
+            }
+        }
+        return last;
+    }
+}
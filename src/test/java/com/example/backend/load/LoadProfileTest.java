@@ -0,0 +1,44 @@
+package com.example.backend.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class LoadProfileTest {
+
+    private static LoadProfile profile(String mix) {
+        return new LoadProfile(100, Duration.ZERO, Duration.ofSeconds(1), LoadProfile.parseMix(mix),
+                Duration.ofMillis(100), 95, 10);
+    }
+
+    @Test
+    void parseMix_shouldReadNamedWeights() {
+        assertEquals(Map.of(LoadOperation.GET_BY_ID, 80, LoadOperation.CREATE, 20),
+                LoadProfile.parseMix("getById:80, create:20"));
+    }
+
+    @Test
+    void parseMix_shouldRejectUnknownOperationsAndMalformedEntries() {
+        assertThrows(IllegalArgumentException.class, () -> LoadProfile.parseMix("list:10"));
+        assertThrows(IllegalArgumentException.class, () -> LoadProfile.parseMix("getById"));
+    }
+
+    @Test
+    void constructor_shouldRejectAMixWithoutWeight() {
+        assertThrows(IllegalArgumentException.class, () -> profile("getById:0"));
+    }
+
+    @Test
+    void pick_shouldSelectOperationsInProportionToTheirWeights() {
+        LoadProfile profile = profile("getAll:1,update:3");
+
+        assertEquals(LoadOperation.GET_ALL, profile.pick(0.0));
+        assertEquals(LoadOperation.GET_ALL, profile.pick(0.24));
+        assertEquals(LoadOperation.UPDATE, profile.pick(0.25));
+        assertEquals(LoadOperation.UPDATE, profile.pick(0.999));
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.backend.load;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Writes a load run to {@code load.report-dir} (default target/load-reports) so runs can be compared
+ * over time: a JSON summary with the profile and percentiles per operation, and an HdrHistogram log
+ * with the full distributions (readable by HistogramLogAnalyzer or HdrHistogram's HistogramLogProcessor).
+ */
+public final class LoadReport {
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+
+    private LoadReport() {
+    }
+
+    public static Path write(String name, OpenLoadGenerator.Result result) throws IOException {
+        Path directory = Path.of(System.getProperty("load.report-dir", "target/load-reports"));
+        Files.createDirectories(directory);
+        Instant now = Instant.now();
+        String base = name + "-" + FILE_TIMESTAMP.format(now);
+
+        Map<String, Object> operations = new LinkedHashMap<>();
+        result.operations().forEach((operation, measured) -> {
+            if (measured.latencies().getTotalCount() > 0) {
+                Map<String, Object> summary = summarize(measured.latencies());
+                summary.put("errors", measured.errors());
+                operations.put(operation.getName(), summary);
+            }
+        });
+        Map<String, Object> total = summarize(result.totalLatencies());
+        total.put("errors", result.totalErrors());
+        total.put("dropped", result.dropped());
+        total.put("successfulThroughput", result.successfulThroughput());
+
+        LoadProfile profile = result.profile();
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        profile.mix().forEach((operation, weight) -> mix.put(operation.getName(), weight));
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("name", name);
+        report.put("timestamp", now.toString());
+        report.put("profile", Map.of(
+                "rate", profile.rate(),
+                "warmUpSeconds", profile.warmUp().toSeconds(),
+                "durationSeconds", profile.duration().toSeconds(),
+                "mix", mix,
+                "p99BudgetMs", profile.p99Budget().toMillis(),
+                "minThroughput", profile.minThroughput()));
+        report.put("total", total);
+        report.put("operations", operations);
+
+        Path json = directory.resolve(base + ".json");
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(json.toFile(), report);
+
+        try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(base + ".hlog")))) {
+            HistogramLogWriter writer = new HistogramLogWriter(out);
+            writer.outputComment("Latencies in microseconds, one histogram per operation");
+            writer.outputLogFormatVersion();
+            writer.outputLegend();
+            result.operations().forEach((operation, measured) -> {
+                if (measured.latencies().getTotalCount() > 0) {
+                    measured.latencies().setTag(operation.getName());
+                    writer.outputIntervalHistogram(measured.latencies());
+                }
+            });
+        }
+        return json;
+    }
+
+    private static Map<String, Object> summarize(Histogram latencies) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", latencies.getTotalCount());
+        summary.put("p50Ms", latencies.getValueAtPercentile(50) / 1000.0);
+        summary.put("p95Ms", latencies.getValueAtPercentile(95) / 1000.0);
+        summary.put("p99Ms", latencies.getValueAtPercentile(99) / 1000.0);
+        summary.put("p999Ms", latencies.getValueAtPercentile(99.9) / 1000.0);
+        summary.put("maxMs", latencies.getMaxValue() / 1000.0);
+        return summary;
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.backend.load;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Starts requests at a fixed rate, each on its own virtual thread, whether or not earlier ones have
+ * finished. Unlike a closed loop of clients, a slow server does not slow the load down, so queueing
+ * shows up in the latencies instead of hiding in a lower request rate.
+ *
+ * Latency is measured from the moment a request was scheduled to start, not from when it actually
+ * started, so a stalled generator or server cannot hide queueing either (coordinated omission).
+ */
+public class OpenLoadGenerator {
+
+    /** Sends one request of the given kind and returns its HTTP status. */
+    @FunctionalInterface
+    public interface RequestSender {
+
+        int send(LoadOperation operation) throws Exception;
+    }
+
+    /** Latencies in microseconds, and failures, of one operation over the measured period. */
+    public record OperationResult(Histogram latencies, long errors) {
+    }
+
+    /** What one run measured, per operation. */
+    public record Result(LoadProfile profile, Map<LoadOperation, OperationResult> operations, long dropped) {
+
+        public Histogram totalLatencies() {
+            Histogram total = new Histogram(PRECISION);
+            operations.values().forEach(operation -> total.add(operation.latencies()));
+            return total;
+        }
+
+        public long totalErrors() {
+            return dropped + operations.values().stream().mapToLong(OperationResult::errors).sum();
+        }
+
+        public double successfulThroughput() {
+            long failed = operations.values().stream().mapToLong(OperationResult::errors).sum();
+            long successful = totalLatencies().getTotalCount() - failed;
+            return successful / (double) profile.duration().toSeconds();
+        }
+    }
+
+    private static final int PRECISION = 3;
+
+    private final LoadProfile profile;
+
+    public OpenLoadGenerator(LoadProfile profile) {
+        this.profile = profile;
+    }
+
+    public Result run(RequestSender sender) throws InterruptedException {
+        Map<LoadOperation, Recorder> recorders = new EnumMap<>(LoadOperation.class);
+        Map<LoadOperation, AtomicLong> errors = new EnumMap<>(LoadOperation.class);
+        for (LoadOperation operation : LoadOperation.values()) {
+            recorders.put(operation, new Recorder(PRECISION));
+            errors.put(operation, new AtomicLong());
+        }
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicLong dropped = new AtomicLong();
+
+        long interval = TimeUnit.SECONDS.toNanos(1) / profile.rate();
+        long start = System.nanoTime();
+        long measureFrom = start + profile.warmUp().toNanos();
+        long end = measureFrom + profile.duration().toNanos();
+
+        try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; ; i++) {
+                long intendedStart = start + i * interval;
+                if (intendedStart >= end) {
+                    break;
+                }
+                long wait;
+                while ((wait = intendedStart - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                boolean measured = intendedStart >= measureFrom;
+                LoadOperation operation = profile.pick(ThreadLocalRandom.current().nextDouble());
+                if (inFlight.incrementAndGet() > profile.maxInFlight()) {
+                    inFlight.decrementAndGet();
+                    if (measured) {
+                        dropped.incrementAndGet();
+                    }
+                    continue;
+                }
+                requests.submit(() -> {
+                    boolean success;
+                    try {
+                        success = operation.isSuccess(sender.send(operation));
+                    } catch (Exception e) {
+                        success = false;
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                    if (measured) {
+                        recorders.get(operation).recordValue((System.nanoTime() - intendedStart) / 1000);
+                        if (!success) {
+                            errors.get(operation).incrementAndGet();
+                        }
+                    }
+                });
+            }
+        }
+
+        Map<LoadOperation, OperationResult> results = new EnumMap<>(LoadOperation.class);
+        recorders.forEach((operation, recorder) -> results.put(operation,
+                new OperationResult(recorder.getIntervalHistogram(), errors.get(operation).get())));
+        return new Result(profile, results, dropped.get());
+    }
+}
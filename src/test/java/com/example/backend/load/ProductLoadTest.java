@@ -0,0 +1,135 @@
+package com.example.backend.load;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.backend.BackendApplication;
+import com.example.backend.service.ProductService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Mixed read/write traffic against /api/products at a fixed arrival rate, on the full application over
+ * an embedded database. Runs only with -Pload-tests; see {@link LoadProfile} for the knobs. Fails when
+ * the p99 latency or the successful throughput misses its budget, and writes a report either way.
+ */
+@Tag("load")
+class ProductLoadTest {
+
+    private static final int PRODUCTS = 500;
+    private static final String AUTHORIZATION = "Basic " + Base64.getEncoder()
+            .encodeToString("testuser:embedded".getBytes(StandardCharsets.UTF_8));
+
+    private static ConfigurableApplicationContext context;
+
+    private static String baseUrl;
+
+    // IDs that should exist; creates add to it and deletes remove from it
+    private static final ConcurrentSkipListSet<Long> ids = new ConcurrentSkipListSet<>();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeAll
+    static void startApplication() {
+        context = new SpringApplicationBuilder(BackendApplication.class)
+                .run(
+                        "--spring.profiles.active=test,embedded",
+                        "--spring.cloud.vault.enabled=false",
+                        "--spring.config.on-not-found=ignore",
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:load-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;MODE=MySQL");
+        ProductService productService = context.getBean(ProductService.class);
+        for (int i = 0; i < PRODUCTS; i++) {
+            ids.add(productService.createProduct("Load " + i, new BigDecimal("1.00")).getId());
+        }
+        baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort() + "/api/products";
+    }
+
+    @AfterAll
+    static void stopApplication() {
+        context.close();
+    }
+
+    @Test
+    void mixedTraffic_shouldStayWithinLatencyAndThroughputBudgets() throws Exception {
+        LoadProfile profile = LoadProfile.fromSystemProperties();
+        OpenLoadGenerator.Result result;
+        try (HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build()) {
+            // Credentials are verified with BCrypt once and then cached; a cold JVM must not pay for that under load
+            assertEquals(200, send(client, LoadOperation.GET_ALL));
+            result = new OpenLoadGenerator(profile).run(operation -> send(client, operation));
+        }
+        Path report = LoadReport.write("products", result);
+
+        Histogram latencies = result.totalLatencies();
+        double p99Ms = latencies.getValueAtPercentile(99) / 1000.0;
+        System.out.printf("rate=%d/s successful=%.1f/s p50=%.1fms p99=%.1fms max=%.1fms errors=%d report=%s%n",
+                profile.rate(), result.successfulThroughput(), latencies.getValueAtPercentile(50) / 1000.0, p99Ms,
+                latencies.getMaxValue() / 1000.0, result.totalErrors(), report);
+
+        assertAll(
+                () -> assertEquals(0, result.totalErrors(), "Failed or dropped requests"),
+                () -> assertTrue(p99Ms <= profile.p99Budget().toMillis(),
+                        "p99 " + p99Ms + "ms exceeds the budget of " + profile.p99Budget().toMillis() + "ms"),
+                () -> assertTrue(result.successfulThroughput() >= profile.minThroughput(),
+                        "Throughput " + result.successfulThroughput() + "/s is below " + profile.minThroughput() + "/s"));
+    }
+
+    private int send(HttpClient client, LoadOperation operation) throws Exception {
+        HttpRequest.Builder request = switch (operation) {
+            case GET_ALL -> HttpRequest.newBuilder(URI.create(baseUrl)).GET();
+            case GET_BY_ID -> HttpRequest.newBuilder(URI.create(baseUrl + "/" + randomId())).GET();
+            case CREATE -> HttpRequest.newBuilder(URI.create(baseUrl)).POST(body("Created"));
+            case UPDATE -> HttpRequest.newBuilder(URI.create(baseUrl + "/" + randomId())).PUT(body("Updated"));
+            case DELETE -> HttpRequest.newBuilder(URI.create(baseUrl + "/" + randomId())).DELETE();
+        };
+        HttpResponse<String> response = client.send(request
+                .header("Authorization", AUTHORIZATION)
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .build(), HttpResponse.BodyHandlers.ofString());
+
+        if (operation == LoadOperation.CREATE && response.statusCode() == 201) {
+            ids.add(objectMapper.readTree(response.body()).get("id").asLong());
+        } else if (operation == LoadOperation.DELETE && response.statusCode() == 204) {
+            ids.remove(Long.valueOf(response.request().uri().getPath().replaceAll(".*/", "")));
+        }
+        return response.statusCode();
+    }
+
+    private static HttpRequest.BodyPublisher body(String name) {
+        return HttpRequest.BodyPublishers.ofString(
+                "{\"name\": \"" + name + " " + ThreadLocalRandom.current().nextInt(1000) + "\", \"price\": 2.50}");
+    }
+
+    private static long randomId() {
+        // Uniform over the ID range, then the next ID that still exists (or the first one)
+        long first = ids.first();
+        long last = ids.last();
+        Long id = ids.ceiling(ThreadLocalRandom.current().nextLong(first, last + 1));
+        return id != null ? id : first;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.backend.logging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.async.AsyncLoggerConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class RequestLogSamplingFilterTest {
+
+    private static String contextValueDuringRequest(RequestLogSamplingFilter filter) throws Exception {
+        AtomicReference<String> seen = new AtomicReference<>();
+        filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(),
+                (request, response) -> seen.set(ThreadContext.get(RequestLogSamplingFilter.CONTEXT_KEY)));
+        return seen.get();
+    }
+
+    @Test
+    void sampledRequests_shouldLogAsConfigured() throws Exception {
+        assertNull(contextValueDuringRequest(new RequestLogSamplingFilter(1.0)));
+    }
+
+    @Test
+    void otherRequests_shouldBeMarkedForTheDurationOfTheRequestOnly() throws Exception {
+        assertEquals(RequestLogSamplingFilter.SKIP, contextValueDuringRequest(new RequestLogSamplingFilter(0.0)));
+        assertNull(ThreadContext.get(RequestLogSamplingFilter.CONTEXT_KEY));
+    }
+
+    @Test
+    void constructor_shouldRejectRatesOutsideZeroToOne() {
+        assertThrows(IllegalArgumentException.class, () -> new RequestLogSamplingFilter(1.5));
+        assertThrows(IllegalArgumentException.class, () -> new RequestLogSamplingFilter(-0.1));
+    }
+
+    @Test
+    void asyncConfiguration_shouldUseAsyncLoggersAndOnlyLetWarningsThroughForSkippedRequests() throws Exception {
+        System.setProperty("app.log.dir", "target/logs");
+        LoggerContext context = new LoggerContext("async-logging-test", null,
+                URI.create(getClass().getResource("/log4j2-async.xml").toString()));
+        try {
+            context.start();
+            assertTrue(context.getConfiguration().getLoggerConfig("com.example.backend") instanceof AsyncLoggerConfig);
+
+            Logger logger = context.getLogger("com.example.backend.rest.ProductController");
+            assertTrue(logger.isInfoEnabled());
+            ThreadContext.put(RequestLogSamplingFilter.CONTEXT_KEY, RequestLogSamplingFilter.SKIP);
+            try {
+                assertFalse(logger.isInfoEnabled());
+                assertTrue(logger.isWarnEnabled());
+            } finally {
+                ThreadContext.remove(RequestLogSamplingFilter.CONTEXT_KEY);
+            }
+        } finally {
+            context.stop();
+            System.clearProperty("app.log.dir");
+        }
+    }
+}
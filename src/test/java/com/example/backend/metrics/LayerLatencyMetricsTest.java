@@ -0,0 +1,49 @@
+package com.example.backend.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.backend.EmbeddedDatabaseTest;
+import com.example.backend.entity.Product;
+import com.example.backend.service.ProductService;
+
+@EmbeddedDatabaseTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class LayerLatencyMetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Test
+    void prometheusScrape_shouldHaveLatencyHistogramsForEveryLayer() throws Exception {
+        Product product = productService.createProduct("Timed", new BigDecimal("1.00"));
+        mockMvc.perform(get("/api/products/" + product.getId()).with(httpBasic("testuser", "embedded")))
+                .andExpect(status().isOk());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus").with(httpBasic("testuser", "embedded")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(scrape.contains("http_server_requests_seconds_bucket{"), "endpoint histogram");
+        assertTrue(scrape.matches("(?s).*http_server_requests_seconds_bucket\\{[^}]*uri=\"/api/products/\\{id}\",le=\"0\\.1\".*"),
+                "endpoint SLO bucket tagged by URI");
+        assertTrue(scrape.matches("(?s).*products_service_seconds_bucket\\{[^}]*method=\"getProductById\"[^}]*outcome=\"SUCCESS\".*"),
+                "service histogram");
+        assertTrue(scrape.matches("(?s).*spring_data_repository_invocations_seconds_bucket\\{[^}]*method=\"findById\".*"),
+                "repository histogram");
+    }
+}
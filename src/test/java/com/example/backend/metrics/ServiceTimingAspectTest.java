@@ -0,0 +1,69 @@
+package com.example.backend.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import com.example.backend.dao.ProductChangeRepository;
+import com.example.backend.service.ProductService;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ServiceTimingAspectTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ProductService productService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ProductChangeRepository productChangeRepository = mock(ProductChangeRepository.class);
+        when(productChangeRepository.findWatermark()).thenReturn("1-1");
+        // No product repository, so getAllProducts fails
+        AspectJProxyFactory factory = new AspectJProxyFactory(new ProductService(null, null, null, null, productChangeRepository, null, null, null, null, null));
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new ServiceTimingAspect(meterRegistry));
+        productService = factory.getProxy();
+    }
+
+    private Timer timer(String method, String outcome) {
+        return meterRegistry.get(ServiceTimingAspect.METRIC_NAME).tag("method", method).tag("outcome", outcome).timer();
+    }
+
+    @Test
+    void successfulCalls_shouldBeTimedUnderOneTimerPerMethod() {
+        productService.getCatalogVersion();
+        productService.getCatalogVersion();
+
+        Timer timer = timer("getCatalogVersion", "SUCCESS");
+        assertEquals(2, timer.count());
+        assertEquals("none", timer.getId().getTag("exception"));
+    }
+
+    @Test
+    void failedCalls_shouldBeTimedWithTheExceptionAndRethrown() {
+        assertThrows(NullPointerException.class, () -> productService.getAllProducts());
+
+        Timer timer = timer("getAllProducts", "ERROR");
+        assertEquals(1, timer.count());
+        assertEquals("NullPointerException", timer.getId().getTag("exception"));
+    }
+
+    @Test
+    void timers_shouldBeRegisteredOnce() {
+        productService.getCatalogVersion();
+        Timer first = timer("getCatalogVersion", "SUCCESS");
+        productService.getCatalogVersion();
+
+        assertSame(first, timer("getCatalogVersion", "SUCCESS"));
+        assertEquals(1, meterRegistry.find(ServiceTimingAspect.METRIC_NAME).timers().size());
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.backend.rest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.HdrHistogram.Recorder;
+import org.h2.api.Trigger;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.backend.BackendApplication;
+import com.example.backend.service.ProductService;
+
+/**
+ * Platform-thread vs virtual-thread request execution under the same closed-loop load: many more
+ * concurrent clients than Tomcat threads, and a database whose queries take a fixed time. Runs only
+ * with -Pload-tests; throughput and latency are printed for comparison (they depend heavily on the
+ * core count of the machine), the assertions only cover failed requests and the platform thread footprint.
+ */
+@Tag("load")
+class ExecutionModeLoadTest {
+
+    private static final int CLIENTS = 400;
+    private static final int PRODUCTS = 200;
+    private static final Duration WARM_UP = Duration.ofSeconds(5);
+    private static final Duration MEASURE = Duration.ofSeconds(20);
+    private static final String QUERY_LATENCY_MS = "5";
+
+    /** H2 trigger that makes every SELECT on product take as long as a networked MySQL round trip. */
+    public static class SlowSelectTrigger implements Trigger {
+
+        @Override
+        public void fire(Connection conn, Object[] oldRow, Object[] newRow) {
+            try {
+                Thread.sleep(Long.parseLong(QUERY_LATENCY_MS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    record Result(String mode, long requests, long errors, double throughput, double p50Ms, double p99Ms, int peakThreads) {
+
+        @Override
+        public String toString() {
+            return String.format("%-8s requests=%d errors=%d throughput=%.0f/s p50=%.1fms p99=%.1fms peakPlatformThreads=%d",
+                    mode, requests, errors, throughput, p50Ms, p99Ms, peakThreads);
+        }
+    }
+
+    @Test
+    void virtualThreads_shouldServeTheSameLoadWithFarFewerPlatformThreads() throws Exception {
+        Result platform = run("platform", false);
+        Result virtual = run("virtual", true);
+
+        System.out.println(platform);
+        System.out.println(virtual);
+
+        assertEquals(0, platform.errors(), "Platform mode failed requests");
+        assertEquals(0, virtual.errors(), "Virtual mode failed requests");
+        assertTrue(virtual.peakThreads() < platform.peakThreads(),
+                "Virtual mode should not need a platform thread per blocked request");
+    }
+
+    private Result run(String mode, boolean virtualThreads) throws Exception {
+        String url = "jdbc:h2:mem:load-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;MODE=MySQL";
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BackendApplication.class)
+                .run(
+                        // Replaces the default "dev" profile, so only the test user is defined
+                        "--spring.profiles.active=test,embedded",
+                        "--spring.cloud.vault.enabled=false",
+                        "--spring.config.on-not-found=ignore",
+                        "--server.port=0",
+                        "--spring.datasource.url=" + url,
+                        "--spring.datasource.hikari.maximum-pool-size=10",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        // Every request must reach the database
+                        "--app.products.cache.enabled=false",
+                        "--app.products.change-poll.enabled=false")) {
+            List<Long> ids = seed(context);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            return drive(mode, port, ids);
+        }
+    }
+
+    private List<Long> seed(ConfigurableApplicationContext context) {
+        ProductService productService = context.getBean(ProductService.class);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            ids.add(productService.createProduct("Load " + i, new BigDecimal("1.00")).getId());
+        }
+        context.getBean(JdbcTemplate.class).execute(
+                "CREATE TRIGGER product_slow_select BEFORE SELECT ON product CALL '" + SlowSelectTrigger.class.getName() + "'");
+        return ids;
+    }
+
+    private Result drive(String mode, int port, List<Long> ids) throws InterruptedException {
+        String authorization = "Basic " + Base64.getEncoder()
+                .encodeToString("testuser:embedded".getBytes(StandardCharsets.UTF_8));
+        Recorder recorder = new Recorder(3);
+        AtomicLong errors = new AtomicLong();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+        // Client side runs on virtual threads too, so it does not skew the platform thread count
+        try (HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+                ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            long warmUpEnd = System.nanoTime() + WARM_UP.toNanos();
+            long end = warmUpEnd + MEASURE.toNanos();
+            for (int c = 0; c < CLIENTS; c++) {
+                clients.submit(() -> {
+                    while (System.nanoTime() < end) {
+                        long id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+                        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/products/" + id))
+                                .header("Authorization", authorization)
+                                .timeout(Duration.ofSeconds(30))
+                                .build();
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (start > warmUpEnd) {
+                                recorder.recordValue((System.nanoTime() - start) / 1000);
+                                if (response.statusCode() != 200) {
+                                    errors.incrementAndGet();
+                                }
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+            Thread.sleep(WARM_UP.toMillis());
+            recorder.reset();
+            threads.resetPeakThreadCount();
+            clients.shutdown();
+            clients.awaitTermination(MEASURE.toSeconds() + 60, TimeUnit.SECONDS);
+        }
+
+        var histogram = recorder.getIntervalHistogram();
+        return new Result(mode, histogram.getTotalCount(), errors.get(),
+                histogram.getTotalCount() / (double) MEASURE.toSeconds(),
+                histogram.getValueAtPercentile(50) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0,
+                threads.getPeakThreadCount());
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.backend.rest;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.backend.EmbeddedDatabaseTest;
+import com.example.backend.dao.ProductRepository;
+import com.example.backend.entity.Product;
+import com.example.backend.service.ProductService;
+
+@EmbeddedDatabaseTest
+@AutoConfigureMockMvc
+class ProductConditionalGetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAllInBatch();
+    }
+
+    private String etagOf(String path) throws Exception {
+        return mockMvc.perform(get(path).with(httpBasic("testuser", "embedded")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    @Test
+    void getProductById_shouldAnswer304UntilTheProductChanges() throws Exception {
+        Product product = productService.createProduct("Old", new BigDecimal("1.00"));
+        String path = "/api/products/" + product.getId();
+        String etag = etagOf(path);
+
+        mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, etag).with(httpBasic("testuser", "embedded")))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+
+        productService.updateProduct(product.getId().intValue(), new Product("New", new BigDecimal("2.00")));
+
+        String newEtag = etagOf(path);
+        assertNotEquals(etag, newEtag);
+        mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, etag).with(httpBasic("testuser", "embedded")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getAllProducts_shouldAnswer304UntilAnyProductChanges() throws Exception {
+        Product product = productService.createProduct("First", new BigDecimal("1.00"));
+        String etag = etagOf("/api/products");
+        assertEquals(etag, etagOf("/api/products"));
+
+        mockMvc.perform(get("/api/products").header(HttpHeaders.IF_NONE_MATCH, etag).with(httpBasic("testuser", "embedded")))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        productService.deleteProduct(product.getId());
+
+        assertNotEquals(etag, etagOf("/api/products"));
+    }
+
+    @Test
+    void getAllProducts_shouldServeTheAcceptedCodingAndVaryOnIt() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            productService.createProduct("Product " + i, new BigDecimal("1.00"));
+        }
+        String json = mockMvc.perform(get("/api/products").with(httpBasic("testuser", "embedded")))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(containsString(HttpHeaders.ACCEPT_ENCODING))))
+                .andReturn().getResponse().getContentAsString();
+
+        byte[] gzip = mockMvc.perform(get("/api/products").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate")
+                        .with(httpBasic("testuser", "embedded")))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(containsString(HttpHeaders.ACCEPT_ENCODING))))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertEquals(json, new String(new GZIPInputStream(new ByteArrayInputStream(gzip)).readAllBytes(), StandardCharsets.UTF_8));
+    }
+}
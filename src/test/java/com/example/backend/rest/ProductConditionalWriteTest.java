@@ -0,0 +1,176 @@
+package com.example.backend.rest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.backend.EmbeddedDatabaseTest;
+import com.example.backend.dao.ProductRepository;
+import com.example.backend.entity.Product;
+import com.example.backend.service.ProductService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@EmbeddedDatabaseTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        // The poller's query would otherwise land in the statement count
+        "app.products.change-poll.enabled=false" })
+class ProductConditionalWriteTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAllInBatch();
+        product = productService.createProduct("Book", new BigDecimal("10.00"));
+    }
+
+    private String path() {
+        return "/api/products/" + product.getId();
+    }
+
+    private String currentETag() throws Exception {
+        return mockMvc.perform(get(path()).with(httpBasic("testuser", "embedded")))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    @Test
+    void update_shouldBeOneStatementWithoutLoadingTheProduct() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        productService.updateProduct(product.getId().intValue(), new Product("Renamed", new BigDecimal("11.00")));
+
+        // Before: SELECT + UPDATE; the change log row is written separately through JdbcTemplate
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void putWithStaleIfMatch_shouldFailWith412AndChangeNothing() throws Exception {
+        String etag = currentETag();
+        productService.updateProduct(product.getId().intValue(), new Product("Concurrent", new BigDecimal("12.00")));
+
+        mockMvc.perform(put(path()).with(httpBasic("testuser", "embedded"))
+                .header(HttpHeaders.IF_MATCH, etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"Lost update\", \"price\": 13.00}"))
+                .andExpect(status().isPreconditionFailed());
+
+        assertEquals("Concurrent", productRepository.findById(product.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void putWithCurrentIfMatch_shouldReturnTheNextETag() throws Exception {
+        String etag = currentETag();
+
+        String newEtag = mockMvc.perform(put(path()).with(httpBasic("testuser", "embedded"))
+                .header(HttpHeaders.IF_MATCH, etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"Renamed\", \"price\": 13.00}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Renamed"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertEquals(currentETag(), newEtag);
+    }
+
+    @Test
+    void putWithWeakIfMatch_shouldFailWith412EvenForTheCurrentVersion() throws Exception {
+        // If-Match compares strongly, so a weak ETag never matches
+        mockMvc.perform(put(path()).with(httpBasic("testuser", "embedded"))
+                .header(HttpHeaders.IF_MATCH, "W/" + currentETag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"Renamed\", \"price\": 13.00}"))
+                .andExpect(status().isPreconditionFailed());
+
+        assertEquals("Book", productRepository.findById(product.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void putWithIfMatchList_shouldApplyWhenAnyListedETagIsCurrent() throws Exception {
+        String stale = currentETag();
+        productService.updateProduct(product.getId().intValue(), new Product("Concurrent", new BigDecimal("12.00")));
+        String current = currentETag();
+
+        mockMvc.perform(put(path()).with(httpBasic("testuser", "embedded"))
+                .header(HttpHeaders.IF_MATCH, stale + ", W/" + current + ", \"other\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"Lost update\", \"price\": 13.00}"))
+                .andExpect(status().isPreconditionFailed());
+        String newEtag = mockMvc.perform(put(path()).with(httpBasic("testuser", "embedded"))
+                .header(HttpHeaders.IF_MATCH, stale + ", " + current)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"Renamed\", \"price\": 13.00}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertEquals("Renamed", productRepository.findById(product.getId()).orElseThrow().getName());
+        assertEquals(currentETag(), newEtag);
+    }
+
+    @Test
+    void deleteWithMalformedIfMatch_shouldFailWith400() throws Exception {
+        mockMvc.perform(delete(path()).with(httpBasic("testuser", "embedded")).header(HttpHeaders.IF_MATCH, "3"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void mergePatch_shouldOnlyChangeTheGivenField() throws Exception {
+        mockMvc.perform(patch(path()).with(httpBasic("testuser", "embedded"))
+                .header(HttpHeaders.IF_MATCH, currentETag())
+                .contentType(ProductController.APPLICATION_MERGE_PATCH_JSON_VALUE)
+                .content("{\"price\": 9.99}"))
+                .andExpect(status().isNoContent())
+                .andExpect(header().exists(HttpHeaders.ETAG));
+
+        Product patched = productRepository.findById(product.getId()).orElseThrow();
+        assertEquals("Book", patched.getName());
+        assertEquals(0, new BigDecimal("9.99").compareTo(patched.getPrice()));
+    }
+
+    @Test
+    void deleteWithStaleIfMatch_shouldFailWith412() throws Exception {
+        String etag = currentETag();
+        productService.patchProduct(product.getId(), "Changed", null, null);
+
+        mockMvc.perform(delete(path()).with(httpBasic("testuser", "embedded")).header(HttpHeaders.IF_MATCH, etag))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(delete(path()).with(httpBasic("testuser", "embedded")).header(HttpHeaders.IF_MATCH, currentETag()))
+                .andExpect(status().isNoContent());
+    }
+}
@@ -1,10 +1,14 @@
 package com.example.backend.rest;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
 
@@ -30,6 +34,7 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.testcontainers.containers.MySQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
@@ -142,6 +147,43 @@ void createProduct_shouldReturn201AndProduct() throws Exception {
     }
 
 
+    @Test
+    void createProducts_shouldReturn201AndAllProducts() throws Exception {
+        ProductRequestDTO pen = new ProductRequestDTO();
+        pen.setName("Pen");
+        pen.setPrice(new BigDecimal("2.00"));
+        ProductRequestDTO pencil = new ProductRequestDTO();
+        pencil.setName("Pencil");
+        pencil.setPrice(new BigDecimal("1.00"));
+
+        mockMvc.perform(post("/api/products/bulk")
+                .with(httpBasic("testuser", testPassword))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Arrays.asList(pen, pencil))))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$[0].id").isNumber())
+            .andExpect(jsonPath("$[1].name").value("Pencil"));
+    }
+
+    @Test
+    void createProducts_withOneInvalidItem_shouldReturn400AndCreateNothing() throws Exception {
+        ProductRequestDTO valid = new ProductRequestDTO();
+        valid.setName("Pen");
+        valid.setPrice(new BigDecimal("2.00"));
+        ProductRequestDTO invalid = new ProductRequestDTO();
+        invalid.setName("");
+        invalid.setPrice(new BigDecimal("1.00"));
+
+        mockMvc.perform(post("/api/products/bulk")
+                .with(httpBasic("testuser", testPassword))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Arrays.asList(valid, invalid))))
+            .andExpect(status().isBadRequest());
+
+        assertEquals(0, productRepository.count());
+    }
+
     @Test
     void getAllProducts_shouldReturnList() throws Exception {
         System.out.println("Loaded user: " + System.getProperty("spring.security.user.name"));
@@ -162,6 +204,50 @@ void createProduct_shouldReturn201AndProduct() throws Exception {
 
     }
 
+    @Test
+    void getProductsPage_shouldWalkCatalogWithCursor() throws Exception {
+        productRepository.save(new Product("Pen", new BigDecimal("2.00")));
+        productRepository.save(new Product("Pencil", new BigDecimal("1.00")));
+        Product last = productRepository.save(new Product("Eraser", new BigDecimal("0.50")));
+
+        String firstPage = mockMvc.perform(get("/api/products")
+                .param("limit", "2")
+                .with(httpBasic("testuser", testPassword)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items.length()").value(2))
+            .andExpect(jsonPath("$.items[0].name").value("Pen"))
+            .andExpect(jsonPath("$.nextCursor").isString())
+            .andReturn().getResponse().getContentAsString();
+        String cursor = objectMapper.readTree(firstPage).get("nextCursor").asText();
+
+        mockMvc.perform(get("/api/products")
+                .param("after", cursor)
+                .param("limit", "2")
+                .with(httpBasic("testuser", testPassword)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items.length()").value(1))
+            .andExpect(jsonPath("$.items[0].id").value(last.getId()))
+            .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void exportProducts_shouldStreamNdjson() throws Exception {
+        Product pen = productRepository.save(new Product("Pen", new BigDecimal("2.00")));
+        Product pencil = productRepository.save(new Product("Pencil", new BigDecimal("1.00")));
+
+        MvcResult result = mockMvc.perform(get("/api/products/export")
+                .with(httpBasic("testuser", testPassword)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(ProductController.APPLICATION_NDJSON_VALUE))
+            .andExpect(content().string(
+                    "{\"id\":" + pen.getId() + ",\"name\":\"Pen\",\"price\":2.00}\n"
+                    + "{\"id\":" + pencil.getId() + ",\"name\":\"Pencil\",\"price\":1.00}\n"));
+    }
+
     @Test
     void getProductById_shouldReturnProductResponseDTO() throws Exception {
         System.out.println("Loaded user: " + System.getProperty("spring.security.user.name"));
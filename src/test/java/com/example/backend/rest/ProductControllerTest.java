@@ -1,28 +1,64 @@
 package com.example.backend.rest;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.example.backend.entity.Product;
+import com.example.backend.exception.VersionConflictException;
 import com.example.backend.service.ProductService;
 import com.example.backend.dao.ProductRepository;
+import com.example.backend.dto.ProductPageResponseDTO;
 import com.example.backend.dto.ProductRequestDTO;
 import com.example.backend.dto.ProductResponseDTO;
+import com.example.backend.dto.ProductStatsResponseDTO;
+import com.example.backend.mapper.CursorMapper;
+import com.example.backend.stats.CatalogStats;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @ExtendWith(MockitoExtension.class)
 public class ProductControllerTest {
@@ -30,23 +66,31 @@ public class ProductControllerTest {
     @Mock
     private ProductService productService;
 
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @InjectMocks
     private ProductController productController;
 
     @Test
-    void testGetAllProducts() {
+    void testGetAllProducts() throws IOException {
         // Arrange
         Product product1 = new Product("Product1", new BigDecimal("100.00"));
         Product product2 = new Product("Product2", new BigDecimal("200.00"));
         List<Product> products = List.of(product1, product2);
 
         when(productService.getAllProducts()).thenReturn(products);
+        when(productService.getCatalogVersion()).thenReturn("2-2");
 
         // Act
-        ResponseEntity<List<ProductResponseDTO>> response = productController.getAllProducts();
+        ResponseEntity<byte[]> response = productController.getAllProducts(null, null, null);
         assertNotNull(response);
+        assertEquals("\"2-2\"", response.getHeaders().getETag());
         assertNotNull(response.getBody());
-        List<ProductResponseDTO> responseDTOs = response.getBody();
+        List<ProductResponseDTO> responseDTOs = productList(response.getBody());
 
         List<Product> actualProducts = responseDTOs.stream()
                 .map(dto -> new Product(dto.getName(), dto.getPrice()))
@@ -56,7 +100,200 @@ public class ProductControllerTest {
         assertEquals(products, actualProducts);
         verify(productService).getAllProducts();
     }
+
+    @Test
+    void testGetAllProducts_currentETagReturnsNotModifiedWithoutLoading() {
+        when(productService.getCatalogVersion()).thenReturn("3-42");
+
+        ResponseEntity<byte[]> response = productController.getAllProducts("\"1-7\", \"3-42\"", null, null);
+
+        assertEquals(304, response.getStatusCode().value());
+        assertEquals("\"3-42\"", response.getHeaders().getETag());
+        assertNull(response.getBody());
+        verify(productService, never()).getAllProducts();
+    }
+
+    @Test
+    void testGetAllProducts_staleETagReturnsProducts() throws IOException {
+        when(productService.getCatalogVersion()).thenReturn("4-43");
+        when(productService.getAllProducts()).thenReturn(List.of(new Product("Product1", new BigDecimal("100.00"))));
+
+        ResponseEntity<byte[]> response = productController.getAllProducts("\"3-42\"", null, null);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals("\"4-43\"", response.getHeaders().getETag());
+        assertEquals(1, productList(response.getBody()).size());
+    }
+
+    @Test
+    void testGetAllProducts_servesTheStoredBodyInTheAcceptedCoding() throws IOException {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            products.add(new Product("Product" + i, new BigDecimal("100.00")));
+        }
+        when(productService.getCatalogVersion()).thenReturn("50-50");
+        when(productService.getAllProducts()).thenReturn(products);
+
+        ResponseEntity<byte[]> gzip = productController.getAllProducts(null, null, "br, gzip;q=0.9, deflate;q=0.5");
+        ResponseEntity<byte[]> deflate = productController.getAllProducts(null, null, "gzip;q=0, deflate");
+        ResponseEntity<byte[]> identity = productController.getAllProducts(null, null, null);
+
+        assertEquals("gzip", gzip.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(products.size(), productList(new GZIPInputStream(new ByteArrayInputStream(gzip.getBody())).readAllBytes()).size());
+        assertEquals("deflate", deflate.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertArrayEquals(identity.getBody(), new InflaterInputStream(new ByteArrayInputStream(deflate.getBody())).readAllBytes());
+        assertNull(identity.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(List.of(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING), identity.getHeaders().getVary());
+        // Built once for the catalog version, then served as stored bytes
+        verify(productService, times(1)).getAllProducts();
+        assertSame(identity.getBody(), productController.getAllProducts(null, null, null).getBody());
+    }
+
+    @Test
+    void testGetAllProducts_servesTheAcceptedWireFormat() throws IOException {
+        List<Product> products = List.of(new Product("Product1", new BigDecimal("100.00")), new Product("Product2", new BigDecimal("0.10")));
+        when(productService.getCatalogVersion()).thenReturn("2-2");
+        when(productService.getAllProducts()).thenReturn(products);
+
+        ResponseEntity<byte[]> cbor = productController.getAllProducts(null, "application/cbor", null);
+        ResponseEntity<byte[]> smile = productController.getAllProducts(null, "application/json;q=0.5, application/x-jackson-smile", null);
+
+        assertEquals(MediaType.APPLICATION_CBOR, cbor.getHeaders().getContentType());
+        assertEquals(ProductResponseCache.APPLICATION_SMILE, smile.getHeaders().getContentType());
+        TypeReference<List<ProductResponseDTO>> listType = new TypeReference<>() { };
+        List<ProductResponseDTO> fromCbor = new CBORMapper().readValue(cbor.getBody(), listType);
+        List<ProductResponseDTO> fromSmile = new SmileMapper().readValue(smile.getBody(), listType);
+        assertEquals(new BigDecimal("0.10"), fromCbor.get(1).getPrice());
+        assertEquals("Product2", fromSmile.get(1).getName());
+        assertEquals(new BigDecimal("0.10"), fromSmile.get(1).getPrice());
+    }
+
+    @Test
+    void negotiateFormat_defaultsToJsonAndHonoursQualities() {
+        assertEquals(ProductResponseCache.Format.JSON, ProductResponseCache.negotiateFormat(null));
+        assertEquals(ProductResponseCache.Format.JSON, ProductResponseCache.negotiateFormat("*/*"));
+        assertEquals(ProductResponseCache.Format.JSON, ProductResponseCache.negotiateFormat("application/cbor;q=0, */*"));
+        assertEquals(ProductResponseCache.Format.CBOR, ProductResponseCache.negotiateFormat("application/cbor, application/json;q=0.9"));
+        assertEquals(ProductResponseCache.Format.SMILE, ProductResponseCache.negotiateFormat("application/x-jackson-smile"));
+    }
+
+    private List<ProductResponseDTO> productList(byte[] json) throws IOException {
+        return objectMapper.readValue(json, new TypeReference<List<ProductResponseDTO>>() { });
+    }
     
+    @Test
+    void testGetProductsPage_fullPageReturnsNextCursor() {
+        // Arrange
+        Product product1 = new Product("Product1", new BigDecimal("100.00"));
+        Product product2 = new Product("Product2", new BigDecimal("200.00"));
+        ReflectionTestUtils.setField(product2, "id", 7L);
+        when(productService.getProductsAfter(0L, 2)).thenReturn(List.of(product1, product2));
+
+        // Act
+        ResponseEntity<ProductPageResponseDTO> response = productController.getProductsPage(null, 2);
+
+        // Assert
+        assertEquals(200, response.getStatusCode().value());
+        ProductPageResponseDTO page = response.getBody();
+        assertNotNull(page);
+        assertEquals(2, page.getItems().size());
+        assertEquals("Product2", page.getItems().get(1).getName());
+        assertEquals(7L, CursorMapper.fromCursor(page.getNextCursor()));
+    }
+
+    @Test
+    void testGetProductsPage_shortPageHasNoNextCursor() {
+        // Arrange
+        Product product = new Product("Product1", new BigDecimal("100.00"));
+        when(productService.getProductsAfter(42L, 10)).thenReturn(List.of(product));
+
+        // Act
+        ResponseEntity<ProductPageResponseDTO> response = productController.getProductsPage(CursorMapper.toCursor(42L), 10);
+
+        // Assert
+        ProductPageResponseDTO page = response.getBody();
+        assertNotNull(page);
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void testGetProductsPage_invalidCursorThrows() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            productController.getProductsPage("not-a-cursor", 10);
+        });
+    }
+
+    @Test
+    void testExportProducts_writesOneJsonObjectPerLine() throws IOException {
+        // Arrange
+        Product product1 = new Product("Product1", new BigDecimal("100.00"));
+        Product product2 = new Product("Product2", new BigDecimal("200.00"));
+        doAnswer(invocation -> {
+            Consumer<Product> sink = invocation.getArgument(0);
+            sink.accept(product1);
+            sink.accept(product2);
+            return 2L;
+        }).when(productService).exportProducts(any());
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = productController.exportProducts();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        // Assert
+        assertEquals(ProductController.APPLICATION_NDJSON_VALUE, response.getHeaders().getContentType().toString());
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("Product1", objectMapper.readTree(lines[0]).get("name").asText());
+        assertEquals("Product2", objectMapper.readTree(lines[1]).get("name").asText());
+    }
+
+    @Test
+    void testExportProducts_stopsQuietlyWhenClientDisconnects() {
+        // Arrange
+        Product product = new Product("Product1", new BigDecimal("100.00"));
+        int[] offered = {0};
+        doAnswer(invocation -> {
+            Consumer<Product> sink = invocation.getArgument(0);
+            for (int i = 0; i < 1000; i++) {
+                offered[0]++;
+                sink.accept(product);
+            }
+            return 1000L;
+        }).when(productService).exportProducts(any());
+        OutputStream disconnected = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = productController.exportProducts();
+
+        // Assert
+        assertDoesNotThrow(() -> response.getBody().writeTo(disconnected));
+        assertEquals(1, offered[0], "The export should stop at the first failed flush");
+    }
+
+    @Test
+    void testGetProductStats_returnsTheCatalogStatistics() {
+        when(productService.getCatalogStats()).thenReturn(CatalogStats.of(2, new BigDecimal("300.00"),
+                new BigDecimal("100.00"), new BigDecimal("200.00"), Map.of("p50", new BigDecimal("100.00"))));
+
+        ResponseEntity<ProductStatsResponseDTO> response = productController.getProductStats();
+
+        assertEquals(200, response.getStatusCode().value());
+        ProductStatsResponseDTO body = response.getBody();
+        assertNotNull(body);
+        assertEquals(2, body.getCount());
+        assertEquals(new BigDecimal("150.00"), body.getAverage());
+        assertEquals(new BigDecimal("200.00"), body.getMax());
+        assertEquals(Map.of("p50", new BigDecimal("100.00")), body.getPercentiles());
+        assertEquals(1.0, meterRegistry.get("products.getStats").counter().count());
+    }
+
     @Test
     void testCreateProduct_returnsCreated() {
         // Arrange
@@ -79,6 +316,28 @@ public class ProductControllerTest {
         assertEquals(product.getPrice(), responseBody.getPrice());
     }
 
+    @Test
+    void testCreateProducts_returnsCreatedList() {
+        // Arrange
+        ProductRequestDTO first = new ProductRequestDTO();
+        first.setName("Product1");
+        first.setPrice(new BigDecimal("100.00"));
+        ProductRequestDTO second = new ProductRequestDTO();
+        second.setName("Product2");
+        second.setPrice(new BigDecimal("200.00"));
+        when(productService.createProducts(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        ResponseEntity<List<ProductResponseDTO>> response = productController.createProducts(List.of(first, second));
+
+        // Assert
+        assertEquals(201, response.getStatusCode().value());
+        assertNotNull(response.getBody());
+        assertEquals(2, response.getBody().size());
+        assertEquals("Product2", response.getBody().get(1).getName());
+        assertEquals(new BigDecimal("200.00"), response.getBody().get(1).getPrice());
+    }
+
     @Test
     void testCreateProduct_returnsNegativePriceException() {
         // Arrange
@@ -103,66 +362,155 @@ public class ProductControllerTest {
 
         // Act & Assert
         assertThrows(IllegalArgumentException.class, () -> {
-            productController.getProductById(1L);
+            productController.getProductById(1L, null, null, null);
         });
     }
 
     @Test
-    void testGetProductById_returnsProduct() {
+    void testGetProductById_returnsProduct() throws IOException {
         // Arrange
         Product product = new Product("Product1", new BigDecimal("100.00"));
+        ReflectionTestUtils.setField(product, "version", 2L);
         when(productService.getProductById(1L)).thenReturn(Optional.of(product));
 
         // Act
-        ResponseEntity<ProductResponseDTO> response = productController.getProductById(1L);
+        ResponseEntity<byte[]> response = productController.getProductById(1L, null, null, null);
 
         // Assert
         assertNotNull(response);
         assertEquals(200, response.getStatusCode().value());
+        assertEquals("\"2\"", response.getHeaders().getETag());
         assertNotNull(response.getBody());
-        ProductResponseDTO responseBody = response.getBody();
+        ProductResponseDTO responseBody = objectMapper.readValue(response.getBody(), ProductResponseDTO.class);
         assertNotNull(responseBody);
         assertEquals(product.getName(), responseBody.getName());
         assertEquals(product.getPrice(), responseBody.getPrice());
     }
 
+    @Test
+    void testGetProductById_currentETagReturnsNotModified() {
+        Product product = new Product("Product1", new BigDecimal("100.00"));
+        ReflectionTestUtils.setField(product, "version", 5L);
+        when(productService.getProductById(1L)).thenReturn(Optional.of(product));
+
+        // Weak comparison, as If-None-Match requires
+        ResponseEntity<byte[]> response = productController.getProductById(1L, "W/\"5\"", null, null);
+
+        assertEquals(304, response.getStatusCode().value());
+        assertEquals("\"5\"", response.getHeaders().getETag());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    void testGetProductById_staleETagReturnsProduct() throws IOException {
+        Product product = new Product("Product1", new BigDecimal("100.00"));
+        ReflectionTestUtils.setField(product, "version", 6L);
+        when(productService.getProductById(1L)).thenReturn(Optional.of(product));
+
+        ResponseEntity<byte[]> response = productController.getProductById(1L, "\"5\"", null, null);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals("Product1", objectMapper.readValue(response.getBody(), ProductResponseDTO.class).getName());
+    }
+
     @Test
     void updateProduct_returnsUpdatedProduct() {
         // Arrange
         Product updatedProduct = new Product("UpdatedProduct", new BigDecimal("150.00"));
         Product updatedProductInput = new Product("UpdatedProduct", new BigDecimal("150.00"));
-        when(productService.updateProduct(1, updatedProductInput))
+        when(productService.updateProduct(1, updatedProductInput, null))
                 .thenReturn(updatedProduct);
 
         // Act
-        ResponseEntity<Product> response = productController.updateProduct((int) 1L, updatedProduct);
+        ResponseEntity<Product> response = productController.updateProduct((int) 1L, null, updatedProduct);
 
         // Assert
         assertEquals(200, response.getStatusCode().value());
         assertEquals(updatedProduct, response.getBody());
+        assertNull(response.getHeaders().getETag());
+    }
+
+    @Test
+    void updateProduct_withIfMatchPassesVersionAndReturnsNewETag() {
+        Product input = new Product("UpdatedProduct", new BigDecimal("150.00"));
+        when(productService.updateProduct(1, input, 3L))
+                .thenReturn(new Product(1L, "UpdatedProduct", new BigDecimal("150.00"), 4L));
+
+        ResponseEntity<Product> response = productController.updateProduct(1, "\"3\"", input);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals("\"4\"", response.getHeaders().getETag());
+    }
+
+    @Test
+    void updateProduct_withWeakIfMatchFailsThePrecondition() {
+        Product input = new Product("UpdatedProduct", new BigDecimal("150.00"));
+        when(productService.currentVersionAmong(1L, List.of()))
+                .thenThrow(new VersionConflictException(1L, List.of()));
+
+        assertThrows(VersionConflictException.class, () -> productController.updateProduct(1, "W/\"3\"", input));
+        verify(productService, never()).updateProduct(any(), any(), any());
+    }
+
+    @Test
+    void updateProduct_withIfMatchListPassesTheCurrentVersion() {
+        Product input = new Product("UpdatedProduct", new BigDecimal("150.00"));
+        when(productService.currentVersionAmong(1L, List.of(2L, 3L))).thenReturn(3L);
+        when(productService.updateProduct(1, input, 3L))
+                .thenReturn(new Product(1L, "UpdatedProduct", new BigDecimal("150.00"), 4L));
+
+        ResponseEntity<Product> response = productController.updateProduct(1, "\"2\", W/\"1\", \"3\"", input);
+
+        assertEquals("\"4\"", response.getHeaders().getETag());
     }
 
 
     @Test
     void updateProduct_returnsNotFound_whenProductMissing() {
         Product input = new Product("X", BigDecimal.ONE);
-        when(productService.updateProduct(1, input))
+        when(productService.updateProduct(1, input, null))
                 .thenThrow(new IllegalArgumentException("Product not found"));
         // This will now raise the exception, handled globally in real app.
         // In direct calls, you may need to use @WebMvcTest and MockMvc to test full path.
         assertThrows(IllegalArgumentException.class, () -> {
-            productController.updateProduct(1, input);
+            productController.updateProduct(1, null, input);
         });
     }
 
+    @Test
+    void patchProduct_passesOnlyChangedFields() throws Exception {
+        when(productService.patchProduct(1L, null, new BigDecimal("9.99"), 2L)).thenReturn(3L);
+
+        ResponseEntity<Void> response = productController.patchProduct(1L, "\"2\"", objectMapper.readTree("{\"price\": 9.99}"));
+
+        assertEquals(204, response.getStatusCode().value());
+        assertEquals("\"3\"", response.getHeaders().getETag());
+    }
+
+    @Test
+    void patchProduct_rejectsRemovingRequiredFields() throws Exception {
+        assertThrows(IllegalArgumentException.class,
+                () -> productController.patchProduct(1L, null, objectMapper.readTree("{\"name\": null}")));
+        assertThrows(IllegalArgumentException.class,
+                () -> productController.patchProduct(1L, null, objectMapper.readTree("{\"colour\": \"red\"}")));
+        verify(productService, never()).patchProduct(any(), any(), any(), any());
+    }
+
     @Test
     void deleteProduct_returnsNotFound_whenMissing() {
-        doThrow(new IllegalArgumentException("Product not found")).when(productService).deleteProduct(1L);
+        doThrow(new IllegalArgumentException("Product not found")).when(productService).deleteProduct(1L, null);
 
         assertThrows(IllegalArgumentException.class, () -> {
-            productController.deleteProduct(1);
+            productController.deleteProduct(1, null);
         });
     }
 
-}
+    @Test
+    void deleteProduct_withIfMatchPassesVersion() {
+        ResponseEntity<Void> response = productController.deleteProduct(1, "\"7\"");
+
+        assertEquals(204, response.getStatusCode().value());
+        verify(productService).deleteProduct(1L, 7L);
+    }
 
+}
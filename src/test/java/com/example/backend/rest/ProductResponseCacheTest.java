@@ -0,0 +1,94 @@
+package com.example.backend.rest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.backend.entity.Product;
+import com.example.backend.rest.ProductResponseCache.EncodedBody;
+import com.example.backend.rest.ProductResponseCache.Format;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ProductResponseCacheTest {
+
+    private ProductResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ProductResponseCache(new ObjectMapper(), new SimpleMeterRegistry(), 10);
+    }
+
+    private static List<Product> catalog() {
+        return List.of(new Product(1L, "Cached", new BigDecimal("1.00")));
+    }
+
+    @Test
+    void list_shouldBuildEachVersionOnceWhileConcurrentMissesWait() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+
+        CompletableFuture<EncodedBody> first = CompletableFuture.supplyAsync(
+                () -> cache.list(Format.JSON, "v1", () -> {
+                    loads.incrementAndGet();
+                    loading.countDown();
+                    await(release);
+                    return catalog();
+                }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        CompletableFuture<EncodedBody> second = CompletableFuture.supplyAsync(
+                () -> cache.list(Format.JSON, "v1", () -> {
+                    loads.incrementAndGet();
+                    return catalog();
+                }));
+        release.countDown();
+
+        assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void list_shouldNotHoldUpOtherFormatsWhileOneIsBuilt() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<EncodedBody> slow = CompletableFuture.supplyAsync(
+                () -> cache.list(Format.JSON, "v1", () -> {
+                    loading.countDown();
+                    await(release);
+                    return catalog();
+                }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        try {
+            // Would wait for the JSON body behind a cache-wide lock
+            EncodedBody cbor = CompletableFuture
+                    .supplyAsync(() -> cache.list(Format.CBOR, "v1", ProductResponseCacheTest::catalog))
+                    .get(5, TimeUnit.SECONDS);
+            assertEquals("v1", cbor.version());
+        } finally {
+            release.countDown();
+        }
+        slow.get(5, TimeUnit.SECONDS);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
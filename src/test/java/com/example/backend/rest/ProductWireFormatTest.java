@@ -0,0 +1,99 @@
+package com.example.backend.rest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.backend.EmbeddedDatabaseTest;
+import com.example.backend.dao.ProductRepository;
+import com.example.backend.dto.ProductPageResponseDTO;
+import com.example.backend.dto.ProductResponseDTO;
+import com.example.backend.entity.Product;
+import com.example.backend.service.ProductService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+
+@EmbeddedDatabaseTest
+@AutoConfigureMockMvc
+class ProductWireFormatTest {
+
+    private static final MediaType APPLICATION_SMILE = ProductResponseCache.APPLICATION_SMILE;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private Product notebook;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAllInBatch();
+        notebook = productService.createProduct("Notebook", new BigDecimal("2.50"));
+        productService.createProduct("Pencil", new BigDecimal("0.99"));
+    }
+
+    private byte[] getAs(String path, MediaType mediaType) throws Exception {
+        return mockMvc.perform(get(path).accept(mediaType).with(httpBasic("testuser", "embedded")))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(mediaType))
+                .andReturn().getResponse().getContentAsByteArray();
+    }
+
+    @Test
+    void getAllProducts_shouldServeCborAndSmile() throws Exception {
+        TypeReference<List<ProductResponseDTO>> listType = new TypeReference<>() { };
+
+        for (ObjectMapper mapper : List.of(new CBORMapper(), new SmileMapper())) {
+            MediaType mediaType = mapper instanceof CBORMapper ? MediaType.APPLICATION_CBOR : APPLICATION_SMILE;
+            List<ProductResponseDTO> products = mapper.readValue(getAs("/api/products", mediaType), listType);
+
+            assertEquals(List.of("Notebook", "Pencil"), products.stream().map(ProductResponseDTO::getName).toList());
+            assertEquals(new BigDecimal("0.99"), products.get(1).getPrice());
+        }
+    }
+
+    @Test
+    void otherReadEndpoints_shouldNegotiateBinaryFormatsToo() throws Exception {
+        ProductResponseDTO product = new CBORMapper().readValue(
+                getAs("/api/products/" + notebook.getId(), MediaType.APPLICATION_CBOR), ProductResponseDTO.class);
+        assertEquals(new BigDecimal("2.50"), product.getPrice());
+
+        ProductPageResponseDTO page = new SmileMapper().readValue(
+                getAs("/api/products?limit=1", APPLICATION_SMILE), ProductPageResponseDTO.class);
+        assertEquals("Notebook", page.getItems().get(0).getName());
+
+        List<ProductResponseDTO> found = new CBORMapper().readValue(
+                getAs("/api/products/search?q=pen", MediaType.APPLICATION_CBOR), new TypeReference<List<ProductResponseDTO>>() { });
+        assertEquals("Pencil", found.get(0).getName());
+    }
+
+    @Test
+    void withoutAcceptHeader_shouldStayJson() throws Exception {
+        mockMvc.perform(get("/api/products?limit=5").with(httpBasic("testuser", "embedded")))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.items[0].name").value("Notebook"));
+        mockMvc.perform(get("/api/products").with(httpBasic("testuser", "embedded")))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$[1].name").value("Pencil"));
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.backend.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.backend.entity.Product;
+
+class ProductNameIndexTest {
+
+    private ProductNameIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductNameIndex();
+        index.put(product(1, "Red Notebook"));
+        index.put(product(2, "Notebook"));
+        index.put(product(3, "Notebook Stand"));
+        index.put(product(4, "Pencil"));
+        index.put(product(5, "Sketchbook"));
+    }
+
+    private static Product product(long id, String name) {
+        return new Product(id, name, BigDecimal.ONE, 0L);
+    }
+
+    private List<Long> ids(String query, int limit) {
+        return index.search(query, limit).stream().map(Product::getId).toList();
+    }
+
+    @Test
+    void search_shouldRankExactThenPrefixThenWordPrefix() {
+        assertEquals(List.of(2L, 3L, 1L), ids("notebook", 10));
+    }
+
+    @Test
+    void search_shouldFindSubstringsInIdOrderAfterBetterMatches() {
+        index.put(product(6, "Book"));
+
+        assertEquals(List.of(6L, 1L, 2L, 3L, 5L), ids("book", 10));
+    }
+
+    @Test
+    void search_shouldIgnoreCaseAndExtraWhitespace() {
+        assertEquals(List.of(1L), ids("  RED   note ", 10));
+    }
+
+    @Test
+    void search_shouldMatchEveryQueryWordAsAWordPrefix() {
+        assertEquals(List.of(3L), ids("stand note", 10));
+    }
+
+    @Test
+    void search_shouldStopAtTheLimit() {
+        assertEquals(List.of(2L), ids("notebook", 1));
+        assertTrue(ids("zzz", 10).isEmpty());
+    }
+
+    @Test
+    void put_shouldReplaceTheOldNameAndRemoveShouldForgetIt() {
+        index.put(product(4, "Pen"));
+        assertEquals(List.of(4L), ids("pen", 10));
+        assertTrue(ids("pencil", 10).isEmpty());
+
+        index.remove(4L);
+        assertTrue(ids("pen", 10).isEmpty());
+        assertEquals(4, index.size());
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.backend.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.backend.entity.Product;
+
+class ProductPriceIndexTest {
+
+    private ProductPriceIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductPriceIndex();
+        index.put(product(1, "5.00"));
+        index.put(product(2, "1.00"));
+        index.put(product(3, "5.00"));
+        index.put(product(4, "9.50"));
+    }
+
+    private static Product product(long id, String price) {
+        return new Product(id, "Product " + id, new BigDecimal(price), 0L);
+    }
+
+    private List<Long> ids(BigDecimal minPrice, BigDecimal maxPrice, boolean descending) {
+        return index.range(minPrice, maxPrice, descending).map(Product::getId).toList();
+    }
+
+    @Test
+    void range_shouldOrderByPriceThenId() {
+        assertEquals(List.of(2L, 1L, 3L, 4L), ids(null, null, false));
+        assertEquals(List.of(4L, 3L, 1L, 2L), ids(null, null, true));
+    }
+
+    @Test
+    void range_shouldIncludeBothBoundsWhateverTheirScale() {
+        assertEquals(List.of(1L, 3L), ids(new BigDecimal("5"), new BigDecimal("5.0"), false));
+        assertEquals(List.of(4L, 3L, 1L), ids(new BigDecimal("2"), null, true));
+    }
+
+    @Test
+    void put_shouldMoveAProductToItsNewPriceAndRemoveShouldDropIt() {
+        index.put(product(4, "0.50"));
+        assertEquals(List.of(4L, 2L), ids(null, new BigDecimal("1.00"), false));
+
+        index.remove(2L);
+        assertEquals(List.of(4L), ids(null, new BigDecimal("1.00"), false));
+        assertEquals(3, index.size());
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.backend.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.backend.EmbeddedDatabaseTest;
+import com.example.backend.dao.ProductRepository;
+import com.example.backend.entity.Product;
+import com.example.backend.service.ProductService;
+
+@EmbeddedDatabaseTest
+@AutoConfigureMockMvc
+class ProductPriceQueryIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    private Product lamp;
+
+    @BeforeEach
+    void setUp() {
+        // deleteAllInBatch bypasses the service, so the indexes are rebuilt rather than updated
+        productRepository.deleteAllInBatch();
+        productService.createProduct("Pencil", new BigDecimal("1.00"));
+        productService.createProduct("Notebook", new BigDecimal("4.50"));
+        lamp = productService.createProduct("Lamp", new BigDecimal("30.00"));
+        productSearchIndex.load();
+    }
+
+    private ResultActions streamed(MockHttpServletRequestBuilder builder) throws Exception {
+        MvcResult result = mockMvc.perform(builder.with(httpBasic("testuser", "embedded")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+
+    @Test
+    void sortByPrice_shouldReturnTheRangeCheapestFirst() throws Exception {
+        streamed(get("/api/products").param("sort", "price").param("minPrice", "1.00").param("maxPrice", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].name").value("Pencil"))
+                .andExpect(jsonPath("$[1].name").value("Notebook"));
+    }
+
+    @Test
+    void sortByPriceDescending_shouldReturnTheMostExpensiveAndFollowPatches() throws Exception {
+        streamed(get("/api/products").param("sort", "price,desc").param("limit", "1"))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("Lamp"));
+
+        // A patch event carries no product, so the index reloads it at its new price
+        productService.patchProduct(lamp.getId(), null, new BigDecimal("0.10"), null);
+
+        streamed(get("/api/products").param("sort", "price,desc").param("limit", "1"))
+                .andExpect(jsonPath("$[0].name").value("Notebook"));
+        streamed(get("/api/products").param("sort", "price").param("limit", "1"))
+                .andExpect(jsonPath("$[0].name").value("Lamp"));
+    }
+
+    @Test
+    @Transactional
+    void fallbackQuery_shouldStreamTheRangeInTheRequestedOrder() {
+        try (Stream<Product> products = productRepository.streamByPriceRange(new BigDecimal("1.00"), null,
+                Sort.by(Sort.Direction.DESC, "price", "id"), Limit.of(2))) {
+            assertEquals(List.of("Lamp", "Notebook"), products.map(Product::getName).toList());
+        }
+    }
+
+    @Test
+    void invalidPriceQuery_shouldBeRejectedBeforeStreaming() throws Exception {
+        mockMvc.perform(get("/api/products").param("sort", "name").with(httpBasic("testuser", "embedded")))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/products").param("sort", "price").param("minPrice", "5").param("maxPrice", "1")
+                .with(httpBasic("testuser", "embedded")))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void limitWithoutSort_shouldStillBeAKeysetPage() throws Exception {
+        mockMvc.perform(get("/api/products").param("limit", "2").with(httpBasic("testuser", "embedded")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2));
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.backend.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.example.backend.EmbeddedDatabaseTest;
+import com.example.backend.dao.ProductRepository;
+import com.example.backend.entity.Product;
+import com.example.backend.service.ProductService;
+
+@EmbeddedDatabaseTest
+@AutoConfigureMockMvc
+class ProductSearchIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        // deleteAllInBatch bypasses the service, so the index is rebuilt rather than updated
+        productRepository.deleteAllInBatch();
+        productService.createProduct("Red Notebook", new BigDecimal("3.00"));
+        productService.createProduct("Notebook", new BigDecimal("2.00"));
+        productService.createProduct("Pencil", new BigDecimal("1.00"));
+        productSearchIndex.load();
+        assertTrue(productSearchIndex.isReady());
+    }
+
+    private ResultActions search(String query) throws Exception {
+        return mockMvc.perform(get("/api/products/search").param("q", query).with(httpBasic("testuser", "embedded")));
+    }
+
+    @Test
+    void search_shouldRankExactMatchesFirstAndHonourTheLimit() throws Exception {
+        search("notebook")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].name").value("Notebook"))
+                .andExpect(jsonPath("$[1].name").value("Red Notebook"));
+
+        mockMvc.perform(get("/api/products/search").param("q", "book").param("limit", "1").with(httpBasic("testuser", "embedded")))
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    void search_shouldFollowCreatesPatchesAndDeletes() throws Exception {
+        Product pen = productService.createProduct("Ballpoint Pen", new BigDecimal("0.50"));
+        search("ballp").andExpect(jsonPath("$[0].id").value(pen.getId()));
+
+        // A patch event carries no product, so the index reloads it
+        productService.patchProduct(pen.getId(), "Fountain Pen", null, null);
+        search("ballp").andExpect(jsonPath("$.length()").value(0));
+        search("fountain").andExpect(jsonPath("$[0].id").value(pen.getId()));
+
+        productService.deleteProduct(pen.getId());
+        search("fountain").andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void fallbackQueries_shouldMatchPrefixesAndSubstringsWithWildcardsEscaped() {
+        assertEquals(List.of("Notebook"), productRepository.findByNameStartingWithOrderByNameAscIdAsc("Note", Limit.of(5))
+                .stream().map(Product::getName).toList());
+        assertEquals(List.of("Red Notebook", "Notebook"), productRepository.findByNameContainingOrderByIdAsc("book", Limit.of(5))
+                .stream().map(Product::getName).toList());
+        assertTrue(productRepository.findByNameContainingOrderByIdAsc("%", Limit.of(5)).isEmpty());
+    }
+
+    @Test
+    void search_withBlankQuery_shouldReturnBadRequest() throws Exception {
+        search(" ").andExpect(status().isBadRequest());
+    }
+}
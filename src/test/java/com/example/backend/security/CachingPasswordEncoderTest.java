@@ -0,0 +1,126 @@
+package com.example.backend.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CachingPasswordEncoderTest {
+
+    private PasswordEncoder bcrypt;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private CachingPasswordEncoder encoder;
+
+    private String hash;
+
+    @BeforeEach
+    void setUp() {
+        bcrypt = spy(new BCryptPasswordEncoder(4));
+        meterRegistry = new SimpleMeterRegistry();
+        encoder = new CachingPasswordEncoder(bcrypt, Duration.ofMinutes(5), 100, meterRegistry);
+        hash = encoder.encode("secret");
+    }
+
+    private long count(String cache, String result) {
+        return meterRegistry.get(CachingPasswordEncoder.METRIC_NAME).tag("cache", cache).tag("result", result).timer().count();
+    }
+
+    @Test
+    void matches_shouldOnlyRunBCryptForTheFirstVerificationOfACredential() {
+        assertTrue(encoder.matches("secret", hash));
+        assertTrue(encoder.matches("secret", hash));
+        assertTrue(encoder.matches("secret", hash));
+
+        verify(bcrypt, times(1)).matches("secret", hash);
+        assertEquals(1, count("miss", "match"));
+        assertEquals(2, count("hit", "match"));
+    }
+
+    @Test
+    void matches_shouldShareOneBCryptRunBetweenConcurrentChecksOfTheSameCredential() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder slow = new BCryptPasswordEncoder(4) {
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.matches(rawPassword, encodedPassword);
+            }
+        };
+        PasswordEncoder delegate = spy(slow);
+        CachingPasswordEncoder coalescing = new CachingPasswordEncoder(delegate, Duration.ofMinutes(5), 100, meterRegistry);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Boolean>> results = new ArrayList<>();
+            results.add(executor.submit(() -> coalescing.matches("secret", hash)));
+            started.await();
+            for (int i = 0; i < 10; i++) {
+                results.add(executor.submit(() -> coalescing.matches("secret", hash)));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        }
+        verify(delegate, times(1)).matches("secret", hash);
+    }
+
+    @Test
+    void matches_shouldNeverCacheAWrongPassword() {
+        assertFalse(encoder.matches("guess", hash));
+        assertFalse(encoder.matches("guess", hash));
+
+        verify(bcrypt, times(2)).matches("guess", hash);
+        assertEquals(2, count("miss", "mismatch"));
+    }
+
+    @Test
+    void matches_shouldNotAcceptAnOldPasswordAfterItWasChanged() {
+        assertTrue(encoder.matches("secret", hash));
+        String newHash = encoder.encode("changed");
+
+        assertFalse(encoder.matches("secret", newHash));
+        assertTrue(encoder.matches("changed", newHash));
+    }
+
+    @Test
+    void matches_shouldTakeMicrosecondsOnceCached() {
+        PasswordEncoder production = new CachingPasswordEncoder(new BCryptPasswordEncoder(), Duration.ofMinutes(5), 100, meterRegistry);
+        String productionHash = production.encode("secret");
+        production.matches("secret", productionHash);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 10_000; i++) {
+            production.matches("secret", productionHash);
+        }
+        long averageMicros = (System.nanoTime() - start) / 10_000 / 1000;
+
+        // A default-strength BCrypt check alone takes tens of milliseconds
+        assertTrue(averageMicros < 100, "Cached check took " + averageMicros + "us on average");
+    }
+}
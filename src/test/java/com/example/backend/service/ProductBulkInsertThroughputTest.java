@@ -0,0 +1,88 @@
+package com.example.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import com.example.backend.EmbeddedDatabaseTest;
+import com.example.backend.dao.ProductRepository;
+import com.example.backend.entity.Product;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Compares the single-insert path (one transaction per product) with the bulk path on the embedded
+ * database. Wall-clock numbers are printed for reference only; the assertion is on JDBC statements,
+ * which is what batching actually saves and what dominates on a networked MySQL.
+ */
+@EmbeddedDatabaseTest
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ProductBulkInsertThroughputTest {
+
+    private static final int PRODUCTS = 2000;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAllInBatch();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void bulkCreate_shouldUseFarFewerStatementsThanSingleInserts() {
+        // Single-insert path
+        long singleStart = System.nanoTime();
+        for (int i = 0; i < PRODUCTS; i++) {
+            productService.createProduct("Single " + i, new BigDecimal("1.00"));
+        }
+        long singleNanos = System.nanoTime() - singleStart;
+        long singleStatements = statistics.getPrepareStatementCount();
+        long singleTransactions = statistics.getTransactionCount();
+
+        statistics.clear();
+
+        // Bulk path
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            products.add(new Product("Bulk " + i, new BigDecimal("1.00")));
+        }
+        long bulkStart = System.nanoTime();
+        List<Product> created = productService.createProducts(products);
+        long bulkNanos = System.nanoTime() - bulkStart;
+        long bulkStatements = statistics.getPrepareStatementCount();
+        long bulkTransactions = statistics.getTransactionCount();
+
+        System.out.printf("single: %d rows in %d ms (%.0f rows/s), %d statements, %d transactions%n",
+                PRODUCTS, singleNanos / 1_000_000, PRODUCTS / (singleNanos / 1e9), singleStatements, singleTransactions);
+        System.out.printf("bulk:   %d rows in %d ms (%.0f rows/s), %d statements, %d transactions%n",
+                PRODUCTS, bulkNanos / 1_000_000, PRODUCTS / (bulkNanos / 1e9), bulkStatements, bulkTransactions);
+
+        assertEquals(PRODUCTS, created.size());
+        assertTrue(created.stream().allMatch(product -> product.getId() != null), "Every product should have an ID");
+        assertEquals(2L * PRODUCTS, productRepository.count());
+        assertEquals(1, bulkTransactions);
+        assertTrue(bulkStatements * 10 < singleStatements,
+                "Bulk insert should batch statements: bulk=" + bulkStatements + ", single=" + singleStatements);
+    }
+}
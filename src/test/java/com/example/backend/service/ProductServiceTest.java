@@ -2,16 +2,25 @@ package com.example.backend.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -19,19 +28,54 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import com.example.backend.entity.Product;
+import com.example.backend.cache.ProductCache;
+import com.example.backend.cache.ProductCatalogSnapshot;
+import com.example.backend.dao.ProductChangeRepository;
 import com.example.backend.dao.ProductRepository;
+import com.example.backend.event.ProductChangedEvent;
+import com.example.backend.exception.VersionConflictException;
+import com.example.backend.search.ProductSearchIndex;
+import com.example.backend.stats.CatalogStats;
+import com.example.backend.stats.ProductCatalogStats;
+import com.example.backend.store.ObjectProductStore;
+import com.example.backend.write.ProductWriteBehind;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
 
 class ProductServiceTest {
 
     private ProductRepository productRepository;
+    private EntityManager entityManager;
+    private ApplicationEventPublisher eventPublisher;
+    private ProductChangeRepository productChangeRepository;
+    private ProductSearchIndex productSearchIndex;
+    private PlatformTransactionManager transactionManager;
+    private ProductCatalogSnapshot catalogSnapshot;
+    private ProductCatalogStats catalogStats;
+    private ProductWriteBehind writeBehind;
     private ProductService productService;
 
     @BeforeEach
     void setUp() {
         productRepository = mock(ProductRepository.class);
-        productService = new ProductService(productRepository);
+        entityManager = mock(EntityManager.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        productChangeRepository = mock(ProductChangeRepository.class);
+        productSearchIndex = mock(ProductSearchIndex.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        catalogSnapshot = mock(ProductCatalogSnapshot.class);
+        catalogStats = mock(ProductCatalogStats.class);
+        writeBehind = mock(ProductWriteBehind.class);
+        ProductCache disabledCache = new ProductCache(false, 0, Duration.ZERO, Duration.ZERO, new SimpleMeterRegistry());
+        productService = new ProductService(productRepository, entityManager, eventPublisher, disabledCache, productChangeRepository, productSearchIndex,
+                transactionManager, catalogSnapshot, catalogStats, writeBehind);
     }
 
     @Test
@@ -51,6 +95,7 @@ class ProductServiceTest {
         assertEquals(name, createdProduct.getName(), "The product name should match");
         assertEquals(price, createdProduct.getPrice(), "The product price should match");
         verify(productRepository).save(product);
+        verify(eventPublisher).publishEvent(ProductChangedEvent.created(createdProduct));
     }
 
     @Test
@@ -79,6 +124,78 @@ class ProductServiceTest {
         assertEquals("Product price cannot be negative", exception.getMessage());
     }
 
+    @Test
+    void createProducts_shouldPersistInFlushedChunks() {
+        // Arrange
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < ProductService.BULK_BATCH_SIZE * 2 + 1; i++) {
+            products.add(new Product("Product" + i, new BigDecimal("10.00")));
+        }
+
+        // Act
+        List<Product> created = productService.createProducts(products);
+
+        // Assert
+        assertEquals(products, created);
+        verify(entityManager, times(products.size())).persist(any(Product.class));
+        // Two full chunks plus the final partial one
+        verify(entityManager, times(3)).flush();
+        verify(entityManager, times(3)).clear();
+    }
+
+    @Test
+    void createProducts_shouldRejectWholeBatchIfAnyItemIsInvalid() {
+        // Arrange
+        List<Product> products = List.of(
+                new Product("Product1", new BigDecimal("10.00")),
+                new Product("Product2", new BigDecimal("-1.00")));
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
+            productService.createProducts(products);
+        });
+        assertEquals("Product price cannot be negative (item 1)", exception.getMessage());
+        verify(entityManager, never()).persist(any());
+    }
+
+    @Test
+    void createProducts_shouldThrowForEmptyList() {
+        assertThrows(IllegalArgumentException.class, () -> productService.createProducts(List.of()));
+    }
+
+    @Test
+    void upsertProducts_shouldInsertNewProductsFirstAndUpdateTheRest() {
+        // Arrange
+        Product update = new Product(7L, "Renamed", new BigDecimal("7.00"), 4L);
+        Product create = new Product("New", new BigDecimal("1.00"));
+        when(productRepository.updateIfVersion(7L, "Renamed", new BigDecimal("7.00"), null)).thenReturn(1);
+
+        // Act
+        List<Product> written = productService.upsertProducts(List.of(update, create));
+
+        // Assert
+        assertEquals(7L, written.get(0).getId());
+        assertNull(written.get(0).getVersion());
+        assertEquals(create, written.get(1));
+        verify(entityManager).persist(create);
+        verify(entityManager, never()).persist(update);
+        verify(eventPublisher).publishEvent(ProductChangedEvent.created(create));
+        verify(eventPublisher).publishEvent(ProductChangedEvent.updated(written.get(0)));
+    }
+
+    @Test
+    void upsertProducts_shouldFailTheBatchIfAProductIsMissing() {
+        // Arrange
+        when(productRepository.updateIfVersion(9L, "Gone", BigDecimal.ONE, null)).thenReturn(0);
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
+            productService.upsertProducts(List.of(new Product("New", BigDecimal.ONE), new Product(9L, "Gone", BigDecimal.ONE, 0L)));
+        });
+        assertEquals("Product not found (item 1)", exception.getMessage());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
     @Test
     void getAllProducts_shouldReturnListOfProducts() {
         // Arrange
@@ -96,6 +213,93 @@ class ProductServiceTest {
         verify(productRepository).findAll();
     }
 
+    @Test
+    void getProductsAfter_shouldReturnKeysetPage() {
+        // Arrange
+        Product product1 = new Product("Product1", new BigDecimal("100.00"));
+        Product product2 = new Product("Product2", new BigDecimal("200.00"));
+        List<Product> products = List.of(product1, product2);
+
+        when(productRepository.findByIdGreaterThanOrderByIdAsc(10L, Limit.of(2))).thenReturn(products);
+
+        // Act
+        List<Product> actualProducts = productService.getProductsAfter(10L, 2);
+
+        // Assert
+        assertEquals(products, actualProducts);
+        verify(productRepository).findByIdGreaterThanOrderByIdAsc(10L, Limit.of(2));
+    }
+
+    @Test
+    void getProductsAfter_shouldThrowForLimitOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> productService.getProductsAfter(0L, 0));
+        assertThrows(IllegalArgumentException.class, () -> productService.getProductsAfter(0L, ProductService.MAX_PAGE_SIZE + 1));
+        verify(productRepository, never()).findByIdGreaterThanOrderByIdAsc(any(), any());
+    }
+
+    @Test
+    void getCatalogStats_shouldServeTheMaintainedStatistics() {
+        CatalogStats stats = CatalogStats.of(2, new BigDecimal("300.00"), new BigDecimal("100.00"),
+                new BigDecimal("200.00"), Map.of("p50", new BigDecimal("100.00")));
+        when(catalogStats.current()).thenReturn(stats);
+
+        assertSame(stats, productService.getCatalogStats());
+        verify(productRepository, never()).summarizePrices();
+    }
+
+    @Test
+    void getCatalogStats_shouldFallBackToTheDatabaseWhileLoading() {
+        ProductRepository.PriceSummary summary = mock(ProductRepository.PriceSummary.class);
+        when(summary.getProductCount()).thenReturn(2L);
+        when(summary.getPriceSum()).thenReturn(new BigDecimal("300.00"));
+        when(summary.getMinPrice()).thenReturn(new BigDecimal("100.00"));
+        when(summary.getMaxPrice()).thenReturn(new BigDecimal("200.00"));
+        when(productRepository.summarizePrices()).thenReturn(summary);
+
+        CatalogStats stats = productService.getCatalogStats();
+
+        assertEquals(2, stats.count());
+        assertEquals(new BigDecimal("150.00"), stats.average());
+        assertEquals(new BigDecimal("200.00"), stats.max());
+        assertTrue(stats.percentiles().isEmpty());
+    }
+
+    @Test
+    void exportProducts_shouldStreamAndDetachEveryProduct() {
+        // Arrange
+        Product product1 = new Product("Product1", new BigDecimal("100.00"));
+        Product product2 = new Product("Product2", new BigDecimal("200.00"));
+        boolean[] closed = {false};
+        when(productRepository.streamAllOrderedById())
+                .thenReturn(Stream.of(product1, product2).onClose(() -> closed[0] = true));
+        List<Product> exported = new ArrayList<>();
+
+        // Act
+        long count = productService.exportProducts(exported::add);
+
+        // Assert
+        assertEquals(2, count);
+        assertEquals(List.of(product1, product2), exported);
+        verify(entityManager).detach(product1);
+        verify(entityManager).detach(product2);
+        assertEquals(true, closed[0], "The database stream should be closed");
+    }
+
+    @Test
+    void exportProducts_shouldCloseStreamWhenConsumerFails() {
+        // Arrange
+        Product product = new Product("Product1", new BigDecimal("100.00"));
+        boolean[] closed = {false};
+        when(productRepository.streamAllOrderedById())
+                .thenReturn(Stream.of(product).onClose(() -> closed[0] = true));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> productService.exportProducts(p -> {
+            throw new IllegalStateException("client gone");
+        }));
+        assertEquals(true, closed[0], "The database stream should be closed");
+    }
+
     @Test
     void getProductById_shouldReturnProduct() {
         // Arrange
@@ -112,42 +316,98 @@ class ProductServiceTest {
         verify(productRepository).findById(id);
     }
 
+    @Test
+    void getProductById_shouldServeRepeatedReadsFromCache() {
+        // Arrange
+        ProductCache cache = new ProductCache(true, 100, Duration.ofMinutes(1), Duration.ZERO, new SimpleMeterRegistry());
+        productService = new ProductService(productRepository, entityManager, eventPublisher, cache, productChangeRepository, productSearchIndex,
+                transactionManager, catalogSnapshot, catalogStats, writeBehind);
+        Product product = new Product("Product1", new BigDecimal("100.00"));
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+
+        // Act
+        productService.getProductById(1L);
+        Optional<Product> actualProduct = productService.getProductById(1L);
+
+        // Assert
+        assertEquals(Optional.of(product), actualProduct);
+        verify(productRepository, times(1)).findById(1L);
+    }
+
     @Test
     void updateProduct_shouldUpdateAndReturnProduct() {
-        Product existing = new Product("Old", BigDecimal.ONE);
-        when(productRepository.findById(1L)).thenReturn(Optional.of(existing));
-        when(productRepository.save(any(Product.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(productRepository.updateIfVersion(1L, "Updated", new BigDecimal("150.00"), null)).thenReturn(1);
 
         Product updatedProduct = new Product("Updated", new BigDecimal("150.00"));
         Product updated = productService.updateProduct(1, updatedProduct);
+        assertEquals(1L, updated.getId());
         assertEquals("Updated", updated.getName());
         assertEquals(new BigDecimal("150.00"), updated.getPrice());
+        verify(eventPublisher).publishEvent(ProductChangedEvent.updated(updated));
+        // One statement: the product is never loaded
+        verify(productRepository, never()).findById(any());
+        verify(productRepository, never()).save(any());
     }
 
     @Test
-    void updateProduct_shouldThrowExceptionForNegativePrice() {
-        Product existing = new Product("Old", BigDecimal.ONE);
-        when(productRepository.findById(1L)).thenReturn(Optional.of(existing));
+    void createProduct_shouldJoinAGroupCommitWhenWriteBehindIsEnabled() {
+        Product committed = new Product(7L, "Queued", new BigDecimal("5.00"), 0L);
+        when(writeBehind.isEnabled()).thenReturn(true);
+        when(writeBehind.create("Queued", new BigDecimal("5.00"))).thenReturn(committed);
 
+        assertSame(committed, productService.createProduct("Queued", new BigDecimal("5.00")));
+        verifyNoInteractions(productRepository, transactionManager, eventPublisher);
+    }
+
+    @Test
+    void updateProduct_shouldOnlyJoinAGroupCommitWithoutAnExpectedVersion() {
+        Product queued = new Product(1L, "Updated", new BigDecimal("150.00"));
+        when(writeBehind.isEnabled()).thenReturn(true);
+        when(writeBehind.update(1L, "Updated", new BigDecimal("150.00"))).thenReturn(queued);
+        when(productRepository.updateIfVersion(1L, "Updated", new BigDecimal("150.00"), 4L)).thenReturn(1);
+
+        assertSame(queued, productService.updateProduct(1, new Product("Updated", new BigDecimal("150.00"))));
+        assertEquals(5L, productService.updateProduct(1, new Product("Updated", new BigDecimal("150.00")), 4L).getVersion());
+        verify(writeBehind, times(1)).update(any(), any(), any());
+    }
+
+    @Test
+    void updateProduct_withExpectedVersionShouldReturnTheNextVersion() {
+        when(productRepository.updateIfVersion(1L, "Updated", new BigDecimal("150.00"), 4L)).thenReturn(1);
+
+        Product updated = productService.updateProduct(1, new Product("Updated", new BigDecimal("150.00")), 4L);
+
+        assertEquals(5L, updated.getVersion());
+    }
+
+    @Test
+    void updateProduct_shouldThrowConflictWhenVersionIsStale() {
+        when(productRepository.updateIfVersion(1L, "Updated", new BigDecimal("150.00"), 4L)).thenReturn(0);
+        when(productRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(VersionConflictException.class,
+                () -> productService.updateProduct(1, new Product("Updated", new BigDecimal("150.00")), 4L));
+        verify(eventPublisher, never()).publishEvent(any(ProductChangedEvent.class));
+    }
+
+    @Test
+    void updateProduct_shouldThrowExceptionForNegativePrice() {
         Exception e = assertThrows(IllegalArgumentException.class, () -> {
             Product updatedProduct = new Product("Updated", new BigDecimal("-100.00"));
             productService.updateProduct(1, updatedProduct);
         });
         assertEquals("Product price cannot be negative", e.getMessage());
-        verify(productRepository, never()).save(any());
+        verify(productRepository, never()).updateIfVersion(any(), any(), any(), any());
     }
 
     @Test
     void updateProduct_shouldThrowExceptionForEmptyName() {
-        Product existing = new Product("Old", BigDecimal.ONE);
-        when(productRepository.findById(1L)).thenReturn(Optional.of(existing));
-
         Exception e = assertThrows(IllegalArgumentException.class, () -> {
             Product updatedProduct = new Product("", new BigDecimal("100.00"));
             productService.updateProduct(1, updatedProduct);
         });
         assertEquals("Product name cannot be empty", e.getMessage());
-        verify(productRepository, never()).save(any());
+        verify(productRepository, never()).updateIfVersion(any(), any(), any(), any());
 
     }
 
@@ -158,7 +418,7 @@ class ProductServiceTest {
         String name = "UpdatedProduct";
         BigDecimal price = new BigDecimal("150.00");
 
-        when(productRepository.findById(id)).thenReturn(Optional.empty());
+        when(productRepository.updateIfVersion(id, name, price, null)).thenReturn(0);
 
         // Act & Assert
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
@@ -168,18 +428,35 @@ class ProductServiceTest {
         assertEquals("Product not found", exception.getMessage());
     }
 
+    @Test
+    void patchProduct_shouldOnlyChangeGivenFields() {
+        when(productRepository.updateIfVersion(1L, null, new BigDecimal("9.99"), 2L)).thenReturn(1);
+
+        Long version = productService.patchProduct(1L, null, new BigDecimal("9.99"), 2L);
+
+        assertEquals(3L, version);
+        verify(eventPublisher).publishEvent(ProductChangedEvent.updatedPartially(1L));
+    }
+
+    @Test
+    void patchProduct_shouldRejectEmptyPatch() {
+        Exception e = assertThrows(IllegalArgumentException.class, () -> productService.patchProduct(1L, null, null, null));
+        assertEquals("Patch must change the name or the price", e.getMessage());
+    }
+
     @Test
     void deleteProduct_shouldDeleteIfExists() {
         // Arrange
         Long id = 1L;
 
-        when(productRepository.existsById(id)).thenReturn(true);
+        when(productRepository.deleteIfVersion(id, null)).thenReturn(1);
 
         // Act
         productService.deleteProduct(id);
 
         // Assert
-        verify(productRepository).deleteById(id);
+        verify(productRepository, never()).existsById(id);
+        verify(eventPublisher).publishEvent(ProductChangedEvent.deleted(id));
     }
 
     @Test
@@ -187,15 +464,120 @@ class ProductServiceTest {
         // Arrange
         Long id = 1L;
 
-        when(productRepository.existsById(id)).thenReturn(false);
+        when(productRepository.deleteIfVersion(id, null)).thenReturn(0);
 
         // Act & Assert
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
             productService.deleteProduct(id);
         });
         assertEquals("Product not found", exception.getMessage());
+        verify(eventPublisher, never()).publishEvent(any(ProductChangedEvent.class));
     }
 
+    @Test
+    void deleteProduct_withStaleVersionShouldThrowConflict() {
+        when(productRepository.deleteIfVersion(1L, 3L)).thenReturn(0);
+        when(productRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(VersionConflictException.class, () -> productService.deleteProduct(1L, 3L));
+    }
+
+    @Test
+    void deleteProduct_withVersionOfMissingProductShouldThrowNotFound() {
+        when(productRepository.deleteIfVersion(1L, 3L)).thenReturn(0);
+        when(productRepository.existsById(1L)).thenReturn(false);
+
+        Exception e = assertThrows(IllegalArgumentException.class, () -> productService.deleteProduct(1L, 3L));
+        assertEquals("Product not found", e.getMessage());
+    }
+
+    @Test
+    void getCatalogVersion_shouldComeFromTheChangeLogWatermark() {
+        when(productChangeRepository.findWatermark()).thenReturn("12-57");
+
+        assertEquals("12-57", productService.getCatalogVersion());
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void reads_shouldComeFromTheCatalogSnapshotOnceItIsBuilt() {
+        Product product1 = new Product(1L, "Product1", new BigDecimal("100.00"));
+        Product product3 = new Product(3L, "Product3", new BigDecimal("300.00"));
+        Product product7 = new Product(7L, "Product7", new BigDecimal("700.00"));
+        when(catalogSnapshot.current()).thenReturn(new ProductCatalogSnapshot.Snapshot("12-57.1",
+                ObjectProductStore.of(List.of(product7, product1, product3))));
+
+        assertEquals(List.of(product1, product3, product7), productService.getAllProducts());
+        assertEquals(List.of(product3, product7), productService.getProductsAfter(2L, 5));
+        assertEquals(List.of(product3), productService.getProductsAfter(1L, 1));
+        assertEquals(List.of(), productService.getProductsAfter(7L, 5));
+        assertEquals(Optional.of(product3), productService.getProductById(3L));
+        assertEquals("12-57.1", productService.getCatalogVersion());
+        verifyNoInteractions(productRepository, productChangeRepository);
+
+        // Products created elsewhere since the last refresh are still found
+        when(productRepository.findById(9L)).thenReturn(Optional.empty());
+        assertEquals(Optional.empty(), productService.getProductById(9L));
+        verify(productRepository).findById(9L);
+    }
 
-	
+    @Test
+    void searchProducts_shouldUseTheIndexOnceItIsReady() {
+        Product product = new Product(1L, "Blue Book", new BigDecimal("5.00"));
+        when(productSearchIndex.isReady()).thenReturn(true);
+        when(productSearchIndex.search("book", 10)).thenReturn(List.of(product));
+
+        assertEquals(List.of(product), productService.searchProducts("book", 10));
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void searchProducts_shouldFallBackToPrefixThenSubstringQueries() {
+        Product prefix = new Product(1L, "Book", new BigDecimal("5.00"));
+        Product substring = new Product(2L, "Blue Book", new BigDecimal("6.00"));
+        when(productSearchIndex.isReady()).thenReturn(false);
+        when(productRepository.findByNameStartingWithOrderByNameAscIdAsc("Book", Limit.of(3))).thenReturn(List.of(prefix));
+        when(productRepository.findByNameContainingOrderByIdAsc("Book", Limit.of(4))).thenReturn(List.of(prefix, substring));
+
+        assertEquals(List.of(prefix, substring), productService.searchProducts(" Book ", 3));
+    }
+
+    @Test
+    void searchProducts_shouldRejectBlankQueriesAndOversizedLimits() {
+        assertThrows(IllegalArgumentException.class, () -> productService.searchProducts(" ", 10));
+        assertThrows(IllegalArgumentException.class, () -> productService.searchProducts("book", ProductService.MAX_SEARCH_LIMIT + 1));
+    }
+
+    @Test
+    void streamProductsByPrice_shouldWalkTheIndexUpToTheLimit() {
+        Product cheap = new Product(1L, "Pencil", new BigDecimal("1.00"));
+        Product mid = new Product(2L, "Notebook", new BigDecimal("2.00"));
+        when(productSearchIndex.isReady()).thenReturn(true);
+        when(productSearchIndex.byPrice(null, new BigDecimal("5.00"), false)).thenReturn(Stream.of(cheap, mid));
+        List<Product> received = new ArrayList<>();
+
+        assertEquals(1, productService.streamProductsByPrice(null, new BigDecimal("5.00"), false, 1, received::add));
+        assertEquals(List.of(cheap), received);
+        verifyNoInteractions(productRepository, transactionManager);
+    }
+
+    @Test
+    void streamProductsByPrice_shouldFallBackToTheDatabaseInPriceThenIdOrder() {
+        Product expensive = new Product(3L, "Lamp", new BigDecimal("30.00"));
+        when(productSearchIndex.isReady()).thenReturn(false);
+        when(productRepository.streamByPriceRange(new BigDecimal("10.00"), null, Sort.by(Sort.Direction.DESC, "price", "id"), Limit.of(5)))
+                .thenReturn(Stream.of(expensive));
+        List<Product> received = new ArrayList<>();
+
+        assertEquals(1, productService.streamProductsByPrice(new BigDecimal("10.00"), null, true, 5, received::add));
+        assertEquals(List.of(expensive), received);
+        verify(entityManager).detach(expensive);
+    }
+
+    @Test
+    void checkPriceQuery_shouldRejectInvertedOrNegativeRanges() {
+        assertThrows(IllegalArgumentException.class, () -> productService.checkPriceQuery(new BigDecimal("5"), new BigDecimal("1"), null));
+        assertThrows(IllegalArgumentException.class, () -> productService.checkPriceQuery(new BigDecimal("-1"), null, null));
+        assertThrows(IllegalArgumentException.class, () -> productService.checkPriceQuery(null, null, 0));
+    }
 }
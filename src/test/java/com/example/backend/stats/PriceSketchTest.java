@@ -0,0 +1,94 @@
+package com.example.backend.stats;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class PriceSketchTest {
+
+    private static final double ACCURACY = 0.01;
+
+    private static long exact(long[] sorted, double quantile) {
+        // Nearest rank
+        return sorted[Math.max((int) Math.ceil(quantile * sorted.length) - 1, 0)];
+    }
+
+    private static void assertWithinAccuracy(long expected, double estimate) {
+        assertTrue(Math.abs(estimate - expected) <= ACCURACY * expected + 1e-9,
+                () -> "Estimate " + estimate + " is not within " + ACCURACY + " of " + expected);
+    }
+
+    @Test
+    void quantile_shouldBeWithinTheRelativeAccuracyOfTheExactValue() {
+        Random random = new Random(42);
+        long[] prices = new long[100_000];
+        PriceSketch sketch = new PriceSketch(ACCURACY);
+        for (int i = 0; i < prices.length; i++) {
+            // Skewed like a catalog: mostly cheap, a long tail of expensive products
+            prices[i] = 1 + (long) Math.exp(random.nextDouble() * 16);
+            sketch.add(prices[i]);
+        }
+        Arrays.sort(prices);
+
+        for (double quantile : new double[] {0, 0.01, 0.5, 0.9, 0.95, 0.99, 1}) {
+            assertWithinAccuracy(exact(prices, quantile), sketch.quantile(quantile));
+        }
+        assertEquals(prices.length, sketch.count());
+    }
+
+    @Test
+    void remove_shouldUndoAdd() {
+        PriceSketch sketch = new PriceSketch(ACCURACY);
+        for (long price = 1; price <= 1000; price++) {
+            sketch.add(price);
+        }
+        for (long price = 501; price <= 1000; price++) {
+            sketch.remove(price);
+        }
+
+        assertEquals(500, sketch.count());
+        assertWithinAccuracy(500, sketch.quantile(1));
+        assertWithinAccuracy(250, sketch.quantile(0.5));
+    }
+
+    @Test
+    void merge_shouldMatchASketchOfAllValues() {
+        PriceSketch cheap = new PriceSketch(ACCURACY);
+        PriceSketch expensive = new PriceSketch(ACCURACY);
+        PriceSketch all = new PriceSketch(ACCURACY);
+        for (long price = 0; price < 1000; price++) {
+            cheap.add(price);
+            expensive.add(price * 10_000);
+            all.add(price);
+            all.add(price * 10_000);
+        }
+
+        cheap.merge(expensive);
+
+        assertEquals(all.count(), cheap.count());
+        for (double quantile : new double[] {0, 0.25, 0.5, 0.75, 0.99}) {
+            assertEquals(all.quantile(quantile), cheap.quantile(quantile));
+        }
+        assertThrows(IllegalArgumentException.class, () -> cheap.merge(new PriceSketch(0.02)));
+    }
+
+    @Test
+    void zeroAndEmpty_shouldBeHandled() {
+        PriceSketch sketch = new PriceSketch(ACCURACY);
+        assertTrue(Double.isNaN(sketch.quantile(0.5)));
+
+        sketch.add(0);
+        sketch.add(0);
+        sketch.add(300);
+
+        assertEquals(0, sketch.quantile(0.5));
+        assertWithinAccuracy(300, sketch.quantile(1));
+        assertThrows(IllegalArgumentException.class, () -> sketch.add(-1));
+        assertThrows(IllegalArgumentException.class, () -> new PriceSketch(0));
+    }
+}
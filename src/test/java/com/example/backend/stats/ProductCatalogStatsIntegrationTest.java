@@ -0,0 +1,79 @@
+package com.example.backend.stats;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.backend.EmbeddedDatabaseTest;
+import com.example.backend.dao.ProductRepository;
+import com.example.backend.entity.Product;
+import com.example.backend.service.ProductService;
+
+@EmbeddedDatabaseTest
+@AutoConfigureMockMvc
+class ProductCatalogStatsIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductCatalogStats productCatalogStats;
+
+    private Product lamp;
+
+    @BeforeEach
+    void setUp() {
+        // deleteAllInBatch bypasses the service, so the statistics are rebuilt rather than updated
+        productRepository.deleteAllInBatch();
+        productService.createProduct("Pencil", new BigDecimal("1.00"));
+        productService.createProduct("Notebook", new BigDecimal("4.50"));
+        lamp = productService.createProduct("Lamp", new BigDecimal("30.00"));
+        productCatalogStats.rebuild();
+    }
+
+    @Test
+    void getStats_shouldFollowWritesWithoutRebuilding() throws Exception {
+        mockMvc.perform(get("/api/products/stats").with(httpBasic("testuser", "embedded")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(3))
+                .andExpect(jsonPath("$.sum").value(35.50))
+                .andExpect(jsonPath("$.min").value(1.00))
+                .andExpect(jsonPath("$.max").value(30.00))
+                .andExpect(jsonPath("$.average").value(11.83))
+                .andExpect(jsonPath("$.percentiles.p50").value(4.50));
+
+        productService.deleteProduct(lamp.getId());
+
+        mockMvc.perform(get("/api/products/stats").with(httpBasic("testuser", "embedded")))
+                .andExpect(jsonPath("$.count").value(2))
+                .andExpect(jsonPath("$.max").value(4.50))
+                .andExpect(jsonPath("$.percentiles.p99").value(4.50));
+    }
+
+    @Test
+    void summarizePrices_shouldMatchTheMaintainedStatistics() {
+        ProductRepository.PriceSummary summary = productRepository.summarizePrices();
+        CatalogStats stats = productCatalogStats.current();
+
+        assertEquals(stats.count(), summary.getProductCount());
+        assertEquals(0, stats.sum().compareTo(summary.getPriceSum()));
+        assertEquals(0, stats.min().compareTo(summary.getMinPrice()));
+        assertEquals(0, stats.max().compareTo(summary.getMaxPrice()));
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.backend.stats;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.backend.dao.ProductRepository;
+import com.example.backend.entity.Product;
+import com.example.backend.event.ProductChangedEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+
+class ProductCatalogStatsTest {
+
+    private ProductRepository productRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private List<Product> catalog;
+    private ProductCatalogStats stats;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        catalog = new ArrayList<>(List.of(
+                new Product(1L, "Pencil", new BigDecimal("1.00"), 0L),
+                new Product(2L, "Notebook", new BigDecimal("3.00"), 0L),
+                new Product(3L, "Lamp", new BigDecimal("20.00"), 0L)));
+        when(productRepository.streamAllOrderedById()).thenAnswer(invocation -> List.copyOf(catalog).stream());
+        stats = new ProductCatalogStats(productRepository, mock(EntityManager.class), mock(PlatformTransactionManager.class),
+                meterRegistry, true, 0.01);
+    }
+
+    private static BigDecimal price(String value) {
+        return new BigDecimal(value);
+    }
+
+    @Test
+    void rebuild_shouldComputeEveryStatistic() {
+        assertNull(stats.current());
+
+        stats.rebuild();
+
+        CatalogStats current = stats.current();
+        assertEquals(3, current.count());
+        assertEquals(price("24.00"), current.sum());
+        assertEquals(price("1.00"), current.min());
+        assertEquals(price("20.00"), current.max());
+        assertEquals(price("8.00"), current.average());
+        assertEquals(List.of("p50", "p90", "p95", "p99"), List.copyOf(current.percentiles().keySet()));
+        assertEquals(3.00, current.percentiles().get("p50").doubleValue(), 0.03);
+        assertSame(current, stats.current());
+    }
+
+    @Test
+    void changes_shouldBeAppliedIncrementallyAndKeepMinAndMaxExactAfterDeletes() {
+        stats.rebuild();
+
+        stats.onProductChanged(ProductChangedEvent.created(new Product(4L, "Desk", price("150.00"), 0L)));
+        stats.onProductChanged(ProductChangedEvent.updated(new Product(2L, "Notebook", price("4.00"), 1L)));
+        stats.onProductChanged(ProductChangedEvent.deleted(1L));
+
+        CatalogStats current = stats.current();
+        assertEquals(3, current.count());
+        assertEquals(price("174.00"), current.sum());
+        assertEquals(price("4.00"), current.min());
+        assertEquals(price("150.00"), current.max());
+
+        stats.onProductChanged(ProductChangedEvent.deleted(4L));
+        assertEquals(price("20.00"), stats.current().max());
+    }
+
+    @Test
+    void partialUpdate_shouldReloadThePrice() {
+        stats.rebuild();
+        when(productRepository.findById(3L)).thenReturn(Optional.of(new Product(3L, "Lamp", price("25.00"), 1L)));
+
+        stats.onProductChanged(ProductChangedEvent.updatedPartially(3L));
+
+        assertEquals(price("25.00"), stats.current().max());
+    }
+
+    @Test
+    void rebuild_shouldRepairAndCountDrift() {
+        stats.rebuild();
+        // A change the statistics never heard of, e.g. a lost remote event
+        catalog.set(2, new Product(3L, "Lamp", price("30.00"), 1L));
+
+        stats.rebuild();
+
+        assertEquals(price("30.00"), stats.current().max());
+        assertEquals(1.0, meterRegistry.get("products.stats.drift").counter().count());
+        assertEquals(2, meterRegistry.get("products.stats.rebuild").timer().count());
+    }
+
+    @Test
+    void changeDuringRebuild_shouldWinOverTheRowTheRebuildReads() {
+        when(productRepository.streamAllOrderedById()).thenAnswer(invocation -> Stream.of(catalog.get(0), catalog.get(1))
+                .peek(product -> {
+                    if (product.getId() == 1L) {
+                        // Commits after the rebuild read product 1 but before it reads product 2
+                        stats.onProductChanged(ProductChangedEvent.updated(new Product(2L, "Notebook", price("5.00"), 1L)));
+                    }
+                }));
+
+        stats.rebuild();
+
+        assertEquals(price("5.00"), stats.current().max());
+        assertEquals(2, stats.current().count());
+    }
+
+    @Test
+    void disabled_shouldNeverLoad() {
+        ProductCatalogStats disabled = new ProductCatalogStats(productRepository, mock(EntityManager.class),
+                mock(PlatformTransactionManager.class), new SimpleMeterRegistry(), false, 0.01);
+
+        disabled.reconcile();
+        disabled.onProductChanged(ProductChangedEvent.deleted(1L));
+
+        assertNull(disabled.current());
+        assertTrue(!disabled.isReady());
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.backend.store;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.example.backend.entity.Product;
+
+class ProductReadStoreTest {
+
+    static List<Function<Collection<Product>, ProductReadStore>> stores() {
+        return List.of(ObjectProductStore::of, ColumnarProductStore::of);
+    }
+
+    private static List<Long> ids(List<Product> products) {
+        return products.stream().map(Product::getId).toList();
+    }
+
+    private static List<Product> catalog() {
+        return List.of(
+                new Product(5L, "Lamp", new BigDecimal("12.50"), 2L),
+                new Product(1L, "Notebook", new BigDecimal("3.00"), 0L),
+                new Product(3L, "Lamp", new BigDecimal("0.99"), 1L));
+    }
+
+    @ParameterizedTest
+    @MethodSource("stores")
+    void reads_shouldBeInIdOrderAndKeepEveryField(Function<Collection<Product>, ProductReadStore> factory) {
+        ProductReadStore store = factory.apply(catalog());
+
+        assertEquals(3, store.size());
+        assertEquals(List.of(1L, 3L, 5L), ids(store.findAll()));
+        assertEquals(List.of(3L, 5L), ids(store.findAfter(1L, 10)));
+        assertEquals(List.of(3L), ids(store.findAfter(2L, 1)));
+        assertTrue(store.findAfter(5L, 10).isEmpty());
+        Product lamp = store.findById(5L).orElseThrow();
+        assertEquals("Lamp", lamp.getName());
+        assertEquals(new BigDecimal("12.50"), lamp.getPrice());
+        assertEquals(2L, lamp.getVersion());
+        assertTrue(store.findById(4L).isEmpty());
+        assertThrows(UnsupportedOperationException.class, () -> store.findAll().clear());
+    }
+
+    @ParameterizedTest
+    @MethodSource("stores")
+    void withChanges_shouldMergeIntoANewStore(Function<Collection<Product>, ProductReadStore> factory) {
+        ProductReadStore store = factory.apply(catalog());
+
+        ProductReadStore changed = store.withChanges(List.of(
+                new Product(2L, "Pencil", new BigDecimal("1.25"), 0L),
+                new Product(5L, "Desk Lamp", new BigDecimal("14.00"), 3L),
+                new Product(9L, "Stapler", new BigDecimal("7.00"), 0L)), Set.of(1L, 9L));
+
+        assertEquals(List.of(2L, 3L, 5L), ids(changed.findAll()));
+        assertEquals("Desk Lamp", changed.findById(5L).orElseThrow().getName());
+        assertEquals("Lamp", changed.findById(3L).orElseThrow().getName());
+        assertEquals(List.of(1L, 3L, 5L), ids(store.findAll()));
+        assertEquals("Lamp", store.findById(5L).orElseThrow().getName());
+    }
+
+    @ParameterizedTest
+    @MethodSource("stores")
+    void scanPrices_shouldVisitMinorUnitsRoundedLikeThePriceColumn(Function<Collection<Product>, ProductReadStore> factory) {
+        ProductReadStore store = factory.apply(List.of(
+                new Product(1L, "Half cent", new BigDecimal("1.005"), null),
+                new Product(2L, "Whole", new BigDecimal("20"), null)));
+        List<Long> prices = new ArrayList<>();
+
+        store.scanPrices((id, unscaledPrice) -> prices.add(unscaledPrice));
+
+        assertEquals(List.of(101L, 2000L), prices);
+        assertNull(store.findById(2L).orElseThrow().getVersion());
+    }
+
+    @ParameterizedTest
+    @MethodSource("stores")
+    void namesOutsideAscii_shouldSurviveTheRoundTrip(Function<Collection<Product>, ProductReadStore> factory) {
+        ProductReadStore store = factory.apply(List.of(new Product(1L, "Crème brûlée ☕", BigDecimal.ONE, 0L)));
+
+        assertEquals("Crème brûlée ☕", store.findAll().get(0).getName());
+    }
+
+    @ParameterizedTest
+    @MethodSource("stores")
+    void emptyStore_shouldAcceptChanges(Function<Collection<Product>, ProductReadStore> factory) {
+        ProductReadStore store = factory.apply(List.of()).withChanges(List.of(new Product(1L, "First", BigDecimal.TEN, 0L)), List.of());
+
+        assertEquals(List.of(1L), ids(store.findAll()));
+    }
+
+    @Test
+    void columnarStore_shouldRejectPricesThatDoNotFitMinorUnits() {
+        List<Product> huge = List.of(new Product(1L, "Huge", new BigDecimal("1e30"), 0L));
+
+        assertThrows(IllegalArgumentException.class, () -> ColumnarProductStore.of(huge));
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.backend.write;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class GroupCommitQueueTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private List<List<Integer>> committed;
+    private GroupCommitQueue<Integer, String> queue;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        committed = new CopyOnWriteArrayList<>();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (queue != null) {
+            queue.close();
+        }
+    }
+
+    private GroupCommitQueue<Integer, String> queue(int capacity, int maxGroupSize, Duration window,
+            Consumer<List<GroupCommitQueue.Write<Integer, String>>> committer) {
+        return new GroupCommitQueue<>("test", capacity, maxGroupSize, window, Duration.ofMillis(50), group -> {
+            committer.accept(group);
+            committed.add(group.stream().map(GroupCommitQueue.Write::item).toList());
+        }, meterRegistry);
+    }
+
+    private static void echo(List<GroupCommitQueue.Write<Integer, String>> group) {
+        group.forEach(write -> write.succeeded("#" + write.item()));
+    }
+
+    @Test
+    void submit_shouldCommitWritesArrivingWithinTheWindowTogether() {
+        queue = queue(100, 10, Duration.ofMillis(200), GroupCommitQueueTest::echo);
+
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            results.add(queue.submit(i));
+        }
+
+        assertEquals(List.of("#0", "#1", "#2"), results.stream().map(CompletableFuture::join).toList());
+        assertEquals(List.of(List.of(0, 1, 2)), committed);
+        assertEquals(3.0, meterRegistry.get("groupcommit.group.size").summary().totalAmount());
+        assertEquals(1L, meterRegistry.get("groupcommit.commit").timer().count());
+    }
+
+    @Test
+    void submit_shouldCloseAGroupWhenItIsFull() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        // Holds the writer in the first group until the rest is queued
+        queue = queue(100, 2, Duration.ofSeconds(10), group -> {
+            await(release);
+            echo(group);
+        });
+
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            results.add(queue.submit(i));
+        }
+        release.countDown();
+        results.forEach(CompletableFuture::join);
+
+        assertEquals(List.of(List.of(0, 1), List.of(2, 3), List.of(4, 5)), committed);
+    }
+
+    @Test
+    void submit_shouldCompleteOnlyAfterTheCommitterReturned() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        queue = queue(100, 10, Duration.ZERO, group -> {
+            await(release);
+            echo(group);
+        });
+
+        CompletableFuture<String> result = queue.submit(1);
+        Thread.sleep(50);
+        assertFalse(result.isDone());
+        release.countDown();
+        assertEquals("#1", result.join());
+    }
+
+    @Test
+    void submit_shouldFailOnlyTheWritesTheCommitterFailed() {
+        queue = queue(100, 10, Duration.ofMillis(200), group -> group.forEach(write -> {
+            if (write.item() < 0) {
+                write.failed(new IllegalArgumentException("negative"));
+            } else {
+                write.succeeded("#" + write.item());
+            }
+        }));
+
+        CompletableFuture<String> good = queue.submit(1);
+        CompletableFuture<String> bad = queue.submit(-1);
+
+        assertEquals("#1", good.join());
+        CompletionException e = assertThrows(CompletionException.class, bad::join);
+        assertTrue(e.getCause() instanceof IllegalArgumentException);
+    }
+
+    @Test
+    void submit_shouldRetryWritesAloneWhenTheGroupFails() {
+        // A write that breaks the whole transaction, e.g. a constraint violation
+        queue = queue(100, 10, Duration.ofMillis(200), group -> {
+            if (group.stream().anyMatch(write -> write.item() < 0)) {
+                throw new IllegalStateException("rolled back");
+            }
+            echo(group);
+        });
+
+        CompletableFuture<String> first = queue.submit(1);
+        CompletableFuture<String> bad = queue.submit(-1);
+        CompletableFuture<String> last = queue.submit(2);
+
+        assertEquals("#1", first.join());
+        assertEquals("#2", last.join());
+        CompletionException e = assertThrows(CompletionException.class, bad::join);
+        assertEquals("rolled back", e.getCause().getMessage());
+        assertEquals(List.of(List.of(1), List.of(2)), committed);
+    }
+
+    @Test
+    void submit_shouldFailTheGroupButKeepTheWriterWhenTheCommitterThrowsAnError() {
+        queue = queue(100, 10, Duration.ofMillis(200), group -> {
+            if (group.stream().anyMatch(write -> write.item() < 0)) {
+                throw new AssertionError("broken");
+            }
+            echo(group);
+        });
+
+        CompletableFuture<String> first = queue.submit(1);
+        CompletableFuture<String> bad = queue.submit(-1);
+        CompletionException e = assertThrows(CompletionException.class, first::join);
+        assertTrue(e.getCause() instanceof AssertionError);
+        assertThrows(CompletionException.class, bad::join);
+
+        assertEquals("#2", queue.submit(2).join());
+    }
+
+    @Test
+    void submit_shouldRejectWritesWhileTheQueueStaysFull() {
+        CountDownLatch release = new CountDownLatch(1);
+        queue = queue(2, 1, Duration.ZERO, group -> {
+            await(release);
+            echo(group);
+        });
+
+        // One in the writer, two queued
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        results.add(queue.submit(0));
+        waitUntilQueued(0);
+        results.add(queue.submit(1));
+        results.add(queue.submit(2));
+
+        assertThrows(RejectedExecutionException.class, () -> queue.submit(3));
+        assertEquals(1.0, meterRegistry.get("groupcommit.rejected").counter().count());
+        assertEquals(2.0, meterRegistry.get("groupcommit.queue.depth").gauge().value());
+
+        release.countDown();
+        results.forEach(CompletableFuture::join);
+    }
+
+    @Test
+    void close_shouldCommitWhatIsQueuedAndRejectNewWrites() throws InterruptedException {
+        queue = queue(100, 10, Duration.ofMillis(200), GroupCommitQueueTest::echo);
+        CompletableFuture<String> queued = queue.submit(1);
+
+        queue.close();
+
+        assertEquals("#1", queued.getNow(null));
+        assertThrows(RejectedExecutionException.class, () -> queue.submit(2));
+    }
+
+    private void waitUntilQueued(double depth) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("groupcommit.queue.depth").gauge().value() != depth) {
+            assertTrue(System.nanoTime() < deadline, "Writer did not take the first write");
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
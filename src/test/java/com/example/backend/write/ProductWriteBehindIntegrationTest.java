@@ -0,0 +1,179 @@
+package com.example.backend.write;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.backend.EmbeddedDatabaseTest;
+import com.example.backend.dao.ProductChangeRepository;
+import com.example.backend.dao.ProductRepository;
+import com.example.backend.entity.Product;
+import com.example.backend.service.ProductService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Single creates and updates from many threads at once, as concurrent requests would send them. The
+ * window is long enough that they reliably meet in a group on a slow build machine.
+ */
+@EmbeddedDatabaseTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "app.products.write-behind.enabled=true",
+        "app.products.write-behind.max-wait=50ms",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class ProductWriteBehindIntegrationTest {
+
+    private static final int WRITERS = 32;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductChangeRepository productChangeRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAllInBatch();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    private static <T> List<T> concurrently(int count, IndexedCall<T> call) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(count);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                int index = i;
+                futures.add(executor.submit((Callable<T>) () -> call.call(index)));
+            }
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private interface IndexedCall<T> {
+        T call(int index) throws Exception;
+    }
+
+    @Test
+    void concurrentCreates_shouldShareCommits() throws Exception {
+        long changesBefore = productChangeRepository.count();
+        statistics.clear();
+
+        List<Product> created = concurrently(WRITERS,
+                i -> productService.createProduct("Queued " + i, new BigDecimal("1.00")));
+        long transactions = statistics.getTransactionCount();
+
+        assertEquals(WRITERS, created.stream().map(Product::getId).distinct().count());
+        // Committed, change log included, by the time the callers returned
+        assertEquals(WRITERS, productRepository.count());
+        assertEquals(WRITERS, productChangeRepository.count() - changesBefore);
+        System.out.printf("%d creates in %d transactions%n", WRITERS, transactions);
+        assertTrue(transactions < WRITERS, "Expected grouped commits, got " + transactions + " transactions");
+        assertTrue(meterRegistry.get("groupcommit.group.size").tag("queue", "products").summary().max() > 1);
+    }
+
+    @Test
+    void concurrentUpdatesOfOneProduct_shouldLeaveOneOfTheirValues() throws Exception {
+        Product product = productRepository.save(new Product("Original", new BigDecimal("1.00")));
+
+        List<Product> updated = concurrently(WRITERS, i -> productService.updateProduct(product.getId().intValue(),
+                new Product("Update " + i, new BigDecimal(i + ".00"))));
+
+        for (int i = 0; i < WRITERS; i++) {
+            assertEquals("Update " + i, updated.get(i).getName());
+        }
+        Product current = productRepository.findById(product.getId()).orElseThrow();
+        assertTrue(current.getName().startsWith("Update "));
+        assertEquals(new BigDecimal(current.getName().substring("Update ".length()) + ".00"), current.getPrice());
+        // Coalesced updates bump the version once per group
+        assertTrue(current.getVersion() < WRITERS, "Expected coalesced updates, got version " + current.getVersion());
+    }
+
+    @Test
+    void updateOfAMissingProduct_shouldFailWithoutFailingTheRestOfItsGroup() throws Exception {
+        Product product = productRepository.save(new Product("Original", new BigDecimal("1.00")));
+
+        List<Object> results = concurrently(2, i -> {
+            try {
+                return productService.updateProduct(i == 0 ? product.getId().intValue() : -1,
+                        new Product("Renamed", new BigDecimal("2.00")));
+            } catch (IllegalArgumentException e) {
+                return e.getMessage();
+            }
+        });
+
+        assertEquals("Renamed", ((Product) results.get(0)).getName());
+        assertEquals("Product not found", results.get(1));
+        assertEquals("Renamed", productRepository.findById(product.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void invalidWrites_shouldBeRejectedBeforeTheyAreQueued() {
+        long queued = meterRegistry.get("groupcommit.latency").tag("queue", "products").timer().count();
+
+        assertThrows(IllegalArgumentException.class, () -> productService.createProduct("", BigDecimal.ONE));
+        assertThrows(IllegalArgumentException.class,
+                () -> productService.updateProduct(1, new Product("Renamed", new BigDecimal("-1.00"))));
+
+        assertEquals(queued, meterRegistry.get("groupcommit.latency").tag("queue", "products").timer().count());
+    }
+
+    @Test
+    void putWithoutIfMatch_shouldReturnOnceCommitted() throws Exception {
+        Product product = productRepository.save(new Product("Original", new BigDecimal("1.00")));
+
+        mockMvc.perform(put("/api/products/" + product.getId()).with(httpBasic("testuser", "embedded"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Over HTTP\",\"price\":3.50}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Over HTTP"));
+
+        assertEquals("Over HTTP", productRepository.findById(product.getId()).orElseThrow().getName());
+    }
+}
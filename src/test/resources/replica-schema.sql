@@ -0,0 +1,14 @@
+-- Tables of the read replica in ReadReplicaRoutingIntegrationTest; the primary gets its schema from Hibernate
+CREATE TABLE IF NOT EXISTS product (
+    id BIGINT PRIMARY KEY,
+    name VARCHAR(255),
+    price DECIMAL(38, 2),
+    version BIGINT
+);
+CREATE TABLE IF NOT EXISTS product_change (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    product_id BIGINT NOT NULL,
+    change_type VARCHAR(16) NOT NULL,
+    origin VARCHAR(64) NOT NULL,
+    changed_at BIGINT NOT NULL
+);